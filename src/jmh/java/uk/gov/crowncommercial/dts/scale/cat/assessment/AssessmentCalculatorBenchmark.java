@@ -0,0 +1,59 @@
+package uk.gov.crowncommercial.dts.scale.cat.assessment;
+
+import org.openjdk.jmh.annotations.*;
+import uk.gov.crowncommercial.dts.scale.cat.assessment.impl.BasicAssessmentToolCalculator;
+import uk.gov.crowncommercial.dts.scale.cat.assessment.impl.ColumnarAssessmentToolCalculator;
+import uk.gov.crowncommercial.dts.scale.cat.assessment.impl.StandardWeightedAssessmentCalculator;
+import uk.gov.crowncommercial.dts.scale.cat.model.capability.generated.SupplierScores;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scores a whole assessment, exclusions included, with each tool calculator. Sample time reports
+ * the latency percentiles; run with {@code -prof gc} (the benchmarks profile does) for the
+ * allocation rate.
+ *
+ * The basic calculator works out the pricing submission types from the whole calculation base for
+ * every supplier, so its 20k supplier runs take minutes per operation - narrow with
+ * {@code -p suppliers=1000,5000} when comparing quickly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class AssessmentCalculatorBenchmark {
+
+    @Param({"1000", "5000", "20000"})
+    private int suppliers;
+
+    @Param({"60"})
+    private int requirements;
+
+    @Param({"basic", "columnar"})
+    private String calculator;
+
+    private SyntheticAssessment synthetic;
+
+    @Setup
+    public void setup() {
+        synthetic = new SyntheticAssessment(suppliers, requirements, 2);
+    }
+
+    @Benchmark
+    public List<SupplierScores> calculateSupplierScores() {
+        // New calculators per operation, as the pricing calculator keeps its range between calls
+        var assessmentScoreCalculator = new StandardWeightedAssessmentCalculator();
+        var toolCalculator = "columnar".equals(calculator)
+                ? new ColumnarAssessmentToolCalculator(assessmentScoreCalculator,
+                synthetic.supplierSubmissionDataRepo, SyntheticAssessment.dimensionScoreCalculators(),
+                SyntheticAssessment.exclusionPolicies(), null)
+                : new BasicAssessmentToolCalculator(assessmentScoreCalculator,
+                synthetic.supplierSubmissionDataRepo, SyntheticAssessment.dimensionScoreCalculators(),
+                SyntheticAssessment.exclusionPolicies(), null);
+        return toolCalculator.calculateSupplierScores(synthetic.assessment, "benchmark",
+                synthetic.dimensionRequirements, synthetic.calculationBase);
+    }
+}
@@ -0,0 +1,63 @@
+package uk.gov.crowncommercial.dts.scale.cat.assessment;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import uk.gov.crowncommercial.dts.scale.cat.assessment.impl.ColumnarAssessmentToolCalculator;
+import uk.gov.crowncommercial.dts.scale.cat.assessment.impl.PricingDimensionCalculator;
+import uk.gov.crowncommercial.dts.scale.cat.assessment.impl.StandardWeightedAssessmentCalculator;
+import uk.gov.crowncommercial.dts.scale.cat.model.capability.generated.SupplierScores;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The pricing dimension and the assessment total, each over every supplier's already calculated
+ * requirement scores. Pricing works out the submission types from the whole calculation base for
+ * each supplier, so grows with the square of the suppliers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class DimensionCalculatorBenchmark {
+
+    @Param({"1000", "5000", "20000"})
+    private int suppliers;
+
+    private SyntheticAssessment synthetic;
+    private List<SupplierScores> suppliersScores;
+    private Integer pricingDimensionId;
+    private final StandardWeightedAssessmentCalculator standardWeighted = new StandardWeightedAssessmentCalculator();
+
+    @Setup
+    public void setup() {
+        synthetic = new SyntheticAssessment(suppliers, 60, 2);
+        pricingDimensionId = synthetic.dimensionId(SyntheticAssessment.PRICING);
+        suppliersScores = new ColumnarAssessmentToolCalculator(standardWeighted,
+                synthetic.supplierSubmissionDataRepo, SyntheticAssessment.dimensionScoreCalculators(),
+                SyntheticAssessment.exclusionPolicies(), null).calculateSupplierScores(synthetic.assessment,
+                "benchmark", synthetic.dimensionRequirements, synthetic.calculationBase);
+    }
+
+    @Benchmark
+    public void pricing(final Blackhole blackhole) {
+        // The range is only worked out on the first preCalculate, so a new calculator each time
+        var pricing = new PricingDimensionCalculator();
+        pricing.preCalculate(suppliersScores, synthetic.assessment, synthetic.calculationBase);
+        for (SupplierScores supplierScores : suppliersScores) {
+            pricing.calculateDimensionScore(suppliersScores, supplierScores, supplierScores.getSupplier().getId(),
+                    pricingDimensionId, synthetic.assessment, synthetic.calculationBase, new CalculationParams());
+        }
+        blackhole.consume(pricing);
+    }
+
+    @Benchmark
+    public void standardWeightedTotal(final Blackhole blackhole) {
+        for (SupplierScores supplierScores : suppliersScores) {
+            standardWeighted.calculateSupplierTotalScore(supplierScores);
+            blackhole.consume(supplierScores.getTotal());
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package uk.gov.crowncommercial.dts.scale.cat.assessment;
+
+import org.openjdk.jmh.annotations.*;
+import uk.gov.crowncommercial.dts.scale.cat.assessment.impl.AllNonZeroExclusionPolicy;
+import uk.gov.crowncommercial.dts.scale.cat.assessment.impl.AtleastOneExclusionPolicy;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.CalculationBase;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One exclusion pass over the whole calculation base, per policy
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExclusionPolicyBenchmark {
+
+    @Param({"1000", "5000", "20000"})
+    private int suppliers;
+
+    @Param({"2", "20"})
+    private int zeroPercent;
+
+    private SyntheticAssessment synthetic;
+    private Integer dimensionId;
+    private final AllNonZeroExclusionPolicy allNonZero = new AllNonZeroExclusionPolicy();
+    private final AtleastOneExclusionPolicy atleastOne = new AtleastOneExclusionPolicy();
+
+    @Setup
+    public void setup() {
+        synthetic = new SyntheticAssessment(suppliers, 60, zeroPercent);
+        dimensionId = synthetic.dimensionId(SyntheticAssessment.CAPABILITY);
+    }
+
+    @Benchmark
+    public Set<CalculationBase> allNonZero() {
+        return allNonZero.exclude(synthetic.assessment, synthetic.calculationBase, dimensionId,
+                synthetic.dimensionRequirementMap.get(SyntheticAssessment.CAPABILITY),
+                synthetic.dimensionRequirementMap);
+    }
+
+    @Benchmark
+    public Set<CalculationBase> atleastOne() {
+        return atleastOne.exclude(synthetic.assessment, synthetic.calculationBase, dimensionId,
+                synthetic.dimensionRequirementMap.get(SyntheticAssessment.CAPABILITY),
+                synthetic.dimensionRequirementMap);
+    }
+}
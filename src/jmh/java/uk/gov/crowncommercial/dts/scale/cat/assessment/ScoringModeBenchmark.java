@@ -0,0 +1,45 @@
+package uk.gov.crowncommercial.dts.scale.cat.assessment;
+
+import org.openjdk.jmh.annotations.*;
+import uk.gov.crowncommercial.dts.scale.cat.assessment.impl.ColumnarAssessmentToolCalculator;
+import uk.gov.crowncommercial.dts.scale.cat.assessment.impl.StandardWeightedAssessmentCalculator;
+import uk.gov.crowncommercial.dts.scale.cat.model.capability.generated.SupplierScores;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sequential vs fork/join scoring of one assessment by the columnar calculator
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScoringModeBenchmark {
+
+    @Param({"1000", "5000", "20000"})
+    private int suppliers;
+
+    @Param({"false", "true"})
+    private boolean parallel;
+
+    private SyntheticAssessment synthetic;
+    private ColumnarAssessmentToolCalculator calculator;
+
+    @Setup
+    public void setup() {
+        synthetic = new SyntheticAssessment(suppliers, 60, 2);
+        calculator = new ColumnarAssessmentToolCalculator(new StandardWeightedAssessmentCalculator(),
+                synthetic.supplierSubmissionDataRepo, SyntheticAssessment.dimensionScoreCalculators(),
+                SyntheticAssessment.exclusionPolicies(), null, parallel ? ForkJoinPool.commonPool() : null, 1);
+    }
+
+    @Benchmark
+    public List<SupplierScores> calculateSupplierScores() {
+        return calculator.calculateSupplierScores(synthetic.assessment, "benchmark",
+                synthetic.dimensionRequirements, synthetic.calculationBase);
+    }
+}
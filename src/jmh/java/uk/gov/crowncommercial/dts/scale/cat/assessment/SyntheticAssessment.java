@@ -0,0 +1,160 @@
+package uk.gov.crowncommercial.dts.scale.cat.assessment;
+
+import org.mockito.Mockito;
+import uk.gov.crowncommercial.dts.scale.cat.assessment.impl.*;
+import uk.gov.crowncommercial.dts.scale.cat.model.assessment.ValueCount;
+import uk.gov.crowncommercial.dts.scale.cat.model.capability.generated.CriterionDefinition;
+import uk.gov.crowncommercial.dts.scale.cat.model.capability.generated.DimensionRequirement;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.AssessmentEntity;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.AssessmentTool;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.AssessmentToolDimension;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.CalculationBase;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.DimensionEntity;
+import uk.gov.crowncommercial.dts.scale.cat.repo.readonly.SupplierSubmissionDataRepo;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+import static org.mockito.Mockito.when;
+
+/**
+ * A generated assessment, shaped like a DMP / DOS tool: six dimensions, one of them priced, with
+ * requirements spread across them and a seeded share of zero submissions, so the same data is
+ * scored on every run.
+ */
+final class SyntheticAssessment {
+
+    static final String CAPABILITY = "Capability";
+    static final String SECURITY = "Security Clearance";
+    static final String SCALABILITY = "Scalability";
+    static final String LOCATION = "Location";
+    static final String PRICING = "Pricing";
+    static final String SERVICE_OFFERING = "Service Offering";
+
+    static final List<String> DIMENSIONS = List.of(CAPABILITY, SECURITY, SCALABILITY, LOCATION, PRICING,
+            SERVICE_OFFERING);
+
+    private static final int TOOL_ID = 1;
+    private static final long SEED = 42;
+
+    final AssessmentEntity assessment;
+    final List<DimensionRequirement> dimensionRequirements;
+    final Map<String, DimensionRequirement> dimensionRequirementMap;
+    final Set<CalculationBase> calculationBase;
+    final SupplierSubmissionDataRepo supplierSubmissionDataRepo;
+
+    /**
+     * @param suppliers number of suppliers
+     * @param requirements number of requirements, spread over the dimensions
+     * @param zeroPercent chance of any one non-priced submission being zero
+     */
+    SyntheticAssessment(final int suppliers, final int requirements, final int zeroPercent) {
+        var toolDimensions = new ArrayList<AssessmentToolDimension>();
+        dimensionRequirements = new ArrayList<>();
+        for (int d = 0; d < DIMENSIONS.size(); d++) {
+            toolDimensions.add(AssessmentToolDimension.builder()
+                    .dimension(DimensionEntity.builder().id(d + 1).name(DIMENSIONS.get(d)).build()).build());
+            // Security clearance includes sub contractors
+            dimensionRequirements.add(dimensionRequirement(d + 1, DIMENSIONS.get(d),
+                    SECURITY.equals(DIMENSIONS.get(d)) ? List.of("0", "1") : List.of()));
+        }
+        assessment = AssessmentEntity.builder().id(1)
+                .tool(AssessmentTool.builder().id(TOOL_ID).dimensionMapping(toolDimensions).build()).build();
+        dimensionRequirementMap = new HashMap<>();
+        dimensionRequirements.forEach(dr -> dimensionRequirementMap.put(dr.getName(), dr));
+
+        var random = new Random(SEED);
+        var subContractors = new ArrayList<ValueCount>();
+        calculationBase = new HashSet<>();
+        int rowId = 0;
+        for (int s = 0; s < suppliers; s++) {
+            var supplierId = "S" + s;
+            if (s % 2 == 0) {
+                subContractors.add(valueCount(supplierId));
+            }
+            for (int r = 0; r < requirements; r++) {
+                var d = r % DIMENSIONS.size();
+                var dimension = DIMENSIONS.get(d);
+                var divisor = (requirements + DIMENSIONS.size() - 1 - d) / DIMENSIONS.size();
+                if (PRICING.equals(dimension)) {
+                    rowId = add(rowId, supplierId, d + 1, dimension, "Role " + r,
+                            "National Max Day Rate", 300 + random.nextInt(900), 1);
+                    rowId = add(rowId, supplierId, d + 1, dimension, "Role " + r,
+                            "National Home Day Rate", 250 + random.nextInt(900), 1);
+                } else {
+                    rowId = add(rowId, supplierId, d + 1, dimension, dimension + " " + r, "Supplier",
+                            random.nextInt(100) < zeroPercent ? 0 : 1 + random.nextInt(5), divisor);
+                    if (SECURITY.equals(dimension)) {
+                        rowId = add(rowId, supplierId, d + 1, dimension, dimension + " " + r,
+                                "Sub Contractor", random.nextInt(6), divisor);
+                    }
+                }
+            }
+        }
+
+        supplierSubmissionDataRepo = Mockito.mock(SupplierSubmissionDataRepo.class);
+        when(supplierSubmissionDataRepo.getSubContractorSubmissionCount(TOOL_ID)).thenReturn(subContractors);
+    }
+
+    /**
+     * New calculators per assessment - the pricing calculator keeps its range between calls
+     */
+    static Map<String, DimensionScoreCalculator> dimensionScoreCalculators() {
+        var calculators = new HashMap<String, DimensionScoreCalculator>();
+        calculators.put(CAPABILITY, new StandardDimensionCalculator());
+        calculators.put(SECURITY, new StandardSupplierSubContractorDimensionCalculator());
+        calculators.put(SCALABILITY, new StandardDimensionCalculator());
+        calculators.put(LOCATION, new StandardDimensionCalculator());
+        calculators.put(PRICING, new PricingDimensionCalculator());
+        calculators.put(SERVICE_OFFERING, new StandardDimensionCalculator());
+        return calculators;
+    }
+
+    static Map<String, ExclusionPolicy> exclusionPolicies() {
+        return Map.of(CAPABILITY, new AtleastOneExclusionPolicy(), SERVICE_OFFERING,
+                new AllNonZeroExclusionPolicy());
+    }
+
+    Integer dimensionId(final String dimension) {
+        return dimensionRequirementMap.get(dimension).getDimensionId();
+    }
+
+    private int add(final int rowId, final String supplierId, final Integer dimensionId, final String dimension,
+                    final String requirement, final String submissionType, final int value, final int divisor) {
+        calculationBase.add(CalculationBase.builder().id(String.valueOf(rowId)).assessmentId(1)
+                .supplierId(supplierId).dimensionId(dimensionId).dimensionName(dimension)
+                .requirementName(requirement).submissionTypeName(submissionType)
+                .submissionValue(String.valueOf(value))
+                .assessmentSelectionWeightPercentage(BigDecimal.valueOf(100.0 / Math.max(divisor, 1)))
+                .assessmentDimensionWeightPercentage(BigDecimal.valueOf(100.0 / DIMENSIONS.size()))
+                .dimensionDivisor(Math.max(divisor, 1)).build());
+        return rowId + 1;
+    }
+
+    private static DimensionRequirement dimensionRequirement(final Integer id, final String name,
+                                                             final List<String> criterionIds) {
+        var dimensionRequirement = new DimensionRequirement();
+        dimensionRequirement.setDimensionId(id);
+        dimensionRequirement.setName(name);
+        dimensionRequirement.setIncludedCriteria(criterionIds.stream().map(criterionId -> {
+            var criterion = new CriterionDefinition();
+            criterion.setCriterionId(criterionId);
+            return criterion;
+        }).toList());
+        return dimensionRequirement;
+    }
+
+    private static ValueCount valueCount(final String supplierId) {
+        return new ValueCount() {
+            @Override
+            public Integer getDataCount() {
+                return 1;
+            }
+
+            @Override
+            public String getDataValue() {
+                return supplierId;
+            }
+        };
+    }
+}
@@ -19,11 +19,11 @@ import static uk.gov.crowncommercial.dts.scale.cat.model.entity.Timestamps.updat
 
 @RequiredArgsConstructor
 public class BasicAssessmentToolCalculator implements AssessmentToolCalculator {
-    private final AssessmentScoreCalculator assessmentScoreCalculator;
-    private final SupplierSubmissionDataRepo supplierSubmissionDataRepo;
-    private final Map<String, DimensionScoreCalculator> dimensionScoreCalculators;
-    private final Map<String, ExclusionPolicy> exclusionPolicies;
-    private final RetryableTendersDBDelegate retryableTendersDBDelegate;
+    protected final AssessmentScoreCalculator assessmentScoreCalculator;
+    protected final SupplierSubmissionDataRepo supplierSubmissionDataRepo;
+    protected final Map<String, DimensionScoreCalculator> dimensionScoreCalculators;
+    protected final Map<String, ExclusionPolicy> exclusionPolicies;
+    protected final RetryableTendersDBDelegate retryableTendersDBDelegate;
 
     public List<SupplierScores> calculateSupplierScores(final AssessmentEntity assessment,
                                                         final String principal, List<DimensionRequirement> dimensionRequirements, Set<CalculationBase> calculationBaseSet) {
@@ -82,7 +82,7 @@ public class BasicAssessmentToolCalculator implements AssessmentToolCalculator {
         return suppliersScoresList;
     }
 
-    private Set<CalculationBase> eliminateZeroScoreSuppliers(AssessmentEntity assessment,
+    protected Set<CalculationBase> eliminateZeroScoreSuppliers(AssessmentEntity assessment,
                                                             Map<String, DimensionRequirement> dimensionRequirementMap,
                                                              Set<CalculationBase> assessmentCalculationBase) {
         Set<CalculationBase> result = assessmentCalculationBase;
@@ -108,10 +108,41 @@ public class BasicAssessmentToolCalculator implements AssessmentToolCalculator {
                                               final AssessmentEntity assessment, final String principal,
                                               final Set<CalculationBase> assessmentCalculationBase) {
 
+        Map<String, ValueCount> subContractorCountMap = getSubContractorCounts(assessment);
+        Map<Integer, CalculationParams> paramMap = getCalculationParams(dimensionRequirementMap);
+
+        suppliersScores.forEach(supplierScores -> {
+            String supplierId = supplierScores.getSupplier().getId();
+
+            supplierScores.getDimensionScores().forEach(dimensionScores -> {
+                // Per supplier, so one supplier without sub contractors doesn't exclude them for the rest
+                CalculationParams params = new CalculationParams();
+                params.setIncludeSubContractors(paramMap.getOrDefault(dimensionScores.getDimensionId(),
+                        params).isIncludeSubContractors() && subContractorCountMap.containsKey(supplierId));
+                dimensionScoreCalculators.get(dimensionScores.getName()).calculateDimensionScore(suppliersScores,
+                        supplierScores,
+                        supplierScores.getSupplier().getId(), dimensionScores.getDimensionId(), assessment,
+                        assessmentCalculationBase, params);
+            });
+
+            assessmentScoreCalculator.calculateSupplierTotalScore(supplierScores);
+        });
+    }
+
+
+    /**
+     * Suppliers with sub contractor submissions for the assessment's tool, keyed by supplier ID
+     */
+    protected Map<String, ValueCount> getSubContractorCounts(final AssessmentEntity assessment) {
         List<ValueCount> subContractorCountList = supplierSubmissionDataRepo.getSubContractorSubmissionCount(assessment.getTool().getId());
-        Map<String, ValueCount> subContractorCountMap = subContractorCountList.stream()
+        return subContractorCountList.stream()
                 .collect(Collectors.toMap(ValueCount::getDataValue, Function.identity()));
+    }
 
+    /**
+     * Whether sub contractor submissions are included, per dimension ID. Dimensions not listed include them.
+     */
+    protected Map<Integer, CalculationParams> getCalculationParams(Map<String, DimensionRequirement> dimensionRequirementMap) {
         Map<Integer, CalculationParams> paramMap = new HashMap<>();
 
         for (DimensionRequirement req : dimensionRequirementMap.values()) {
@@ -126,46 +157,38 @@ public class BasicAssessmentToolCalculator implements AssessmentToolCalculator {
             }
 
         }
-
-
-
-        suppliersScores.forEach(supplierScores -> {
-            String supplierId = supplierScores.getSupplier().getId();
-
-            supplierScores.getDimensionScores().forEach(dimensionScores -> {
-                CalculationParams params = paramMap.get(dimensionScores.getDimensionId());
-                if(null == params){
-                    params = new CalculationParams();
-                    params.setIncludeSubContractors(true);
-                }
-                if(params.isIncludeSubContractors())
-                    params.setIncludeSubContractors(subContractorCountMap.containsKey(supplierId));
-                dimensionScoreCalculators.get(dimensionScores.getName()).calculateDimensionScore(suppliersScores,
-                        supplierScores,
-                        supplierScores.getSupplier().getId(), dimensionScores.getDimensionId(), assessment,
-                        assessmentCalculationBase, params);
-            });
-
-            assessmentScoreCalculator.calculateSupplierTotalScore(supplierScores);
-        });
+        return paramMap;
     }
 
-
+    /*
+     * Upserts the totals with one read of the existing results and one batched save of those that changed
+     */
     private void updateAssessmentResult(final AssessmentEntity assessment, List<SupplierScores> scores , final String principal) {
+        Map<String, AssessmentResult> existingResults = retryableTendersDBDelegate
+                .findAssessmentResultsByAssessmentId(assessment.getId()).stream()
+                .collect(Collectors.toMap(AssessmentResult::getSupplierOrganisationId, Function.identity(), (a, b) -> a));
+
+        List<AssessmentResult> changedResults = new ArrayList<>();
         for(SupplierScores score: scores) {
             String supplierOrgId = score.getSupplier().getId();
             BigDecimal supplierTotal = BigDecimal.valueOf(score.getTotal());
-            var assessmentResult = retryableTendersDBDelegate
-                    .findByAssessmentIdAndSupplierOrganisationId(assessment.getId(), supplierOrgId)
-                    .orElse(AssessmentResult.builder().assessment(assessment)
-                            .supplierOrganisationId(supplierOrgId).timestamps(createTimestamps(principal)).build());
-            assessmentResult.setAssessmentResultValue(supplierTotal);
-
-            if (assessmentResult.getId() != null) {
+            var assessmentResult = existingResults.get(supplierOrgId);
+
+            if (assessmentResult == null) {
+                assessmentResult = AssessmentResult.builder().assessment(assessment)
+                        .supplierOrganisationId(supplierOrgId).timestamps(createTimestamps(principal)).build();
+            } else if (assessmentResult.getAssessmentResultValue() != null
+                    && assessmentResult.getAssessmentResultValue().compareTo(supplierTotal) == 0) {
+                continue;
+            } else {
                 updateTimestamps(assessmentResult.getTimestamps(), principal);
             }
+            assessmentResult.setAssessmentResultValue(supplierTotal);
+            changedResults.add(assessmentResult);
+        }
 
-            retryableTendersDBDelegate.save(assessmentResult);
+        if (!changedResults.isEmpty()) {
+            retryableTendersDBDelegate.saveAssessmentResults(changedResults);
         }
     }
 }
@@ -0,0 +1,113 @@
+package uk.gov.crowncommercial.dts.scale.cat.assessment.impl;
+
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.CalculationBase;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A calculation base result set held column by column, with suppliers, dimensions and submission
+ * types replaced by indexes, so scores can be computed over primitive arrays.
+ *
+ * Suppliers and dimensions are indexed in the order they are first seen, and rows keep the order
+ * of the collection they were loaded from.
+ */
+final class CalculationColumns {
+
+    static final int NO_VALUE = Integer.MIN_VALUE;
+
+    final int rows;
+
+    // Per row
+    final int[] supplier;
+    final int[] dimension;
+    final int[] submissionType;
+    final int[] value;
+    final double[] divisor;
+    final double[] selectionWeight;
+    final double[] dimensionWeight;
+    final double[] requirementValue;
+    final String[] requirementName;
+
+    // Lookups from the indexes above
+    final List<String> supplierIds = new ArrayList<>();
+    final List<Integer> dimensionIds = new ArrayList<>();
+    final List<String> dimensionNames = new ArrayList<>();
+    final List<String> submissionTypeNames = new ArrayList<>();
+
+    private CalculationColumns(final int rows) {
+        this.rows = rows;
+        supplier = new int[rows];
+        dimension = new int[rows];
+        submissionType = new int[rows];
+        value = new int[rows];
+        divisor = new double[rows];
+        selectionWeight = new double[rows];
+        dimensionWeight = new double[rows];
+        requirementValue = new double[rows];
+        requirementName = new String[rows];
+    }
+
+    static CalculationColumns of(final Collection<CalculationBase> calculationBase) {
+        var columns = new CalculationColumns(calculationBase.size());
+        Map<String, Integer> supplierIndex = new HashMap<>();
+        Map<Integer, Integer> dimensionIndex = new HashMap<>();
+        Map<String, Integer> submissionTypeIndex = new HashMap<>();
+
+        int row = 0;
+        for (CalculationBase calcBase : calculationBase) {
+            columns.supplier[row] = supplierIndex.computeIfAbsent(calcBase.getSupplierId(), id -> {
+                columns.supplierIds.add(id);
+                return columns.supplierIds.size() - 1;
+            });
+            columns.dimension[row] = dimensionIndex.computeIfAbsent(calcBase.getDimensionId(), id -> {
+                columns.dimensionIds.add(id);
+                columns.dimensionNames.add(calcBase.getDimensionName());
+                return columns.dimensionIds.size() - 1;
+            });
+            columns.submissionType[row] = submissionTypeIndex.computeIfAbsent(calcBase.getSubmissionTypeName(), name -> {
+                columns.submissionTypeNames.add(name);
+                return columns.submissionTypeNames.size() - 1;
+            });
+
+            // Submission values are whole numbers - they are reported back as integers
+            columns.value[row] = calcBase.getSubmissionValue() == null ? NO_VALUE
+                    : Integer.parseInt(calcBase.getSubmissionValue());
+            columns.divisor[row] = calcBase.getDimensionDivisor() == null ? Double.NaN
+                    : calcBase.getDimensionDivisor().doubleValue();
+            columns.selectionWeight[row] = doubleValue(calcBase.getAssessmentSelectionWeightPercentage(), Double.NaN);
+            columns.dimensionWeight[row] = doubleValue(calcBase.getAssessmentDimensionWeightPercentage(), Double.NaN);
+            columns.requirementValue[row] = doubleValue(calcBase.getRequirementValue(), 1);
+            columns.requirementName[row] = calcBase.getRequirementName();
+            row++;
+        }
+        return columns;
+    }
+
+    int suppliers() {
+        return supplierIds.size();
+    }
+
+    int dimensions() {
+        return dimensionIds.size();
+    }
+
+    boolean hasValue(final int row) {
+        return value[row] != NO_VALUE;
+    }
+
+    /**
+     * @return the index of the submission type, or -1 if no row has it
+     */
+    int submissionTypeIndex(final String submissionTypeName) {
+        return submissionTypeNames.indexOf(submissionTypeName);
+    }
+
+    private static double doubleValue(final BigDecimal value, final double defaultValue) {
+        return value == null ? defaultValue : value.doubleValue();
+    }
+}
@@ -0,0 +1,415 @@
+package uk.gov.crowncommercial.dts.scale.cat.assessment.impl;
+
+import org.springframework.util.ClassUtils;
+import uk.gov.crowncommercial.dts.scale.cat.assessment.*;
+import uk.gov.crowncommercial.dts.scale.cat.model.capability.generated.*;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.AssessmentEntity;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.CalculationBase;
+import uk.gov.crowncommercial.dts.scale.cat.repo.RetryableTendersDBDelegate;
+import uk.gov.crowncommercial.dts.scale.cat.repo.readonly.SupplierSubmissionDataRepo;
+import uk.gov.crowncommercial.dts.scale.cat.service.ca.CAException;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * Calculates the same scores as {@link BasicAssessmentToolCalculator}, but over a
+ * {@link CalculationColumns} view of the calculation base. Requirement, dimension and total scores
+ * are computed in loops over primitive arrays, and the {@link SupplierScores} model is only built
+ * once, for the scores returned.
+ *
+ * The scoring rules of the standard, combined supplier / sub contractor, pricing and no-op dimension
+ * calculators are built in. Tools configured with any other calculator are scored by the basic
+ * calculator instead.
+ *
+ * Each supplier's scores only depend on its own rows, apart from pricing, which is scored against
+ * the range of all supplier totals. Given a {@link ForkJoinPool}, assessments with at least
+ * <code>parallelThreshold</code> suppliers are scored in parallel: the per supplier phases are split
+ * into ranges of suppliers, and the pricing range is reduced between them. Every phase writes only
+ * to its own suppliers' slots of the arrays, so the results are identical to scoring sequentially.
+ */
+public class ColumnarAssessmentToolCalculator extends BasicAssessmentToolCalculator {
+
+    // Suppliers per fork/join task
+    static final int SUPPLIERS_PER_TASK = 128;
+
+    private enum Rule {
+        NOOP, STANDARD, COMBINED, PRICING
+    }
+
+    private final ForkJoinPool pool;
+    private final int parallelThreshold;
+
+    public ColumnarAssessmentToolCalculator(final AssessmentScoreCalculator assessmentScoreCalculator,
+                                            final SupplierSubmissionDataRepo supplierSubmissionDataRepo,
+                                            final Map<String, DimensionScoreCalculator> dimensionScoreCalculators,
+                                            final Map<String, ExclusionPolicy> exclusionPolicies,
+                                            final RetryableTendersDBDelegate retryableTendersDBDelegate) {
+        this(assessmentScoreCalculator, supplierSubmissionDataRepo, dimensionScoreCalculators,
+                exclusionPolicies, retryableTendersDBDelegate, null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param pool pool to score large assessments in, or null to always score sequentially
+     * @param parallelThreshold minimum number of suppliers to score in parallel
+     */
+    public ColumnarAssessmentToolCalculator(final AssessmentScoreCalculator assessmentScoreCalculator,
+                                            final SupplierSubmissionDataRepo supplierSubmissionDataRepo,
+                                            final Map<String, DimensionScoreCalculator> dimensionScoreCalculators,
+                                            final Map<String, ExclusionPolicy> exclusionPolicies,
+                                            final RetryableTendersDBDelegate retryableTendersDBDelegate,
+                                            final ForkJoinPool pool, final int parallelThreshold) {
+        super(assessmentScoreCalculator, supplierSubmissionDataRepo, dimensionScoreCalculators,
+                exclusionPolicies, retryableTendersDBDelegate);
+        this.pool = pool;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    @Override
+    public List<SupplierScores> calculateSupplierScores(final AssessmentEntity assessment,
+                                                        final String principal, List<DimensionRequirement> dimensionRequirements, Set<CalculationBase> calculationBaseSet) {
+
+        var rulesByDimensionName = getRules();
+        if (rulesByDimensionName == null) {
+            return super.calculateSupplierScores(assessment, principal, dimensionRequirements, calculationBaseSet);
+        }
+
+        Map<String, DimensionRequirement> dimensionRequirementMap = dimensionRequirements.stream().collect(Collectors.toMap(DimensionRequirement::getName, e -> e));
+
+        final Set<CalculationBase> assessmentCalculationBase = eliminateZeroScoreSuppliers(
+                assessment, dimensionRequirementMap,
+                calculationBaseSet);
+
+        var columns = CalculationColumns.of(assessmentCalculationBase);
+        var rules = new Rule[columns.dimensions()];
+        for (int d = 0; d < rules.length; d++) {
+            rules[d] = rulesByDimensionName.get(columns.dimensionNames.get(d));
+            if (rules[d] == null) {
+                // No calculator for the dimension - leave the basic calculator to report it
+                return super.calculateSupplierScores(assessment, principal, dimensionRequirements, calculationBaseSet);
+            }
+        }
+
+        var scoring = new Scoring(columns, rules);
+        var parallel = pool != null && columns.suppliers() >= parallelThreshold;
+
+        if (scoring.pricingDimension >= 0) {
+            scoring.setPricingTypes(PricingDimensionCalculator.getSubmissionTypes(calculationBaseSet),
+                    PricingDimensionCalculator.getSubmissionTypes(assessmentCalculationBase));
+        } else if (rulesByDimensionName.containsValue(Rule.PRICING)) {
+            throw new CAException(PricingDimensionCalculator.ERR_MSG_NO_SUPPLIER_TOTALS_MIN);
+        }
+        if (scoring.anyCombined) {
+            scoring.setIncludeSubContractors(getSubContractorCounts(assessment).keySet(),
+                    getCalculationParams(dimensionRequirementMap));
+        }
+
+        // Phase 1 - requirement scores and per dimension totals
+        forEachSupplier(parallel, columns.suppliers(), scoring::scoreRequirements);
+
+        // Phase 2 - the range of pricing totals across all suppliers
+        if (scoring.pricingDimension >= 0) {
+            scoring.reducePricingRange();
+        }
+
+        // Phase 3 - dimension scores and totals
+        forEachSupplier(parallel, columns.suppliers(), scoring::scoreDimensions);
+
+        // Phase 4 - the model, for the scores returned
+        var suppliersScores = new SupplierScores[columns.suppliers()];
+        forEachSupplier(parallel, columns.suppliers(), s -> suppliersScores[s] = scoring.toSupplierScores(s));
+        return new ArrayList<>(Arrays.asList(suppliersScores));
+    }
+
+    private void forEachSupplier(final boolean parallel, final int suppliers, final IntConsumer work) {
+        if (parallel) {
+            pool.invoke(new SupplierRangeAction(0, suppliers, work));
+        } else {
+            for (int s = 0; s < suppliers; s++) {
+                work.accept(s);
+            }
+        }
+    }
+
+    /**
+     * @return the scoring rule per dimension name, or null if any calculator has no columnar equivalent
+     */
+    private Map<String, Rule> getRules() {
+        if (ClassUtils.getUserClass(assessmentScoreCalculator) != StandardWeightedAssessmentCalculator.class) {
+            return null;
+        }
+
+        var rules = new HashMap<String, Rule>();
+        for (Map.Entry<String, DimensionScoreCalculator> entry : dimensionScoreCalculators.entrySet()) {
+            var calculatorClass = ClassUtils.getUserClass(entry.getValue());
+            if (calculatorClass == StandardSupplierSubContractorDimensionCalculator.class) {
+                rules.put(entry.getKey(), Rule.COMBINED);
+            } else if (calculatorClass == StandardDimensionCalculator.class) {
+                rules.put(entry.getKey(), Rule.STANDARD);
+            } else if (calculatorClass == NoopDimensionCalculator.class) {
+                rules.put(entry.getKey(), Rule.NOOP);
+            } else if (calculatorClass == PricingDimensionCalculator.class
+                    && PricingDimensionCalculator.DIMENSION_PRICING.equals(entry.getKey())) {
+                // The pricing calculator always scores the dimension named Pricing
+                rules.put(entry.getKey(), Rule.PRICING);
+            } else {
+                return null;
+            }
+        }
+        return rules;
+    }
+
+    private static double roundDouble(final double value, final int scale) {
+        var multiplier = Math.pow(10, scale);
+        return Math.round(value * multiplier) / multiplier;
+    }
+
+    /**
+     * Working arrays for one calculation. Per supplier arrays are indexed by supplier, and per
+     * supplier / dimension arrays by <code>supplier * dimensions + dimension</code>.
+     */
+    private static final class Scoring {
+        final CalculationColumns columns;
+        final Rule[] rules;
+        final int dimensions;
+        final int pricingDimension;
+        final boolean anyCombined;
+
+        // Rows grouped by supplier, in their original order
+        final int[] supplierRowStart;
+        final int[] supplierRows;
+
+        final double[] requirementScores;
+        final boolean[] hasDimension;
+        final int[] dimensionOrder;
+        final int[] dimensionCount;
+        final double[] supplierTotals;
+        final double[] subContractorTotals;
+        final double[] dimensionScores;
+        final double[] totals;
+        final int supplierType;
+        final int subContractorType;
+
+        boolean[] includeSubContractors;
+
+        // Pricing
+        int rangeTypeCount;
+        int scoreTypeCount;
+        boolean[] inRangeTypes;
+        boolean[] inScoreTypes;
+        double[] rangeTotals;
+        double[] scoreTotals;
+        double minPricingTotal;
+        double maxPricingTotal;
+
+        Scoring(final CalculationColumns columns, final Rule[] rules) {
+            this.columns = columns;
+            this.rules = rules;
+            dimensions = rules.length;
+            pricingDimension = Arrays.asList(rules).indexOf(Rule.PRICING);
+            anyCombined = Arrays.asList(rules).contains(Rule.COMBINED);
+
+            int suppliers = columns.suppliers();
+            supplierRowStart = new int[suppliers + 1];
+            supplierRows = new int[columns.rows];
+            for (int row = 0; row < columns.rows; row++) {
+                supplierRowStart[columns.supplier[row] + 1]++;
+            }
+            for (int s = 0; s < suppliers; s++) {
+                supplierRowStart[s + 1] += supplierRowStart[s];
+            }
+            var next = Arrays.copyOf(supplierRowStart, suppliers);
+            for (int row = 0; row < columns.rows; row++) {
+                supplierRows[next[columns.supplier[row]]++] = row;
+            }
+
+            requirementScores = new double[columns.rows];
+            hasDimension = new boolean[suppliers * dimensions];
+            dimensionOrder = new int[suppliers * dimensions];
+            dimensionCount = new int[suppliers];
+            supplierTotals = new double[suppliers * dimensions];
+            subContractorTotals = new double[suppliers * dimensions];
+            dimensionScores = new double[suppliers * dimensions];
+            totals = new double[suppliers];
+            supplierType = columns.submissionTypeIndex(StandardDimensionCalculator.SUBMISSION_TYPE_SUPPLIER);
+            subContractorType = columns.submissionTypeIndex(StandardDimensionCalculator.SUBMISSION_TYPE_SUBCONTRACTOR);
+        }
+
+        /*
+         * As PricingDimensionCalculator - the range of supplier totals is taken from the submission
+         * types of the whole calculation base, and each supplier's total from those left after exclusions
+         */
+        void setPricingTypes(final Set<String> rangeTypes, final Set<String> scoreTypes) {
+            rangeTypeCount = rangeTypes.size();
+            scoreTypeCount = scoreTypes.size();
+            inRangeTypes = new boolean[columns.submissionTypeNames.size()];
+            inScoreTypes = new boolean[columns.submissionTypeNames.size()];
+            for (int t = 0; t < inRangeTypes.length; t++) {
+                inRangeTypes[t] = rangeTypes.contains(columns.submissionTypeNames.get(t));
+                inScoreTypes[t] = scoreTypes.contains(columns.submissionTypeNames.get(t));
+            }
+            rangeTotals = new double[columns.suppliers()];
+            scoreTotals = new double[columns.suppliers()];
+        }
+
+        void setIncludeSubContractors(final Set<String> suppliersWithSubContractors,
+                                      final Map<Integer, CalculationParams> paramMap) {
+            var defaultParams = new CalculationParams();
+            includeSubContractors = new boolean[columns.suppliers() * dimensions];
+            for (int s = 0; s < columns.suppliers(); s++) {
+                var hasSubContractors = suppliersWithSubContractors.contains(columns.supplierIds.get(s));
+                for (int d = 0; d < dimensions; d++) {
+                    includeSubContractors[s * dimensions + d] = hasSubContractors
+                            && paramMap.getOrDefault(columns.dimensionIds.get(d), defaultParams).isIncludeSubContractors();
+                }
+            }
+        }
+
+        void scoreRequirements(final int s) {
+            for (int i = supplierRowStart[s]; i < supplierRowStart[s + 1]; i++) {
+                int row = supplierRows[i];
+                int d = columns.dimension[row];
+                int sd = s * dimensions + d;
+                var score = requirementScore(rules[d], row);
+                score = (score == 0.0d) ? 0.0 : score;
+                requirementScores[row] = score;
+
+                if (!hasDimension[sd]) {
+                    hasDimension[sd] = true;
+                    dimensionOrder[s * dimensions + dimensionCount[s]++] = d;
+                }
+
+                int type = columns.submissionType[row];
+                if (type == supplierType) {
+                    supplierTotals[sd] += score;
+                } else if (type == subContractorType) {
+                    subContractorTotals[sd] += score;
+                }
+                if (d == pricingDimension) {
+                    if (inRangeTypes[type]) {
+                        rangeTotals[s] += score;
+                    }
+                    if (inScoreTypes[type]) {
+                        scoreTotals[s] += score;
+                    }
+                }
+            }
+        }
+
+        private double requirementScore(final Rule rule, final int row) {
+            switch (rule) {
+                case STANDARD:
+                case COMBINED:
+                    return !columns.hasValue(row) ? 0
+                            : columns.value[row] / columns.divisor[row] * columns.selectionWeight[row]
+                            * columns.dimensionWeight[row] / 100;
+                case PRICING:
+                    return (columns.hasValue(row) ? columns.value[row] : 0) * columns.requirementValue[row];
+                default:
+                    return 0;
+            }
+        }
+
+        void reducePricingRange() {
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            boolean anyTotals = false;
+            for (int s = 0; s < columns.suppliers(); s++) {
+                if (hasDimension[s * dimensions + pricingDimension]) {
+                    min = Math.min(min, rangeTotals[s]);
+                    max = Math.max(max, rangeTotals[s]);
+                    anyTotals = true;
+                }
+            }
+            if (!anyTotals) {
+                throw new CAException(PricingDimensionCalculator.ERR_MSG_NO_SUPPLIER_TOTALS_MIN);
+            }
+            minPricingTotal = min / rangeTypeCount;
+            maxPricingTotal = max / rangeTypeCount;
+        }
+
+        void scoreDimensions(final int s) {
+            double total = 0d;
+            for (int k = 0; k < dimensionCount[s]; k++) {
+                int d = dimensionOrder[s * dimensions + k];
+                int sd = s * dimensions + d;
+                switch (rules[d]) {
+                    case STANDARD:
+                        dimensionScores[sd] = roundDouble(supplierTotals[sd], 2);
+                        break;
+                    case COMBINED:
+                        dimensionScores[sd] = includeSubContractors[sd]
+                                ? roundDouble((supplierTotals[sd] + subContractorTotals[sd]) / 2, 2)
+                                : roundDouble(supplierTotals[sd], 2);
+                        break;
+                    case PRICING:
+                        var supplierTotal = scoreTotals[s] / scoreTypeCount;
+                        dimensionScores[sd] = roundDouble(100 - (supplierTotal - minPricingTotal)
+                                / (maxPricingTotal - minPricingTotal) * 100, 2);
+                        break;
+                    default:
+                        // No-op dimensions are left unscored
+                        continue;
+                }
+                total += dimensionScores[sd];
+            }
+            totals[s] = roundDouble(total, 2);
+        }
+
+        SupplierScores toSupplierScores(final int s) {
+            var supplierScores = new SupplierScores().supplier(new Supplier().id(columns.supplierIds.get(s)));
+            var dimensionsScores = new DimensionScores[dimensions];
+            for (int k = 0; k < dimensionCount[s]; k++) {
+                int d = dimensionOrder[s * dimensions + k];
+                var dimensionScoresItem = new DimensionScores().dimensionId(columns.dimensionIds.get(d))
+                        .name(columns.dimensionNames.get(d));
+                if (rules[d] != Rule.NOOP) {
+                    dimensionScoresItem.setScore(dimensionScores[s * dimensions + d]);
+                }
+                dimensionsScores[d] = dimensionScoresItem;
+                supplierScores.addDimensionScoresItem(dimensionScoresItem);
+            }
+            supplierScores.setTotal(totals[s]);
+
+            for (int i = supplierRowStart[s]; i < supplierRowStart[s + 1]; i++) {
+                int row = supplierRows[i];
+                dimensionsScores[columns.dimension[row]]
+                        .addRequirementScoresItem(new RequirementScore().name(columns.requirementName[row])
+                                .criterion(columns.submissionTypeNames.get(columns.submissionType[row]))
+                                .value(columns.hasValue(row) ? columns.value[row] : 0)
+                                .score(requirementScores[row]));
+            }
+            return supplierScores;
+        }
+    }
+
+    /**
+     * Runs the work for each supplier in a range, splitting the range until it is small enough
+     */
+    private static final class SupplierRangeAction extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final transient IntConsumer work;
+
+        SupplierRangeAction(final int from, final int to, final IntConsumer work) {
+            this.from = from;
+            this.to = to;
+            this.work = work;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SUPPLIERS_PER_TASK) {
+                for (int s = from; s < to; s++) {
+                    work.accept(s);
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new SupplierRangeAction(from, middle, work), new SupplierRangeAction(middle, to, work));
+            }
+        }
+    }
+}
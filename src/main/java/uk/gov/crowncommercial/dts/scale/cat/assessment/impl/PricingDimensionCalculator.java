@@ -76,7 +76,7 @@ public class PricingDimensionCalculator implements DimensionScoreCalculator {
   }
 
 
-  private Set getSubmissionTypes(Set<CalculationBase> assessmentCalculationBase){
+  static Set<String> getSubmissionTypes(Set<CalculationBase> assessmentCalculationBase){
     var remoteWorkingSelected = assessmentCalculationBase.stream()
             .anyMatch(cb -> RQMT_GEO_LOCATION_REMOTE.equals(cb.getRequirementName()));
 
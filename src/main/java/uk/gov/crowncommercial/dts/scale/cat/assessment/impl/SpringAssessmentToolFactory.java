@@ -5,6 +5,7 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import org.springframework.stereotype.Component;
 import uk.gov.crowncommercial.dts.scale.cat.assessment.*;
+import uk.gov.crowncommercial.dts.scale.cat.config.ExperimentalFlagsConfig;
 import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.AssessmentEntity;
 import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.AssessmentTool;
 import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.AssessmentToolDimension;
@@ -12,6 +13,7 @@ import uk.gov.crowncommercial.dts.scale.cat.repo.RetryableTendersDBDelegate;
 import uk.gov.crowncommercial.dts.scale.cat.repo.readonly.SupplierSubmissionDataRepo;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 @Component
 public class SpringAssessmentToolFactory implements ApplicationContextAware, AssessmentToolFactory {
@@ -37,6 +39,12 @@ public class SpringAssessmentToolFactory implements ApplicationContextAware, Ass
             exclusionPolicies.put(atd.getDimension().getName(), getExclusionPolicy(atd));
         }
         SupplierSubmissionDataRepo supplierSubmissionDataRepo = context.getBean(SupplierSubmissionDataRepo.class);
+        ExperimentalFlagsConfig flags = context.getBean(ExperimentalFlagsConfig.class);
+        if (flags.isColumnarScoringEnabled()) {
+            ForkJoinPool pool = flags.isParallelScoringEnabled() ? ForkJoinPool.commonPool() : null;
+            return new ColumnarAssessmentToolCalculator(toolCalculator, supplierSubmissionDataRepo, dimCalcList, exclusionPolicies, retryableTendersDBDelegate,
+                    pool, flags.getParallelScoringSupplierThreshold());
+        }
         return new BasicAssessmentToolCalculator(toolCalculator, supplierSubmissionDataRepo, dimCalcList,exclusionPolicies, retryableTendersDBDelegate);
     }
 
@@ -0,0 +1,151 @@
+package uk.gov.crowncommercial.dts.scale.cat.cache;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.hash.Hashing;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import uk.gov.crowncommercial.dts.scale.cat.model.capability.generated.DimensionRequirement;
+import uk.gov.crowncommercial.dts.scale.cat.model.capability.generated.Requirement;
+import uk.gov.crowncommercial.dts.scale.cat.model.capability.generated.SupplierScores;
+import uk.gov.crowncommercial.dts.scale.cat.repo.RetryableTendersDBDelegate;
+
+/**
+ * Calculated supplier scores per assessment, along with a hash of the weightings, criteria and
+ * requirement selections they were calculated from. Scores are only returned while the assessment
+ * still hashes the same, so a change made through any instance is picked up on the next read,
+ * whichever instance serves it. The hash also covers the version of the supplier submissions
+ * (polled, as they are loaded outside the app), so scores are recalculated once a load changes
+ * them.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AssessmentScoreCache {
+
+  public static final String CACHE_NAME = "assessmentScoreCache";
+
+  private static final TypeReference<List<SupplierScores>> SCORES_TYPE = new TypeReference<>() {};
+
+  private final CacheManager ehCacheManager;
+  private final RetryableTendersDBDelegate retryableTendersDBDelegate;
+  private final ObjectMapper objectMapper;
+
+  private final AtomicReference<String> submissionDataVersion = new AtomicReference<>();
+
+  /*
+   * The scores are held serialised, so callers each get their own copy to modify
+   */
+  @Value
+  static class ScoreSnapshot {
+    String inputsHash;
+    byte[] scores;
+  }
+
+  /**
+   * @return the scores calculated for the assessment, if its inputs have not changed since
+   */
+  public Optional<List<SupplierScores>> get(final Integer assessmentId, final String inputsHash) {
+    return Optional.ofNullable((ScoreSnapshot) getCache().get(assessmentId))
+        .filter(snapshot -> snapshot.getInputsHash().equals(inputsHash))
+        .map(snapshot -> {
+          try {
+            return objectMapper.readValue(snapshot.getScores(), SCORES_TYPE);
+          } catch (IOException ex) {
+            log.warn("Unable to read the cached scores for assessment {}", assessmentId, ex);
+            return null;
+          }
+        });
+  }
+
+  public void put(final Integer assessmentId, final String inputsHash,
+      final List<SupplierScores> scores) {
+    try {
+      getCache().put(assessmentId,
+          new ScoreSnapshot(inputsHash, objectMapper.writeValueAsBytes(scores)));
+    } catch (IOException ex) {
+      log.warn("Unable to cache the scores for assessment {}", assessmentId, ex);
+    }
+  }
+
+  public void invalidate(final Integer assessmentId) {
+    getCache().remove(assessmentId);
+  }
+
+  public void invalidateAll() {
+    getCache().removeAll();
+  }
+
+  /**
+   * Hash of everything an assessment's scores are calculated from, as of the supplier submissions
+   * last seen
+   */
+  public String inputsHash(final Integer toolId,
+      final List<DimensionRequirement> dimensionRequirements) {
+    return inputsHash(submissionDataVersion.get(), toolId, dimensionRequirements);
+  }
+
+  /**
+   * Poll for loads having changed the supplier submissions
+   */
+  @Scheduled(fixedDelayString = "${caching.assessmentScores.versionCheckInterval:PT1M}")
+  public void checkSubmissionDataVersion() {
+    try {
+      var version = retryableTendersDBDelegate.getSupplierSubmissionDataVersion();
+      var previousVersion = submissionDataVersion.getAndSet(version);
+      if (previousVersion != null && !previousVersion.equals(version)) {
+        log.info("Supplier submissions changed from [{}] to [{}], dropping cached scores",
+            previousVersion, version);
+        invalidateAll();
+      }
+    } catch (Exception ex) {
+      log.warn("Unable to check the supplier submission data version", ex);
+    }
+  }
+
+  /**
+   * Hash of everything an assessment's scores are calculated from, independent of the order the
+   * dimensions, requirements and criteria were loaded in
+   */
+  static String inputsHash(final String submissionDataVersion, final Integer toolId,
+      final List<DimensionRequirement> dimensionRequirements) {
+    var inputs = new StringBuilder().append(submissionDataVersion).append('\n').append(toolId);
+    dimensionRequirements.stream()
+        .sorted(Comparator.comparing(DimensionRequirement::getDimensionId,
+            Comparator.nullsFirst(Comparator.naturalOrder())))
+        .forEach(dr -> inputs.append('\n').append(dr.getDimensionId()).append(':')
+            .append(dr.getName()).append(':').append(dr.getWeighting()).append(':')
+            .append(sorted(dr.getIncludedCriteria())).append(':')
+            .append(dr.getRequirements() == null ? "" : dr.getRequirements().stream()
+                .map(AssessmentScoreCache::requirementInputs).sorted()
+                .collect(Collectors.joining(","))));
+    return Hashing.sha256().hashString(inputs, StandardCharsets.UTF_8).toString();
+  }
+
+  private static String requirementInputs(final Requirement requirement) {
+    return requirement.getRequirementId() + "=" + requirement.getWeighting() + sorted(
+        requirement.getValues());
+  }
+
+  private static String sorted(final List<?> items) {
+    return items == null ? "[]"
+        : items.stream().map(Objects::toString).sorted().collect(Collectors.joining(",", "[", "]"));
+  }
+
+  private Cache<Object, Object> getCache() {
+    return ehCacheManager.getCache(CACHE_NAME);
+  }
+}
@@ -3,7 +3,13 @@ package uk.gov.crowncommercial.dts.scale.cat.cache;
 import org.ehcache.config.builders.CacheConfigurationBuilder;
 import org.ehcache.config.builders.ExpiryPolicyBuilder;
 import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.core.internal.statistics.DefaultStatisticsService;
+import org.ehcache.core.spi.service.CacheManagerProviderService;
+import org.ehcache.core.spi.store.InternalCacheManager;
 import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.spi.service.Service;
+import org.ehcache.spi.service.ServiceProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -12,12 +18,17 @@ import javax.cache.CacheManager;
 import javax.cache.Caching;
 import javax.cache.spi.CachingProvider;
 import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Cache setup and configuration for the application using Ehcache
  */
 @Configuration
 public class CacheConfig {
+    public static final String LOT_SUPPLIERS_CACHE = "lotSuppliersCache";
+
     @Value("${caching.primary.cacheLength}")
     String primaryCacheLength;
 
@@ -30,38 +41,141 @@ public class CacheConfig {
     @Value("${caching.long.heapSize}")
     String longCacheSize;
 
+    @Value("${caching.rfxSummary.cacheLength:30}")
+    String rfxSummaryCacheLength;
+
+    @Value("${caching.rfxSummary.heapSize:5000}")
+    String rfxSummaryCacheSize;
+
+    @Value("${caching.assessmentScores.cacheLength:3600}")
+    String assessmentScoresCacheLength;
+
+    @Value("${caching.assessmentScores.heapSize:100}")
+    String assessmentScoresCacheSize;
+
+    @Value("${caching.dimensionDefinitions.cacheLength:86400}")
+    String dimensionDefinitionsCacheLength;
+
+    @Value("${caching.dimensionDefinitions.heapSize:50}")
+    String dimensionDefinitionsCacheSize;
+
     /**
-     * Initialise the caches we want to use based on life configuration settings
+     * Ehcache's own statistics for the caches, which unlike the JSR-107 ones include the size of each
+     * tier. Started against the cache manager in {@link #ehCacheManager}
      */
     @Bean
-    public CacheManager ehCacheManager() {
+    public DefaultStatisticsService cacheStatisticsService() {
+        return new DefaultStatisticsService();
+    }
+
+    /**
+     * Initialise the caches we want to use based on life configuration settings, overridden per cache
+     * by {@link CacheRegionsConfig}
+     */
+    @Bean
+    public CacheManager ehCacheManager(final CacheRegionsConfig cacheRegionsConfig,
+            final DefaultStatisticsService cacheStatisticsService) {
         CachingProvider provider = Caching.getCachingProvider();
         CacheManager cacheManager = provider.getCacheManager();
+        var regions = cacheRegionsConfig.getRegions();
 
-        javax.cache.configuration.Configuration<Object, Object> primaryCacheConfig = getCacheConfigForSpecifiedLifespan(primaryCacheLength, primaryCacheSize);
-        javax.cache.configuration.Configuration<Object, Object> longCacheConfig = getCacheConfigForSpecifiedLifespan(longCacheLength, longCacheSize);
+        // Before the caches are created, so it is told of each of them
+        startStatisticsService(cacheStatisticsService, cacheManager.unwrap(InternalCacheManager.class));
 
         // Establish primary caches
-        cacheManager.createCache("agreementsCache", longCacheConfig);
-        cacheManager.createCache("gcloudConfigCache", primaryCacheConfig);
-        cacheManager.createCache("tendersCache", primaryCacheConfig);
-        cacheManager.createCache("conclaveCache", primaryCacheConfig);
-        cacheManager.createCache("qAndACache", primaryCacheConfig);
-        cacheManager.createCache("stageCache", primaryCacheConfig);
+        createCache(cacheManager, regions, "agreementsCache", longCacheLength, longCacheSize);
+        createCache(cacheManager, regions, "gcloudConfigCache", primaryCacheLength, primaryCacheSize);
+        createCache(cacheManager, regions, "tendersCache", primaryCacheLength, primaryCacheSize);
+        createCache(cacheManager, regions, "conclaveCache", primaryCacheLength, primaryCacheSize);
+        createCache(cacheManager, regions, "qAndACache", primaryCacheLength, primaryCacheSize);
+        createCache(cacheManager, regions, "stageCache", primaryCacheLength, primaryCacheSize);
+
+        // Lot suppliers are by far the largest agreement payloads, so are kept apart from the rest
+        createCache(cacheManager, regions, LOT_SUPPLIERS_CACHE, longCacheLength, longCacheSize);
+
+        // Short lived, as rfx statuses also move on in Jaggaer by themselves (e.g. on closing)
+        createCache(cacheManager, regions, RfxSummaryCache.CACHE_NAME, rfxSummaryCacheLength, rfxSummaryCacheSize);
+
+        // Scores are also checked against the assessment inputs and supplier submissions on every
+        // read, the expiry only frees those no longer being read
+        createCache(cacheManager, regions, AssessmentScoreCache.CACHE_NAME, assessmentScoresCacheLength, assessmentScoresCacheSize);
+
+        // Reference data, dropped when a CAP load changes the taxonomy
+        createCache(cacheManager, regions, DimensionDefinitionCache.CACHE_NAME, dimensionDefinitionsCacheLength, dimensionDefinitionsCacheSize);
 
         return cacheManager;
     }
 
     /**
-     * Builds a cache configuration object based on the specified life in seconds passed to it
+     * The JSR-107 cache manager creates its own statistics service, which it doesn't expose, so this
+     * one is attached to the Ehcache manager underneath it as a listener. It then follows the caches
+     * being added and removed, until the manager is closed
      */
-    private javax.cache.configuration.Configuration<Object, Object> getCacheConfigForSpecifiedLifespan(String cacheLength, String cacheSize) {
+    private static void startStatisticsService(DefaultStatisticsService statisticsService,
+            InternalCacheManager internalCacheManager) {
+        CacheManagerProviderService cacheManagerProvider = new CacheManagerProviderService() {
+            @Override
+            public InternalCacheManager getCacheManager() {
+                return internalCacheManager;
+            }
+
+            @Override
+            public void start(ServiceProvider<Service> serviceProvider) {
+            }
+
+            @Override
+            public void stop() {
+            }
+        };
+
+        statisticsService.start(new ServiceProvider<>() {
+            @Override
+            public <U extends Service> U getService(Class<U> serviceType) {
+                return serviceType.cast(cacheManagerProvider);
+            }
+
+            @Override
+            public <U extends Service> Collection<U> getServicesOfType(Class<U> serviceType) {
+                return List.of(getService(serviceType));
+            }
+        });
+    }
+
+    /**
+     * Creates a cache with the lifespan and size of its profile, unless the cache's region says otherwise
+     */
+    private void createCache(CacheManager cacheManager, Map<String, CacheRegionsConfig.Region> regions,
+            String cacheName, String cacheLength, String cacheSize) {
+        var region = regions.getOrDefault(cacheName, new CacheRegionsConfig.Region());
+        if (region.getCacheLength() != null) {
+            cacheLength = region.getCacheLength().toString();
+        }
+        if (region.getHeapSize() != null) {
+            cacheSize = region.getHeapSize().toString();
+        }
+
+        cacheManager.createCache(cacheName, getCacheConfigForSpecifiedLifespan(cacheLength, cacheSize, region));
+        if (region.isStatistics()) {
+            cacheManager.enableStatistics(cacheName, true);
+        }
+    }
+
+    /**
+     * Builds a cache configuration object based on the specified life in seconds passed to it, with
+     * the tiers the region asks for
+     */
+    private javax.cache.configuration.Configuration<Object, Object> getCacheConfigForSpecifiedLifespan(String cacheLength, String cacheSize,
+            CacheRegionsConfig.Region region) {
+        ResourcePoolsBuilder resourcePools = ResourcePoolsBuilder.newResourcePoolsBuilder().heap(Integer.parseInt(cacheSize));
+        if (region.getOffHeapMb() > 0) {
+            resourcePools = resourcePools.offheap(region.getOffHeapMb(), MemoryUnit.MB);
+        }
+
         CacheConfigurationBuilder<Object, Object> cacheConfigBuilder =
                 CacheConfigurationBuilder.newCacheConfigurationBuilder(
                                 Object.class,
                                 Object.class,
-                                ResourcePoolsBuilder
-                                        .newResourcePoolsBuilder().heap(Integer.parseInt(cacheSize)))
+                                resourcePools)
                         .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(Integer.parseInt(cacheLength))));
 
         javax.cache.configuration.Configuration<Object, Object> cacheConfig = Eh107Configuration.fromEhcacheCacheConfiguration(cacheConfigBuilder);
@@ -0,0 +1,248 @@
+package uk.gov.crowncommercial.dts.scale.cat.cache;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import javax.sql.DataSource;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import uk.gov.crowncommercial.dts.scale.cat.config.EnvironmentConfig;
+import uk.gov.crowncommercial.dts.scale.cat.config.ExperimentalFlagsConfig;
+
+/**
+ * Broadcasts cache invalidations to every instance of the service over Postgres LISTEN / NOTIFY on
+ * the Tenders DB, so that evicting something on one instance evicts it everywhere.
+ * <p>
+ * Callers invalidate their own instance's cache as before, then {@link #publish(String, String)}.
+ * Other instances evict the key from any Spring cache (Ehcache or static data) of that name, and
+ * raise a {@link CacheInvalidationEvent} for caches Spring doesn't manage. Notifications published
+ * within a transaction are only sent once it commits. If the listener loses its connection it
+ * clears every cache once reconnected, as invalidations sent in the meantime are lost.
+ */
+@Component
+@Slf4j
+public class CacheInvalidationBus implements DisposableBean {
+
+  // Postgres rejects NOTIFY payloads of 8000 bytes or more
+  static final int MAX_PAYLOAD_BYTES = 7900;
+
+  private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+  private static final TypeReference<Map<String, String>> MESSAGE_TYPE = new TypeReference<>() {};
+  private static final String SENDER = "sender";
+  private static final String CACHE = "cache";
+  private static final String KEY = "key";
+
+  private final DataSource dataSource;
+  private final JdbcTemplate jdbcTemplate;
+  private final ObjectMapper objectMapper;
+  private final ObjectProvider<CacheManager> cacheManagers;
+  private final ApplicationEventPublisher eventPublisher;
+  private final ExperimentalFlagsConfig experimentalFlags;
+  private final String channel;
+  private final Duration pollInterval;
+  private final Duration reconnectDelay;
+
+  // Instance IDs are reused on restart (and are the same for every instance run locally)
+  private final String sender;
+
+  private volatile boolean running;
+  private volatile boolean unsupported;
+  private Thread listener;
+
+  // Only used by the listener thread
+  private boolean subscribed;
+
+  public CacheInvalidationBus(final DataSource dataSource, final JdbcTemplate jdbcTemplate,
+      final ObjectMapper objectMapper, final ObjectProvider<CacheManager> cacheManagers,
+      final ApplicationEventPublisher eventPublisher, final ExperimentalFlagsConfig experimentalFlags,
+      final EnvironmentConfig environmentConfig,
+      @Value("${caching.invalidation.channel:cat_cache_invalidation}") final String channel,
+      @Value("${caching.invalidation.pollInterval:PT10S}") final Duration pollInterval,
+      @Value("${caching.invalidation.reconnectDelay:PT30S}") final Duration reconnectDelay) {
+    if (!CHANNEL_NAME.matcher(channel).matches()) {
+      throw new IllegalArgumentException("Invalid cache invalidation channel: " + channel);
+    }
+    this.dataSource = dataSource;
+    this.jdbcTemplate = jdbcTemplate;
+    this.objectMapper = objectMapper;
+    this.cacheManagers = cacheManagers;
+    this.eventPublisher = eventPublisher;
+    this.experimentalFlags = experimentalFlags;
+    this.channel = channel;
+    this.pollInterval = pollInterval;
+    this.reconnectDelay = reconnectDelay;
+    this.sender = environmentConfig.getServiceInstance() + "-" + UUID.randomUUID();
+  }
+
+  /**
+   * Tell the other instances to evict a key from a cache
+   *
+   * @param cache the cache name
+   * @param key the key to evict, or null to clear the cache
+   */
+  public void publish(final String cache, final String key) {
+    if (!experimentalFlags.isCacheInvalidationBusEnabled() || unsupported) {
+      return;
+    }
+    try {
+      var payload = payload(cache, key);
+      if (payload.getBytes(UTF_8).length > MAX_PAYLOAD_BYTES) {
+        // Too big to send, so clear the cache instead
+        payload = payload(cache, null);
+      }
+      jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, channel, payload);
+    } catch (Exception ex) {
+      // The cache entry will still expire, so don't fail the change that prompted this
+      log.warn("Unable to publish invalidation of cache [{}] key [{}]", cache, key, ex);
+    }
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public synchronized void start() {
+    if (!experimentalFlags.isCacheInvalidationBusEnabled() || listener != null) {
+      return;
+    }
+    running = true;
+    listener = new Thread(this::listen, "cache-invalidation");
+    listener.setDaemon(true);
+    listener.start();
+  }
+
+  @Override
+  public synchronized void destroy() {
+    running = false;
+    if (listener != null) {
+      listener.interrupt();
+    }
+  }
+
+  /**
+   * Apply an invalidation published by another instance
+   */
+  void handle(final String payload) {
+    Map<String, String> message;
+    try {
+      message = objectMapper.readValue(payload, MESSAGE_TYPE);
+    } catch (JsonProcessingException ex) {
+      log.warn("Ignoring malformed cache invalidation: {}", payload);
+      return;
+    }
+    if (sender.equals(message.get(SENDER)) || message.get(CACHE) == null) {
+      return;
+    }
+    receive(new CacheInvalidationEvent(message.get(CACHE), message.get(KEY)));
+  }
+
+  private void receive(final CacheInvalidationEvent event) {
+    log.debug("Invalidating cache [{}] key [{}]", event.getCache(), event.getKey());
+    cacheManagers.orderedStream().forEach(cacheManager -> cacheManager.getCacheNames().stream()
+        .filter(event::appliesTo).map(cacheManager::getCache).filter(Objects::nonNull)
+        .forEach(cache -> {
+          if (event.getKey() == null) {
+            cache.clear();
+          } else {
+            cache.evict(event.getKey());
+          }
+        }));
+    eventPublisher.publishEvent(event);
+  }
+
+  /**
+   * Holds a connection for as long as the service runs, listening for invalidations
+   */
+  private void listen() {
+    while (running) {
+      try (var connection = dataSource.getConnection()) {
+        if (!connection.isWrapperFor(PGConnection.class)) {
+          log.info("Cache invalidation needs a PostgreSQL DB, caches will only be invalidated locally");
+          unsupported = true;
+          return;
+        }
+        try {
+          listen(connection);
+        } finally {
+          // Stop the connection collecting notifications once it's back in the pool
+          unlisten(connection);
+        }
+      } catch (Exception ex) {
+        if (running) {
+          log.warn("Cache invalidation listener failed, reconnecting in {}", reconnectDelay, ex);
+          pause();
+        }
+      }
+    }
+  }
+
+  private void listen(final Connection connection) throws SQLException {
+    var pgConnection = connection.unwrap(PGConnection.class);
+    try (var statement = connection.createStatement()) {
+      statement.execute("LISTEN " + channel);
+    }
+    if (subscribed) {
+      log.info("Cache invalidation listener reconnected, clearing caches");
+      receive(new CacheInvalidationEvent(CacheInvalidationEvent.ALL, null));
+    }
+    subscribed = true;
+    log.info("Listening for cache invalidations on [{}] as [{}]", channel, sender);
+
+    while (running) {
+      var notifications = pgConnection.getNotifications((int) pollInterval.toMillis());
+      if (notifications == null || notifications.length == 0) {
+        // Nothing received, so make sure that's not because the connection has gone
+        if (!connection.isValid((int) Math.max(1, pollInterval.toSeconds()))) {
+          throw new SQLException("Cache invalidation listener connection is no longer valid");
+        }
+        continue;
+      }
+      for (PGNotification notification : notifications) {
+        handle(notification.getParameter());
+      }
+    }
+  }
+
+  private void unlisten(final Connection connection) {
+    try (var statement = connection.createStatement()) {
+      statement.execute("UNLISTEN *");
+    } catch (SQLException ex) {
+      log.debug("Unable to stop listening for cache invalidations", ex);
+    }
+  }
+
+  private void pause() {
+    try {
+      Thread.sleep(reconnectDelay.toMillis());
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      running = false;
+    }
+  }
+
+  @SneakyThrows
+  private String payload(final String cache, final String key) {
+    Map<String, String> message = new HashMap<>();
+    message.put(SENDER, sender);
+    message.put(CACHE, cache);
+    message.put(KEY, key);
+    return objectMapper.writeValueAsString(message);
+  }
+}
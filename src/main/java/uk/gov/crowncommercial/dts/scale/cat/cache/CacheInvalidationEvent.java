@@ -0,0 +1,28 @@
+package uk.gov.crowncommercial.dts.scale.cat.cache;
+
+import lombok.Value;
+
+/**
+ * Raised on each instance when another instance has changed data it may have cached, so caches
+ * outside of Spring's cache managers (which {@link CacheInvalidationBus} evicts from itself) can
+ * drop it too
+ */
+@Value
+public class CacheInvalidationEvent {
+
+  /**
+   * The cache name used when the instance may have missed invalidations, so should drop everything
+   */
+  public static final String ALL = "*";
+
+  String cache;
+
+  /**
+   * The key to evict, or null to clear the whole cache
+   */
+  String key;
+
+  public boolean appliesTo(final String cacheName) {
+    return ALL.equals(cache) || cacheName.equals(cache);
+  }
+}
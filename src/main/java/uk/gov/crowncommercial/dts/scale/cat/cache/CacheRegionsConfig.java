@@ -0,0 +1,51 @@
+package uk.gov.crowncommercial.dts.scale.cat.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Data;
+
+/**
+ * Per-cache overrides of the sizing and lifespan each cache otherwise takes from its profile
+ * (primary, long etc.), keyed by cache name under caching.regions
+ */
+@Configuration
+@ConfigurationProperties(prefix = "caching", ignoreUnknownFields = true)
+@Data
+public class CacheRegionsConfig {
+
+  private Map<String, Region> regions = new HashMap<>();
+
+  @Data
+  public static class Region {
+
+    /**
+     * Time to live, in seconds
+     */
+    private Integer cacheLength;
+
+    /**
+     * Age, in seconds, at which entries loaded through {@link SingleFlightCacheResolver} are reloaded
+     * in the background when read, while the current value is still served. Should be less than
+     * cacheLength
+     */
+    private Integer refreshAfter;
+
+    /**
+     * Heap tier size, in entries
+     */
+    private Integer heapSize;
+
+    /**
+     * Off-heap tier size, in MB. Off-heap entries are held serialised, so can only be used by caches
+     * whose keys and values are all Serializable. 0 to keep entries on heap only
+     */
+    private int offHeapMb;
+
+    /**
+     * Whether hit, miss, put and eviction counts are kept (and exported as metrics)
+     */
+    private boolean statistics = true;
+  }
+}
@@ -0,0 +1,51 @@
+package uk.gov.crowncommercial.dts.scale.cat.cache;
+
+import java.util.function.ToDoubleFunction;
+import javax.cache.CacheManager;
+import org.ehcache.core.spi.service.StatisticsService;
+import org.ehcache.core.statistics.TierStatistics;
+import org.springframework.stereotype.Component;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Reports how full each tier (heap, off-heap) of each cache is. Hits, misses, puts and evictions
+ * come from the JSR-107 statistics, which Spring Boot binds as the cache.* meters, but JSR-107 has
+ * no notion of size, so this reads Ehcache's own statistics for it, as started by
+ * {@link CacheConfig}.
+ */
+@Component
+@RequiredArgsConstructor
+public class CacheTierMetrics implements MeterBinder {
+
+  private final CacheManager ehCacheManager;
+  private final StatisticsService cacheStatisticsService;
+
+  @Override
+  public void bindTo(final MeterRegistry registry) {
+    for (String cacheName : ehCacheManager.getCacheNames()) {
+      var tiers = cacheStatisticsService.getCacheStatistics(cacheName).getTierStatistics();
+      tiers.forEach((tierName, tier) -> {
+        gauge(registry, "cache.tier.entries", "The number of entries in this tier of the cache",
+            cacheName, tierName, tier, TierStatistics::getMappings, null);
+        // Only tiers sized in bytes know how much they hold
+        if (tier.getOccupiedByteSize() >= 0) {
+          gauge(registry, "cache.tier.occupied", "The size of the entries in this tier of the cache",
+              cacheName, tierName, tier, TierStatistics::getOccupiedByteSize, BaseUnits.BYTES);
+          gauge(registry, "cache.tier.allocated", "The size this tier of the cache may grow to",
+              cacheName, tierName, tier, TierStatistics::getAllocatedByteSize, BaseUnits.BYTES);
+        }
+      });
+    }
+  }
+
+  private static void gauge(final MeterRegistry registry, final String name, final String description,
+      final String cacheName, final String tierName, final TierStatistics tier,
+      final ToDoubleFunction<TierStatistics> value, final String baseUnit) {
+    Gauge.builder(name, tier, value).description(description).baseUnit(baseUnit)
+        .tag("cache", cacheName).tag("tier", tierName).register(registry);
+  }
+}
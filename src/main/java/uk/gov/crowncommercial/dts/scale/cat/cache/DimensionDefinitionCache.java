@@ -0,0 +1,82 @@
+package uk.gov.crowncommercial.dts.scale.cat.cache;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import uk.gov.crowncommercial.dts.scale.cat.model.capability.generated.DimensionDefinition;
+import uk.gov.crowncommercial.dts.scale.cat.repo.RetryableTendersDBDelegate;
+
+/**
+ * Dimension definitions (options, groups and criteria) per assessment tool. These only change when
+ * a CAP load reloads the taxonomy, so each instance polls the taxonomy version and drops its
+ * definitions once it moves on. Definitions built while a load was in progress are held against
+ * the version they were read at, so are not served once the new version has been seen.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DimensionDefinitionCache {
+
+  public static final String CACHE_NAME = "dimensionDefinitionCache";
+
+  private final CacheManager ehCacheManager;
+  private final RetryableTendersDBDelegate retryableTendersDBDelegate;
+
+  private final AtomicReference<String> taxonomyVersion = new AtomicReference<>();
+
+  @Value
+  static class DefinitionsSnapshot {
+    String taxonomyVersion;
+    List<DimensionDefinition> dimensionDefinitions;
+  }
+
+  /**
+   * @return the tool's cached definitions, or those built (and cached) by the loader
+   */
+  public List<DimensionDefinition> get(final Integer toolId,
+      final Supplier<List<DimensionDefinition>> loader) {
+    var version = taxonomyVersion.get();
+    var snapshot = (DefinitionsSnapshot) getCache().get(toolId);
+    if (snapshot != null && Objects.equals(snapshot.getTaxonomyVersion(), version)) {
+      return snapshot.getDimensionDefinitions();
+    }
+
+    var dimensionDefinitions = List.copyOf(loader.get());
+    getCache().put(toolId, new DefinitionsSnapshot(version, dimensionDefinitions));
+    return dimensionDefinitions;
+  }
+
+  public void invalidateAll() {
+    getCache().removeAll();
+  }
+
+  /**
+   * Poll for CAP loads having changed the taxonomy
+   */
+  @Scheduled(fixedDelayString = "${caching.dimensionDefinitions.versionCheckInterval:PT1M}")
+  public void checkTaxonomyVersion() {
+    try {
+      var version = retryableTendersDBDelegate.getAssessmentTaxonomyVersion();
+      var previousVersion = taxonomyVersion.getAndSet(version);
+      if (previousVersion != null && !previousVersion.equals(version)) {
+        log.info("Assessment taxonomy changed from [{}] to [{}], dropping cached dimension definitions",
+            previousVersion, version);
+        invalidateAll();
+      }
+    } catch (Exception ex) {
+      log.warn("Unable to check the assessment taxonomy version", ex);
+    }
+  }
+
+  private Cache<Object, Object> getCache() {
+    return ehCacheManager.getCache(CACHE_NAME);
+  }
+}
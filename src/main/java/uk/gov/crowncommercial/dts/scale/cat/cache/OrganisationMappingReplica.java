@@ -0,0 +1,253 @@
+package uk.gov.crowncommercial.dts.scale.cat.cache;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import lombok.extern.slf4j.Slf4j;
+import uk.gov.crowncommercial.dts.scale.cat.config.ExperimentalFlagsConfig;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.OrganisationMapping;
+import uk.gov.crowncommercial.dts.scale.cat.repo.OrganisationMappingRepo;
+
+/**
+ * A copy of the organisation_mapping table held on each instance, indexed by each of its org IDs,
+ * so that resolving the mappings for every supplier on a lot doesn't need a query with thousands of
+ * IDs in its IN clause. The table is loaded on startup, then polled for new rows and reloaded in
+ * full periodically to pick up changes made by other instances. Changes made by this instance are
+ * applied as they are saved (or committed).
+ * <p>
+ * Until the first load completes, or with the replica disabled, bulk lookups return empty so the
+ * caller queries the DB instead. Single lookups only return hits, as a mapping created on another
+ * instance since the last poll would otherwise be reported missing (and possibly created again).
+ * Mappings are copied on the way out, so callers are free to change them.
+ */
+@Component
+@Slf4j
+public class OrganisationMappingReplica {
+
+  public static final String CACHE_NAME = "organisationMappings";
+
+  private final OrganisationMappingRepo organisationMappingRepo;
+  private final ExperimentalFlagsConfig experimentalFlags;
+  private final Duration reloadInterval;
+
+  private volatile Snapshot snapshot;
+  private volatile Instant loadedAt;
+
+  public OrganisationMappingReplica(final OrganisationMappingRepo organisationMappingRepo,
+      final ExperimentalFlagsConfig experimentalFlags,
+      @Value("${caching.organisationMappings.reloadInterval:PT1H}") final Duration reloadInterval) {
+    this.organisationMappingRepo = organisationMappingRepo;
+    this.experimentalFlags = experimentalFlags;
+    this.reloadInterval = reloadInterval;
+  }
+
+  /**
+   * Immutable view of the table, replaced whenever it changes
+   */
+  private static final class Snapshot {
+    final Map<Integer, OrganisationMapping> byId;
+    final Map<String, List<OrganisationMapping>> byOrganisationId;
+    final Map<String, List<OrganisationMapping>> byCasOrganisationId;
+    final Map<Integer, List<OrganisationMapping>> byExternalOrganisationId;
+    final int maxId;
+
+    Snapshot(final Map<Integer, OrganisationMapping> byId) {
+      this.byId = byId;
+      // As with the repo queries, only primary mappings are found by (CAS) org ID
+      var primary = byId.values().stream().filter(OrganisationMapping::isPrimaryInd).toList();
+      byOrganisationId = index(primary, OrganisationMapping::getOrganisationId);
+      byCasOrganisationId = index(primary, OrganisationMapping::getCasOrganisationId);
+      byExternalOrganisationId = index(byId.values(), OrganisationMapping::getExternalOrganisationId);
+      maxId = byId.keySet().stream().mapToInt(Integer::intValue).max().orElse(0);
+    }
+
+    private static <K> Map<K, List<OrganisationMapping>> index(
+        final Collection<OrganisationMapping> mappings, final Function<OrganisationMapping, K> key) {
+      Map<K, List<OrganisationMapping>> index = new HashMap<>(mappings.size() * 2);
+      mappings.stream().filter(mapping -> key.apply(mapping) != null).forEach(
+          mapping -> index.computeIfAbsent(key.apply(mapping), k -> new ArrayList<>(1)).add(mapping));
+      return index;
+    }
+  }
+
+  public Optional<Set<OrganisationMapping>> findByOrganisationIdIn(final Collection<String> organisationIds) {
+    return current().map(current -> lookup(current.byOrganisationId, organisationIds));
+  }
+
+  public Optional<Set<OrganisationMapping>> findByCasOrganisationIdIn(
+      final Collection<String> casOrganisationIds) {
+    return current().map(current -> lookup(current.byCasOrganisationId, casOrganisationIds));
+  }
+
+  public Optional<Set<OrganisationMapping>> findByExternalOrganisationIdIn(
+      final Collection<Integer> externalOrganisationIds) {
+    return current().map(current -> lookup(current.byExternalOrganisationId, externalOrganisationIds));
+  }
+
+  public Optional<OrganisationMapping> findByOrganisationId(final String organisationId) {
+    return current().flatMap(current -> single(current.byOrganisationId.get(organisationId)));
+  }
+
+  public Optional<OrganisationMapping> findByCasOrganisationId(final String casOrganisationId) {
+    return current().flatMap(current -> single(current.byCasOrganisationId.get(casOrganisationId)));
+  }
+
+  public Optional<OrganisationMapping> findByExternalOrganisationId(final Integer externalOrganisationId) {
+    return current().flatMap(current -> single(current.byExternalOrganisationId.get(externalOrganisationId)));
+  }
+
+  /**
+   * Apply a mapping this instance has saved, once its transaction (if any) commits
+   */
+  public void put(final OrganisationMapping organisationMapping) {
+    if (organisationMapping == null || organisationMapping.getId() == null) {
+      return;
+    }
+    var saved = copy(organisationMapping);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          apply(List.of(saved), Set.of());
+        }
+      });
+    } else {
+      apply(List.of(saved), Set.of());
+    }
+  }
+
+  /**
+   * Re-read the mappings currently held against the given org ID (by either its PPG or CAS ID), for
+   * when they have been changed outside of {@link #put(OrganisationMapping)}
+   */
+  public void refreshOrganisation(final String orgId) {
+    var current = snapshot;
+    if (current == null) {
+      return;
+    }
+    Set<Integer> ids = new HashSet<>();
+    current.byOrganisationId.getOrDefault(orgId, List.of()).forEach(mapping -> ids.add(mapping.getId()));
+    current.byCasOrganisationId.getOrDefault(orgId, List.of()).forEach(mapping -> ids.add(mapping.getId()));
+    if (ids.isEmpty()) {
+      return;
+    }
+
+    try {
+      var reread = organisationMappingRepo.findAllById(ids);
+      Set<Integer> removed = new HashSet<>(ids);
+      reread.forEach(mapping -> removed.remove(mapping.getId()));
+      apply(reread, removed);
+    } catch (Exception ex) {
+      // Can't tell what changed, so stop serving lookups until the next load
+      log.warn("Unable to refresh organisation mappings for [{}], reloading", orgId, ex);
+      invalidate();
+    }
+  }
+
+  /**
+   * Re-read mappings another instance has changed, or drop the lot if it may have missed changes
+   */
+  @EventListener(condition = "#event.appliesTo('" + CACHE_NAME + "')")
+  public void onInvalidation(final CacheInvalidationEvent event) {
+    if (event.getKey() == null) {
+      // Served from the DB until the next refresh reloads
+      invalidate();
+    } else {
+      refreshOrganisation(event.getKey());
+    }
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void load() {
+    if (!experimentalFlags.isOrgMappingReplicaEnabled()) {
+      return;
+    }
+    try {
+      var start = Instant.now();
+      Map<Integer, OrganisationMapping> byId = new HashMap<>();
+      organisationMappingRepo.findAll().forEach(mapping -> byId.put(mapping.getId(), mapping));
+      synchronized (this) {
+        snapshot = new Snapshot(byId);
+        loadedAt = start;
+      }
+      log.info("Loaded {} organisation mappings in {}ms", byId.size(),
+          Duration.between(start, Instant.now()).toMillis());
+    } catch (Exception ex) {
+      log.warn("Unable to load organisation mappings", ex);
+    }
+  }
+
+  /**
+   * Poll for mappings added by other instances, reloading in full once the last load is old enough
+   * to have missed changes to existing mappings
+   */
+  @Scheduled(fixedDelayString = "${caching.organisationMappings.refreshInterval:PT1M}",
+      initialDelayString = "${caching.organisationMappings.refreshInterval:PT1M}")
+  public void refresh() {
+    if (!experimentalFlags.isOrgMappingReplicaEnabled()) {
+      invalidate();
+      return;
+    }
+    var current = snapshot;
+    if (current == null || Instant.now().isAfter(loadedAt.plus(reloadInterval))) {
+      load();
+      return;
+    }
+    try {
+      var added = organisationMappingRepo.findByIdGreaterThan(current.maxId);
+      if (!added.isEmpty()) {
+        log.debug("Adding {} new organisation mappings", added.size());
+        apply(added, Set.of());
+      }
+    } catch (Exception ex) {
+      log.warn("Unable to check for new organisation mappings", ex);
+    }
+  }
+
+  public synchronized void invalidate() {
+    snapshot = null;
+  }
+
+  private synchronized void apply(final Iterable<OrganisationMapping> changed, final Set<Integer> removed) {
+    var current = snapshot;
+    if (current == null) {
+      return;
+    }
+    Map<Integer, OrganisationMapping> byId = new HashMap<>(current.byId);
+    changed.forEach(mapping -> byId.put(mapping.getId(), mapping));
+    removed.forEach(byId::remove);
+    snapshot = new Snapshot(byId);
+  }
+
+  private Optional<Snapshot> current() {
+    return experimentalFlags.isOrgMappingReplicaEnabled() ? Optional.ofNullable(snapshot)
+        : Optional.empty();
+  }
+
+  private static <K> Set<OrganisationMapping> lookup(final Map<K, List<OrganisationMapping>> index,
+      final Collection<K> keys) {
+    Set<OrganisationMapping> mappings = new HashSet<>();
+    keys.forEach(key -> index.getOrDefault(key, List.of()).forEach(mapping -> mappings.add(copy(mapping))));
+    return mappings;
+  }
+
+  private static Optional<OrganisationMapping> single(final List<OrganisationMapping> mappings) {
+    // Several mappings for one ID is an error the DB query reports, so leave it to that
+    return mappings != null && mappings.size() == 1 ? Optional.of(copy(mappings.getFirst()))
+        : Optional.empty();
+  }
+
+  private static OrganisationMapping copy(final OrganisationMapping mapping) {
+    return new OrganisationMapping(mapping.getId(), mapping.getOrganisationId(),
+        mapping.getCasOrganisationId(), mapping.getExternalOrganisationId(), mapping.isPrimaryInd(),
+        mapping.getCreatedBy(), mapping.getCreatedAt());
+  }
+}
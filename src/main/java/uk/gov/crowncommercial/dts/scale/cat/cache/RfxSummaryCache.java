@@ -0,0 +1,104 @@
+package uk.gov.crowncommercial.dts.scale.cat.cache;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import lombok.RequiredArgsConstructor;
+import uk.gov.crowncommercial.dts.scale.cat.model.jaggaer.ExportRfxResponse;
+
+/**
+ * Recently searched Jaggaer rfxs, so the dashboard, project list and search sync don't each go back
+ * to Jaggaer for the same rfxs within seconds of each other. Entries are held per rfxId and set of
+ * requested components, and all of an rfx's entries are dropped when it is changed through
+ * {@link uk.gov.crowncommercial.dts.scale.cat.service.JaggaerService}, on every instance.
+ */
+@Component
+@RequiredArgsConstructor
+public class RfxSummaryCache {
+
+  public static final String CACHE_NAME = "rfxSummaryCache";
+
+  /*
+   * Invalidations are broadcast by rfxId, which isn't a key of the underlying cache
+   */
+  static final String INVALIDATION_NAME = "rfxSummaries";
+
+  private final CacheManager ehCacheManager;
+  private final CacheInvalidationBus cacheInvalidationBus;
+
+  /*
+   * Component sets requested so far, so every entry for an rfx can be found to invalidate it
+   */
+  private final Set<String> componentKeys = ConcurrentHashMap.newKeySet();
+
+  /**
+   * @return the cached rfxs of those requested, keyed by rfxId
+   */
+  public Map<String, ExportRfxResponse> getAll(final Collection<String> rfxIds,
+      final Set<String> components) {
+    var componentKey = componentKey(components);
+    var keys = rfxIds.stream().map(rfxId -> key(componentKey, rfxId)).collect(Collectors.toSet());
+
+    var rfxs = new HashMap<String, ExportRfxResponse>();
+    getCache().getAll(keys).values().forEach(rfx -> {
+      var exportRfxResponse = (ExportRfxResponse) rfx;
+      rfxs.put(exportRfxResponse.getRfxSetting().getRfxId(), exportRfxResponse);
+    });
+    return rfxs;
+  }
+
+  public void putAll(final Collection<ExportRfxResponse> rfxs, final Set<String> components) {
+    var componentKey = componentKey(components);
+    componentKeys.add(componentKey);
+
+    Map<Object, Object> entries = new HashMap<>();
+    rfxs.forEach(rfx -> entries.put(key(componentKey, rfx.getRfxSetting().getRfxId()), rfx));
+    getCache().putAll(entries);
+  }
+
+  /**
+   * Drop an rfx that has been changed, here and on the other instances
+   */
+  public void invalidate(final String rfxId) {
+    if (rfxId != null) {
+      evict(rfxId);
+      cacheInvalidationBus.publish(INVALIDATION_NAME, rfxId);
+    }
+  }
+
+  /**
+   * Another instance has changed an rfx, or may have missed changes if no rfxId is given
+   */
+  @EventListener(condition = "#event.appliesTo('" + INVALIDATION_NAME + "')")
+  public void onInvalidation(final CacheInvalidationEvent event) {
+    if (event.getKey() == null) {
+      getCache().clear();
+    } else {
+      evict(event.getKey());
+    }
+  }
+
+  private void evict(final String rfxId) {
+    getCache().removeAll(componentKeys.stream().map(componentKey -> key(componentKey, rfxId))
+        .collect(Collectors.toSet()));
+  }
+
+  private Cache<Object, Object> getCache() {
+    return ehCacheManager.getCache(CACHE_NAME);
+  }
+
+  private static String componentKey(final Set<String> components) {
+    return components.stream().sorted().collect(Collectors.joining(";"));
+  }
+
+  private static String key(final String componentKey, final String rfxId) {
+    return componentKey + "|" + rfxId;
+  }
+}
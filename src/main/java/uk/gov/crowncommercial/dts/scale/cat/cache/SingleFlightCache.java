@@ -0,0 +1,256 @@
+package uk.gov.crowncommercial.dts.scale.cat.cache;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Decorates a cache so that concurrent misses on a key share a single load, rather than each
+ * calling the remote service, and so that entries past their refresh time are reloaded in the
+ * background while the current value carries on being served. Loading only happens through
+ * {@link #get(Object, Callable)}, which is what {@code @Cacheable(sync = true)} uses. A load still
+ * under way when its key is evicted isn't cached.
+ * <p>
+ * Values are held with the time they were loaded, so the underlying cache should only be used
+ * through this for the keys it loads. Only give a refresh time to caches whose loaders throw when
+ * they fail, as a default returned instead would replace the current value.
+ */
+@Slf4j
+class SingleFlightCache implements Cache {
+
+  static final String METRIC_COALESCED = "cache.loads.coalesced";
+  static final String METRIC_REFRESHES = "cache.refreshes";
+
+  // How long to leave a key whose refresh failed before trying again, to not hammer a service that's down
+  private static final long REFRESH_RETRY_DELAY_MILLIS = Duration.ofSeconds(30).toMillis();
+
+  private final Cache delegate;
+  private final Duration refreshAfter;
+  private final Executor refreshExecutor;
+  private final Counter coalesced;
+  private final Counter refreshed;
+  private final Counter refreshFailed;
+  private final Map<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+  private final Map<Object, Long> refreshRetryAt = new ConcurrentHashMap<>();
+
+  /**
+   * @param refreshAfter the age at which entries are reloaded in the background, or null to leave
+   *        them until they expire
+   */
+  SingleFlightCache(final Cache delegate, final Duration refreshAfter, final Executor refreshExecutor,
+      final MeterRegistry meterRegistry) {
+    this.delegate = delegate;
+    this.refreshAfter = refreshAfter;
+    this.refreshExecutor = refreshExecutor;
+    coalesced = Counter.builder(METRIC_COALESCED)
+        .description("Cache misses that waited for another caller's load of the same key")
+        .tag("cache", delegate.getName()).register(meterRegistry);
+    refreshed = Counter.builder(METRIC_REFRESHES)
+        .description("Cache entries reloaded in the background before they expired")
+        .tag("cache", delegate.getName()).tag("result", "success").register(meterRegistry);
+    refreshFailed = Counter.builder(METRIC_REFRESHES)
+        .description("Cache entries reloaded in the background before they expired")
+        .tag("cache", delegate.getName()).tag("result", "failure").register(meterRegistry);
+  }
+
+  /**
+   * A cached value and when it was loaded
+   */
+  @Value
+  static class Loaded implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    Object value;
+    long loadedAt;
+  }
+
+  @Override
+  public String getName() {
+    return delegate.getName();
+  }
+
+  @Override
+  public Object getNativeCache() {
+    return delegate.getNativeCache();
+  }
+
+  @Override
+  public ValueWrapper get(final Object key) {
+    return unwrap(delegate.get(key));
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T get(final Object key, final Class<T> type) {
+    var cached = get(key);
+    var value = cached != null ? cached.get() : null;
+    if (value != null && type != null && !type.isInstance(value)) {
+      throw new IllegalStateException(
+          "Cached value is not of required type [" + type.getName() + "]: " + value);
+    }
+    return (T) value;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T get(final Object key, final Callable<T> valueLoader) {
+    var cached = delegate.get(key);
+    if (cached != null) {
+      if (cached.get() instanceof Loaded loaded) {
+        if (isDueForRefresh(key, loaded)) {
+          refreshInBackground(key, valueLoader);
+        }
+        return (T) loaded.getValue();
+      }
+      return (T) cached.get();
+    }
+
+    var load = new CompletableFuture<Object>();
+    var existing = inFlight.putIfAbsent(key, load);
+    if (existing != null) {
+      coalesced.increment();
+      return (T) await(key, valueLoader, existing);
+    }
+    // Another caller may have finished loading it between the lookup and now
+    cached = delegate.get(key);
+    if (cached != null) {
+      var value = unwrap(cached).get();
+      load.complete(value);
+      inFlight.remove(key, load);
+      return (T) value;
+    }
+    return (T) load(key, valueLoader, load);
+  }
+
+  @Override
+  public void put(final Object key, final Object value) {
+    delegate.put(key, new Loaded(value, System.currentTimeMillis()));
+  }
+
+  @Override
+  public ValueWrapper putIfAbsent(final Object key, final Object value) {
+    return unwrap(delegate.putIfAbsent(key, new Loaded(value, System.currentTimeMillis())));
+  }
+
+  /*
+   * Loads under way are dropped from inFlight before the entries are evicted, so they aren't cached
+   * once they finish and later callers don't wait for them
+   */
+  @Override
+  public void evict(final Object key) {
+    inFlight.remove(key);
+    refreshRetryAt.remove(key);
+    delegate.evict(key);
+  }
+
+  @Override
+  public boolean evictIfPresent(final Object key) {
+    inFlight.remove(key);
+    refreshRetryAt.remove(key);
+    return delegate.evictIfPresent(key);
+  }
+
+  @Override
+  public void clear() {
+    inFlight.clear();
+    refreshRetryAt.clear();
+    delegate.clear();
+  }
+
+  @Override
+  public boolean invalidate() {
+    inFlight.clear();
+    refreshRetryAt.clear();
+    return delegate.invalidate();
+  }
+
+  private boolean isDueForRefresh(final Object key, final Loaded loaded) {
+    if (refreshAfter == null) {
+      return false;
+    }
+    var now = System.currentTimeMillis();
+    return now - loaded.getLoadedAt() >= refreshAfter.toMillis()
+        && now >= refreshRetryAt.getOrDefault(key, 0L);
+  }
+
+  private void refreshInBackground(final Object key, final Callable<?> valueLoader) {
+    var refresh = new CompletableFuture<Object>();
+    if (inFlight.putIfAbsent(key, refresh) != null) {
+      return;
+    }
+    try {
+      refreshExecutor.execute(() -> {
+        try {
+          load(key, valueLoader, refresh);
+          refreshRetryAt.remove(key);
+          refreshed.increment();
+        } catch (ValueRetrievalException ex) {
+          // Keys past their retry time are as good as absent, so don't keep them for keys since expired
+          var now = System.currentTimeMillis();
+          refreshRetryAt.values().removeIf(retryAt -> retryAt <= now);
+          refreshRetryAt.put(key, now + REFRESH_RETRY_DELAY_MILLIS);
+          refreshFailed.increment();
+          log.warn("Unable to refresh [{}] in cache [{}], the current value is used until it expires",
+              key, getName(), ex.getCause());
+        }
+      });
+    } catch (RejectedExecutionException ex) {
+      // Busy refreshing other entries, so this one is left for a later read
+      inFlight.remove(key, refresh);
+      refresh.cancel(false);
+      log.debug("Skipped refreshing [{}] in cache [{}]", key, getName());
+    }
+  }
+
+  private Object load(final Object key, final Callable<?> valueLoader,
+      final CompletableFuture<Object> load) {
+    try {
+      var value = valueLoader.call();
+      put(key, value);
+      if (inFlight.get(key) != load) {
+        // Evicted while loading, so the value may be from before whatever it was evicted for
+        delegate.evict(key);
+      }
+      load.complete(value);
+      return value;
+    } catch (Exception ex) {
+      load.completeExceptionally(ex);
+      throw new ValueRetrievalException(key, valueLoader, ex);
+    } finally {
+      inFlight.remove(key, load);
+      // Don't leave anyone waiting if the loader threw an Error
+      load.cancel(false);
+    }
+  }
+
+  private static Object await(final Object key, final Callable<?> valueLoader,
+      final CompletableFuture<Object> load) {
+    try {
+      return load.join();
+    } catch (CompletionException ex) {
+      throw new ValueRetrievalException(key, valueLoader, ex.getCause());
+    } catch (CancellationException ex) {
+      throw new ValueRetrievalException(key, valueLoader, ex);
+    }
+  }
+
+  private static ValueWrapper unwrap(final ValueWrapper cached) {
+    if (cached != null && cached.get() instanceof Loaded loaded) {
+      return new SimpleValueWrapper(loaded.getValue());
+    }
+    return cached;
+  }
+}
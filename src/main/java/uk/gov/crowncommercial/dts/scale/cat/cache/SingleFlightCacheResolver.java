@@ -0,0 +1,73 @@
+package uk.gov.crowncommercial.dts.scale.cat.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.CacheOperationInvocationContext;
+import org.springframework.cache.interceptor.CacheResolver;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Resolves caches as {@link SingleFlightCache}s, for lookups of remote services that are expensive
+ * enough, and asked for by enough callers at once, to be worth loading once per key and refreshing
+ * ahead of expiry. Used by naming it as the cacheResolver of a {@code @Cacheable(sync = true)}
+ * method. Entries are refreshed once older than their cache region's refreshAfter.
+ */
+@Component(SingleFlightCacheResolver.NAME)
+public class SingleFlightCacheResolver implements CacheResolver, DisposableBean {
+
+  public static final String NAME = "singleFlightCacheResolver";
+
+  private final CacheManager cacheManager;
+  private final CacheRegionsConfig cacheRegionsConfig;
+  private final MeterRegistry meterRegistry;
+  private final ThreadPoolTaskExecutor refreshExecutor;
+  private final Map<String, SingleFlightCache> caches = new ConcurrentHashMap<>();
+
+  public SingleFlightCacheResolver(final CacheManager cacheManager,
+      final CacheRegionsConfig cacheRegionsConfig, final MeterRegistry meterRegistry,
+      @Value("${caching.refreshAhead.threads:4}") final int threads) {
+    this.cacheManager = cacheManager;
+    this.cacheRegionsConfig = cacheRegionsConfig;
+    this.meterRegistry = meterRegistry;
+
+    // Refreshes that don't fit in the queue are skipped, and tried again on a later read
+    refreshExecutor = new ThreadPoolTaskExecutor();
+    refreshExecutor.setCorePoolSize(Math.max(1, threads));
+    refreshExecutor.setMaxPoolSize(Math.max(1, threads));
+    refreshExecutor.setThreadNamePrefix("cache-refresh-");
+    refreshExecutor.setQueueCapacity(100);
+    refreshExecutor.initialize();
+  }
+
+  @Override
+  public Collection<? extends Cache> resolveCaches(
+      final CacheOperationInvocationContext<?> context) {
+    return context.getOperation().getCacheNames().stream()
+        .map(cacheName -> caches.computeIfAbsent(cacheName, this::decorate)).toList();
+  }
+
+  @Override
+  public void destroy() {
+    refreshExecutor.shutdown();
+  }
+
+  private SingleFlightCache decorate(final String cacheName) {
+    var cache = cacheManager.getCache(cacheName);
+    if (cache == null) {
+      throw new IllegalArgumentException("Cannot find cache named '" + cacheName + "'");
+    }
+    var region = cacheRegionsConfig.getRegions().get(cacheName);
+    var refreshAfter = region != null && region.getRefreshAfter() != null
+        ? Duration.ofSeconds(region.getRefreshAfter())
+        : null;
+    return new SingleFlightCache(cache, refreshAfter, refreshExecutor, meterRegistry);
+  }
+}
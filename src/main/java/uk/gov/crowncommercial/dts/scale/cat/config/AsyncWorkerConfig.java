@@ -0,0 +1,38 @@
+package uk.gov.crowncommercial.dts.scale.cat.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Data;
+
+/**
+ * Settings for the workers that claim and run persisted async tasks. Concurrency is per
+ * {@link uk.gov.crowncommercial.dts.scale.cat.processors.async.AsyncConsumer} bean name, per
+ * service instance.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "config.async.workers", ignoreUnknownFields = true)
+@Data
+public class AsyncWorkerConfig {
+
+  private int defaultConcurrency = 4;
+  private Map<String, Integer> concurrency = new HashMap<>();
+
+  /** Poll interval while there is work to claim, backing off to the max when idle */
+  private Duration minPollInterval = Duration.ofMillis(250);
+  private Duration maxPollInterval = Duration.ofSeconds(30);
+
+  /** A claimed task not renewed for this long is treated as abandoned and may be re-claimed */
+  private Duration lease = Duration.ofMinutes(5);
+  private Duration retryDelay = Duration.ofMinutes(2);
+
+  public int concurrencyFor(final String consumer) {
+    return Math.max(1, concurrency.getOrDefault(consumer, defaultConcurrency));
+  }
+
+  public Duration getLeaseRenewalInterval() {
+    return lease.dividedBy(3);
+  }
+}
@@ -13,4 +13,11 @@ public class ExperimentalFlagsConfig {
     private boolean asyncMissedJobsLoader = true;
     private boolean asyncOrphanJobsLoader = true;
     private boolean asyncResumeJobsOnStartup = true;
+    private boolean asyncWorkClaimingEnabled = false;
+    private boolean columnarScoringEnabled = false;
+    private boolean parallelScoringEnabled = false;
+    private int parallelScoringSupplierThreshold = 1000;
+    private boolean parallelDocGenEnabled = true;
+    private boolean orgMappingReplicaEnabled = true;
+    private boolean cacheInvalidationBusEnabled = true;
 }
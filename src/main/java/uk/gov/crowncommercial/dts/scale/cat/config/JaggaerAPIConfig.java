@@ -29,6 +29,9 @@ public class JaggaerAPIConfig {
   private String defaultBuyerRightsProfile;
   private String defaultSupplierRightsProfile;
   private Integer timeoutDuration;
+  /** Max rfx ids per search request, and how many of those requests a bulk search runs at once */
+  private Integer searchRfxBatchSize = 50;
+  private Integer searchRfxConcurrency = 4;
   private Map<Integer, TenderStatus> rfxStatusToTenderStatus;
   private Map<Integer, Map<String, TenderStatus>> rfxStatusAndEventTypeToTenderStatus;
   private Boolean addDivisionToProjectTeam;
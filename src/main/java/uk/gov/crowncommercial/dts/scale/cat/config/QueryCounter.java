@@ -0,0 +1,55 @@
+package uk.gov.crowncommercial.dts.scale.cat.config;
+
+import java.util.Map;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread while a unit of work runs,
+ * lazy loads included, so read paths can report how many queries they cost. Nested counts are also
+ * included in the enclosing count.
+ */
+@Component
+public class QueryCounter implements StatementInspector, HibernatePropertiesCustomizer {
+
+  private static final ThreadLocal<int[]> STATEMENTS = new ThreadLocal<>();
+
+  /**
+   * Run the work, passing the number of statements it ran to the consumer (whether or not it
+   * completes)
+   */
+  public static <T> T count(final Supplier<T> work, final IntConsumer statementCount) {
+    var enclosing = STATEMENTS.get();
+    var statements = new int[1];
+    STATEMENTS.set(statements);
+    try {
+      return work.get();
+    } finally {
+      if (enclosing == null) {
+        STATEMENTS.remove();
+      } else {
+        enclosing[0] += statements[0];
+        STATEMENTS.set(enclosing);
+      }
+      statementCount.accept(statements[0]);
+    }
+  }
+
+  @Override
+  public String inspect(final String sql) {
+    var statements = STATEMENTS.get();
+    if (statements != null) {
+      statements[0]++;
+    }
+    return sql;
+  }
+
+  @Override
+  public void customize(final Map<String, Object> hibernateProperties) {
+    hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+  }
+}
@@ -6,7 +6,6 @@ import static uk.gov.crowncommercial.dts.scale.cat.service.scheduler.ProjectsCSV
 import java.io.IOException;
 import java.util.Base64;
 import java.util.Collection;
-import org.apache.commons.io.IOUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
@@ -197,9 +196,8 @@ public class ProjectsController extends AbstractRestController {
   @GetMapping(value = "/download")
   public void downloadFile(HttpServletResponse response,
                            @RequestParam("fileType") String fileType) throws IOException {
-    var downloadProjectsData = procurementProjectService.downloadProjectsData(fileType);
     setHeaderAndContentTypeBasedOnFileType(fileType, response);
-    IOUtils.copy(downloadProjectsData, response.getOutputStream());
+    procurementProjectService.downloadProjectsData(fileType, response.getOutputStream());
     response.flushBuffer();
   }
 
@@ -1,12 +1,13 @@
 package uk.gov.crowncommercial.dts.scale.cat.model.agreements;
 
+import java.io.Serializable;
 import lombok.Data;
 
 /**
  * Address (e.g. of an Organization)
  */
 @Data
-public class Address {
+public class Address implements Serializable {
 
   /**
    * The street address. For example, 1600 Amphitheatre Pkwy.
@@ -1,5 +1,6 @@
 package uk.gov.crowncommercial.dts.scale.cat.model.agreements;
 
+import java.io.Serializable;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 
@@ -7,7 +8,7 @@ import lombok.Data;
  * Contact
  */
 @Data
-public class Contact {
+public class Contact implements Serializable {
 
   @JsonProperty("contact")
   ContactPoint contactPoint;
@@ -1,12 +1,13 @@
 package uk.gov.crowncommercial.dts.scale.cat.model.agreements;
 
+import java.io.Serializable;
 import lombok.Data;
 
 /**
  * Contact point
  */
 @Data
-public class ContactPoint {
+public class ContactPoint implements Serializable {
 
   /**
    * The name of the contact person, department, or contact point, for correspondence relating to
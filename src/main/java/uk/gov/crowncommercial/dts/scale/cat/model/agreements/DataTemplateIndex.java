@@ -0,0 +1,118 @@
+package uk.gov.crowncommercial.dts.scale.cat.model.agreements;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Flat lookup of the requirements in a {@link DataTemplate}, so individual questions can be found
+ * without walking the criteria / requirement group / requirement tree each time.
+ *
+ * <p>
+ * Two views are held, matching the two ways templates are searched:
+ * <ul>
+ * <li>by criterion, group and requirement id, ignoring case and only within groups which have a
+ * description - the requirements are kept in template order, as the first one with options
+ * wins</li>
+ * <li>by group and requirement id, as used when one template inherits answers from another - the
+ * last requirement in the template wins</li>
+ * </ul>
+ * Requirements are referenced rather than copied, so the index reflects changes to their answers,
+ * but not requirements added to or removed from the template after it was built.
+ * </p>
+ */
+public final class DataTemplateIndex {
+
+  public static final DataTemplateIndex EMPTY = new DataTemplateIndex(Map.of(), Map.of());
+
+  private final Map<String, List<Requirement>> requirements;
+  private final Map<String, Requirement> questions;
+
+  private DataTemplateIndex(final Map<String, List<Requirement>> requirements,
+      final Map<String, Requirement> questions) {
+    this.requirements = requirements;
+    this.questions = questions;
+  }
+
+  public static DataTemplateIndex of(final DataTemplate template) {
+    if (template == null || template.getCriteria() == null) {
+      return EMPTY;
+    }
+
+    var requirements = new HashMap<String, List<Requirement>>();
+    var questions = new HashMap<String, Requirement>();
+    Set<String> criteriaSeen = new HashSet<>();
+
+    for (TemplateCriteria criteria : template.getCriteria()) {
+      if (criteria == null) {
+        continue;
+      }
+      // Only the first criterion with a given id is ever searched
+      var searchable = criteria.getId() != null && criteriaSeen.add(normalise(criteria.getId()));
+      if (criteria.getRequirementGroups() == null) {
+        continue;
+      }
+
+      for (RequirementGroup group : criteria.getRequirementGroups()) {
+        if (group == null || group.getOcds() == null || group.getOcds().getRequirements() == null) {
+          continue;
+        }
+        var groupOcds = group.getOcds();
+        for (Requirement requirement : groupOcds.getRequirements()) {
+          if (requirement == null || requirement.getOcds() == null) {
+            continue;
+          }
+          var requirementId = requirement.getOcds().getId();
+          questions.put(questionKey(groupOcds.getId(), requirementId), requirement);
+
+          if (searchable && groupOcds.getId() != null && groupOcds.getDescription() != null
+              && requirementId != null) {
+            requirements
+                .computeIfAbsent(key(criteria.getId(), groupOcds.getId(), requirementId),
+                    k -> new ArrayList<>())
+                .add(requirement);
+          }
+        }
+      }
+    }
+
+    requirements.replaceAll((key, matches) -> List.copyOf(matches));
+    return new DataTemplateIndex(Map.copyOf(requirements), Map.copyOf(questions));
+  }
+
+  /**
+   * Requirements with the given ids (ignoring case), in template order
+   */
+  public List<Requirement> find(final String criterionId, final String groupId,
+      final String requirementId) {
+    if (criterionId == null || groupId == null || requirementId == null) {
+      return List.of();
+    }
+    return requirements.getOrDefault(key(criterionId, groupId, requirementId), List.of());
+  }
+
+  /**
+   * The requirement a question in another template inherits from
+   */
+  public Requirement getQuestion(final String groupId, final String requirementId) {
+    return questions.get(questionKey(groupId, requirementId));
+  }
+
+  private static String key(final String criterionId, final String groupId,
+      final String requirementId) {
+    return normalise(criterionId) + '\u0000' + normalise(groupId) + '\u0000'
+        + normalise(requirementId);
+  }
+
+  private static String questionKey(final String groupId, final String requirementId) {
+    return groupId + ":" + requirementId;
+  }
+
+  private static String normalise(final String id) {
+    return id.toLowerCase(Locale.ROOT);
+  }
+}
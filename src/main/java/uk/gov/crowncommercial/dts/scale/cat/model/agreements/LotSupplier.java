@@ -5,6 +5,7 @@ import lombok.Data;
 import lombok.Value;
 import lombok.extern.jackson.Jacksonized;
 
+import java.io.Serializable;
 import java.util.Set;
 
 /**
@@ -14,7 +15,7 @@ import java.util.Set;
 @Builder
 @Jacksonized
 @Data
-public class LotSupplier {
+public class LotSupplier implements Serializable {
 
   Organization organization;
 
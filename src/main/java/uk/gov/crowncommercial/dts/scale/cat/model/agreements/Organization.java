@@ -1,5 +1,6 @@
 package uk.gov.crowncommercial.dts.scale.cat.model.agreements;
 
+import java.io.Serializable;
 import lombok.Builder;
 import lombok.Value;
 import lombok.extern.jackson.Jacksonized;
@@ -10,7 +11,7 @@ import lombok.extern.jackson.Jacksonized;
 @Value
 @Builder
 @Jacksonized
-public class Organization {
+public class Organization implements Serializable {
 
   String id;
 
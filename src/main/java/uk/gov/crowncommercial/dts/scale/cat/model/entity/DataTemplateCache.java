@@ -0,0 +1,110 @@
+package uk.gov.crowncommercial.dts.scale.cat.model.entity;
+
+import java.time.Duration;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import uk.gov.crowncommercial.dts.scale.cat.model.agreements.DataTemplate;
+import uk.gov.crowncommercial.dts.scale.cat.model.agreements.DataTemplateIndex;
+
+/**
+ * Parsed {@link DataTemplate} payloads of {@link ProcurementEvent}s, keyed by event id and checked
+ * against the payload they were parsed from, so the same JSON is only parsed once however many
+ * times (and from however many entity instances) it is read. The {@link DataTemplateIndex} of each
+ * template is built on first use and cached alongside it.
+ */
+final class DataTemplateCache {
+
+  private static final String METRIC_PARSES = "cat.data.template.parses";
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  static final ObjectReader READER = MAPPER.readerFor(DataTemplate.class);
+  static final ObjectWriter WRITER = MAPPER.writerFor(DataTemplate.class);
+
+  private static final Cache<Integer, ParsedTemplate> CACHE = CacheBuilder.newBuilder()
+      .maximumSize(500).expireAfterAccess(Duration.ofMinutes(30)).build();
+
+  private static final Counter PARSED =
+      Counter.builder(METRIC_PARSES).tag("outcome", "parsed").register(Metrics.globalRegistry);
+  private static final Counter SAVED =
+      Counter.builder(METRIC_PARSES).tag("outcome", "saved").register(Metrics.globalRegistry);
+
+  private DataTemplateCache() {}
+
+  /**
+   * @return the shared parsed template for the event's current payload
+   */
+  static DataTemplate get(final Integer eventId, final String payload)
+      throws JsonProcessingException {
+    return entry(eventId, payload).template;
+  }
+
+  /**
+   * @return the index of the shared parsed template for the event's current payload
+   */
+  static DataTemplateIndex index(final Integer eventId, final String payload)
+      throws JsonProcessingException {
+    return entry(eventId, payload).index();
+  }
+
+  private static ParsedTemplate entry(final Integer eventId, final String payload)
+      throws JsonProcessingException {
+    if (eventId == null) {
+      return new ParsedTemplate(payload, parse(payload));
+    }
+
+    var cached = CACHE.getIfPresent(eventId);
+    if (cached != null && cached.matches(payload)) {
+      SAVED.increment();
+      return cached;
+    }
+
+    var parsed = new ParsedTemplate(payload, parse(payload));
+    CACHE.put(eventId, parsed);
+    return parsed;
+  }
+
+  static DataTemplate parse(final String payload) throws JsonProcessingException {
+    PARSED.increment();
+    return READER.readValue(payload);
+  }
+
+  static void invalidate(final Integer eventId) {
+    if (eventId != null) {
+      CACHE.invalidate(eventId);
+    }
+  }
+
+  private static class ParsedTemplate {
+    private final String payload;
+    private final int payloadHash;
+    private final DataTemplate template;
+    private volatile DataTemplateIndex index;
+
+    ParsedTemplate(final String payload, final DataTemplate template) {
+      this.payload = payload;
+      this.payloadHash = payload.hashCode();
+      this.template = template;
+    }
+
+    DataTemplateIndex index() {
+      var built = index;
+      if (built == null) {
+        // Building twice on a race is harmless, the results are equivalent
+        built = DataTemplateIndex.of(template);
+        index = built;
+      }
+      return built;
+    }
+
+    boolean matches(final String otherPayload) {
+      return payload == otherPayload
+          || payloadHash == otherPayload.hashCode() && payload.equals(otherPayload);
+    }
+  }
+}
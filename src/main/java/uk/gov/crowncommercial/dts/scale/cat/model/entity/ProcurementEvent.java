@@ -1,12 +1,12 @@
 package uk.gov.crowncommercial.dts.scale.cat.model.entity;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 import uk.gov.crowncommercial.dts.scale.cat.model.agreements.DataTemplate;
+import uk.gov.crowncommercial.dts.scale.cat.model.agreements.DataTemplateIndex;
 import uk.gov.crowncommercial.dts.scale.cat.model.generated.DefineEventType;
 import uk.gov.crowncommercial.dts.scale.cat.model.generated.ViewEventType;
 
@@ -123,13 +123,54 @@ public class ProcurementEvent {
     return ocdsAuthorityName + "-" + ocidPrefix + "-" + id;
   }
 
+  /**
+   * The parsed data template payload. This is shared with every other reader of the same payload,
+   * so must not be modified - use {@link #getProcurementTemplatePayloadCopy()} to make changes to
+   * save back with {@link #setProcurementTemplatePayload(DataTemplate)}.
+   */
   public DataTemplate getProcurementTemplatePayload() {
     DataTemplate templateModel = null;
 
     if (procurementTemplatePayload != null) {
       try {
-        ObjectMapper objectMapper = new ObjectMapper();
-        templateModel = objectMapper.readValue(procurementTemplatePayload, DataTemplate.class);
+        templateModel = DataTemplateCache.get(id, procurementTemplatePayload);
+      }
+      catch (Exception ex) {
+        log.error("Error converting JSON to DataTemplate", ex);
+      }
+    }
+
+    return templateModel;
+  }
+
+  /**
+   * Index over the questions in {@link #getProcurementTemplatePayload()}, built once per payload.
+   * Empty if there is no payload.
+   */
+  public DataTemplateIndex getProcurementTemplateIndex() {
+    DataTemplateIndex index = DataTemplateIndex.EMPTY;
+
+    if (procurementTemplatePayload != null) {
+      try {
+        index = DataTemplateCache.index(id, procurementTemplatePayload);
+      }
+      catch (Exception ex) {
+        log.error("Error converting JSON to DataTemplate", ex);
+      }
+    }
+
+    return index;
+  }
+
+  /**
+   * A freshly parsed data template payload, owned by the caller and safe to modify.
+   */
+  public DataTemplate getProcurementTemplatePayloadCopy() {
+    DataTemplate templateModel = null;
+
+    if (procurementTemplatePayload != null) {
+      try {
+        templateModel = DataTemplateCache.parse(procurementTemplatePayload);
       }
       catch (Exception ex) {
         log.error("Error converting JSON to DataTemplate", ex);
@@ -144,8 +185,7 @@ public class ProcurementEvent {
 
     if (templateModel != null) {
       try {
-        ObjectMapper objectMapper = new ObjectMapper();
-        json = objectMapper.writeValueAsString(templateModel);
+        json = DataTemplateCache.WRITER.writeValueAsString(templateModel);
       }
       catch (Exception ex) {
         log.error("Error converting DataTemplate to JSON", ex);
@@ -153,6 +193,7 @@ public class ProcurementEvent {
     }
 
     procurementTemplatePayload = json;
+    DataTemplateCache.invalidate(id);
   }
 
   /**
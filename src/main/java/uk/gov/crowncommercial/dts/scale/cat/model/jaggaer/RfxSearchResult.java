@@ -0,0 +1,36 @@
+package uk.gov.crowncommercial.dts.scale.cat.model.jaggaer;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import lombok.Value;
+
+/**
+ * Rfxs found by a bulk search, keyed by rfxId. Ids requested in chunks that Jaggaer could not
+ * answer are reported separately rather than failing the whole search.
+ */
+@Value
+public class RfxSearchResult {
+
+  Map<String, ExportRfxResponse> rfxs;
+  Set<String> failedRfxIds;
+
+  /**
+   * Key already fetched rfxs by rfxId
+   */
+  public static RfxSearchResult of(final Collection<ExportRfxResponse> rfxs) {
+    var rfxsById = new HashMap<String, ExportRfxResponse>();
+    rfxs.stream().filter(rfx -> rfx.getRfxSetting() != null && rfx.getRfxSetting().getRfxId() != null)
+        .forEach(rfx -> rfxsById.putIfAbsent(rfx.getRfxSetting().getRfxId(), rfx));
+    return new RfxSearchResult(Map.copyOf(rfxsById), Set.of());
+  }
+
+  public ExportRfxResponse get(final String rfxId) {
+    return rfxId != null ? rfxs.get(rfxId) : null;
+  }
+
+  public boolean isComplete() {
+    return failedRfxIds.isEmpty();
+  }
+}
@@ -0,0 +1,203 @@
+package uk.gov.crowncommercial.dts.scale.cat.processors.async.queueExecutor;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import uk.gov.crowncommercial.dts.scale.cat.config.AsyncWorkerConfig;
+import uk.gov.crowncommercial.dts.scale.cat.config.ExperimentalFlagsConfig;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.TaskEntity;
+import uk.gov.crowncommercial.dts.scale.cat.processors.async.AsyncConsumer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs persisted tasks by claiming them from the task table, so any number of service instances can share
+ * the queue. Each {@link AsyncConsumer} gets its own pool, sized by {@link AsyncWorkerConfig}, and an
+ * instance only claims as many tasks as it has free workers for. Polling speeds up while there is work and
+ * backs off when idle; tasks submitted on this instance wake the poller straight away.
+ * <p>
+ * Claimed tasks hold a lease which is renewed while they run. If an instance dies, its tasks are claimed
+ * again by another once the lease expires, which replaces the orphan / missed task sweeps.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ClaimingTaskDispatcher {
+    private final ApplicationContext ctx;
+    private final TaskEntityService taskEntityService;
+    private final ExperimentalFlagsConfig experimentalFlags;
+    private final AsyncWorkerConfig asyncWorkerConfig;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<String, ExecutorService> workers = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> activeCounts = new ConcurrentHashMap<>();
+    private final Map<Long, String> runningTasks = new ConcurrentHashMap<>();
+    private final BlockingQueue<Boolean> wakeUps = new ArrayBlockingQueue<>(1);
+
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+
+    public boolean isEnabled() {
+        return experimentalFlags.isAsyncExecutorEnabled() && experimentalFlags.isAsyncWorkClaimingEnabled();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!isEnabled() || running)
+            return;
+
+        running = true;
+        scheduler = Executors.newScheduledThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "task-claimer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.execute(this::pollLoop);
+        long renewalMillis = asyncWorkerConfig.getLeaseRenewalInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::renewLeases, renewalMillis, renewalMillis, TimeUnit.MILLISECONDS);
+        log.info("Started claiming async tasks for consumers {}", List.of(getConsumerNames()));
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        running = false;
+        if (null != scheduler)
+            scheduler.shutdownNow();
+        workers.values().forEach(ExecutorService::shutdown);
+    }
+
+    /**
+     * Poll for work now rather than waiting for the next poll
+     */
+    public void wakeUp() {
+        wakeUps.offer(Boolean.TRUE);
+    }
+
+    private void pollLoop() {
+        long minInterval = asyncWorkerConfig.getMinPollInterval().toMillis();
+        long maxInterval = Math.max(minInterval, asyncWorkerConfig.getMaxPollInterval().toMillis());
+        long interval = minInterval;
+        while (running) {
+            try {
+                int claimed = pollOnce();
+                interval = claimed > 0 ? minInterval : Math.min(interval * 2, maxInterval);
+            } catch (Exception e) {
+                log.error("Error while claiming async tasks", e);
+                interval = maxInterval;
+            }
+            try {
+                if (null != wakeUps.poll(interval, TimeUnit.MILLISECONDS))
+                    interval = minInterval;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Claims and dispatches as many tasks as there are free workers for each consumer
+     *
+     * @return number of tasks claimed
+     */
+    int pollOnce() {
+        int claimed = 0;
+        for (String consumer : getConsumerNames()) {
+            int free = asyncWorkerConfig.concurrencyFor(consumer) - activeCount(consumer).get();
+            if (free <= 0)
+                continue;
+
+            List<TaskEntity> tasks = taskEntityService.claim(consumer, free);
+            for (TaskEntity entity : tasks) {
+                dispatch(consumer, entity);
+            }
+            claimed += tasks.size();
+        }
+        return claimed;
+    }
+
+    private void dispatch(String consumer, TaskEntity entity) {
+        AtomicInteger active = activeCount(consumer);
+        active.incrementAndGet();
+        runningTasks.put(entity.getId(), consumer);
+        try {
+            worker(consumer).execute(() -> {
+                try {
+                    new RunnableTask(toTask(entity), ctx).run();
+                } catch (Exception e) {
+                    log.error("Error while running task {} for consumer {}", entity.getId(), consumer, e);
+                } finally {
+                    runningTasks.remove(entity.getId());
+                    active.decrementAndGet();
+                    wakeUp();
+                }
+            });
+        } catch (RuntimeException e) {
+            // Leave the task to be claimed again once its lease expires
+            runningTasks.remove(entity.getId());
+            active.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private void renewLeases() {
+        try {
+            taskEntityService.renewLeases(List.copyOf(runningTasks.keySet()));
+        } catch (Exception e) {
+            log.error("Error while renewing leases on running async tasks", e);
+        }
+    }
+
+    private ExecutorService worker(String consumer) {
+        return workers.computeIfAbsent(consumer, name -> {
+            int threads = asyncWorkerConfig.concurrencyFor(name);
+            AtomicInteger threadCount = new AtomicInteger();
+            return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                    runnable -> new Thread(runnable, "task-" + name + "-" + threadCount.incrementAndGet()));
+        });
+    }
+
+    private AtomicInteger activeCount(String consumer) {
+        return activeCounts.computeIfAbsent(consumer, name -> new AtomicInteger());
+    }
+
+    private String[] getConsumerNames() {
+        return ctx.getBeanNamesForType(AsyncConsumer.class);
+    }
+
+    @SneakyThrows
+    Task toTask(TaskEntity entity) {
+        Object data = getData(entity.getData(), Class.forName(entity.getDataClass()));
+        Task task = new Task(entity.getPrincipal(),
+                entity.getTaskExecutor(), entity.getDataClass(), data);
+        task.setId(entity.getId());
+        return task;
+    }
+
+    private <D> D getData(String data, Class<D> clazz) throws JsonProcessingException {
+        try {
+            return mapper.readValue(data, clazz);
+        } catch (JsonProcessingException jpe) {
+            log.error("Error while De-Serializing " + data, jpe);
+            throw new IllegalArgumentException("Data cannot be de-serialized into json", jpe);
+        }
+    }
+}
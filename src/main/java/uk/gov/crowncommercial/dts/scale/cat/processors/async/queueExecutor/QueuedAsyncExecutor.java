@@ -28,19 +28,22 @@ public class QueuedAsyncExecutor implements AsyncExecutor {
     private final ApplicationFlagsConfig applicationFlags;
     private final ExperimentalFlagsConfig experimentalFlags;
     private final TaskEntityService taskEntityService;
+    private final ClaimingTaskDispatcher claimingTaskDispatcher;
     private final BlockingQueue<Runnable> queue;
     private final ArrayBlockingQueue<Task> task = new ArrayBlockingQueue<>(128);
 
     private final ObjectMapper mapper = new ObjectMapper();
 
     public QueuedAsyncExecutor(@Qualifier("comExecutor") ThreadPoolTaskExecutor executor, ApplicationContext ctx,
-                               ApplicationFlagsConfig applicationFlags, ExperimentalFlagsConfig flags, TaskEntityService taskEntityService) {
+                               ApplicationFlagsConfig applicationFlags, ExperimentalFlagsConfig flags, TaskEntityService taskEntityService,
+                               ClaimingTaskDispatcher claimingTaskDispatcher) {
         this.taskExecutor = executor;
         queue = executor.getThreadPoolExecutor().getQueue();
         this.ctx = ctx;
         this.experimentalFlags = flags;
         this.applicationFlags = applicationFlags;
         this.taskEntityService = taskEntityService;
+        this.claimingTaskDispatcher = claimingTaskDispatcher;
         mapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
     }
 
@@ -60,7 +63,12 @@ public class QueuedAsyncExecutor implements AsyncExecutor {
         if (experimentalFlags.isAsyncExecutorEnabled()) {
             Task task = new Task(principal, getSpringName(clazz), getClassName(data), data);
             taskEntityService.persist(principal, task, recordType, recordId, writeData(task.getData()));
-            schedule(task);
+            if (claimingTaskDispatcher.isEnabled()) {
+                // Claimed and run by whichever instance has a free worker, most likely this one
+                claimingTaskDispatcher.wakeUp();
+            } else {
+                schedule(task);
+            }
         } else {
             execute(principal, clazz, data);
         }
@@ -21,13 +21,15 @@ import java.util.List;
 public class TaskDataStoreRefresher {
     private final TaskRepo taskRepo;
     private final QueuedAsyncExecutor asyncExecutor;
+    private final ClaimingTaskDispatcher claimingTaskDispatcher;
     private final ExperimentalFlagsConfig experimentalFlags;
     private final EnvironmentConfig environmentConfig;
     private final int WAIT_TIME_MINUTES = 10;
 
     @Scheduled(fixedDelay = WAIT_TIME_MINUTES * 2 * 60 * 1000, initialDelay = WAIT_TIME_MINUTES * 60 * 1000)
     public void loadOrphanTasksFromDataStore() {
-        if(!experimentalFlags.isAsyncOrphanJobsLoader())
+        // Abandoned tasks are re-claimed by the dispatcher once their lease expires
+        if(!experimentalFlags.isAsyncOrphanJobsLoader() || claimingTaskDispatcher.isEnabled())
             return;
 
         char[] status = {'I', 'S'};
@@ -44,7 +46,7 @@ public class TaskDataStoreRefresher {
 
     @Scheduled(fixedDelay = WAIT_TIME_MINUTES * 60 * 1000)
     public void loadTasksFromDataStore() {
-        if(!experimentalFlags.isAsyncMissedJobsLoader())
+        if(!experimentalFlags.isAsyncMissedJobsLoader() || claimingTaskDispatcher.isEnabled())
             return;
 
         char[] status = {'I', 'S'};
@@ -59,7 +61,7 @@ public class TaskDataStoreRefresher {
     }
 
     public void initFromDataStore() {
-        if(!experimentalFlags.isAsyncResumeJobsOnStartup())
+        if(!experimentalFlags.isAsyncResumeJobsOnStartup() || claimingTaskDispatcher.isEnabled())
             return;
 
         char[] status = {'I', 'S'};
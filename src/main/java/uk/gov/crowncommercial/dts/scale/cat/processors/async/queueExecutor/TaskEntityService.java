@@ -1,16 +1,20 @@
 package uk.gov.crowncommercial.dts.scale.cat.processors.async.queueExecutor;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import uk.gov.crowncommercial.dts.scale.cat.config.AsyncWorkerConfig;
 import uk.gov.crowncommercial.dts.scale.cat.config.EnvironmentConfig;
+import uk.gov.crowncommercial.dts.scale.cat.config.ExperimentalFlagsConfig;
 import uk.gov.crowncommercial.dts.scale.cat.model.entity.Timestamps;
 import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.TaskEntity;
 import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.TaskHistoryEntity;
 import uk.gov.crowncommercial.dts.scale.cat.repo.TaskRepo;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 @Component
@@ -18,6 +22,8 @@ import java.util.List;
 public class TaskEntityService {
     private final TaskRepo taskRepo;
     private final EnvironmentConfig environmentConfig;
+    private final AsyncWorkerConfig asyncWorkerConfig;
+    private final ExperimentalFlagsConfig experimentalFlags;
 
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void persist(String principal, Task task, String recordType, String recordId, String data) {
@@ -39,6 +45,35 @@ public class TaskEntityService {
         task.setId(entity.getId());
     }
 
+    /**
+     * Claims up to <code>limit</code> runnable tasks for the given consumer on behalf of this instance. Tasks
+     * locked by another instance's claim are skipped rather than waited on, and in-flight tasks whose lease
+     * has expired are claimed again.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<TaskEntity> claim(String taskExecutor, int limit) {
+        Instant now = Instant.now();
+        List<TaskEntity> tasks = taskRepo.findClaimableTasks(taskExecutor, Task.SCHEDULED, Task.INFLIGHT, now,
+                now.minus(asyncWorkerConfig.getLease()), PageRequest.of(0, limit));
+        for (TaskEntity entity : tasks) {
+            entity.setNode(environmentConfig.getServiceInstance());
+            entity.setStatus(Task.INFLIGHT);
+            entity.getTimestamps().setUpdatedAt(now);
+        }
+        taskRepo.saveAll(tasks);
+        return tasks;
+    }
+
+    /**
+     * Extends the lease on tasks this instance is still running
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int renewLeases(Collection<Long> taskIds) {
+        if (taskIds.isEmpty())
+            return 0;
+        return taskRepo.renewLeases(taskIds, environmentConfig.getServiceInstance(), Task.INFLIGHT, Instant.now());
+    }
+
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public TaskEntity markInProgress(Task task) {
         TaskEntity entity = getEntity(task);
@@ -85,6 +120,10 @@ public class TaskEntityService {
         TaskEntity entity = getEntity(task);
         entity.setResponse(response);
         entity.setStatus(Task.SCHEDULED);
+        if (experimentalFlags.isAsyncExecutorEnabled() && experimentalFlags.isAsyncWorkClaimingEnabled()) {
+            // Left for the dispatcher to claim again once the delay has passed
+            entity.setTobeExecutedAt(Instant.now().plus(asyncWorkerConfig.getRetryDelay()));
+        }
         update(entity);
         updateHistory(entity, Task.FAILED, response);
         taskRepo.save(entity);
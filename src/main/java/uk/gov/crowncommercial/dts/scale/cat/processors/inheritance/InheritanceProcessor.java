@@ -1,19 +1,17 @@
 package uk.gov.crowncommercial.dts.scale.cat.processors.inheritance;
 
+import uk.gov.crowncommercial.dts.scale.cat.model.agreements.DataTemplateIndex;
 import uk.gov.crowncommercial.dts.scale.cat.model.agreements.Requirement;
 import uk.gov.crowncommercial.dts.scale.cat.model.agreements.RequirementGroup;
 import uk.gov.crowncommercial.dts.scale.cat.model.generated.DataTemplateInheritanceType;
 
-import java.util.Map;
-
 public interface InheritanceProcessor <T>{
-    void accept(T t,Map<String, Requirement> questions);
+    void accept(T t,DataTemplateIndex questions);
 
 
-    default Requirement getQuestion(RequirementGroup requirementGroup, Requirement req, Map<String, Requirement> questions) {
+    default Requirement getQuestion(RequirementGroup requirementGroup, Requirement req, DataTemplateIndex questions) {
         if(null != req.getNonOCDS().getInheritsFrom()) {
-            String key = requirementGroup.getOcds().getId() + ":" + req.getNonOCDS().getInheritsFrom();
-            return questions.get(key);
+            return questions.getQuestion(requirementGroup.getOcds().getId(), req.getNonOCDS().getInheritsFrom());
         }
         return null;
     }
@@ -25,7 +23,7 @@ public interface InheritanceProcessor <T>{
             req.getNonOCDS().setTimelineDependency(question.getNonOCDS().getTimelineDependency());
     }
 
-    default void processRequirments(RequirementGroup requirementGroup, Map<String, Requirement> questions, DataTemplateInheritanceType inheritance) {
+    default void processRequirments(RequirementGroup requirementGroup, DataTemplateIndex questions, DataTemplateInheritanceType inheritance) {
         for(Requirement req : requirementGroup.getOcds().getRequirements()) {
             Requirement question = getQuestion(requirementGroup, req, questions);
             if(null != question) {
@@ -1,17 +1,15 @@
 package uk.gov.crowncommercial.dts.scale.cat.processors.inheritance;
 
-import uk.gov.crowncommercial.dts.scale.cat.model.agreements.Requirement;
+import uk.gov.crowncommercial.dts.scale.cat.model.agreements.DataTemplateIndex;
 import uk.gov.crowncommercial.dts.scale.cat.model.agreements.RequirementGroup;
 import uk.gov.crowncommercial.dts.scale.cat.model.generated.DataTemplateInheritanceType;
 
 
-import java.util.Map;
-
 import static uk.gov.crowncommercial.dts.scale.cat.model.generated.DataTemplateInheritanceType.ASIS;
 
 public class RequirementGroupAsIsProcessor implements InheritanceProcessor<RequirementGroup> {
     @Override
-    public void accept(RequirementGroup requirementGroup, Map<String, Requirement> questions) {
+    public void accept(RequirementGroup requirementGroup, DataTemplateIndex questions) {
         processRequirments(requirementGroup, questions,ASIS);
     }
 
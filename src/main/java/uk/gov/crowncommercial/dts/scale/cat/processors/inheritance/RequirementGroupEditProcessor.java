@@ -1,16 +1,14 @@
 package uk.gov.crowncommercial.dts.scale.cat.processors.inheritance;
 
-import uk.gov.crowncommercial.dts.scale.cat.model.agreements.Requirement;
+import uk.gov.crowncommercial.dts.scale.cat.model.agreements.DataTemplateIndex;
 import uk.gov.crowncommercial.dts.scale.cat.model.agreements.RequirementGroup;
 
-import java.util.Map;
-
 import static uk.gov.crowncommercial.dts.scale.cat.model.generated.DataTemplateInheritanceType.ASIS;
 import static uk.gov.crowncommercial.dts.scale.cat.model.generated.DataTemplateInheritanceType.EDIT;
 
 public class RequirementGroupEditProcessor implements InheritanceProcessor<RequirementGroup> {
     @Override
-    public void accept(RequirementGroup requirementGroup, Map<String, Requirement> questions) {
+    public void accept(RequirementGroup requirementGroup, DataTemplateIndex questions) {
         processRequirments(requirementGroup, questions,EDIT);
     }
 }
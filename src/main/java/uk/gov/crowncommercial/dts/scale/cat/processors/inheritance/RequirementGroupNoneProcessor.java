@@ -1,14 +1,13 @@
 package uk.gov.crowncommercial.dts.scale.cat.processors.inheritance;
 
+import uk.gov.crowncommercial.dts.scale.cat.model.agreements.DataTemplateIndex;
 import uk.gov.crowncommercial.dts.scale.cat.model.agreements.Requirement;
 import uk.gov.crowncommercial.dts.scale.cat.model.agreements.RequirementGroup;
 import uk.gov.crowncommercial.dts.scale.cat.model.generated.Question;
 
-import java.util.Map;
-
 public class RequirementGroupNoneProcessor implements InheritanceProcessor<RequirementGroup> {
     @Override
-    public void accept(RequirementGroup requirementGroup, Map<String, Requirement> questions) {
+    public void accept(RequirementGroup requirementGroup, DataTemplateIndex questions) {
         for(Requirement req : requirementGroup.getOcds().getRequirements()) {
             req.getNonOCDS().setInheritance(null);
         }
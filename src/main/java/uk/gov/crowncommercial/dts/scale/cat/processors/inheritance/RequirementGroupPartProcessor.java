@@ -1,16 +1,15 @@
 package uk.gov.crowncommercial.dts.scale.cat.processors.inheritance;
 
+import uk.gov.crowncommercial.dts.scale.cat.model.agreements.DataTemplateIndex;
 import uk.gov.crowncommercial.dts.scale.cat.model.agreements.Requirement;
 import uk.gov.crowncommercial.dts.scale.cat.model.agreements.RequirementGroup;
 import uk.gov.crowncommercial.dts.scale.cat.model.generated.DataTemplateInheritanceType;
 
-import java.util.Map;
-
 import static uk.gov.crowncommercial.dts.scale.cat.model.generated.DataTemplateInheritanceType.ASIS;
 
 public class RequirementGroupPartProcessor implements InheritanceProcessor<RequirementGroup> {
     @Override
-    public void accept(RequirementGroup requirementGroup, Map<String, Requirement> questions) {
+    public void accept(RequirementGroup requirementGroup, DataTemplateIndex questions) {
         for(Requirement req : requirementGroup.getOcds().getRequirements()) {
             DataTemplateInheritanceType inheritanceType = null;
             if(null != req.getNonOCDS())
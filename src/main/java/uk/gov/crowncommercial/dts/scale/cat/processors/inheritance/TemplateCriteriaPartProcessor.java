@@ -1,12 +1,10 @@
 package uk.gov.crowncommercial.dts.scale.cat.processors.inheritance;
 
-import uk.gov.crowncommercial.dts.scale.cat.model.agreements.Requirement;
+import uk.gov.crowncommercial.dts.scale.cat.model.agreements.DataTemplateIndex;
 import uk.gov.crowncommercial.dts.scale.cat.model.agreements.RequirementGroup;
 import uk.gov.crowncommercial.dts.scale.cat.model.agreements.TemplateCriteria;
 import uk.gov.crowncommercial.dts.scale.cat.model.generated.DataTemplateInheritanceType;
 
-import java.util.Map;
-
 public class TemplateCriteriaPartProcessor implements InheritanceProcessor<TemplateCriteria> {
     InheritanceProcessor<RequirementGroup> asisProcessor = new RequirementGroupAsIsProcessor();
     InheritanceProcessor<RequirementGroup> partProcessor = new RequirementGroupPartProcessor();
@@ -14,7 +12,7 @@ public class TemplateCriteriaPartProcessor implements InheritanceProcessor<Templ
     InheritanceProcessor<RequirementGroup> noneProcessor = new RequirementGroupNoneProcessor();
 
     @Override
-    public void accept(TemplateCriteria templateCriteria, Map<String, Requirement> questions) {
+    public void accept(TemplateCriteria templateCriteria, DataTemplateIndex questions) {
         for(RequirementGroup grp : templateCriteria.getRequirementGroups()) {
             DataTemplateInheritanceType inheritanceType = null;
             if(null != grp.getNonOCDS())
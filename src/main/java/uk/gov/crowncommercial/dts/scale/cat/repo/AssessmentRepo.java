@@ -1,6 +1,8 @@
 package uk.gov.crowncommercial.dts.scale.cat.repo;
 
+import java.util.Optional;
 import java.util.Set;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.AssessmentEntity;
@@ -10,6 +12,11 @@ public interface AssessmentRepo extends JpaRepository<AssessmentEntity, Integer>
 
   Set<AssessmentEntity> findByTimestampsCreatedBy(final String userId);
 
+  @EntityGraph(attributePaths = {"tool", "dimensionWeightings", "dimensionWeightings.dimension",
+      "dimensionWeightings.dimensionSubmissionTypes",
+      "dimensionWeightings.dimensionSubmissionTypes.submissionType"})
+  Optional<AssessmentEntity> findWithDimensionWeightingsById(final Integer id);
+
   @Query("select ae from AssessmentEntity ae" +
           " LEFT OUTER JOIN ae.tool tl " +
           " WHERE ae.timestamps.createdBy = :userId AND tl.externalToolId = :externalToolId ")
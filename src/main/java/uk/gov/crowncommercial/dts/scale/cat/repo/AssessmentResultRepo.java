@@ -1,5 +1,6 @@
 package uk.gov.crowncommercial.dts.scale.cat.repo;
 
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
@@ -11,4 +12,6 @@ public interface AssessmentResultRepo extends JpaRepository<AssessmentResult, In
   Optional<AssessmentResult> findByAssessmentIdAndSupplierOrganisationId(final Integer assessmentId,
       final String supplierOrganisationId);
 
+  List<AssessmentResult> findByAssessmentId(final Integer assessmentId);
+
 }
@@ -1,7 +1,10 @@
 package uk.gov.crowncommercial.dts.scale.cat.repo;
 
+import java.util.List;
 import java.util.Set;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.AssessmentSelection;
 
 public interface AssessmentSelectionRepo extends JpaRepository<AssessmentSelection, Integer> {
@@ -9,4 +12,15 @@ public interface AssessmentSelectionRepo extends JpaRepository<AssessmentSelecti
   Set<AssessmentSelection> findByDimensionIdAndRequirementTaxonRequirementId(
       final Integer dimensionId, final Integer requirementId);
 
+  /**
+   * An assessment's selections with everything needed to report them, in one query
+   */
+  @Query("select distinct s from AssessmentSelection s join fetch s.dimension"
+      + " join fetch s.requirementTaxon rt join fetch rt.requirement"
+      + " left join fetch rt.taxon t left join fetch t.submissionGroup"
+      + " left join fetch s.assessmentSelectionDetails asd"
+      + " left join fetch asd.dimensionSubmissionType dst left join fetch dst.submissionType"
+      + " where s.assessment.id = :assessmentId")
+  List<AssessmentSelection> findWithDetailsByAssessmentId(@Param("assessmentId") final Integer assessmentId);
+
 }
@@ -10,4 +10,24 @@ import java.util.Set;
 public interface AssessmentTaxonRepo extends JpaRepository<AssessmentTaxon, Integer> {
    // @Query("select at from AssessmentTaxon at, AssessmentTaxonDimension atd where at.tool.id = :toolId and atd.dimensionId = :dimensionId and at.id = atd.assessmentTaxonId")
     public Set<AssessmentTaxon> findBySubmissionGroupAssessmentToolsIdAndDimensionsId(@Param("toolId") Integer assessmentToolId, @Param("dimensionId") Integer dimensionId);
+
+    /**
+     * The whole taxonomy, with the dimensions and requirements of every taxon, in one query
+     */
+    @Query("select distinct at from AssessmentTaxon at left join fetch at.dimensions"
+        + " left join fetch at.requirementTaxons rt left join fetch rt.requirement")
+    Set<AssessmentTaxon> findAllWithDimensionsAndRequirements();
+
+    @Query("select at.id from AssessmentTaxon at join at.submissionGroup.assessmentTools t where t.id = :toolId")
+    Set<Integer> findIdsBySubmissionGroupAssessmentToolsId(@Param("toolId") Integer assessmentToolId);
+
+    /**
+     * Changes whenever a CAP load adds, removes or updates taxons or requirement taxons
+     */
+    @Query(value = "select concat((select count(*) from cap_load_jobs), ':',"
+        + " (select count(*) from assessment_taxons), ':',"
+        + " (select max(coalesce(updated_at, created_at)) from assessment_taxons), ':',"
+        + " (select count(*) from requirement_taxons), ':',"
+        + " (select max(coalesce(updated_at, created_at)) from requirement_taxons))", nativeQuery = true)
+    String getTaxonomyVersion();
 }
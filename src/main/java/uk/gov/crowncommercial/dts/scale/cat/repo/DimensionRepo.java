@@ -1,8 +1,11 @@
 package uk.gov.crowncommercial.dts.scale.cat.repo;
 
+import java.util.Collection;
 import java.util.Optional;
 import java.util.Set;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.DimensionEntity;
 
 public interface DimensionRepo extends JpaRepository<DimensionEntity, Integer> {
@@ -11,6 +14,9 @@ public interface DimensionRepo extends JpaRepository<DimensionEntity, Integer> {
 
   Set<DimensionEntity> findByAssessmentToolsId(final Integer toolId);
 
+  @Query("select distinct d from DimensionEntity d left join fetch d.validValues where d.id in :ids")
+  Set<DimensionEntity> findWithValidValuesByIdIn(@Param("ids") final Collection<Integer> ids);
+
 //  Set<DimensionEntity> findByAssessmentTaxonsToolId(final Integer toolId);
 
 }
@@ -1,5 +1,6 @@
 package uk.gov.crowncommercial.dts.scale.cat.repo;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -45,4 +46,12 @@ public interface OrganisationMappingRepo extends JpaRepository<OrganisationMappi
           " where om.primaryInd = true and om.casOrganisationId in (:casOrganisationIds) " )
   Set<OrganisationMapping> findByCasOrganisationIdIn(@Param("casOrganisationIds")Set<String> casOrganisationIds);
 
+  /**
+   * Mappings added since the given ID was allocated
+   *
+   * @param id the highest mapping ID already seen
+   * @return the mappings with higher IDs
+   */
+  List<OrganisationMapping> findByIdGreaterThan(Integer id);
+
 }
@@ -1,6 +1,7 @@
 package uk.gov.crowncommercial.dts.scale.cat.repo;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -14,6 +15,8 @@ import org.springframework.retry.annotation.Recover;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
+import uk.gov.crowncommercial.dts.scale.cat.cache.CacheInvalidationBus;
+import uk.gov.crowncommercial.dts.scale.cat.cache.OrganisationMappingReplica;
 import uk.gov.crowncommercial.dts.scale.cat.config.Constants;
 import uk.gov.crowncommercial.dts.scale.cat.config.TendersRetryable;
 import uk.gov.crowncommercial.dts.scale.cat.model.entity.BuyerUserDetails;
@@ -63,12 +66,15 @@ public class RetryableTendersDBDelegate {
   private final RequirementTaxonRepo requirementTaxonRepo;
   private final AssessmentTaxonRepo assessmentTaxonRepo;
   private final CalculationBaseRepo calculationBaseRepo;
+  private final SupplierSubmissionRepo supplierSubmissionRepo;
   private final AssessmentResultRepo assessmentResultRepo;
   private final ProjectUserMappingRepo projectUserMappingRepo;
   private final SupplierSelectionRepo supplierSelectionRepo;
   private final BuyerUserDetailsRepo buyerUserDetailsRepo;
   private final ContractDetailsRepo contractDetailsRepo;
   private final QuestionAndAnswerRepo questionAndAnswerRepo;
+  private final OrganisationMappingReplica organisationMappingReplica;
+  private final CacheInvalidationBus cacheInvalidationBus;
 
 
   @TendersRetryable
@@ -116,16 +122,17 @@ public class RetryableTendersDBDelegate {
   }
 
   @TendersRetryable
-  @Cacheable(value = "tendersCache", key = "#root.methodName + '-' + #organisationIds")
   public Set<OrganisationMapping> findOrganisationMappingByOrganisationIdIn(
       final Set<String> organisationIds) {
-    return organisationMappingRepo.findByOrganisationIdIn(organisationIds);
+    return organisationMappingReplica.findByOrganisationIdIn(organisationIds)
+        .orElseGet(() -> organisationMappingRepo.findByOrganisationIdIn(organisationIds));
   }
 
   @TendersRetryable
   public Set<OrganisationMapping> findOrganisationMappingByExternalOrganisationIdIn(
           final Set<Integer> bravoIds) {
-    return organisationMappingRepo.findByExternalOrganisationIdIn(bravoIds);
+    return organisationMappingReplica.findByExternalOrganisationIdIn(bravoIds)
+        .orElseGet(() -> organisationMappingRepo.findByExternalOrganisationIdIn(bravoIds));
   }
 
 
@@ -134,31 +141,37 @@ public class RetryableTendersDBDelegate {
   @Cacheable(value = "tendersCache", key = "#root.methodName + '-' + #externalOrganisationId")
   public Optional<OrganisationMapping> findOrganisationMappingByExternalOrganisationId(
       final Integer externalOrganisationId) {
-    return organisationMappingRepo.findByExternalOrganisationId(externalOrganisationId);
+    return organisationMappingReplica.findByExternalOrganisationId(externalOrganisationId)
+        .or(() -> organisationMappingRepo.findByExternalOrganisationId(externalOrganisationId));
   }
 
   @TendersRetryable
   public OrganisationMapping save(final OrganisationMapping organisationMapping) {
-    return organisationMappingRepo.saveAndFlush(organisationMapping);
+    var saved = organisationMappingRepo.saveAndFlush(organisationMapping);
+    organisationMappingReplica.put(saved);
+    return saved;
   }
 
   @TendersRetryable
   @Cacheable(value = "tendersCache", key = "#root.methodName + '-' + #organisationId")
   public Optional<OrganisationMapping> findOrganisationMappingByOrganisationId(
       final String organisationId) {
-    return organisationMappingRepo.findByOrganisationId(organisationId);
+    return organisationMappingReplica.findByOrganisationId(organisationId)
+        .or(() -> organisationMappingRepo.findByOrganisationId(organisationId));
   }
 
   @TendersRetryable
   public Set<OrganisationMapping> findOrganisationMappingByCasOrganisationIdIn(final Set<String> organisationIds) {
-    return organisationMappingRepo.findByCasOrganisationIdIn(organisationIds);
+    return organisationMappingReplica.findByCasOrganisationIdIn(organisationIds)
+        .orElseGet(() -> organisationMappingRepo.findByCasOrganisationIdIn(organisationIds));
   }
 
   @TendersRetryable
   @Cacheable(value = "tendersCache", key = "#root.methodName + '-' + #organisationId")
   public Optional<OrganisationMapping> findOrganisationMappingByCasOrganisationId(
           final String organisationId) {
-    return organisationMappingRepo.findByCasOrganisationId(organisationId);
+    return organisationMappingReplica.findByCasOrganisationId(organisationId)
+        .or(() -> organisationMappingRepo.findByCasOrganisationId(organisationId));
   }
 
   @TendersRetryable
@@ -243,6 +256,27 @@ public class RetryableTendersDBDelegate {
     return assessmentRepo.findById(id);
   }
 
+  /**
+   * The assessment with its tool and dimension weightings (and the submission types chosen for
+   * them), for reading the assessment in full along with
+   * {@link #findAssessmentSelectionsWithDetails(Integer)} and
+   * {@link #findDimensionsWithValidValues(Collection)}
+   */
+  @TendersRetryable
+  public Optional<AssessmentEntity> findAssessmentWithDimensionWeightings(final Integer id) {
+    return assessmentRepo.findWithDimensionWeightingsById(id);
+  }
+
+  @TendersRetryable
+  public List<AssessmentSelection> findAssessmentSelectionsWithDetails(final Integer assessmentId) {
+    return assessmentSelectionRepo.findWithDetailsByAssessmentId(assessmentId);
+  }
+
+  @TendersRetryable
+  public Set<DimensionEntity> findDimensionsWithValidValues(final Collection<Integer> dimensionIds) {
+    return dimensionRepo.findWithValidValuesByIdIn(dimensionIds);
+  }
+
   @TendersRetryable
   public Optional<GCloudAssessmentEntity> findGcloudAssessmentById(final Integer id) {
     return gcloudAssessmentRepo.findById(id);
@@ -312,6 +346,26 @@ public class RetryableTendersDBDelegate {
     return assessmentTaxonRepo.findBySubmissionGroupAssessmentToolsIdAndDimensionsId(assessmentToolId, dimensionId);
   }
 
+  @TendersRetryable
+  public Set<AssessmentTaxon> findAllAssessmentTaxons() {
+    return assessmentTaxonRepo.findAllWithDimensionsAndRequirements();
+  }
+
+  @TendersRetryable
+  public Set<Integer> findAssessmentTaxonIdsByTool(final Integer assessmentToolId) {
+    return assessmentTaxonRepo.findIdsBySubmissionGroupAssessmentToolsId(assessmentToolId);
+  }
+
+  @TendersRetryable
+  public String getAssessmentTaxonomyVersion() {
+    return assessmentTaxonRepo.getTaxonomyVersion();
+  }
+
+  @TendersRetryable
+  public String getSupplierSubmissionDataVersion() {
+    return supplierSubmissionRepo.getSubmissionDataVersion();
+  }
+
   @TendersRetryable
   public Set<CalculationBase> findCalculationBaseByDimensionIdAndSuppliers(
       final Integer dimensionId, final List<String> suppliers) {
@@ -340,6 +394,17 @@ public class RetryableTendersDBDelegate {
     return assessmentResultRepo.save(assessmentResult);
   }
 
+  @TendersRetryable
+  public List<AssessmentResult> findAssessmentResultsByAssessmentId(final Integer assessmentId) {
+    return assessmentResultRepo.findByAssessmentId(assessmentId);
+  }
+
+  @TendersRetryable
+  public List<AssessmentResult> saveAssessmentResults(
+      final Collection<AssessmentResult> assessmentResults) {
+    return assessmentResultRepo.saveAll(assessmentResults);
+  }
+
   @TendersRetryable
   public GCloudAssessmentResult save(final GCloudAssessmentResult assessmentResult) {
     return gCloudAssessmentResultRepo.save(assessmentResult);
@@ -484,7 +549,11 @@ public class RetryableTendersDBDelegate {
      */
     @CacheEvict(value = "tendersCache", key = "'findOrganisationMappingByOrganisationId-' + #orgId")
     public void removeMappingByOrgIdFromCache(String orgId) {
-        // Take no action here - the method annotation deals with the action
+        // The method annotation deals with the cache, the replica is refreshed here, and
+        // both are invalidated on the other instances
+        organisationMappingReplica.refreshOrganisation(orgId);
+        cacheInvalidationBus.publish("tendersCache", "findOrganisationMappingByOrganisationId-" + orgId);
+        cacheInvalidationBus.publish(OrganisationMappingReplica.CACHE_NAME, orgId);
     }
 
     /**
@@ -492,6 +561,10 @@ public class RetryableTendersDBDelegate {
      */
     @CacheEvict(value = "tendersCache", key = "'findOrganisationMappingByCasOrganisationId-' + #orgId")
     public void removeMappingByCasOrgIdFromCache(String orgId) {
-        // Take no action here - the method annotation deals with the action
+        // The method annotation deals with the cache, the replica is refreshed here, and
+        // both are invalidated on the other instances
+        organisationMappingReplica.refreshOrganisation(orgId);
+        cacheInvalidationBus.publish("tendersCache", "findOrganisationMappingByCasOrganisationId-" + orgId);
+        cacheInvalidationBus.publish(OrganisationMappingReplica.CACHE_NAME, orgId);
     }
 }
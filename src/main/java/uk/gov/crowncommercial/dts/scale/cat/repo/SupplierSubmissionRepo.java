@@ -28,4 +28,12 @@ public interface SupplierSubmissionRepo extends JpaRepository<SupplierSubmission
     Set<Integer> findSupplierByToolIdAndDimensionIdAndLotId(final Integer toolId,
         final Integer dimensionId,final Integer lotId);
 
+    /**
+     * Changes whenever supplier submissions are loaded, removed or updated (and so the calculation
+     * base they make up)
+     */
+    @Query(value = "select concat((select count(*) from supplier_submissions), ':',"
+        + " (select max(coalesce(updated_at, created_at)) from supplier_submissions))", nativeQuery = true)
+    String getSubmissionDataVersion();
+
 }
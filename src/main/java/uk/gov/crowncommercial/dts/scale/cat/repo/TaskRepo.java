@@ -1,12 +1,19 @@
 package uk.gov.crowncommercial.dts.scale.cat.repo;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.TaskEntity;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -20,6 +27,27 @@ public interface TaskRepo  extends JpaRepository<TaskEntity, Long> {
             " WHERE status in :statusList and node = :node and timestamps.updatedAt < :lastAccessTime and tobeExecutedAt < :scheduleTime";
 
 
+    String claimableJobsQuery = "select task from TaskEntity task\n" +
+            " WHERE task.taskExecutor = :taskExecutor and ((task.status = :scheduled and task.tobeExecutedAt <= :now)" +
+            " or (task.status = :inFlight and coalesce(task.timestamps.updatedAt, task.lastExecutedOn, task.scheduledOn) < :leaseExpiredBefore))" +
+            " order by task.tobeExecutedAt";
+
+    String renewLeasesQuery = "update TaskEntity task set task.timestamps.updatedAt = :now\n" +
+            " WHERE task.id in :ids and task.node = :node and task.status = :inFlight";
+
+    // Lock timeout of -2 is Hibernate's SKIP_LOCKED, so concurrent claimers never wait on or double claim a task
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query(value = claimableJobsQuery)
+    List<TaskEntity> findClaimableTasks(@Param("taskExecutor") String taskExecutor, @Param("scheduled") char scheduled,
+                                        @Param("inFlight") char inFlight, @Param("now") Instant now,
+                                        @Param("leaseExpiredBefore") Instant leaseExpiredBefore, Pageable pageable);
+
+    @Modifying
+    @Query(value = renewLeasesQuery)
+    int renewLeases(@Param("ids") Collection<Long> ids, @Param("node") String node,
+                    @Param("inFlight") char inFlight, @Param("now") Instant now);
+
     @Query(value = orphanJobsQuery)
     List<TaskEntity> findOrphanTasks(@Param("node") String node, @Param("statusList") char[] statusList,
                                      @Param("lastAccessTime")Instant lastAccessTime, @Param("scheduleTime") Instant scheduledAt);
@@ -11,6 +11,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import uk.gov.crowncommercial.dts.scale.cat.cache.CacheConfig;
+import uk.gov.crowncommercial.dts.scale.cat.cache.SingleFlightCacheResolver;
 import uk.gov.crowncommercial.dts.scale.cat.clients.AgreementsClient;
 import uk.gov.crowncommercial.dts.scale.cat.clients.QuestionAndAnswerClient;
 import uk.gov.crowncommercial.dts.scale.cat.exception.AgreementsServiceApplicationException;
@@ -83,7 +85,8 @@ public class AgreementsService {
   /**
    * Gets the details of the suppliers for a given Lot of a given Agreement
    */
-  @Cacheable(value = "agreementsCache", key = "#root.methodName + '-' + #agreementId + '-' + #lotId")
+  @Cacheable(value = CacheConfig.LOT_SUPPLIERS_CACHE, key = "#root.methodName + '-' + #agreementId + '-' + #lotId",
+      sync = true, cacheResolver = SingleFlightCacheResolver.NAME)
   public Collection<LotSupplier> getLotSuppliers(final String agreementId, final String lotId) {
     // Call the Agreements Service to request the details of the suppliers attached to a given lot of a given agreement, first formatting the lot ID
     String formattedLotId = formatLotIdForAgreementService(lotId);
@@ -124,7 +127,8 @@ public class AgreementsService {
   /**
    * Get the details of a given Lot for an Agreement
    */
-  @Cacheable(value = "agreementsCache", key = "#root.methodName + '-' + #agreementId + '-' + #lotId")
+  @Cacheable(value = "agreementsCache", key = "#root.methodName + '-' + #agreementId + '-' + #lotId",
+      sync = true, cacheResolver = SingleFlightCacheResolver.NAME)
   public LotDetail getLotDetails(final String agreementId, final String lotId) {
     // Call the Agreements Service to request the details of the given lot for the given agreement, formatting the Lot ID first
     String formattedLotId = formatLotIdForAgreementService(lotId);
@@ -0,0 +1,144 @@
+package uk.gov.crowncommercial.dts.scale.cat.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import uk.gov.crowncommercial.dts.scale.cat.model.jaggaer.CompanyInfo;
+import uk.gov.crowncommercial.dts.scale.cat.model.jaggaer.ReturnCompanyData;
+import uk.gov.crowncommercial.dts.scale.cat.model.jaggaer.SSOCodeData;
+import uk.gov.crowncommercial.dts.scale.cat.model.jaggaer.SSOCodeData.SSOCode;
+import uk.gov.crowncommercial.dts.scale.cat.model.jaggaer.SubUsers;
+import uk.gov.crowncommercial.dts.scale.cat.model.jaggaer.SubUsers.SubUser;
+
+/**
+ * The self-service buyer company's sub-users, indexed by email, user ID and SSO login, built from a
+ * single fetch of the company. Lookups are served from the current index while it's rebuilt, and
+ * rebuilds are single-flight: a caller asking for one while another is under way waits for that one
+ * rather than fetching the company again. Only the very first lookup has to wait for a fetch.
+ */
+@Slf4j
+class BuyerUserIndex {
+
+  private final Supplier<ReturnCompanyData> buyerCompanyLoader;
+  private final Object rebuildLock = new Object();
+
+  private volatile Snapshot snapshot;
+  private volatile Instant staleFrom = Instant.MIN;
+
+  BuyerUserIndex(final Supplier<ReturnCompanyData> buyerCompanyLoader) {
+    this.buyerCompanyLoader = buyerCompanyLoader;
+  }
+
+  private static final class Snapshot {
+    final CompanyInfo companyInfo;
+    final Map<String, List<SubUser>> byEmail;
+    final Map<String, SubUser> byUserId;
+    final Map<String, SubUser> bySsoUserLogin;
+    final Instant builtFrom;
+    final int size;
+
+    Snapshot(final ReturnCompanyData buyerCompany, final Instant builtFrom) {
+      this.companyInfo = buyerCompany.getReturnCompanyInfo();
+      this.builtFrom = builtFrom;
+      Collection<SubUser> subUsers = Optional.ofNullable(buyerCompany.getReturnSubUser())
+          .map(SubUsers::getSubUsers).orElse(Set.of());
+      size = subUsers.size();
+      byEmail = new HashMap<>(subUsers.size() * 2);
+      byUserId = new HashMap<>(subUsers.size() * 2);
+      bySsoUserLogin = new HashMap<>(subUsers.size() * 2);
+      for (SubUser subUser : subUsers) {
+        if (subUser.getEmail() != null) {
+          byEmail.computeIfAbsent(key(subUser.getEmail()), k -> new ArrayList<>(1)).add(subUser);
+        }
+        if (subUser.getUserId() != null) {
+          byUserId.putIfAbsent(key(subUser.getUserId()), subUser);
+        }
+        ssoUserLogin(subUser).ifPresent(login -> bySsoUserLogin.putIfAbsent(key(login), subUser));
+      }
+    }
+  }
+
+  CompanyInfo getCompanyInfo() {
+    return current().companyInfo;
+  }
+
+  Optional<SubUser> findByEmail(final String email, final String rightsProfile) {
+    return current().byEmail.getOrDefault(key(email), List.of()).stream()
+        .filter(subUser -> rightsProfile.equalsIgnoreCase(subUser.getRightsProfile())).findFirst();
+  }
+
+  Optional<SubUser> findByUserId(final String userId) {
+    return Optional.ofNullable(current().byUserId.get(key(userId)));
+  }
+
+  Optional<SubUser> findBySsoUserLogin(final String ssoUserLogin) {
+    return Optional.ofNullable(current().bySsoUserLogin.get(key(ssoUserLogin)));
+  }
+
+  /**
+   * Rebuild the index to include changes made in Jaggaer before now
+   */
+  void rebuild() {
+    rebuild(Instant.now());
+  }
+
+  /**
+   * Rebuild the index unless it is younger than the given age, or has been marked stale
+   */
+  void rebuildIfOlderThan(final Duration age) {
+    var changesBefore = Instant.now().minus(age);
+    var current = staleFrom;
+    rebuild(current.isAfter(changesBefore) ? current : changesBefore);
+  }
+
+  /**
+   * Mark the index as missing changes made elsewhere, so it's rebuilt by the next
+   * {@link #rebuildIfOlderThan(Duration)}. Lookups keep using it until then
+   */
+  void markStale() {
+    staleFrom = Instant.now();
+  }
+
+  private Snapshot current() {
+    var current = snapshot;
+    return current != null ? current : rebuild(Instant.now());
+  }
+
+  /**
+   * Rebuild the index, unless one built from the company as it was at or after the given time
+   * already exists (including one being built by another thread while this waited)
+   */
+  private Snapshot rebuild(final Instant changesBefore) {
+    synchronized (rebuildLock) {
+      var current = snapshot;
+      if (current != null && !current.builtFrom.isBefore(changesBefore)) {
+        return current;
+      }
+      var start = Instant.now();
+      var rebuilt = new Snapshot(buyerCompanyLoader.get(), start);
+      snapshot = rebuilt;
+      log.info("Indexed {} buyer users in {}ms", rebuilt.size,
+          Duration.between(start, Instant.now()).toMillis());
+      return rebuilt;
+    }
+  }
+
+  private static Optional<String> ssoUserLogin(final SubUser subUser) {
+    // As before, only the first SSO code is matched against
+    return Optional.ofNullable(subUser.getSsoCodeData()).map(SSOCodeData::getSsoCode)
+        .flatMap(ssoCodes -> ssoCodes.stream().findFirst()).map(SSOCode::getSsoUserLogin);
+  }
+
+  private static String key(final String id) {
+    return id.toLowerCase(Locale.ROOT);
+  }
+}
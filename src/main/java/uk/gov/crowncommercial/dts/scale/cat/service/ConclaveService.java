@@ -9,6 +9,7 @@ import lombok.Builder;
 import lombok.RequiredArgsConstructor;
 import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
+import uk.gov.crowncommercial.dts.scale.cat.cache.SingleFlightCacheResolver;
 import uk.gov.crowncommercial.dts.scale.cat.config.ConclaveAPIConfig;
 import uk.gov.crowncommercial.dts.scale.cat.exception.ConclaveApplicationException;
 import uk.gov.crowncommercial.dts.scale.cat.model.conclave_wrapper.generated.OrganisationProfileResponseInfo;
@@ -45,7 +46,8 @@ public class ConclaveService {
    * @param email
    * @return an optional user profile (empty if not found)
    */
-  @Cacheable(value = "conclaveCache", key = "#root.methodName + '-' + #email")
+  @Cacheable(value = "conclaveCache", key = "#root.methodName + '-' + #email", sync = true,
+      cacheResolver = SingleFlightCacheResolver.NAME)
   public Optional<UserProfileResponseInfo> getUserProfile(final String email) {
 
     final var templateURI = conclaveAPIConfig.getGetUser().get(KEY_URI_TEMPLATE);
@@ -111,7 +113,8 @@ public class ConclaveService {
    * @param orgId the public identifier e.g. US-DUNS-123456789
    * @return
    */
-  @Cacheable(value = "conclaveCache", key = "#root.methodName + '-' + #orgId")
+  @Cacheable(value = "conclaveCache", key = "#root.methodName + '-' + #orgId", sync = true,
+      cacheResolver = SingleFlightCacheResolver.NAME)
   public Optional<OrganisationProfileResponseInfo> getOrganisationIdentity(final String orgId) {
 
     final var templateURI = conclaveAPIConfig.getGetOrganisationIdentity().get(KEY_URI_TEMPLATE);
@@ -17,6 +17,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import uk.gov.crowncommercial.dts.scale.cat.cache.RfxSummaryCache;
 import uk.gov.crowncommercial.dts.scale.cat.config.Constants;
 import uk.gov.crowncommercial.dts.scale.cat.config.JaggaerAPIConfig;
 import uk.gov.crowncommercial.dts.scale.cat.exception.AgreementsServiceApplicationException;
@@ -67,6 +68,7 @@ public class CriteriaService {
   private final DataTemplateProcessor templateProcessor;
   private final ProcurementEventHelperService eventHelperService;
   private final QuestionAndAnswerService questionAndAnswerService;
+  private final RfxSummaryCache rfxSummaryCache;
 
   @Transactional
   public Set<EvalCriteria> getEvalCriteria(final Integer projectId, final String eventId,
@@ -174,6 +176,7 @@ public class CriteriaService {
                   .orElseThrow(() -> new JaggaerApplicationException(INTERNAL_SERVER_ERROR.value(),
                       "Unexpected error updating Rfx"));
       log.info("Finish calling Jaggaer API to update rfx, Rfx Id: {}", rfx.getRfxSetting().getRfxId());
+      rfxSummaryCache.invalidate(rfx.getRfxSetting().getRfxId());
 
       if (createRfxResponse.getReturnCode() != 0
           || !Constants.OK_MSG.equals(createRfxResponse.getReturnMessage())) {
@@ -255,7 +258,7 @@ public class CriteriaService {
 
     // If the template has been persisted, get it from the local database
     if (event.getProcurementTemplatePayload() != null) {
-      dataTemplate = event.getProcurementTemplatePayload();
+      dataTemplate = event.getProcurementTemplatePayloadCopy();
     } else {
         var legacyFlow = true; // While new Q and A flow is broken and being fixed (NCAS-795), revert and use the legacy flow.
         List<DataTemplate> lotEventTypeDataTemplates;
@@ -282,7 +285,7 @@ public class CriteriaService {
           if(null != dataTemplate.getParent()) {
             Optional<ProcurementEvent> optionalProcurementEvent =  eventHelperService.getParentEvent(event, dataTemplate.getParent());
             if(optionalProcurementEvent.isPresent()){
-              DataTemplate oldTemplate = optionalProcurementEvent.get().getProcurementTemplatePayload();
+              DataTemplate oldTemplate = optionalProcurementEvent.get().getProcurementTemplatePayloadCopy();
               dataTemplate = templateProcessor.process(dataTemplate, oldTemplate);
             }else{
               //TODO   throw exception or leave as it is ??
@@ -0,0 +1,85 @@
+package uk.gov.crowncommercial.dts.scale.cat.service;
+
+import java.util.concurrent.Executor;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import uk.gov.crowncommercial.dts.scale.cat.config.ExperimentalFlagsConfig;
+import uk.gov.crowncommercial.dts.scale.cat.processors.async.queueExecutor.BlockCallerExecutionPolicy;
+
+/**
+ * The pools event documents are generated and uploaded on, and their placeholder values fetched on.
+ * Generation is CPU bound so is sized by the number of processors. Uploads and fetches mostly wait
+ * on other services, and each have their own small pool so fetches don't queue behind uploads to
+ * Jaggaer. All queues are bounded and block the submitter when full, so a burst of publishes can't
+ * queue unbounded work. Tasks run with the submitting thread's request attributes, as some value
+ * adaptors are request scoped. With parallel generation disabled, all run on the calling thread.
+ */
+@Component
+public class DocGenExecutors implements DisposableBean {
+
+  private static final Executor CALLER = Runnable::run;
+
+  private final ExperimentalFlagsConfig experimentalFlags;
+  private final ThreadPoolTaskExecutor generation;
+  private final ThreadPoolTaskExecutor upload;
+  private final ThreadPoolTaskExecutor fetch;
+
+  public DocGenExecutors(final ExperimentalFlagsConfig experimentalFlags,
+      @Value("${config.docgen.generationThreads:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") final int generationThreads,
+      @Value("${config.docgen.uploadThreads:4}") final int uploadThreads,
+      @Value("${config.docgen.fetchThreads:2}") final int fetchThreads,
+      @Value("${config.docgen.queueCapacity:64}") final int queueCapacity) {
+    this.experimentalFlags = experimentalFlags;
+    generation = pool("docgen-", generationThreads, queueCapacity);
+    upload = pool("docupload-", uploadThreads, queueCapacity);
+    fetch = pool("docfetch-", fetchThreads, queueCapacity);
+  }
+
+  public Executor getGeneration() {
+    return experimentalFlags.isParallelDocGenEnabled() ? generation : CALLER;
+  }
+
+  public Executor getUpload() {
+    return experimentalFlags.isParallelDocGenEnabled() ? upload : CALLER;
+  }
+
+  public Executor getFetch() {
+    return experimentalFlags.isParallelDocGenEnabled() ? fetch : CALLER;
+  }
+
+  @Override
+  public void destroy() {
+    generation.shutdown();
+    upload.shutdown();
+    fetch.shutdown();
+  }
+
+  private static ThreadPoolTaskExecutor pool(final String threadNamePrefix, final int threads,
+      final int queueCapacity) {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(Math.max(1, threads));
+    executor.setMaxPoolSize(Math.max(1, threads));
+    executor.setThreadNamePrefix(threadNamePrefix);
+    executor.setQueueCapacity(queueCapacity);
+    executor.setRejectedExecutionHandler(new BlockCallerExecutionPolicy());
+    executor.setTaskDecorator(DocGenExecutors::withRequestAttributes);
+    executor.initialize();
+    return executor;
+  }
+
+  private static Runnable withRequestAttributes(final Runnable task) {
+    var requestAttributes = RequestContextHolder.getRequestAttributes();
+    return () -> {
+      var previous = RequestContextHolder.getRequestAttributes();
+      RequestContextHolder.setRequestAttributes(requestAttributes);
+      try {
+        task.run();
+      } finally {
+        RequestContextHolder.setRequestAttributes(previous);
+      }
+    };
+  }
+}
@@ -2,14 +2,16 @@ package uk.gov.crowncommercial.dts.scale.cat.service;
 
 import static uk.gov.crowncommercial.dts.scale.cat.model.generated.DocumentAudienceType.SUPPLIER;
 import java.io.ByteArrayOutputStream;
-import java.lang.reflect.Method;
 import java.math.BigDecimal;
 import java.text.NumberFormat;
 import java.time.*;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 import jakarta.transaction.Transactional;
 import org.odftoolkit.simple.TextDocument;
@@ -19,17 +21,9 @@ import org.odftoolkit.simple.table.Cell;
 import org.odftoolkit.simple.table.Row;
 import org.odftoolkit.simple.table.Table;
 import org.odftoolkit.simple.text.list.ListItem;
-import org.springframework.context.ApplicationContext;
-import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
-import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.jayway.jsonpath.Configuration;
-import com.jayway.jsonpath.JsonPath;
-import com.jayway.jsonpath.TypeRef;
-import com.jayway.jsonpath.spi.json.JacksonJsonProvider;
-import com.jayway.jsonpath.spi.mapper.JacksonMappingProvider;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
@@ -38,7 +32,6 @@ import uk.gov.crowncommercial.dts.scale.cat.exception.DocGenValueException;
 import uk.gov.crowncommercial.dts.scale.cat.model.entity.DocumentTemplate;
 import uk.gov.crowncommercial.dts.scale.cat.model.entity.DocumentTemplateSource;
 import uk.gov.crowncommercial.dts.scale.cat.model.entity.ProcurementEvent;
-import uk.gov.crowncommercial.dts.scale.cat.model.entity.ProcurementProject;
 import uk.gov.crowncommercial.dts.scale.cat.repo.RetryableTendersDBDelegate;
 import uk.gov.crowncommercial.dts.scale.cat.utils.ByteArrayMultipartFile;
 
@@ -80,17 +73,22 @@ public class DocGenService {
   public static final String REPLACEMENT_PRODUCT_NEW = "New products or services";
   public static final String REPLACEMENT_UNSURE = "Not sure";
 
-  private final ApplicationContext applicationContext;
   private final ValidationService validationService;
   private final RetryableTendersDBDelegate retryableTendersDBDelegate;
-  private final ObjectMapper objectMapper;
   private final JaggaerService jaggaerService;
-  private final DocumentTemplateResourceService documentTemplateResourceService;
+  private final DocumentTemplateCache documentTemplateCache;
+  private final DocGenExecutors docGenExecutors;
+  private final DocGenValuePlanner docGenValuePlanner;
 
   /**
-   * Trigger the generation and upload of all documents for a given event
+   * Trigger the generation and upload of all documents for a given event. Each document is uploaded
+   * as soon as it has been generated, while the others are still being generated, and a failure
+   * affects only its own document. Any generation failure is rethrown once every document has been
+   * dealt with, as upload failures are logged and otherwise ignored
    */
-  public void generateAndUploadDocuments(final Integer projectId, final String eventId) {
+  public GeneratedDocuments generateAndUploadDocuments(final Integer projectId, final String eventId) {
+    GeneratedDocuments generatedDocuments = new GeneratedDocuments();
+
     // Start by validating the event passed into us is good to use
     ProcurementEvent procurementEvent = validationService.validateProjectAndEventIds(projectId, eventId);
 
@@ -105,213 +103,168 @@ public class DocGenService {
         Set<DocumentTemplate> docTemplates = retryableTendersDBDelegate.findByEventTypeAndCommercialAgreementNumberAndLotNumberAndTemplateGroup(eventType, caNumber, lotNum, templateId);
 
         if (docTemplates != null && !docTemplates.isEmpty()) {
-          // Now we have the list of documents needed - iterate over them and process them
+          // Resolve the placeholder values of every document here, as this thread holds the event's session, so each document is
+          // generated from plain values rather than by several threads reading the event at once. Data fetched for one document's
+          // values is shared with the others
+          ConcurrentMap<String, Object> requestCache = new ConcurrentHashMap<>();
+          String eventID = procurementEvent.getEventID();
+          Map<DocumentTemplate, Supplier<ByteArrayOutputStream>> generators = new HashMap<>();
           docTemplates.forEach(template -> {
-            ByteArrayOutputStream document = generateDocument(procurementEvent, template, Boolean.TRUE);
-
-            if (document != null) {
-              // Document has been generated, now trigger the upload
-              uploadProforma(procurementEvent, document, template);
+            try {
+              generators.put(template, planDocument(procurementEvent, template, Boolean.TRUE, requestCache, eventID));
+            } catch (Exception ex) {
+              generatedDocuments.generated(template, null, ex);
             }
           });
-        }
-      }
-    }
-  }
 
-  /**
-   * Generate a given event's version of a document based on a supplied template
-   */
-  @SneakyThrows
-  @Transactional
-  public ByteArrayOutputStream generateDocument(final ProcurementEvent procurementEvent, final DocumentTemplate documentTemplate, final boolean isPublish) {
-    // Start by grabbing the template document we need to work against
-    if (documentTemplate != null && documentTemplate.getTemplateUrl() != null && !documentTemplate.getTemplateUrl().isEmpty() && documentTemplate.getDocumentTemplateSources() != null) {
-      Resource templateResource = documentTemplateResourceService.getResource(documentTemplate.getTemplateUrl());
+          // Now generate each of them, and upload each one once it has been generated
+          CompletableFuture<?>[] documents = generators.entrySet().stream().map(generator -> {
+            DocumentTemplate template = generator.getKey();
+            return CompletableFuture.supplyAsync(generator.getValue(), docGenExecutors.getGeneration())
+                .whenComplete((document, ex) -> generatedDocuments.generated(template, document, ex))
+                .thenAcceptAsync(document -> {
+                  if (document != null) {
+                    // Document has been generated, now trigger the upload
+                    generatedDocuments.uploaded(template, uploadProforma(procurementEvent, document, template));
+                  }
+                }, docGenExecutors.getUpload());
+          }).toArray(CompletableFuture[]::new);
 
-      if (templateResource != null) {
-        final TextDocument textODT = TextDocument.loadDocument(templateResource.getInputStream());
-        final ConcurrentHashMap<String, Object> requestCache = new ConcurrentHashMap<>();
+          // Every document's outcome has been recorded, so there's nothing to be learned from how the futures completed
+          CompletableFuture.allOf(documents).exceptionally(ex -> null).join();
 
-        // Now we have everything we need to begin, so work our way through each template source (i.e. value we need to populate)
-        documentTemplate.getDocumentTemplateSources().forEach(templateSource -> {
-          // Grab the value for the replacement, and then apply it to our templated source
-          try {
-            List<String> dataReplacement = getDataReplacement(procurementEvent, templateSource, requestCache);
+          log.info("Generated {} of {} documents for event ID '{}', {} uploaded", generatedDocuments.getGenerated().size(), docTemplates.size(), eventId, generatedDocuments.getUploaded().size());
 
-            replacePlaceholder(templateSource, dataReplacement, textODT, procurementEvent.getPublishDate() == null ? isPublish : Boolean.TRUE);
-          } catch (Exception ex) {
-              log.error("Unable to replace document placeholder of '{}' for event ID '{}'", templateSource.getId(), procurementEvent.getEventID(), ex);
+          if (generatedDocuments.getGenerationFailure() != null) {
+            throw generatedDocuments.getGenerationFailure();
           }
-        });
-
-        // Our document should now be complete with all placeholders populated - return it
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        textODT.save(outputStream);
-
-        return outputStream;
+        }
       }
     }
 
-    // Something has gone wrong that wasn't handled elsewhere if we've reached this point - just return null
-    return null;
+    return generatedDocuments;
   }
 
   /**
-   * Triggers the upload of a given document into Jaegger
+   * The outcome of generating and uploading an event's documents, by template URL
    */
-  private void uploadProforma(final ProcurementEvent procurementEvent, final ByteArrayOutputStream documentOutputStream, final DocumentTemplate documentTemplate) {
-    if (procurementEvent != null && documentTemplate != null && procurementEvent.getEventID() != null && !procurementEvent.getEventID().isEmpty() && procurementEvent.getEventType() != null && !procurementEvent.getEventType().isEmpty() && documentTemplate.getTemplateUrl() != null && !documentTemplate.getTemplateUrl().isEmpty()) {
-      // Start by generating the necessary descriptive information about our file
-      String fileName = String.format(Constants.GENERATED_DOCUMENT_FILENAME_FMT, procurementEvent.getEventID(), procurementEvent.getEventType(), StringUtils.getFilename(documentTemplate.getTemplateUrl())),
-              fileDescription = procurementEvent.getEventType() + DOCUMENT_DESC_JOINER + procurementEvent.getEventID();
-
-      // Now transform the contents we've been passed into a file which we can upload
-      if (documentOutputStream != null) {
-        ByteArrayMultipartFile multipartFile = new ByteArrayMultipartFile(documentOutputStream.toByteArray(), fileName, Constants.MEDIA_TYPE_ODT.toString());
+  @Getter
+  public static class GeneratedDocuments {
+    private final Set<String> generated = ConcurrentHashMap.newKeySet();
+    private final Set<String> uploaded = ConcurrentHashMap.newKeySet();
+    private final Set<String> failed = ConcurrentHashMap.newKeySet();
+    private volatile RuntimeException generationFailure;
+
+    private void generated(final DocumentTemplate template, final ByteArrayOutputStream document, final Throwable ex) {
+      if (document != null) {
+        generated.add(template.getTemplateUrl());
+      } else {
+        failed.add(template.getTemplateUrl());
+      }
 
-        // Now finally trigger the upload to Jaegger
-        try {
-          jaggaerService.eventUploadDocument(procurementEvent, fileName, fileDescription, SUPPLIER, multipartFile);
-        } catch (Exception ex) {
-            log.error("Error uploading document '{}' for event ID '{}'", fileName, procurementEvent.getEventID(), ex);
+      if (ex != null) {
+        log.error("Error generating document from template '{}'", template.getTemplateUrl(), ex);
+        synchronized (this) {
+          if (generationFailure == null) {
+            generationFailure = ex instanceof CompletionException && ex.getCause() instanceof RuntimeException cause ? cause
+                : ex instanceof RuntimeException runtimeEx ? runtimeEx : new CompletionException(ex);
+          }
         }
       }
     }
+
+    private void uploaded(final DocumentTemplate template, final boolean isUploaded) {
+      (isUploaded ? uploaded : failed).add(template.getTemplateUrl());
+    }
   }
 
   /**
-   * Builds a list of values for replacement within a document template, based on the data source type being requested
+   * Generate a given event's version of a document based on a supplied template
    */
-  private List<String> getDataReplacement(final ProcurementEvent event, final DocumentTemplateSource documentTemplateSource, final ConcurrentMap<String, Object> requestCache) {
-    if (documentTemplateSource != null && documentTemplateSource.getSourceType() != null) {
-      // Populate the value list based on the source type passed to us
-      try {
-        return switch (documentTemplateSource.getSourceType()) {
-          case JSON -> getQuestionFromJSONDataTemplate(event, documentTemplateSource);
-          case JAVA -> getValueFromBean(event, documentTemplateSource, requestCache);
-          case SQL -> List.of(getValueFromDB(event, documentTemplateSource));
-          case STATIC -> List.of(getStaticValueFromDB(documentTemplateSource));
-        };
-      } catch (Exception ex) {
-          log.error("Error in document generation value replacement build for data type '{}' and template ID: '{}'", documentTemplateSource.getSourceType(), documentTemplateSource.getId(), new DocGenValueException(ex));
-      }
-    }
+  @Transactional
+  public ByteArrayOutputStream generateDocument(final ProcurementEvent procurementEvent, final DocumentTemplate documentTemplate, final boolean isPublish) {
+    return generateDocument(procurementEvent, documentTemplate, isPublish, new ConcurrentHashMap<>());
+  }
 
-    // We want to return an empty list if nothing has been returned by this point, so it doesn't cause other issues
-    return List.of(PLACEHOLDER_ERROR);
+  /**
+   * Generate a given event's version of a document, sharing data fetched for its values with other documents using the same request cache
+   */
+  private ByteArrayOutputStream generateDocument(final ProcurementEvent procurementEvent, final DocumentTemplate documentTemplate, final boolean isPublish, final ConcurrentMap<String, Object> requestCache) {
+    return planDocument(procurementEvent, documentTemplate, isPublish, requestCache, procurementEvent.getEventID()).get();
   }
 
   /**
-   * Builds a list of question values which require replacement from a JSON data template source
+   * Reads everything a given event's version of a document needs from the event, returning the generation of the document from
+   * those values alone. The generation returns null if the template can't be used
    */
-  private List<String> getQuestionFromJSONDataTemplate(final ProcurementEvent event, final DocumentTemplateSource documentTemplateSource) {
-    // We need to work against the raw JSON data for this task, so grab it
-    if (event != null && event.getProcurementTemplatePayloadRaw() != null && !event.getProcurementTemplatePayloadRaw().isEmpty()) {
-      String eventData = event.getProcurementTemplatePayloadRaw();
+  @SneakyThrows
+  private Supplier<ByteArrayOutputStream> planDocument(final ProcurementEvent procurementEvent, final DocumentTemplate documentTemplate, final boolean isPublish, final ConcurrentMap<String, Object> requestCache, final String eventID) {
+    // Start by grabbing the template document we need to work against
+    if (documentTemplate != null && documentTemplate.getTemplateUrl() != null && !documentTemplate.getTemplateUrl().isEmpty() && documentTemplate.getDocumentTemplateSources() != null) {
+      DocumentTemplateCache.CachedTemplate template = documentTemplateCache.get(documentTemplate);
 
-      // Now parse the JSON into a list of the values that we need to replace as part of document generation
-      try {
-        Configuration jsonPathConfig = Configuration.builder().options(com.jayway.jsonpath.Option.ALWAYS_RETURN_LIST).jsonProvider(new JacksonJsonProvider(objectMapper)).mappingProvider(new JacksonMappingProvider(objectMapper)).build();
-        TypeRef<List<String>> typeRef = new TypeRef<>() {};
+      if (template != null) {
+        // Resolve the values of all the placeholders the template has together, so data they share is only fetched once
+        List<DocumentTemplateSource> templateSources = documentTemplate.getDocumentTemplateSources().stream().filter(template::mayContain).toList();
+        Map<DocumentTemplateSource, List<String>> dataReplacements = docGenValuePlanner.resolve(procurementEvent, templateSources, requestCache);
+        boolean publish = procurementEvent.getPublishDate() == null ? isPublish : Boolean.TRUE;
 
-        return JsonPath.using(jsonPathConfig).parse(eventData).read(documentTemplateSource.getSourcePath(), typeRef);
-      } catch (Exception ex) {
-          log.error("Error parsing JSON for document template ID: '{}'", documentTemplateSource.getId(), ex);
+        return () -> generateDocument(template, templateSources, dataReplacements, publish, eventID);
       }
     }
 
-    // Something has gone wrong if we're at this point - return an empty list
-    return List.of(PLACEHOLDER_ERROR);
+    // Something has gone wrong that wasn't handled elsewhere if we've reached this point - just return null
+    return () -> null;
   }
 
   /**
-   * Builds a list of question values which require replacement from a Java Bean
+   * Populate a document from a template with the values already resolved for its placeholders
    */
-  private List<String> getValueFromBean(final ProcurementEvent event, final DocumentTemplateSource documentTemplateSource, final ConcurrentMap<String, Object> requestCache) {
-    // We need to work against a given Java Bean for this, so grab its definition
-    if (documentTemplateSource != null && documentTemplateSource.getSourcePath() != null && !documentTemplateSource.getSourcePath().isEmpty()) {
-      String beanName = documentTemplateSource.getSourcePath();
+  @SneakyThrows
+  private ByteArrayOutputStream generateDocument(final DocumentTemplateCache.CachedTemplate template, final List<DocumentTemplateSource> templateSources, final Map<DocumentTemplateSource, List<String>> dataReplacements, final boolean isPublish, final String eventID) {
+    final TextDocument textODT = template.newDocument();
 
+    // Now we have everything we need to begin, so work our way through each template source (i.e. value we need to populate)
+    templateSources.forEach(templateSource -> {
+      // Apply the value for the replacement to our templated source
       try {
-        // There are specific names we don't want to deal with here, as they'll always be null. So only carry on if it's not one of these
-        if (isBeanNameSupported(beanName)) {
-          DocGenValueAdaptor documentValueAdaptor = applicationContext.getBean(beanName, DocGenValueAdaptor.class);
-
-          // Now just return the data we need from the Bean
-          return documentValueAdaptor.getValue(event, requestCache);
-        }
+        replacePlaceholder(templateSource, dataReplacements.get(templateSource), textODT, isPublish);
       } catch (Exception ex) {
-          log.error("Error parsing Java Bean '{}' for document template ID: '{}'", beanName, documentTemplateSource.getId(), ex);
+          log.error("Unable to replace document placeholder of '{}' for event ID '{}'", templateSource.getId(), eventID, ex);
       }
-    }
-
-    // Something has gone wrong, or the request was for an unsupported type, if we're at this point - return an empty list
-    return List.of(PLACEHOLDER_ERROR);
-  }
-
-  /**
-   * Returns a boolean indicating whether a given bean is supported for document generation
-   */
-  private boolean isBeanNameSupported(String beanName) {
-    List<String> unsupportedBeanTypes = Arrays.stream(UNSUPPORTED_BEAN_NAMES.split(",")).toList();
+    });
 
-    // Unless we find a match for the bean name in the unsupported types, the bean is supported
-    String matchingUnsupportedBeanName = unsupportedBeanTypes.stream().filter(p -> p.equalsIgnoreCase(beanName)).findFirst().orElse(null);
+    // Our document should now be complete with all placeholders populated - return it
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    textODT.save(outputStream);
 
-    return matchingUnsupportedBeanName == null;
+    return outputStream;
   }
 
   /**
-   * Builds a question value which requires replacement from the database
+   * Triggers the upload of a given document into Jaegger, returning whether it was uploaded
    */
-  private String getValueFromDB(final ProcurementEvent event, final DocumentTemplateSource documentTemplateSource) {
-    // For this, we're using the template source data to build values from the project and event entities (which map to the DB), so first prep that data
-    if (documentTemplateSource != null && documentTemplateSource.getSourcePath() != null && !documentTemplateSource.getSourcePath().isEmpty() && event != null && event.getProject() != null) {
-      String[] tableColumnSource = documentTemplateSource.getSourcePath().split("/");
-
-      if (tableColumnSource.length >= 2) {
-        String table = tableColumnSource[0],
-                column = tableColumnSource[1];
-
-        if (table != null && !table.isEmpty() && column != null && !column.isEmpty()) {
-          // We have the info as to which table and column we're interested in from the DB.  So now use the entities to build the value we want to return from that info
-          if (table.equalsIgnoreCase(DB_PLACEHOLDER_PROJECTS)) {
-            // We're dealing with project level data, so use the projects entity and grab the needed column access method
-            Method getter = ReflectionUtils.findMethod(ProcurementProject.class, DB_PLACEHOLDER_METHOD_PREFIX + column);
-
-            if (getter != null) {
-              // We've got the method, so now just call it and return the data
-              return (String) ReflectionUtils.invokeMethod(getter, event.getProject());
-            }
-          } else {
-            // We're dealing with event level data, so use the events entity and grab the needed column access method
-            Method getter = ReflectionUtils.findMethod(ProcurementEvent.class, DB_PLACEHOLDER_METHOD_PREFIX + column);
+  private boolean uploadProforma(final ProcurementEvent procurementEvent, final ByteArrayOutputStream documentOutputStream, final DocumentTemplate documentTemplate) {
+    if (procurementEvent != null && documentTemplate != null && procurementEvent.getEventID() != null && !procurementEvent.getEventID().isEmpty() && procurementEvent.getEventType() != null && !procurementEvent.getEventType().isEmpty() && documentTemplate.getTemplateUrl() != null && !documentTemplate.getTemplateUrl().isEmpty()) {
+      // Start by generating the necessary descriptive information about our file
+      String fileName = String.format(Constants.GENERATED_DOCUMENT_FILENAME_FMT, procurementEvent.getEventID(), procurementEvent.getEventType(), StringUtils.getFilename(documentTemplate.getTemplateUrl())),
+              fileDescription = procurementEvent.getEventType() + DOCUMENT_DESC_JOINER + procurementEvent.getEventID();
 
-            if (getter != null) {
-              // We've got the method, so now just call it and return the data
-              return (String) ReflectionUtils.invokeMethod(getter, event);
-            }
-          }
+      // Now transform the contents we've been passed into a file which we can upload
+      if (documentOutputStream != null) {
+        ByteArrayMultipartFile multipartFile = new ByteArrayMultipartFile(documentOutputStream.toByteArray(), fileName, Constants.MEDIA_TYPE_ODT.toString());
+
+        // Now finally trigger the upload to Jaegger
+        try {
+          jaggaerService.eventUploadDocument(procurementEvent, fileName, fileDescription, SUPPLIER, multipartFile);
+          return true;
+        } catch (Exception ex) {
+            log.error("Error uploading document '{}' for event ID '{}'", fileName, procurementEvent.getEventID(), ex);
         }
       }
     }
 
-    // Something has gone wrong if we're at this point - return an empty string
-    return PLACEHOLDER_ERROR;
-  }
-
-  /**
-   * Builds a static value which requires replacement from the database
-   */
-  private String getStaticValueFromDB(final DocumentTemplateSource documentTemplateSource) {
-    // In this instance, all we need to do is return the source path of the template - so do that
-    if (documentTemplateSource != null && documentTemplateSource.getSourcePath() != null && !documentTemplateSource.getSourcePath().isEmpty()) {
-        return documentTemplateSource.getSourcePath();
-    }
-
-    // Something has gone wrong if we're at this point - return an empty string
-    return PLACEHOLDER_ERROR;
+    return false;
   }
 
   /**
@@ -1,7 +1,9 @@
 package uk.gov.crowncommercial.dts.scale.cat.service;
 
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
 import uk.gov.crowncommercial.dts.scale.cat.model.entity.ProcurementEvent;
 
 /**
@@ -11,4 +13,32 @@ import uk.gov.crowncommercial.dts.scale.cat.model.entity.ProcurementEvent;
 public interface DocGenValueAdaptor {
 
   List<String> getValue(ProcurementEvent event, ConcurrentMap<String, Object> requestCache);
+
+  /**
+   * The request cache entries this adaptor reads, each with the fetch that fills it. Adaptors reading
+   * the same data should declare the same key and fetch. Each fetch is run once per request, ahead of
+   * (and alongside) the others a template needs, so must not itself depend on the request cache
+   */
+  default Map<String, Function<ProcurementEvent, Object>> getFetches() {
+    return Map.of();
+  }
+
+  /**
+   * An adaptor which reads the given fetch from the request cache
+   */
+  static DocGenValueAdaptor withFetch(final String cacheKey,
+      final Function<ProcurementEvent, Object> fetch, final DocGenValueAdaptor adaptor) {
+    return new DocGenValueAdaptor() {
+      @Override
+      public List<String> getValue(final ProcurementEvent event,
+          final ConcurrentMap<String, Object> requestCache) {
+        return adaptor.getValue(event, requestCache);
+      }
+
+      @Override
+      public Map<String, Function<ProcurementEvent, Object>> getFetches() {
+        return Map.of(cacheKey, fetch);
+      }
+    };
+  }
 }
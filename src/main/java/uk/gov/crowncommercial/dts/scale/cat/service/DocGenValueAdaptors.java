@@ -28,6 +28,9 @@ import uk.gov.crowncommercial.dts.scale.cat.service.documentupload.DocumentUploa
 @RequiredArgsConstructor
 public class DocGenValueAdaptors {
 
+  private static final String CACHE_KEY_PRJ_ORG = "CACHE_KEY_PRJ_ORG";
+  private static final String CACHE_KEY_PROC_LEAD = "CACHE_KEY_PROC_LEAD";
+
   private final AgreementsService agreementService;
   private final ConclaveService conclaveService;
   private final ProcurementProjectService procurementProjectService;
@@ -55,22 +58,25 @@ public class DocGenValueAdaptors {
   @Bean("DocumentValueAdaptorOrgIDType")
   @RequestScope
   public DocGenValueAdaptor documentValueAdaptorOrgIDType() {
-    return (event, requestCache) -> List
-        .of(getProjectOrgFromConclave(event, requestCache).getIdentifier().getScheme());
+    return DocGenValueAdaptor.withFetch(CACHE_KEY_PRJ_ORG, this::fetchProjectOrg,
+        (event, requestCache) -> List
+            .of(getProjectOrgFromConclave(event, requestCache).getIdentifier().getScheme()));
   }
 
   @Bean("DocumentValueAdaptorOrgID")
   @RequestScope
   public DocGenValueAdaptor documentValueAdaptorOrgID() {
-    return (event, requestCache) -> List
-        .of(getProjectOrgFromConclave(event, requestCache).getIdentifier().getId());
+    return DocGenValueAdaptor.withFetch(CACHE_KEY_PRJ_ORG, this::fetchProjectOrg,
+        (event, requestCache) -> List
+            .of(getProjectOrgFromConclave(event, requestCache).getIdentifier().getId()));
   }
 
   @Bean("DocumentValueAdaptorOrgName")
   @RequestScope
   public DocGenValueAdaptor documentValueAdaptorOrgName() {
-    return (event, requestCache) -> List
-        .of(getBuyerOrgName(event, requestCache).getIdentifier().getLegalName());
+    return DocGenValueAdaptor.withFetch(CACHE_KEY_PRJ_ORG, this::fetchProjectOrg,
+        (event, requestCache) -> List
+            .of(getProjectOrgFromConclave(event, requestCache).getIdentifier().getLegalName()));
   }
 
   @Bean("DocumentValueAdaptorPublishDate")
@@ -90,22 +96,25 @@ public class DocGenValueAdaptors {
   @Bean("DocumentValueAdaptorProcLead")
   @RequestScope
   public DocGenValueAdaptor documentValueAdaptorProcLead() {
-    return (event, requestCache) -> List
-        .of(getProcurementProjectLead(event, requestCache).getOCDS().getContact().getName());
+    return DocGenValueAdaptor.withFetch(CACHE_KEY_PROC_LEAD, this::fetchProcurementProjectLead,
+        (event, requestCache) -> List
+            .of(getProcurementProjectLead(event, requestCache).getOCDS().getContact().getName()));
   }
 
   @Bean("DocumentValueAdaptorProcLeadTel")
   @RequestScope
   public DocGenValueAdaptor documentValueAdaptorProcLeadTel() {
-    return (event, requestCache) -> List
-        .of(getProcurementProjectLead(event, requestCache).getOCDS().getContact().getTelephone());
+    return DocGenValueAdaptor.withFetch(CACHE_KEY_PROC_LEAD, this::fetchProcurementProjectLead,
+        (event, requestCache) -> List.of(
+            getProcurementProjectLead(event, requestCache).getOCDS().getContact().getTelephone()));
   }
 
   @Bean("DocumentValueAdaptorProcLeadEmail")
   @RequestScope
   public DocGenValueAdaptor documentValueAdaptorProcLeadEmail() {
-    return (event, requestCache) -> List
-        .of(getProcurementProjectLead(event, requestCache).getOCDS().getContact().getEmail());
+    return DocGenValueAdaptor.withFetch(CACHE_KEY_PROC_LEAD, this::fetchProcurementProjectLead,
+        (event, requestCache) -> List
+            .of(getProcurementProjectLead(event, requestCache).getOCDS().getContact().getEmail()));
   }
 
   @Bean("DocumentValueAdaptorProcLeadOrgWebsite")
@@ -145,18 +154,20 @@ public class DocGenValueAdaptors {
   
   private OrganisationProfileResponseInfo getProjectOrgFromConclave(final ProcurementEvent event,
       final Map<String, Object> requestCache) {
+    return (OrganisationProfileResponseInfo) requestCache.computeIfAbsent(CACHE_KEY_PRJ_ORG,
+        k -> fetchProjectOrg(event));
+  }
 
-    return (OrganisationProfileResponseInfo) requestCache.computeIfAbsent("CACHE_KEY_PRJ_ORG",
-        k -> {
-          var projectOrgId = Optional.ofNullable(event.getProject().getOrganisationMapping())
-              .orElseThrow(() -> new TendersDBDataException(
-                  "Project [" + event.getProject().getId() + "] has no org mapping"))
-              .getOrganisationId();
-          return conclaveService.getOrganisationIdentity(projectOrgId)
-              .orElseThrow(() -> new TendersDBDataException(
-                  "Project org with ID: [" + projectOrgId + "] not found in Conclave"));
-        });
+  private OrganisationProfileResponseInfo fetchProjectOrg(final ProcurementEvent event) {
+    var projectOrgId = Optional.ofNullable(event.getProject().getOrganisationMapping())
+        .orElseThrow(() -> new TendersDBDataException(
+            "Project [" + event.getProject().getId() + "] has no org mapping"))
+        .getOrganisationId();
+    return conclaveService.getOrganisationIdentity(projectOrgId)
+        .orElseThrow(() -> new TendersDBDataException(
+            "Project org with ID: [" + projectOrgId + "] not found in Conclave"));
   }
+
   /**
    * Formats the published date in the generated ODT docs that are passed over to Jaggaer
    */
@@ -170,33 +181,18 @@ public class DocGenValueAdaptors {
 
   private TeamMember getProcurementProjectLead(final ProcurementEvent event,
       final Map<String, Object> requestCache) {
-
-    return (TeamMember) requestCache.computeIfAbsent("CACHE_KEY_PROC_LEAD", k -> {
-
-      var projectTeamMembers = procurementProjectService
-          .getProjectTeamMembers(event.getProject().getId(), "DOC_GEN_ADAPTOR");
-      return projectTeamMembers.stream().filter(tm -> tm.getNonOCDS().getProjectOwner()).findFirst()
-          .orElseThrow(() -> new TendersDBDataException(
-              "Project [" + event.getProject().getId() + "] has no procurement lead"));
-    });
+    return (TeamMember) requestCache.computeIfAbsent(CACHE_KEY_PROC_LEAD,
+        k -> fetchProcurementProjectLead(event));
   }
 
-  private OrganisationProfileResponseInfo getBuyerOrgName(final ProcurementEvent event,
-      final Map<String, Object> requestCache) {
-    return (OrganisationProfileResponseInfo) requestCache.computeIfAbsent("CACHE_KEY_ORG_NAME",
-        k -> {
-
-          var projectOrgId = Optional.ofNullable(event.getProject().getOrganisationMapping())
-              .orElseThrow(() -> new TendersDBDataException(
-                  "Project [" + event.getProject().getId() + "] has no org mapping"))
-              .getOrganisationId();
-          return conclaveService.getOrganisationIdentity(projectOrgId)
-              .orElseThrow(() -> new TendersDBDataException(
-                  "Project org with ID: [" + projectOrgId + "] not found in Conclave"));
-        });
-
+  private TeamMember fetchProcurementProjectLead(final ProcurementEvent event) {
+    var projectTeamMembers = procurementProjectService
+        .getProjectTeamMembers(event.getProject().getId(), "DOC_GEN_ADAPTOR");
+    return projectTeamMembers.stream().filter(tm -> tm.getNonOCDS().getProjectOwner()).findFirst()
+        .orElseThrow(() -> new TendersDBDataException(
+            "Project [" + event.getProject().getId() + "] has no procurement lead"));
   }
-  
+
   private List<String> getUploadedDocumentNames(final ProcurementEvent event,
       final Map<String, Object> requestCache) {
     var docs = documentUploadService.findDocumentByEvent(event);
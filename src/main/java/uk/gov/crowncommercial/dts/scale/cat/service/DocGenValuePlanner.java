@@ -0,0 +1,226 @@
+package uk.gov.crowncommercial.dts.scale.cat.service;
+
+import static uk.gov.crowncommercial.dts.scale.cat.service.DocGenService.DB_PLACEHOLDER_METHOD_PREFIX;
+import static uk.gov.crowncommercial.dts.scale.cat.service.DocGenService.DB_PLACEHOLDER_PROJECTS;
+import static uk.gov.crowncommercial.dts.scale.cat.service.DocGenService.PLACEHOLDER_ERROR;
+import static uk.gov.crowncommercial.dts.scale.cat.service.DocGenService.UNSUPPORTED_BEAN_NAMES;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.Option;
+import com.jayway.jsonpath.TypeRef;
+import com.jayway.jsonpath.spi.json.JacksonJsonProvider;
+import com.jayway.jsonpath.spi.mapper.JacksonMappingProvider;
+import lombok.extern.slf4j.Slf4j;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.DocumentTemplateSource;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ProcurementEvent;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ProcurementProject;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.SourceType;
+
+/**
+ * Resolves the values for a template's placeholders together, grouped by source type, rather than
+ * one placeholder at a time. Each distinct source path is resolved once, the event's JSON payload
+ * is parsed once, and the data fetches declared by the template's value adaptors are run once
+ * each, concurrently, before any adaptor is asked for its value
+ */
+@Component
+@Slf4j
+public class DocGenValuePlanner {
+
+  private static final String CACHE_KEY_JSON_DATA_TEMPLATE = "CACHE_KEY_JSON_DATA_TEMPLATE";
+  private static final TypeRef<List<String>> JSON_VALUES_TYPE = new TypeRef<>() {};
+
+  // The getters DB placeholders can read, by method name
+  private static final Map<String, Method> PROJECT_GETTERS = getters(ProcurementProject.class);
+  private static final Map<String, Method> EVENT_GETTERS = getters(ProcurementEvent.class);
+
+  private static final Set<String> UNSUPPORTED_BEANS = Arrays.stream(UNSUPPORTED_BEAN_NAMES.split(","))
+      .map(beanName -> beanName.toLowerCase(Locale.ROOT)).collect(Collectors.toUnmodifiableSet());
+
+  private final ApplicationContext applicationContext;
+  private final DocGenExecutors docGenExecutors;
+  private final Configuration jsonPathConfig;
+
+  public DocGenValuePlanner(final ApplicationContext applicationContext, final ObjectMapper objectMapper,
+      final DocGenExecutors docGenExecutors) {
+    this.applicationContext = applicationContext;
+    this.docGenExecutors = docGenExecutors;
+    jsonPathConfig = Configuration.builder().options(Option.ALWAYS_RETURN_LIST)
+        .jsonProvider(new JacksonJsonProvider(objectMapper))
+        .mappingProvider(new JacksonMappingProvider(objectMapper)).build();
+  }
+
+  /**
+   * The values for each of the given placeholders. Each placeholder gets its own (modifiable) list,
+   * and any that can't be resolved get {@link DocGenService#PLACEHOLDER_ERROR}
+   */
+  public Map<DocumentTemplateSource, List<String>> resolve(final ProcurementEvent event,
+      final Collection<DocumentTemplateSource> templateSources,
+      final ConcurrentMap<String, Object> requestCache) {
+    Map<DocumentTemplateSource, List<String>> dataReplacements = new HashMap<>();
+    Map<SourceType, List<DocumentTemplateSource>> sourcesByType = templateSources.stream()
+        .filter(templateSource -> templateSource.getSourceType() != null)
+        .collect(Collectors.groupingBy(DocumentTemplateSource::getSourceType,
+            () -> new EnumMap<>(SourceType.class), Collectors.toList()));
+
+    sourcesByType.forEach((sourceType, sources) -> {
+      Set<String> sourcePaths = sources.stream().map(DocumentTemplateSource::getSourcePath)
+          .filter(sourcePath -> sourcePath != null && !sourcePath.isEmpty())
+          .collect(Collectors.toSet());
+
+      Map<String, List<String>> valuesByPath = switch (sourceType) {
+        case JSON -> getQuestionsFromJSONDataTemplate(event, sourcePaths, requestCache);
+        case JAVA -> getValuesFromBeans(event, sourcePaths, requestCache);
+        case SQL -> getValuesFromDB(event, sourcePaths);
+        case STATIC -> sourcePaths.stream().collect(Collectors.toMap(sourcePath -> sourcePath, List::of));
+      };
+
+      sources.forEach(templateSource -> {
+        var values = valuesByPath.getOrDefault(templateSource.getSourcePath(), List.of(PLACEHOLDER_ERROR));
+        // Replacements may add to their list, so values shared by placeholders are copied for each
+        dataReplacements.put(templateSource, values == null ? null : new ArrayList<>(values));
+      });
+    });
+
+    templateSources.forEach(templateSource -> dataReplacements.putIfAbsent(templateSource,
+        new ArrayList<>(List.of(PLACEHOLDER_ERROR))));
+    return dataReplacements;
+  }
+
+  /**
+   * Reads question values from the event's JSON data template, which is parsed once and shared by
+   * every JSON placeholder
+   */
+  private Map<String, List<String>> getQuestionsFromJSONDataTemplate(final ProcurementEvent event,
+      final Set<String> sourcePaths, final ConcurrentMap<String, Object> requestCache) {
+    Map<String, List<String>> values = new HashMap<>();
+    if (event == null || event.getProcurementTemplatePayloadRaw() == null
+        || event.getProcurementTemplatePayloadRaw().isEmpty()) {
+      return values;
+    }
+
+    DocumentContext dataTemplate;
+    try {
+      dataTemplate = (DocumentContext) requestCache.computeIfAbsent(CACHE_KEY_JSON_DATA_TEMPLATE,
+          k -> JsonPath.using(jsonPathConfig).parse(event.getProcurementTemplatePayloadRaw()));
+    } catch (Exception ex) {
+      log.error("Error parsing JSON data template for event ID: '{}'", event.getEventID(), ex);
+      return values;
+    }
+
+    sourcePaths.forEach(sourcePath -> {
+      try {
+        values.put(sourcePath, dataTemplate.read(sourcePath, JSON_VALUES_TYPE));
+      } catch (Exception ex) {
+        log.error("Error reading JSON path '{}' for event ID: '{}'", sourcePath, event.getEventID(), ex);
+      }
+    });
+    return values;
+  }
+
+  /**
+   * Gets values from the named value adaptor beans, once the data they declare has been fetched
+   */
+  private Map<String, List<String>> getValuesFromBeans(final ProcurementEvent event,
+      final Set<String> beanNames, final ConcurrentMap<String, Object> requestCache) {
+    // There are specific names we don't want to deal with here, as they'll always be null
+    Map<String, DocGenValueAdaptor> adaptors = new HashMap<>();
+    beanNames.stream().filter(beanName -> !UNSUPPORTED_BEANS.contains(beanName.toLowerCase(Locale.ROOT)))
+        .forEach(beanName -> {
+          try {
+            adaptors.put(beanName, applicationContext.getBean(beanName, DocGenValueAdaptor.class));
+          } catch (Exception ex) {
+            log.error("Error getting Java Bean '{}' for document generation", beanName, ex);
+          }
+        });
+
+    fetch(event, adaptors.values(), requestCache);
+
+    Map<String, List<String>> values = new HashMap<>();
+    adaptors.forEach((beanName, adaptor) -> {
+      try {
+        values.put(beanName, adaptor.getValue(event, requestCache));
+      } catch (Exception ex) {
+        log.error("Error parsing Java Bean '{}' for event ID: '{}'", beanName, event.getEventID(), ex);
+      }
+    });
+    return values;
+  }
+
+  /**
+   * Runs each fetch the adaptors declare, that hasn't already been run for this request, once. A
+   * failed fetch is left for the adaptors that need it to retry and report
+   */
+  private void fetch(final ProcurementEvent event, final Collection<DocGenValueAdaptor> adaptors,
+      final ConcurrentMap<String, Object> requestCache) {
+    Map<String, Function<ProcurementEvent, Object>> fetches = new HashMap<>();
+    adaptors.forEach(adaptor -> fetches.putAll(adaptor.getFetches()));
+    fetches.keySet().removeAll(requestCache.keySet());
+
+    CompletableFuture<?>[] running = fetches.entrySet().stream()
+        .map(fetch -> CompletableFuture
+            .runAsync(() -> requestCache.computeIfAbsent(fetch.getKey(), k -> fetch.getValue().apply(event)),
+                docGenExecutors.getFetch())
+            .exceptionally(ex -> {
+              log.warn("Unable to fetch '{}' for event ID: '{}'", fetch.getKey(), event.getEventID(), ex);
+              return null;
+            }))
+        .toArray(CompletableFuture[]::new);
+    CompletableFuture.allOf(running).join();
+  }
+
+  /**
+   * Reads values from the project and event entities (which map to the DB), given as 'table/column'
+   */
+  private static Map<String, List<String>> getValuesFromDB(final ProcurementEvent event,
+      final Set<String> sourcePaths) {
+    Map<String, List<String>> values = new HashMap<>();
+    if (event == null || event.getProject() == null) {
+      return values;
+    }
+
+    sourcePaths.forEach(sourcePath -> {
+      String[] tableColumnSource = sourcePath.split("/");
+      if (tableColumnSource.length < 2 || tableColumnSource[0].isEmpty() || tableColumnSource[1].isEmpty()) {
+        return;
+      }
+
+      boolean isProject = tableColumnSource[0].equalsIgnoreCase(DB_PLACEHOLDER_PROJECTS);
+      Method getter = (isProject ? PROJECT_GETTERS : EVENT_GETTERS)
+          .get(DB_PLACEHOLDER_METHOD_PREFIX + tableColumnSource[1]);
+
+      if (getter != null) {
+        try {
+          var value = (String) ReflectionUtils.invokeMethod(getter, isProject ? event.getProject() : event);
+          if (value != null) {
+            values.put(sourcePath, List.of(value));
+          }
+        } catch (Exception ex) {
+          log.error("Error reading '{}' for event ID: '{}'", sourcePath, event.getEventID(), ex);
+        }
+      }
+    });
+    return values;
+  }
+
+  /**
+   * The no-arg methods of the class, its superclasses and interfaces, by name. Where names clash,
+   * the most specific wins, as it would for {@link ReflectionUtils#findMethod(Class, String)}
+   */
+  private static Map<String, Method> getters(final Class<?> entityClass) {
+    Map<String, Method> getters = new HashMap<>();
+    ReflectionUtils.doWithMethods(entityClass, method -> getters.putIfAbsent(method.getName(), method),
+        method -> method.getParameterCount() == 0 && method.getName().startsWith(DB_PLACEHOLDER_METHOD_PREFIX));
+    return Map.copyOf(getters);
+  }
+}
@@ -0,0 +1,133 @@
+package uk.gov.crowncommercial.dts.scale.cat.service;
+
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import org.odftoolkit.simple.TextDocument;
+import org.odftoolkit.simple.common.navigation.TextNavigation;
+import org.springframework.stereotype.Component;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.DocumentTemplate;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.DocumentTemplateSource;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.TargetType;
+
+/**
+ * ODT templates read once per template URL, along with how often each of the template's text
+ * placeholders occurs in it, so generation neither re-reads the template resource nor searches the
+ * document for placeholders it doesn't contain.
+ */
+@Component
+@Slf4j
+public class DocumentTemplateCache {
+
+  private static final String METRIC_REQUESTS = "cat.docgen.template.cache.requests";
+
+  private final DocumentTemplateResourceService documentTemplateResourceService;
+  private final Counter hits;
+  private final Counter misses;
+
+  private final Cache<String, CachedTemplate> cache = CacheBuilder.newBuilder().maximumSize(200)
+      .expireAfterWrite(Duration.ofHours(1)).build();
+
+  public DocumentTemplateCache(final DocumentTemplateResourceService documentTemplateResourceService,
+      final MeterRegistry meterRegistry) {
+    this.documentTemplateResourceService = documentTemplateResourceService;
+    hits = Counter.builder(METRIC_REQUESTS).tag("result", "hit").register(meterRegistry);
+    misses = Counter.builder(METRIC_REQUESTS).tag("result", "miss").register(meterRegistry);
+  }
+
+  /**
+   * A template's bytes and the number of times each of its text placeholders occurs
+   */
+  public static final class CachedTemplate {
+
+    private final byte[] content;
+    private final Map<String, Integer> placeholderCounts;
+
+    CachedTemplate(final byte[] content, final Map<String, Integer> placeholderCounts) {
+      this.content = content;
+      this.placeholderCounts = Map.copyOf(placeholderCounts);
+    }
+
+    /**
+     * @return a new document, loaded from the template
+     */
+    @SneakyThrows
+    public TextDocument newDocument() {
+      return TextDocument.loadDocument(new ByteArrayInputStream(content));
+    }
+
+    /**
+     * @return false only for text placeholders the template was scanned for and does not contain -
+     *         tables and lists, and placeholders added since the template was cached, are always
+     *         looked for
+     */
+    public boolean mayContain(final DocumentTemplateSource templateSource) {
+      return !isText(templateSource)
+          || placeholderCounts.getOrDefault(templateSource.getPlaceholder(), -1) != 0;
+    }
+  }
+
+  /**
+   * @return the cached template, or null if it has no content
+   */
+  public CachedTemplate get(final DocumentTemplate documentTemplate) throws ExecutionException {
+    var templateUrl = documentTemplate.getTemplateUrl();
+    var cachedTemplate = cache.getIfPresent(templateUrl);
+    if (cachedTemplate != null) {
+      hits.increment();
+      return cachedTemplate;
+    }
+
+    misses.increment();
+    return cache.get(templateUrl, () -> load(documentTemplate));
+  }
+
+  private CachedTemplate load(final DocumentTemplate documentTemplate) throws Exception {
+    var templateResource = documentTemplateResourceService.getResource(documentTemplate.getTemplateUrl());
+    byte[] content;
+    try (var inputStream = templateResource.getInputStream()) {
+      content = inputStream.readAllBytes();
+    }
+
+    // Scan with the same navigation the replacements use, so the counts match what they would find
+    var textODT = TextDocument.loadDocument(new ByteArrayInputStream(content));
+    Map<String, Integer> placeholderCounts = new HashMap<>();
+    documentTemplate.getDocumentTemplateSources().stream().filter(DocumentTemplateCache::isText)
+        .map(DocumentTemplateSource::getPlaceholder).filter(Objects::nonNull).distinct()
+        .forEach(placeholder -> {
+          try {
+            var textNavigation = new TextNavigation(placeholder, textODT);
+            int count = 0;
+            while (textNavigation.hasNext()) {
+              textNavigation.nextSelection();
+              count++;
+            }
+            placeholderCounts.put(placeholder, count);
+          } catch (Exception ex) {
+            // Left out, so is always looked for
+            log.warn("Unable to scan template '{}' for placeholder '{}'",
+                documentTemplate.getTemplateUrl(), placeholder, ex);
+          }
+        });
+
+    log.debug("Cached document template '{}', {} of {} placeholders present",
+        documentTemplate.getTemplateUrl(),
+        placeholderCounts.values().stream().filter(count -> count > 0).count(),
+        placeholderCounts.size());
+    return new CachedTemplate(content, placeholderCounts);
+  }
+
+  private static boolean isText(final DocumentTemplateSource templateSource) {
+    return templateSource.getTargetType() != TargetType.TABLE
+        && templateSource.getTargetType() != TargetType.LIST;
+  }
+}
@@ -9,9 +9,15 @@ import static uk.gov.crowncommercial.dts.scale.cat.config.JaggaerAPIConfig.ENDPO
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 import org.springframework.http.MediaType;
 import org.springframework.scheduling.annotation.Async;
@@ -24,7 +30,9 @@ import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.WebClient;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import uk.gov.crowncommercial.dts.scale.cat.cache.RfxSummaryCache;
 import uk.gov.crowncommercial.dts.scale.cat.config.Constants;
 import uk.gov.crowncommercial.dts.scale.cat.config.JaggaerAPIConfig;
 import uk.gov.crowncommercial.dts.scale.cat.exception.JaggaerApplicationException;
@@ -35,6 +43,7 @@ import uk.gov.crowncommercial.dts.scale.cat.model.generated.AwardState;
 import uk.gov.crowncommercial.dts.scale.cat.model.generated.DocumentAudienceType;
 import uk.gov.crowncommercial.dts.scale.cat.model.generated.PublishDates;
 import uk.gov.crowncommercial.dts.scale.cat.model.jaggaer.*;
+import uk.gov.crowncommercial.dts.scale.cat.utils.TendersAPIModelUtils;
 import static uk.gov.crowncommercial.dts.scale.cat.config.Constants.ERR_MSG_RFX_NOT_FOUND;
 
 /**
@@ -48,6 +57,7 @@ public class JaggaerService {
   private final JaggaerAPIConfig jaggaerAPIConfig;
   private final WebClient jaggaerWebClient;
   private final WebclientWrapper webclientWrapper;
+  private final RfxSummaryCache rfxSummaryCache;
   private static final String MESSAGE_PARAMS =
       "MESSAGE_BODY;MESSAGE_CATEGORY;MESSAGE_ATTACHMENT;MESSAGE_READING";
 
@@ -99,6 +109,7 @@ public class JaggaerService {
                 .orElseThrow(() -> new JaggaerApplicationException(INTERNAL_SERVER_ERROR.value(),
                     "Unexpected error updating Rfx"));
     log.info("Finish calling Jaggaer API to create or update rfx, Rfx Id: {} ", rfx.getRfxSetting().getRfxId());
+    rfxSummaryCache.invalidate(rfx.getRfxSetting().getRfxId());
 
     if (createRfxResponse.getReturnCode() != 0
         || !Constants.OK_MSG.equals(createRfxResponse.getReturnMessage())) {
@@ -172,50 +183,141 @@ public class JaggaerService {
    * Rfx with all components.
    *
    * @param externalEventIds
-   * @return the rfx, if a single record found in response data list
+   * @return the rfxs found
+   * @throws JaggaerApplicationException if any of the rfxs could not be searched for
    */
   public Set<ExportRfxResponse> searchRFx(final Set<String> externalEventIds) {
+    return searchRFxWithComponents(externalEventIds, Set.of());
+  }
 
-    var searchRfxUri = jaggaerAPIConfig.getSearchRfxSummary().get(ENDPOINT);
-    var rfxIds = externalEventIds.stream().collect(Collectors.joining(","));
+  public Set<ExportRfxResponse> searchRFxWithComponents(final Set<String> externalEventIds,
+      final Set<String> components) {
+    return new HashSet<>(
+        searchRFxInBatches(externalEventIds, components, true, false).getRfxs().values());
+  }
 
-    log.info("Start calling Jaggaer API to search rfx, Rfx Ids: {}", rfxIds);
-    var searchRfxResponse = webclientWrapper
-        .getOptionalResource(SearchRfxsResponse.class, jaggaerWebClient,
-            jaggaerAPIConfig.getTimeoutDuration(), searchRfxUri, rfxIds)
-        .orElseThrow(() -> new JaggaerApplicationException(INTERNAL_SERVER_ERROR.value(),
-            "Unexpected error searching rfxs"));
-    log.info("Finish calling Jaggaer API to search rfx, Rfx Ids: {}", rfxIds);
+  /**
+   * As {@link #searchRFx(Set)}, but Rfxs searched for in the last few seconds are served from the
+   * {@link RfxSummaryCache}. Only for read-only views such as the dashboard and project lists -
+   * anything validating an Rfx before changing it should use {@link #searchRFx(Set)}.
+   *
+   * @param externalEventIds
+   * @return the rfxs found
+   * @throws JaggaerApplicationException if any of the rfxs could not be searched for
+   */
+  public Set<ExportRfxResponse> searchRFxCached(final Set<String> externalEventIds) {
+    return new HashSet<>(
+        searchRFxInBatches(externalEventIds, Set.of(), true, true).getRfxs().values());
+  }
 
-    if (searchRfxResponse.getReturnCode() == 0) {
-      return searchRfxResponse.getDataList().getRfx();
+  /**
+   * Searches for any number of Rfxs. The ids are split into batches of
+   * {@link JaggaerAPIConfig#getSearchRfxBatchSize()}, which are searched concurrently. A batch
+   * that fails, or is still outstanding when the search times out, does not fail the others - its
+   * ids are reported in {@link RfxSearchResult#getFailedRfxIds()} instead. Rfxs searched for in the last few seconds
+   * are served from the {@link RfxSummaryCache}.
+   *
+   * @param externalEventIds
+   * @param components components to include, or empty for just the <code>rfxSetting</code>
+   * @return the rfxs found, keyed by rfxId
+   */
+  public RfxSearchResult searchRFxById(final Set<String> externalEventIds,
+      final Set<String> components) {
+    var result = searchRFxInBatches(externalEventIds, components, false, true);
+    if (!result.isComplete()) {
+      log.warn("Unable to search {} of {} rfxs, Rfx Ids: {}", result.getFailedRfxIds().size(),
+          externalEventIds.size(), result.getFailedRfxIds());
     }
-    throw new JaggaerApplicationException(INTERNAL_SERVER_ERROR.value(),
-        "Unexpected error searching rfxs");
+    return result;
   }
-  
-  public Set<ExportRfxResponse> searchRFxWithComponents(final Set<String> externalEventIds,
-      final Set<String> components) {
 
-    var searchRfxUri = jaggaerAPIConfig.getSearchRfxSummaryWithComponents().get(ENDPOINT);
-    var rfxIds = externalEventIds.stream().collect(Collectors.joining(","));
-    var componentFilters = components.stream().collect(Collectors.joining(";"));
+  private RfxSearchResult searchRFxInBatches(final Set<String> externalEventIds,
+      final Set<String> components, final boolean failFast, final boolean cached) {
+    var rfxIds = externalEventIds.stream().filter(Objects::nonNull).distinct().toList();
+    if (rfxIds.isEmpty()) {
+      return new RfxSearchResult(Map.of(), Set.of());
+    }
 
-    log.info("Start calling Jaggaer API to search rfx with components. Rfx Id: {}, Components: {}", rfxIds, componentFilters);
-    var searchRfxResponse = webclientWrapper
-        .getOptionalResource(SearchRfxsResponse.class, jaggaerWebClient,
-            jaggaerAPIConfig.getTimeoutDuration(), searchRfxUri, rfxIds, componentFilters)
-        .orElseThrow(() -> new JaggaerApplicationException(INTERNAL_SERVER_ERROR.value(),
-            "Unexpected error searching rfxs"));
-    log.info("Finish calling Jaggaer API to search rfx with components. Rfx Id: {}, Components: {}", rfxIds, componentFilters);
+    var rfxs = new ConcurrentHashMap<String, ExportRfxResponse>(
+        cached ? rfxSummaryCache.getAll(rfxIds, components) : Map.of());
+    var misses = rfxIds.stream().filter(rfxId -> !rfxs.containsKey(rfxId)).toList();
+    if (misses.isEmpty()) {
+      return new RfxSearchResult(Map.copyOf(rfxs), Set.of());
+    }
 
-    if (searchRfxResponse.getReturnCode() == 0) {
-      return searchRfxResponse.getDataList().getRfx();
+    var fetched = new ConcurrentLinkedQueue<ExportRfxResponse>();
+    Set<String> searchedRfxIds = ConcurrentHashMap.newKeySet();
+    Set<String> failedRfxIds = ConcurrentHashMap.newKeySet();
+    var batches = TendersAPIModelUtils.getBatches(misses, jaggaerAPIConfig.getSearchRfxBatchSize());
+    var search = Flux.fromIterable(batches)
+        .flatMap(batch -> {
+          var batchSearch = searchRFxBatch(batch, components)
+              .doOnComplete(() -> searchedRfxIds.addAll(batch));
+          return failFast ? batchSearch : batchSearch.onErrorResume(ex -> {
+            log.warn("Error searching rfxs, Rfx Ids: {}", batch, ex);
+            failedRfxIds.addAll(batch);
+            return Flux.empty();
+          });
+        }, jaggaerAPIConfig.getSearchRfxConcurrency())
+        .filter(rfx -> rfx.getRfxSetting() != null && rfx.getRfxSetting().getRfxId() != null)
+        .doOnNext(fetched::add)
+        .then()
+        .timeout(getSearchTimeout(batches.size()));
+
+    if (failFast) {
+      search.onErrorMap(TimeoutException.class, ex -> new JaggaerApplicationException(
+          INTERNAL_SERVER_ERROR.value(), "Timed out searching rfxs")).block();
+    } else {
+      search.onErrorResume(TimeoutException.class, ex -> Mono.empty()).block();
+      // Batches still outstanding when the search timed out are reported as failed
+      misses.stream().filter(rfxId -> !searchedRfxIds.contains(rfxId))
+          .forEach(failedRfxIds::add);
     }
-    throw new JaggaerApplicationException(INTERNAL_SERVER_ERROR.value(),
-        "Unexpected error searching rfxs");
+
+    rfxSummaryCache.putAll(fetched, components);
+    fetched.forEach(rfx -> rfxs.put(rfx.getRfxSetting().getRfxId(), rfx));
+    return new RfxSearchResult(Map.copyOf(rfxs), Set.copyOf(failedRfxIds));
   }
-  
+
+  /*
+   * Each batch is timed out individually, so the search as a whole should take no longer than a
+   * timeout for each round of concurrent batches
+   */
+  private Duration getSearchTimeout(final int batches) {
+    var rounds = (batches + jaggaerAPIConfig.getSearchRfxConcurrency() - 1)
+        / jaggaerAPIConfig.getSearchRfxConcurrency();
+    return ofSeconds((long) jaggaerAPIConfig.getTimeoutDuration() * rounds);
+  }
+
+  private Flux<ExportRfxResponse> searchRFxBatch(final List<String> batch,
+      final Set<String> components) {
+    var rfxIds = String.join(",", batch);
+    Mono<SearchRfxsResponse> response;
+    if (components.isEmpty()) {
+      response = webclientWrapper.getResource(SearchRfxsResponse.class, jaggaerWebClient,
+          jaggaerAPIConfig.getSearchRfxSummary().get(ENDPOINT), rfxIds);
+    } else {
+      response = webclientWrapper.getResource(SearchRfxsResponse.class, jaggaerWebClient,
+          jaggaerAPIConfig.getSearchRfxSummaryWithComponents().get(ENDPOINT), rfxIds,
+          String.join(";", components));
+    }
+
+    return response.timeout(ofSeconds(jaggaerAPIConfig.getTimeoutDuration()))
+        .switchIfEmpty(Mono.error(() -> new JaggaerApplicationException(
+            INTERNAL_SERVER_ERROR.value(), "Unexpected error searching rfxs")))
+        .doOnSubscribe(s -> log.info("Start calling Jaggaer API to search rfx. Rfx Ids: {}, Components: {}", rfxIds, components))
+        .doOnSuccess(r -> log.info("Finish calling Jaggaer API to search rfx. Rfx Ids: {}, Components: {}", rfxIds, components))
+        .flatMapMany(searchRfxResponse -> {
+          if (!Objects.equals(0, searchRfxResponse.getReturnCode())) {
+            return Flux.error(new JaggaerApplicationException(INTERNAL_SERVER_ERROR.value(),
+                "Unexpected error searching rfxs"));
+          }
+          return searchRfxResponse.getDataList() == null
+              || searchRfxResponse.getDataList().getRfx() == null ? Flux.empty()
+                  : Flux.fromIterable(searchRfxResponse.getDataList().getRfx());
+        });
+  }
+
   /**
    * Get an Rfx by component(Event).
    *
@@ -380,6 +482,7 @@ public class JaggaerService {
     final var publishRfxResponse = webclientWrapper.postData(publishRfx, PublishRfxResponse.class,
         jaggaerWebClient, jaggaerAPIConfig.getTimeoutDuration(), publishRfxEndpoint);
     log.info("Finish calling Jaggaer API to publish rfx, Rfx Id: {}", publishRfx.getRfxId());
+    rfxSummaryCache.invalidate(publishRfx.getRfxId());
 
     log.debug("Publish event response: {}", publishRfxResponse);
 
@@ -466,6 +569,7 @@ public class JaggaerService {
         webclientWrapper.postData(startEvaluationRequest, WorkflowRfxResponse.class,
             jaggaerWebClient, jaggaerAPIConfig.getTimeoutDuration(), endPoint);
     log.info("Finish calling Jaggaer API to start evaluation, Rfx Id: {}", event.getExternalEventId());
+    rfxSummaryCache.invalidate(event.getExternalEventId());
 
     log.debug("Start evaluation event response: {}", evaluationResponse);
   }
@@ -536,6 +640,7 @@ public class JaggaerService {
         CreateUpdateRfxResponse.class, jaggaerWebClient, jaggaerAPIConfig.getTimeoutDuration(),
         jaggaerAPIConfig.getCreateRfx().get(ENDPOINT));
     log.info("Finish calling Jaggaer API to extend rfx, Rfx Id: {}", rfx.getRfxSetting().getRfxId());
+    rfxSummaryCache.invalidate(rfx.getRfxSetting().getRfxId());
 
     if (extendRfxResponse.getReturnCode() != 0
         || !Constants.OK_MSG.equals(extendRfxResponse.getReturnMessage())) {
@@ -559,6 +664,7 @@ public class JaggaerService {
     final var response = webclientWrapper.postData(request, WorkflowRfxResponse.class,
         jaggaerWebClient, jaggaerAPIConfig.getTimeoutDuration(), endPoint);
     log.info("Finish calling Jaggaer API to invalidate event, Rfx Id: {}", request.getRfxId());
+    rfxSummaryCache.invalidate(request.getRfxId());
 
     log.debug("Invalidate event response: {}", response);
   }
@@ -602,6 +708,7 @@ public class JaggaerService {
     final var response = webclientWrapper.postData(awardRequest, WorkflowRfxResponse.class,
         jaggaerWebClient, jaggaerAPIConfig.getTimeoutDuration(), endPoint);
     log.info("Finish calling Jaggaer API to award or pre-award rfx, Rfx Id: {}", event.getExternalEventId());
+    rfxSummaryCache.invalidate(event.getExternalEventId());
 
     log.debug("Award response: {}", response);
     
@@ -629,6 +736,7 @@ public class JaggaerService {
         webclientWrapper.postData(completeTechnicalRequest, WorkflowRfxResponse.class,
             jaggaerWebClient, jaggaerAPIConfig.getTimeoutDuration(), endPoint);
     log.info("Finish calling Jaggaer API to complete technical, Rfx Id: {}", event.getExternalEventId());
+    rfxSummaryCache.invalidate(event.getExternalEventId());
 
     log.debug("Complete evaluation rfx response: {}", response);
   }
@@ -651,6 +759,7 @@ public class JaggaerService {
         WorkflowRfxResponse.class, jaggaerWebClient, jaggaerAPIConfig.getTimeoutDuration(),
         jaggaerAPIConfig.getOpenEnvelope().get(ENDPOINT));
     log.info("Finish calling Jaggaer API to open envelope, Rfx Id: {}", event.getExternalEventId());
+    rfxSummaryCache.invalidate(event.getExternalEventId());
 
     log.debug("Open envelope response: {}", envelopeResponse);
     if (envelopeResponse.getReturnCode() != 0
@@ -34,10 +34,8 @@ import uk.gov.crowncommercial.dts.scale.cat.repo.RetryableTendersDBDelegate;
 import uk.gov.crowncommercial.dts.scale.cat.service.asyncprocessors.JaggaerSupplierEventData;
 import uk.gov.crowncommercial.dts.scale.cat.service.asyncprocessors.JaggaerSupplierPush;
 import uk.gov.crowncommercial.dts.scale.cat.service.ca.AssessmentService;
+import uk.gov.crowncommercial.dts.scale.cat.service.documentupload.DocumentTransferService;
 import uk.gov.crowncommercial.dts.scale.cat.service.documentupload.DocumentUploadService;
-import uk.gov.crowncommercial.dts.scale.cat.service.documentupload.callables.DocumentUploadCallable;
-import uk.gov.crowncommercial.dts.scale.cat.service.documentupload.callables.RetrieveDocumentCallable;
-import uk.gov.crowncommercial.dts.scale.cat.utils.ByteArrayMultipartFile;
 import uk.gov.crowncommercial.dts.scale.cat.utils.TendersAPIModelUtils;
 
 import jakarta.transaction.Transactional;
@@ -98,6 +96,7 @@ public class ProcurementEventService implements EventService {
     private final DocumentConfig documentConfig;
     private final AssessmentService assessmentService;
     private final DocumentUploadService documentUploadService;
+    private final DocumentTransferService documentTransferService;
     private final DocumentTemplateService dTemplateService;
 
     // TODO: switch remaining direct Jaggaer calls to use jaggaerService
@@ -114,7 +113,6 @@ public class ProcurementEventService implements EventService {
     private final EventTransitionService eventTransitionService;
     private final QuestionAndAnswerService questionAndAnswerService;
 
-    private final ExecutorService jaggerUploadExecutorService = Executors.newFixedThreadPool(10);
     private final ExecutorService executorService = Executors.newFixedThreadPool(50);
 
     /**
@@ -1205,7 +1203,7 @@ public class ProcurementEventService implements EventService {
      */
     private Map<String, RfxSetting> getAllRfxSettingMap(Set<String> externalEventIdsAllProjects) {
 
-        var allRfxs = jaggaerService.searchRFx(externalEventIdsAllProjects);
+        var allRfxs = jaggaerService.searchRFxCached(externalEventIdsAllProjects);
         return allRfxs.stream().map(ExportRfxResponse::getRfxSetting).collect(Collectors.toMap(RfxSetting::getRfxId, rfxSetting -> rfxSetting));
     }
 
@@ -1642,40 +1640,10 @@ public class ProcurementEventService implements EventService {
 
 
     private void retrieveAndUploadDocuments(String principal, ProcurementEvent procurementEvent) {
-        List<RetrieveDocumentCallable> retrieveDocumentCallableList = procurementEvent.getDocumentUploads().stream().filter(du -> VirusCheckStatus.SAFE == du.getExternalStatus()).map(documentUpload -> new RetrieveDocumentCallable(documentUploadService, documentUpload, principal)).toList();
-        List<Future<Map<DocumentUpload, ByteArrayMultipartFile>>> retriveDocumentfutures = null;
-        try {
-            retriveDocumentfutures = executorService.invokeAll(retrieveDocumentCallableList);
-        } catch (InterruptedException e) {
-            // TODO : Handle this and propagate your response properly
-            throw new RuntimeException(e);
-        }
-
-
-        List<DocumentUploadCallable> documentUploadCallableList = new ArrayList<>();
-
-        retriveDocumentfutures.forEach(retriveDocumentfuture -> {
-
-            Map<DocumentUpload, ByteArrayMultipartFile> documentMap = null;
-
-            try {
-                documentMap = retriveDocumentfuture.get();
-            } catch (InterruptedException | ExecutionException exception) {
-                // TODO : Handle this and propagate your response properly
-                throw new RuntimeException(exception);
-            }
-
-            var documentUpload = documentMap.keySet().stream().findFirst().get();
-            documentUploadCallableList.add(new DocumentUploadCallable(jaggaerService, procurementEvent, documentUpload, documentMap.get(documentUpload)));
-        });
-
-        try {
-
-            jaggerUploadExecutorService.invokeAll(documentUploadCallableList);
-
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        documentTransferService.transferToJaggaer(procurementEvent,
+                procurementEvent.getDocumentUploads().stream()
+                        .filter(du -> VirusCheckStatus.SAFE == du.getExternalStatus()).toList(),
+                principal);
     }
     
     public void startEvaluation(final String profile, final Integer procId, final String eventId) {
@@ -10,6 +10,8 @@ import static uk.gov.crowncommercial.dts.scale.cat.config.JaggaerAPIConfig.ENDPO
 import static uk.gov.crowncommercial.dts.scale.cat.model.entity.Timestamps.createTimestamps;
 import static uk.gov.crowncommercial.dts.scale.cat.service.scheduler.ProjectsCSVGenerationScheduledTask.CSV_FILE_NAME;
 import static uk.gov.crowncommercial.dts.scale.cat.service.scheduler.ProjectsCSVGenerationScheduledTask.CSV_FILE_PREFIX;
+import static uk.gov.crowncommercial.dts.scale.cat.service.scheduler.ProjectsCSVGenerationScheduledTask.ODS_FILE_NAME;
+import static uk.gov.crowncommercial.dts.scale.cat.service.scheduler.ProjectsCSVGenerationScheduledTask.XLSX_FILE_NAME;
 import static uk.gov.crowncommercial.dts.scale.cat.utils.TendersAPIModelUtils.getInstantFromDate;
 import static uk.gov.crowncommercial.dts.scale.cat.utils.TendersAPIModelUtils.getTenderPeriod;
 
@@ -23,20 +25,8 @@ import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
-
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVParser;
-import org.apache.commons.csv.CSVRecord;
-import org.apache.commons.csv.QuoteMode;
-import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
 import org.modelmapper.ModelMapper;
-import org.odftoolkit.simple.SpreadsheetDocument;
-import org.odftoolkit.simple.table.Table;
 import org.opensearch.data.client.orhlc.NativeSearchQuery;
 import org.opensearch.data.client.orhlc.NativeSearchQueryBuilder;
 import org.opensearch.index.query.*;
@@ -56,8 +46,11 @@ import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.UriUtils;
+import software.amazon.awssdk.core.ResponseInputStream;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -102,6 +95,9 @@ import uk.gov.crowncommercial.dts.scale.cat.model.jaggaer.*;
 import uk.gov.crowncommercial.dts.scale.cat.model.search.ProcurementEventSearch;
 import uk.gov.crowncommercial.dts.scale.cat.repo.RetryableTendersDBDelegate;
 import uk.gov.crowncommercial.dts.scale.cat.repo.search.SearchProjectRepo;
+import uk.gov.crowncommercial.dts.scale.cat.service.scheduler.ProjectsCSVGenerationScheduledTask;
+import uk.gov.crowncommercial.dts.scale.cat.service.search.ProjectSearchIndexLoader;
+import uk.gov.crowncommercial.dts.scale.cat.utils.SpreadsheetStreamWriter;
 import uk.gov.crowncommercial.dts.scale.cat.utils.TendersAPIModelUtils;
 
 /**
@@ -130,6 +126,7 @@ public class ProcurementProjectService {
   private final ElasticsearchOperations elasticsearchOperations;
   private final S3Client tendersS3Client;
   private final AWSS3Service tendersS3Service;
+  private final ProjectSearchIndexLoader projectSearchIndexLoader;
 
 
   private static final String PROJECT_NAME = "projectName";
@@ -137,12 +134,12 @@ public class ProcurementProjectService {
   private static final String LOT = "lot";
 
   private static final String STATUS = "status";
+  private static final String XLSX_FILE_TYPE = "xlsx";
+  private static final String ODS_FILE_TYPE = "ods";
 
   private static final String COUNT_AGGREGATION = "count_lot";
   private static final String SEARCH_URI = "/tenders/projects/search?agreement-id=RM1043.8&keyword=%s&page=%s&page-size=%s";
 
-  private final Map<String, List<ProcurementEventSearch>> projectCache = new ConcurrentHashMap<>();
-  private static final String ALL_RESULTS_CACHE_KEY = "ALL_RESULTS";
   // Simple CSV split that respects quoted commas (not a full CSV parser, but handles typical quoted fields)
   private static final Pattern CSV_SPLIT_REGEX = Pattern.compile(",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)");
 
@@ -637,7 +634,7 @@ public class ProcurementProjectService {
       var externalEventIdsAllProjects = projectUserMappings.stream()
           .flatMap(pum -> pum.getProject().getProcurementEvents().stream())
           .map(ProcurementEvent::getExternalEventId).collect(Collectors.toSet());
-      var projectUserRfxs = jaggaerService.searchRFx(externalEventIdsAllProjects);
+      var projectUserRfxs = RfxSearchResult.of(jaggaerService.searchRFxCached(externalEventIdsAllProjects));
       
       return projectUserMappings.stream()
           .map(pum -> convertProjectToProjectPackageSummary(pum, projectUserRfxs))
@@ -691,10 +688,10 @@ public class ProcurementProjectService {
         Set<String> externalEventIds = projectMapping.getProject().getProcurementEvents().stream().map(ProcurementEvent::getExternalEventId).collect(Collectors.toSet());
 
         if (!externalEventIds.isEmpty()) {
-          Set<ExportRfxResponse> projectRfxs = jaggaerService.searchRFx(externalEventIds);
+          Set<ExportRfxResponse> projectRfxs = jaggaerService.searchRFxCached(externalEventIds);
 
           if (!projectRfxs.isEmpty()) {
-            Optional<ProjectPackageSummary> projectSummary = convertProjectToProjectPackageSummary(projectMapping, projectRfxs);
+            Optional<ProjectPackageSummary> projectSummary = convertProjectToProjectPackageSummary(projectMapping, RfxSearchResult.of(projectRfxs));
 
             if (projectSummary.isPresent()) {
               return projectSummary.get();
@@ -715,7 +712,7 @@ public class ProcurementProjectService {
    * @return ProjectPackageSummary
    */
   private Optional<ProjectPackageSummary> convertProjectToProjectPackageSummary(
-      final ProjectUserMapping mapping, final Set<ExportRfxResponse> projectUserRfxs) {
+      final ProjectUserMapping mapping, final RfxSearchResult projectUserRfxs) {
 
     log.trace("Convert Project to ProjectPackageSummary: " + mapping.getProject().getId());
 
@@ -786,10 +783,8 @@ public class ProcurementProjectService {
         }
 
         // We need to build event summary before irrespective of jaggaer response
-        var exportRfxResponse = projectUserRfxs.stream()
-            .filter(
-                rfx -> Objects.equals(dbEvent.getExternalEventId(), rfx.getRfxSetting().getRfxId()))
-            .findFirst().orElseThrow(
+        var exportRfxResponse = Optional.ofNullable(projectUserRfxs.get(dbEvent.getExternalEventId()))
+            .orElseThrow(
                 () -> new TendersDBDataException("Unexplained data mismatch from Rfx search"));
         rfxSetting = exportRfxResponse.getRfxSetting();
         // update the tender period from rfx
@@ -1015,38 +1010,15 @@ public class ProcurementProjectService {
   public void refreshCacheDaily() {
     log.info("Scheduled refresh of ProcurementEventSearch cache started...");
     fetchAllFromElasticsearch();
-    log.info("Scheduled refresh of ProcurementEventSearch cache completed.");
   }
 
   /**
-   * Load all procurement events from Elasticsearch into cache (one-time bulk load).
+   * Start loading all procurement events from Elasticsearch into a new cache generation, in the
+   * background. Searches carry on using the previous generation until the load completes.
    */
-  public synchronized void fetchAllFromElasticsearch() {
+  public void fetchAllFromElasticsearch() {
     log.info("Fetching all ProcurementEventSearch records from Elasticsearch into cache...");
-    // Using a large page size to fetch everything, adjust if dataset is very large
-    NativeSearchQuery query = new NativeSearchQueryBuilder()
-            .withPageable(PageRequest.of(0, 10000)) // adjust batch size if needed
-            .build();
-
-    SearchHits<ProcurementEventSearch> hits =
-            elasticsearchOperations.search(query, ProcurementEventSearch.class);
-
-    List<ProcurementEventSearch> allResults = hits.stream()
-            .map(SearchHit::getContent)
-            .collect(Collectors.toList());
-
-    projectCache.put(ALL_RESULTS_CACHE_KEY, allResults);
-    log.info("Cached {} ProcurementEventSearch records", allResults.size());
-  }
-
-  /**
-   * Return cached results, or fetch fresh if cache is empty.
-   */
-  private List<ProcurementEventSearch> getCachedResults() {
-    if (!projectCache.containsKey(ALL_RESULTS_CACHE_KEY)) {
-      fetchAllFromElasticsearch();
-    }
-    return projectCache.get(ALL_RESULTS_CACHE_KEY);
+    projectSearchIndexLoader.refresh();
   }
 
   /**
@@ -1054,49 +1026,19 @@ public class ProcurementProjectService {
    */
   public ProjectPublicSearchResult getProjectSummery(final String keyword, final String lotId, int page, int pageSize, ProjectFilters projectFilters) {
 
-    List<ProcurementEventSearch> allResults = getCachedResults();
-
-    // Apply filters in-memory
-    Stream<ProcurementEventSearch> stream = allResults.stream();
-
-    if (lotId != null && !lotId.isEmpty()) {
-      stream = stream.filter(p -> lotId.equalsIgnoreCase(p.getLot()));
-    }
-
+    List<String> selectedStatuses = Collections.emptyList();
     if (projectFilters != null && !CollectionUtils.isEmpty(projectFilters.getFilters())) {
-      List<String> selectedStatuses = projectFilters.getFilters().stream()
+      selectedStatuses = projectFilters.getFilters().stream()
               .filter(f -> "status".equalsIgnoreCase(f.getName()))
               .flatMap(f -> f.getOptions().stream())
               .filter(o -> Boolean.TRUE.equals(o.getSelected()))
               .map(o -> o.getText())
               .toList();
-
-      if (!selectedStatuses.isEmpty()) {
-        stream = stream.filter(p -> selectedStatuses.contains(p.getStatus()));
-      }
     }
 
-    if (keyword != null && !keyword.isBlank()) {
-      String lowerKeyword = keyword.toLowerCase();
-      stream = stream.filter(p ->
-              (p.getProjectName() != null && p.getProjectName().toLowerCase().contains(lowerKeyword)) ||
-                      (p.getDescription() != null && p.getDescription().toLowerCase().contains(lowerKeyword))
-      );
-    }
-
-    List<ProcurementEventSearch> filtered = stream.toList();
-
-    // DEDUPLICATE HERE - BEFORE PAGINATION
-    List<ProcurementEventSearch> deduplicated = filtered.stream()
-        .collect(collectingAndThen(
-            toCollection(() -> new TreeSet<>(comparing(ProcurementEventSearch::getProjectId))),
-            ArrayList::new));
-
-    // Pagination on deduplicated results
+    // Filtering, de-duplication by project and pagination are all resolved by the index
     int fromIndex = Math.max((page - 1) * pageSize, 0);
-    int toIndex = Math.min(fromIndex + pageSize, deduplicated.size());
-    List<ProcurementEventSearch> pageResults =
-            fromIndex > deduplicated.size() ? Collections.emptyList() : deduplicated.subList(fromIndex, toIndex);
+    var searchResult = projectSearchIndexLoader.getIndex().search(keyword, lotId, selectedStatuses, fromIndex, pageSize);
 
     // Build response
     ProjectPublicSearchResult result = new ProjectPublicSearchResult();
@@ -1105,9 +1047,9 @@ public class ProcurementProjectService {
     searchCriteria.setFilters(projectFilters != null ? projectFilters.getFilters() : null);
 
     result.setSearchCriteria(searchCriteria);
-    result.setResults(convertResultsFromCache(pageResults));
-    result.setTotalResults(deduplicated.size());
-    result.setLinks(generateLinks(keyword, page, pageSize, deduplicated.size()));
+    result.setResults(convertResultsFromCache(searchResult.getResults()));
+    result.setTotalResults(searchResult.getTotalResults());
+    result.setLinks(generateLinks(keyword, page, pageSize, searchResult.getTotalResults()));
 
     return result;
   }
@@ -1272,85 +1214,55 @@ public class ProcurementProjectService {
   }
   
   /**
-   * Download all opportunities data from s3
-   * 
+   * Stream the opportunities data from s3 to the given output stream. The XLSX and ODS variants are
+   * pre-rendered alongside the CSV by {@link ProjectsCSVGenerationScheduledTask}, so are normally a
+   * straight pass-through; if they are missing they are converted from the CSV on the fly.
    */
-  public InputStream downloadProjectsData(String fileType) {
+  public void downloadProjectsData(final String fileType, final OutputStream outputStream) {
     try {
-      var getObjectRequest = GetObjectRequest.builder()
-          .bucket(tendersS3Service.getCredentials().getBucketName())
-          .key(CSV_FILE_PREFIX + CSV_FILE_NAME)
-          .build();
-      
-      var tendersS3Object = tendersS3Client.getObject(getObjectRequest);
-
-      if(fileType != null && fileType.equals("xlsx"))
-        return convertCsvToXlsx(tendersS3Object);
-
-      if(fileType != null && fileType.equals("ods"))
-        return convertCsvToOds(tendersS3Object);
+      if (XLSX_FILE_TYPE.equals(fileType) || ODS_FILE_TYPE.equals(fileType)) {
+        var renderedKey =
+            CSV_FILE_PREFIX + (XLSX_FILE_TYPE.equals(fileType) ? XLSX_FILE_NAME : ODS_FILE_NAME);
+        try (var renderedS3Object = getOpportunitiesS3Object(renderedKey)) {
+          renderedS3Object.transferTo(outputStream);
+          return;
+        } catch (NoSuchKeyException e) {
+          log.warn("Pre-rendered opportunities file {} not found, converting from CSV", renderedKey);
+        }
+      }
 
-      return tendersS3Object;
+      try (var tendersS3Object = getOpportunitiesS3Object(CSV_FILE_PREFIX + CSV_FILE_NAME)) {
+        if (XLSX_FILE_TYPE.equals(fileType)) {
+          SpreadsheetStreamWriter.writeXlsx(tendersS3Object, outputStream);
+        } else if (ODS_FILE_TYPE.equals(fileType)) {
+          SpreadsheetStreamWriter.writeOds(tendersS3Object, outputStream);
+        } else {
+          tendersS3Object.transferTo(outputStream);
+        }
+      }
     } catch (Exception exception) {
       log.error("Exception while downloading the projects data from S3: " + exception.getMessage());
       throw new ResourceNotFoundException("Failed to download oppertunity data. File not found");
     }
   }
 
-  protected InputStream convertCsvToXlsx(InputStream csvInputStream) throws IOException {
-
-    try (BufferedReader reader = new BufferedReader(new InputStreamReader(csvInputStream, StandardCharsets.UTF_8));
-         CSVParser csvParser = CSVFormat.DEFAULT
-                 .withQuote('"')
-                 .withIgnoreSurroundingSpaces()
-                 .parse(reader);
-         Workbook workbook = new XSSFWorkbook()) {
-
-      Sheet sheet = workbook.createSheet("CSV Data");
-      int rowIdx = 0;
-
-      for (CSVRecord record : csvParser) {
-        Row row = sheet.createRow(rowIdx++);
-        for (int i = 0; i < record.size(); i++) {
-          Cell cell = row.createCell(i);
-          cell.setCellValue(record.get(i));
-        }
-      }
+  private ResponseInputStream<GetObjectResponse> getOpportunitiesS3Object(final String key) {
+    var getObjectRequest = GetObjectRequest.builder()
+        .bucket(tendersS3Service.getCredentials().getBucketName())
+        .key(key)
+        .build();
+    return tendersS3Client.getObject(getObjectRequest);
+  }
 
-      ByteArrayOutputStream baos = new ByteArrayOutputStream();
-      workbook.write(baos);
-      return new ByteArrayInputStream(baos.toByteArray());
-    }
+  protected InputStream convertCsvToXlsx(InputStream csvInputStream) throws IOException {
+    var baos = new ByteArrayOutputStream();
+    SpreadsheetStreamWriter.writeXlsx(csvInputStream, baos);
+    return new ByteArrayInputStream(baos.toByteArray());
   }
 
   public InputStream convertCsvToOds(InputStream csvInputStream) throws Exception {
-    try (BufferedReader reader = new BufferedReader(new InputStreamReader(csvInputStream, StandardCharsets.UTF_8));
-         CSVParser csvParser = CSVFormat.DEFAULT
-                 .withQuote('"')
-                 .withTrim()
-                 .withIgnoreSurroundingSpaces()
-                 .withQuoteMode(QuoteMode.MINIMAL)
-                 .parse(reader);
-         SpreadsheetDocument odsDoc = SpreadsheetDocument.newSpreadsheetDocument()) {
-
-      Table sheet = odsDoc.getSheetByIndex(0);
-      sheet.setTableName("CSV Data");
-
-      int rowIndex = 0;
-
-      for (CSVRecord record : csvParser) {
-          for (int colIndex = 0; colIndex < record.size(); colIndex++) {
-              // set cell value via Simple API
-              sheet.getCellByPosition(colIndex, rowIndex).setStringValue(record.get(colIndex));
-          }
-
-          rowIndex++;
-      }
-
-      ByteArrayOutputStream baos = new ByteArrayOutputStream();
-      odsDoc.save(baos);
-
-      return new ByteArrayInputStream(baos.toByteArray());
-    }
+    var baos = new ByteArrayOutputStream();
+    SpreadsheetStreamWriter.writeOds(csvInputStream, baos);
+    return new ByteArrayInputStream(baos.toByteArray());
   }
 }
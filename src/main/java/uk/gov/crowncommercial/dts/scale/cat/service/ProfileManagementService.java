@@ -754,7 +754,7 @@ public class ProfileManagementService {
 
     // If cache missing, refresh in case user has since been registered (by separate instance)
     if (buyerSubUser.isEmpty()) {
-      userProfileService.refreshBuyerCache(userId);
+      userProfileService.refreshBuyerCacheIfStale();
       buyerSubUser = userProfileService.resolveBuyerUserBySSOUserLogin(userId);
       log.debug("Refreshed buyer user cache for [{}], now found? - [{}]", userId,
           buyerSubUser.isPresent());
@@ -793,7 +793,7 @@ public class ProfileManagementService {
 
     // If cache missing, refresh in case user has since been registered (by separate instance)
     if (buyerSubUser.isEmpty()) {
-      userProfileService.refreshBuyerCache(userId);
+      userProfileService.refreshBuyerCacheIfStale();
       buyerSubUser = userProfileService.resolveBuyerUserBySSOUserLogin(userId);
       log.debug("Refreshed buyer user cache for [{}], now found? - [{}]", userId,
               buyerSubUser.isPresent());
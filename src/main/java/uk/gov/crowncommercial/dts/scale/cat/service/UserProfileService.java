@@ -12,19 +12,18 @@ import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.function.Predicate;
-import org.springframework.data.util.Pair;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
-import lombok.EqualsAndHashCode;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
-import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.util.UriUtils;
+import uk.gov.crowncommercial.dts.scale.cat.cache.CacheInvalidationBus;
+import uk.gov.crowncommercial.dts.scale.cat.cache.CacheInvalidationEvent;
 import uk.gov.crowncommercial.dts.scale.cat.config.ApplicationFlagsConfig;
 import uk.gov.crowncommercial.dts.scale.cat.config.JaggaerAPIConfig;
 import uk.gov.crowncommercial.dts.scale.cat.exception.DuplicateFiscalCodeException;
@@ -38,9 +37,9 @@ import uk.gov.crowncommercial.dts.scale.cat.model.jaggaer.SubUsers.SubUser;
 import uk.gov.crowncommercial.dts.scale.cat.repo.RetryableTendersDBDelegate;
 
 /**
- * User profile service layer. Now utilises Guava's {@link LoadingCache} to provide a basic
- * time-based cache of <code>principal</code> values (i.e. the incoming JWT subject) to resolved
- * Jaggaer sub user profiles.
+ * User profile service layer. Buyer users are resolved from a {@link BuyerUserIndex} of the
+ * self-service buyer company's sub-users, which is rebuilt in the background rather than fetched
+ * per user.
  * <p>
  */
 @Service
@@ -48,6 +47,7 @@ import uk.gov.crowncommercial.dts.scale.cat.repo.RetryableTendersDBDelegate;
 @Slf4j
 public class UserProfileService {
 
+  public static final String BUYER_USER_CACHE = "jaggaerBuyerUserCache";
   public static final String ERR_MSG_FMT_ORG_NOT_FOUND =
           "Organisation id '%s' not found in organisation mappings";
   private static final JaggaerApplicationException INVALID_COMPANY_PROFILE_DATA_EXCEPTION =
@@ -57,34 +57,13 @@ public class UserProfileService {
   private final JaggaerAPIConfig jaggaerAPIConfig;
   private final WebClient jaggaerWebClient;
   private final RetryableTendersDBDelegate retryableTendersDBDelegate;
-  private final LoadingCache<SubUserIdentity, Pair<CompanyInfo, Optional<SubUser>>> jaggaerBuyerUserCache =
-      CacheBuilder.newBuilder().maximumSize(1000).expireAfterWrite(Duration.ofMinutes(30))
-          .build(jaggaerSubUserProfileCacheLoader());
+  private final BuyerUserIndex buyerUserIndex = new BuyerUserIndex(this::getSelfServiceBuyerCompany);
 
   private final ApplicationFlagsConfig appFlagsConfig;
+  private final CacheInvalidationBus cacheInvalidationBus;
 
-  @Value
-  @EqualsAndHashCode(exclude = "filterPredicate")
-  private class SubUserIdentity {
-
-    // email, userId - any uniquely identifying property
-    String identity;
-    Predicate<? super SubUser> filterPredicate;
-  }
-
-  private Predicate<? super SubUser> getFilterPredicateEmailAndRightsProfile(final String email) {
-    return su -> email.equalsIgnoreCase(su.getEmail())
-        && jaggaerAPIConfig.getDefaultBuyerRightsProfile().equalsIgnoreCase(su.getRightsProfile());
-  }
-
-  private Predicate<? super SubUser> getFilterPredicateUserId(final String userId) {
-    return su -> userId.equalsIgnoreCase(su.getUserId());
-  }
-
-  private Predicate<? super SubUser> getFilterPredicateSSOUserLogin(final String userId) {
-    return su -> su.getSsoCodeData() != null && userId.equalsIgnoreCase(
-        su.getSsoCodeData().getSsoCode().stream().findFirst().get().getSsoUserLogin());
-  }
+  @Value("${caching.buyerUsers.minRefreshInterval:PT1M}")
+  private Duration minRefreshInterval;
 
   /**
    * Resolves buyer users by either email address or SSO data (depending on env/config).
@@ -92,20 +71,15 @@ public class UserProfileService {
    * @param principal the PPG user ID (email)
    * @return the buyer user profile
    */
-  @SneakyThrows
   public Optional<SubUser> resolveBuyerUserProfile(final String principal) {
     if (Boolean.TRUE.equals(appFlagsConfig.getResolveBuyerUsersBySSO())) {
       return resolveBuyerUserBySSOUserLogin(principal);
     }
-    return jaggaerBuyerUserCache
-        .get(new SubUserIdentity(principal, getFilterPredicateEmailAndRightsProfile(principal)))
-        .getSecond();
+    return buyerUserIndex.findByEmail(principal, jaggaerAPIConfig.getDefaultBuyerRightsProfile());
   }
 
-  @SneakyThrows
   public Optional<SubUser> resolveBuyerUserBySSOUserLogin(final String email) {
-    return jaggaerBuyerUserCache
-        .get(new SubUserIdentity(email, getFilterPredicateSSOUserLogin(email))).getSecond();
+    return buyerUserIndex.findBySsoUserLogin(email);
   }
 
   /**
@@ -115,17 +89,9 @@ public class UserProfileService {
    * @param principal the PPG user ID (email)
    * @return the buyer user company
    */
-  @SneakyThrows
   public CompanyInfo resolveBuyerUserCompany(final String principal) {
-    if (Boolean.TRUE.equals(appFlagsConfig.getResolveBuyerUsersBySSO())) {
-      return jaggaerBuyerUserCache
-          .get(new SubUserIdentity(principal, getFilterPredicateSSOUserLogin(principal)))
-          .getFirst();
-    }
-
-    return jaggaerBuyerUserCache
-        .get(new SubUserIdentity(principal, getFilterPredicateEmailAndRightsProfile(principal)))
-        .getFirst();
+    // There is only the one buyer company, whoever the principal is
+    return buyerUserIndex.getCompanyInfo();
   }
 
   /**
@@ -153,10 +119,8 @@ public class UserProfileService {
     return Optional.empty();
   }
 
-  @SneakyThrows
   public Optional<SubUser> resolveBuyerUserByUserId(final String userId) {
-    return jaggaerBuyerUserCache.get(new SubUserIdentity(userId, getFilterPredicateUserId(userId)))
-        .getSecond();
+    return buyerUserIndex.findByUserId(userId);
   }
 
   public ReturnCompanyData getSelfServiceBuyerCompany() {
@@ -184,22 +148,6 @@ public class UserProfileService {
         .orElseThrow(() -> INVALID_COMPANY_PROFILE_DATA_EXCEPTION);
   }
 
-  private CacheLoader<SubUserIdentity, Pair<CompanyInfo, Optional<SubUser>>> jaggaerSubUserProfileCacheLoader() {
-    return new CacheLoader<>() {
-
-      @Override
-      public Pair<CompanyInfo, Optional<SubUser>> load(final SubUserIdentity subUserIdentity)
-          throws Exception {
-        var selfServiceBuyerCompany = getSelfServiceBuyerCompany();
-        var subUser = selfServiceBuyerCompany.getReturnSubUser().getSubUsers().stream()
-            .filter(subUserIdentity.getFilterPredicate()).findFirst();
-        log.debug("Matched sub-user record: {}", subUser);
-
-        return Pair.of(selfServiceBuyerCompany.getReturnCompanyInfo(), subUser);
-      }
-    };
-  }
-
   /**
    * Attempt to retrieve supplier company data, first by matching sub-users by SSO user login,
    * falling back to matching the super-user (company) by SSO user login. The matching user may be
@@ -250,19 +198,58 @@ public class UserProfileService {
   }
 
   /**
-   * Refresh the buyer user cache (for example after a new user has been created / updated)
+   * Refresh the buyer user cache (for example after a new user has been created / updated), here
+   * and on the other instances
    *
    * @param userId aka email
    */
   public void refreshBuyerCache(final String userId) {
     log.debug("Refreshing Jaggaer buyer cache for user: {}", userId);
-    SubUserIdentity subUserIdentity = null;
-    if (Boolean.TRUE.equals(appFlagsConfig.getResolveBuyerUsersBySSO())) {
-      subUserIdentity = new SubUserIdentity(userId, getFilterPredicateSSOUserLogin(userId));
-    } else {
-      subUserIdentity = new SubUserIdentity(userId, getFilterPredicateEmailAndRightsProfile(userId));
+    try {
+      buyerUserIndex.rebuild();
+    } catch (Exception ex) {
+      // The user has still been changed in Jaggaer, so rebuild when they are next looked for
+      log.warn("Unable to refresh the Jaggaer buyer cache for user: {}", userId, ex);
+      buyerUserIndex.markStale();
+    }
+    cacheInvalidationBus.publish(BUYER_USER_CACHE, userId);
+  }
+
+  /**
+   * Refresh the buyer user cache if it may be missing a user (for example one registered by another
+   * instance) and hasn't been refreshed recently, so that looking up users who aren't buyers doesn't
+   * fetch the buyer company every time. Failures are logged only, leaving lookups to carry on with
+   * the last one built
+   */
+  public void refreshBuyerCacheIfStale() {
+    try {
+      buyerUserIndex.rebuildIfOlderThan(minRefreshInterval);
+    } catch (Exception ex) {
+      log.warn("Unable to refresh the Jaggaer buyer cache", ex);
+    }
+  }
+
+  /**
+   * Other instances have changed buyer users, so look for them when next asked for a missing user
+   */
+  @EventListener(condition = "#event.appliesTo('" + BUYER_USER_CACHE + "')")
+  public void onInvalidation(final CacheInvalidationEvent event) {
+    buyerUserIndex.markStale();
+  }
+
+  /**
+   * Build the buyer user cache up front, so no request has to wait for it
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(fixedDelayString = "${caching.buyerUsers.refreshInterval:PT5M}",
+      initialDelayString = "${caching.buyerUsers.refreshInterval:PT5M}")
+  public void rebuildBuyerCache() {
+    try {
+      buyerUserIndex.rebuild();
+    } catch (Exception ex) {
+      // Lookups carry on with the last one built
+      log.warn("Unable to rebuild the Jaggaer buyer cache", ex);
     }
-    jaggaerBuyerUserCache.refresh(subUserIdentity);
   }
 
   private Optional<ReturnCompanyData> getSupplierDataHelper(final String endpoint) {
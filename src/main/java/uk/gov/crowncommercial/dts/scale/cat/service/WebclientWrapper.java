@@ -46,17 +46,34 @@ public class WebclientWrapper {
   public <T> Optional<T> getOptionalResource(final Class<T> resourceType, final WebClient webclient,
       final int timeoutDuration, final String uriTemplate, final Object... params) {
 
+    return ofNullable(getResource(resourceType, webclient, uriTemplate, params)
+        .block(Duration.ofSeconds(timeoutDuration)));
+  }
+
+  /**
+   * Non-blocking form of {@link #getOptionalResource(Class, WebClient, int, String, Object...)},
+   * for callers that want to make several requests concurrently.
+   *
+   * @param <T>
+   * @param resourceType the expected resource type
+   * @param webclient
+   * @param uriTemplate
+   * @param params
+   * @return mono of resourceType, empty if not found
+   */
+  public <T> Mono<T> getResource(final Class<T> resourceType, final WebClient webclient,
+      final String uriTemplate, final Object... params) {
+
     Function<WebClientResponseException, Mono<T>> funcFallback404 =
         ex -> ex.getRawStatusCode() == 404 ? Mono.empty() : Mono.error(ex);
 
-    return ofNullable(webclient.get().uri(uriTemplate, params).retrieve().bodyToMono(resourceType)
+    return webclient.get().uri(uriTemplate, params).retrieve().bodyToMono(resourceType)
         .onErrorMap(IOException.class, UncheckedIOException::new)
         .retryWhen(Retry
             .fixedDelay(Constants.WEBCLIENT_DEFAULT_RETRIES,
                 Duration.ofSeconds(Constants.WEBCLIENT_DEFAULT_DELAY))
             .filter(WebclientWrapper::is5xxServerError))
-        .onErrorResume(WebClientResponseException.class, funcFallback404)
-        .block(Duration.ofSeconds(timeoutDuration)));
+        .onErrorResume(WebClientResponseException.class, funcFallback404);
   }
 
   /**
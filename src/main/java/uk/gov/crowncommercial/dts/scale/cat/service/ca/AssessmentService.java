@@ -12,10 +12,15 @@ import jakarta.validation.ValidationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import uk.gov.crowncommercial.dts.scale.cat.assessment.AssessmentToolCalculator;
 import uk.gov.crowncommercial.dts.scale.cat.assessment.AssessmentToolFactory;
+import uk.gov.crowncommercial.dts.scale.cat.cache.AssessmentScoreCache;
+import uk.gov.crowncommercial.dts.scale.cat.cache.DimensionDefinitionCache;
+import uk.gov.crowncommercial.dts.scale.cat.config.QueryCounter;
 import uk.gov.crowncommercial.dts.scale.cat.exception.AuthorisationFailureException;
 import uk.gov.crowncommercial.dts.scale.cat.exception.ResourceNotFoundException;
 import uk.gov.crowncommercial.dts.scale.cat.model.capability.generated.*;
@@ -33,6 +38,8 @@ import uk.gov.crowncommercial.dts.scale.cat.service.ConclaveService;
 @Slf4j
 public class AssessmentService {
 
+    private static final String METRIC_GET_ASSESSMENT_QUERIES = "cat.assessment.get.queries";
+
     private static final String ERR_MSG_FMT_TOOL_NOT_FOUND = "Assessment Tool [%s] not found";
     private static final String ERR_MSG_FMT_ASSESSMENT_NOT_FOUND = "Assessment [%s] not found";
     private static final String ERR_MSG_FMT_DIMENSION_NOT_FOUND = "Dimension [%s] not found";
@@ -78,20 +85,33 @@ public class AssessmentService {
 
     private final AssessmentToolFactory toolFactory;
 
+    private final AssessmentScoreCache assessmentScoreCache;
+
+    private final DimensionDefinitionCache dimensionDefinitionCache;
+
+    private final MeterRegistry meterRegistry;
+
     /**
-     * Get the Dimensions for an Assessment Tool.
+     * Get the Dimensions for an Assessment Tool. Built from one fetch of the taxonomy and cached until
+     * it next changes.
      *
      * @param toolId internal database Assessment Tool id
      * @return
      */
     @Transactional
     public List<DimensionDefinition> getDimensions(final Integer toolId) {
+        return dimensionDefinitionCache.get(toolId, () -> buildDimensions(toolId));
+    }
+
+    private List<DimensionDefinition> buildDimensions(final Integer toolId) {
 
         // Explicitly validate toolId so we can throw a 404 (otherwise empty array returned)
         var tool = retryableTendersDBDelegate.findAssessmentToolById(toolId).orElseThrow(
                 () -> new ResourceNotFoundException(String.format(ERR_MSG_FMT_TOOL_NOT_FOUND, toolId)));
 
         var dimensions = tool.getDimensionMapping();
+        var taxonTree = new AssessmentTaxonTree(retryableTendersDBDelegate.findAllAssessmentTaxons());
+        var toolTaxonIds = retryableTendersDBDelegate.findAssessmentTaxonIdsByTool(toolId);
 
         return dimensions.stream().map(dm -> {
             // Build DimensionDefinition
@@ -108,9 +128,8 @@ public class AssessmentService {
 
             // Build Options
             Set<DimensionOption> dimensionOptions = new HashSet<>();
-            Set<AssessmentTaxon> taxons = retryableTendersDBDelegate.findAssessmentTaxonByToolAndDimension(toolId, d.getId());
-            taxons.stream()
-                    .forEach(at -> dimensionOptions.addAll(recurseAssessmentTaxons(at)));
+            taxonTree.getTaxons(toolTaxonIds, d.getId())
+                    .forEach(at -> dimensionOptions.addAll(taxonTree.getOptions(at)));
             dd.setOptions(new ArrayList<>(dimensionOptions));
 
             // Build Evaluation Criteria
@@ -266,11 +285,30 @@ public class AssessmentService {
     @Transactional
     public Assessment getAssessment(final Integer assessmentId, final Boolean includeScores,
                                     final Optional<String> principalForScores) {
+        return QueryCounter.count(() -> readAssessment(assessmentId, includeScores, principalForScores),
+                queries -> DistributionSummary.builder(METRIC_GET_ASSESSMENT_QUERIES)
+                        .description("SQL statements run to get an assessment")
+                        .tag("scores", String.valueOf(includeScores)).register(meterRegistry).record(queries));
+    }
 
-        var assessment = retryableTendersDBDelegate.findAssessmentById(assessmentId)
+    /*
+     * The assessment (with its weightings and their submission types), its selections (with their
+     * details) and its dimensions' valid values are each loaded in one query, rather than lazily per
+     * weighting and selection
+     */
+    private Assessment readAssessment(final Integer assessmentId, final Boolean includeScores,
+                                      final Optional<String> principalForScores) {
+
+        var assessment = retryableTendersDBDelegate.findAssessmentWithDimensionWeightings(assessmentId)
                 .orElseThrow(() -> new ResourceNotFoundException(
                         format(ERR_MSG_FMT_ASSESSMENT_NOT_FOUND, assessmentId)));
 
+        var selectionsByDimensionId = retryableTendersDBDelegate
+                .findAssessmentSelectionsWithDetails(assessmentId).stream()
+                .collect(Collectors.groupingBy(s -> s.getDimension().getId()));
+        retryableTendersDBDelegate.findDimensionsWithValidValues(assessment.getDimensionWeightings().stream()
+                .map(dw -> dw.getDimension().getId()).collect(Collectors.toSet()));
+
         Map<String, List<CriterionDefinition>> criterionMap = assessmentDimensionCriteriaService.getCriterionDefinition(assessment);
 
         // Build DimensionRequirements
@@ -291,8 +329,8 @@ public class AssessmentService {
             }
 
             // Build Requirements
-            var requirements = assessment.getAssessmentSelections().stream()
-                    .filter(s -> s.getDimension().getName().equals(dw.getDimension().getName())).map(s -> {
+            var requirements = selectionsByDimensionId.getOrDefault(dw.getDimension().getId(), List.of())
+                    .stream().map(s -> {
                         var requirement = new Requirement();
                         requirement.setName(s.getRequirementTaxon().getRequirement().getName());
                         requirement.setWeighting(s.getWeightingPercentage().intValue());
@@ -340,10 +378,23 @@ public class AssessmentService {
         return response;
     }
 
+    /*
+     * Scores are only recalculated (and their totals persisted) when the assessment's inputs have
+     * changed since they were last calculated
+     */
     private List<SupplierScores> getSupplierScores(final AssessmentEntity assessment,
                                                    final String principal, List<DimensionRequirement> dimensionRequirements){
+        var inputsHash = assessmentScoreCache.inputsHash(assessment.getTool().getId(), dimensionRequirements);
+        var cachedScores = assessmentScoreCache.get(assessment.getId(), inputsHash);
+        if (cachedScores.isPresent()) {
+            log.debug("Using cached scores for assessment {}", assessment.getId());
+            return cachedScores.get();
+        }
+
         AssessmentToolCalculator calculator = toolFactory.getAssessmentTool(assessment);
-        return calculator.calculateAndPersistSupplierScores(assessment, principal, dimensionRequirements, retryableTendersDBDelegate.findCalculationBaseByAssessmentId(assessment.getId()));
+        var scores = calculator.calculateAndPersistSupplierScores(assessment, principal, dimensionRequirements, retryableTendersDBDelegate.findCalculationBaseByAssessmentId(assessment.getId()));
+        assessmentScoreCache.put(assessment.getId(), inputsHash, scores);
+        return scores;
     }
 
     /**
@@ -457,6 +508,7 @@ public class AssessmentService {
         }
 
         assessmentDimensionCriteriaService.save(dimensionRequirement.getIncludedCriteria(), assessment, dimension, principal);
+        assessmentScoreCache.invalidate(assessmentId);
 
         return dimensionId;
     }
@@ -547,6 +599,7 @@ public class AssessmentService {
         populateAssessmentSelectionDetails(selection, requirement, principal);
 
         retryableTendersDBDelegate.save(selection);
+        assessmentScoreCache.invalidate(assessmentId);
 
         return requirement.getRequirementId();
     }
@@ -578,6 +631,7 @@ public class AssessmentService {
                     assessmentId, dimensionId, requirementId));
         }
         assessment.getAssessmentSelections().remove(assessmentSelection.get());
+        assessmentScoreCache.invalidate(assessmentId);
     }
 
     /**
@@ -828,80 +882,6 @@ public class AssessmentService {
         return selection;
     }
 
-    /**
-     * Recurses down the {@link AssessmentTaxon} and {@link RequirementTaxon} tree of objects building
-     * a tree of {@link DimensionOption} objects.
-     *
-     * @param assessmentTaxon
-     * @return
-     */
-    private Set<DimensionOption> recurseAssessmentTaxons(final AssessmentTaxon assessmentTaxon) {
-
-        log.trace("Assessment Taxon :" + assessmentTaxon.getName());
-        Set<DimensionOption> dimensionOptions =
-                assessmentTaxon.getRequirementTaxons().stream().map(rt -> {
-
-                    log.trace(" - requirement :" + rt.getRequirement().getName());
-                    var rtOption = new DimensionOption();
-                    rtOption.setName(rt.getRequirement().getName());
-                    rtOption.setRequirementId(rt.getRequirement().getId());
-                    rtOption.setGroupRequirement(rt.getRequirement().getGroupRequirement());
-                    rtOption.setDescription(assessmentTaxon.getDescription());
-                    // If it is a group requirement - no need to duplicate in the `groups` collection
-                    if (Boolean.TRUE.equals(rt.getRequirement().getGroupRequirement())) {
-                        rtOption.setGroups(recurseUpTree(assessmentTaxon.getParentTaxon(), new ArrayList<>()));
-                    } else {
-                        rtOption.setGroups(recurseUpTree(assessmentTaxon, new ArrayList<>()));
-                    }
-                    return rtOption;
-
-                }).collect(Collectors.toSet());
-
-        // Recurse down child Assessment Taxon collection
-        if (!assessmentTaxon.getAssessmentTaxons().isEmpty()) {
-            log.trace("Assessment Taxon : process children..");
-            assessmentTaxon.getAssessmentTaxons().stream()
-                    .forEach(at -> dimensionOptions.addAll(recurseAssessmentTaxons(at)));
-        }
-
-        return dimensionOptions;
-    }
-
-    /**
-     * Given an {@link AssessmentTaxon}, will recurse up the parents to build a hierarchy of
-     * {@link DimensionOptionGroups} objects. The highest group in the hierarchy will be level 1, the
-     * second level 2, and so on..
-     *
-     * @param assessmentTaxon
-     * @param optionGroups
-     * @return
-     */
-    List<DimensionOptionGroups> recurseUpTree(final AssessmentTaxon assessmentTaxon,
-                                              final List<DimensionOptionGroups> optionGroups) {
-
-        log.trace("  - traverse up taxon tree :" + assessmentTaxon.getName());
-        var rtOptionGroup = new DimensionOptionGroups();
-        rtOptionGroup.setName(assessmentTaxon.getName());
-        rtOptionGroup.setDescription(assessmentTaxon.getDescription());
-        optionGroups.add(rtOptionGroup);
-
-        // Recurse
-        if (assessmentTaxon.getParentTaxon() != null) {
-            return recurseUpTree(assessmentTaxon.getParentTaxon(), optionGroups);
-        }
-
-        // Remove the highest AssessmentTaxon element from the list - as this is the taxon name and not
-        // required to be shown. Reverse the list and add the levels.
-        Collections.reverse(optionGroups);
-        optionGroups.remove(0);
-        var level = 1;
-        for (DimensionOptionGroups og : optionGroups) {
-            og.setLevel(level++);
-        }
-
-        return optionGroups;
-    }
-
     /**
      * Get Dimension Valid Values by Name (for incoming requests from the API).
      *
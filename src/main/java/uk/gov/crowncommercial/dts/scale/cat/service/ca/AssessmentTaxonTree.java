@@ -0,0 +1,100 @@
+package uk.gov.crowncommercial.dts.scale.cat.service.ca;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import uk.gov.crowncommercial.dts.scale.cat.model.capability.generated.DimensionOption;
+import uk.gov.crowncommercial.dts.scale.cat.model.capability.generated.DimensionOptionGroups;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.AssessmentTaxon;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.RequirementTaxon;
+
+/**
+ * The {@link AssessmentTaxon} hierarchy indexed by id and parent, so dimension options can be built
+ * from one fetch of the taxonomy without walking the lazy parent and child associations. Each
+ * taxon's chain of {@link DimensionOptionGroups} is built once and shared by all its requirements.
+ */
+final class AssessmentTaxonTree {
+
+    private final Map<Integer, AssessmentTaxon> taxonsById = new HashMap<>();
+    private final Map<Integer, List<AssessmentTaxon>> childrenByParentId = new HashMap<>();
+    private final Map<Integer, List<DimensionOptionGroups>> groupsByTaxonId = new HashMap<>();
+
+    AssessmentTaxonTree(final Collection<AssessmentTaxon> taxons) {
+        taxons.forEach(at -> taxonsById.put(at.getId(), at));
+        taxons.forEach(at -> {
+            var parentId = parentId(at);
+            if (parentId != null) {
+                childrenByParentId.computeIfAbsent(parentId, id -> new ArrayList<>()).add(at);
+            }
+        });
+    }
+
+    /**
+     * The taxons among those given mapped to the dimension
+     */
+    Set<AssessmentTaxon> getTaxons(final Set<Integer> taxonIds, final Integer dimensionId) {
+        return taxonIds.stream().map(taxonsById::get).filter(Objects::nonNull)
+                .filter(at -> at.getDimensions() != null && at.getDimensions().stream()
+                        .anyMatch(d -> Objects.equals(d.getId(), dimensionId)))
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * An option for every requirement of the taxon and its descendants
+     */
+    Set<DimensionOption> getOptions(final AssessmentTaxon assessmentTaxon) {
+        Set<DimensionOption> dimensionOptions = new HashSet<>();
+        addOptions(assessmentTaxon, dimensionOptions);
+        return dimensionOptions;
+    }
+
+    private void addOptions(final AssessmentTaxon assessmentTaxon, final Set<DimensionOption> dimensionOptions) {
+        if (assessmentTaxon.getRequirementTaxons() != null) {
+            for (RequirementTaxon rt : assessmentTaxon.getRequirementTaxons()) {
+                var rtOption = new DimensionOption();
+                rtOption.setName(rt.getRequirement().getName());
+                rtOption.setRequirementId(rt.getRequirement().getId());
+                rtOption.setGroupRequirement(rt.getRequirement().getGroupRequirement());
+                rtOption.setDescription(assessmentTaxon.getDescription());
+                // If it is a group requirement - no need to duplicate in the `groups` collection
+                rtOption.setGroups(Boolean.TRUE.equals(rt.getRequirement().getGroupRequirement())
+                        ? getGroups(parentId(assessmentTaxon))
+                        : getGroups(assessmentTaxon.getId()));
+                dimensionOptions.add(rtOption);
+            }
+        }
+
+        childrenByParentId.getOrDefault(assessmentTaxon.getId(), List.of())
+                .forEach(at -> addOptions(at, dimensionOptions));
+    }
+
+    /**
+     * The groups from the taxon up to (but not including) the top of the tree, which is the taxonomy
+     * name. The highest group is level 1, the second level 2, and so on..
+     */
+    private List<DimensionOptionGroups> getGroups(final Integer taxonId) {
+        var assessmentTaxon = taxonId == null ? null : taxonsById.get(taxonId);
+        if (assessmentTaxon == null || parentId(assessmentTaxon) == null) {
+            return List.of();
+        }
+
+        var groups = groupsByTaxonId.get(taxonId);
+        if (groups == null) {
+            var parentGroups = getGroups(parentId(assessmentTaxon));
+            var rtOptionGroup = new DimensionOptionGroups();
+            rtOptionGroup.setName(assessmentTaxon.getName());
+            rtOptionGroup.setDescription(assessmentTaxon.getDescription());
+            rtOptionGroup.setLevel(parentGroups.size() + 1);
+
+            var chain = new ArrayList<>(parentGroups);
+            chain.add(rtOptionGroup);
+            groups = List.copyOf(chain);
+            groupsByTaxonId.put(taxonId, groups);
+        }
+        return groups;
+    }
+
+    private static Integer parentId(final AssessmentTaxon assessmentTaxon) {
+        // Only the id of the (lazy) parent is read, so it is never initialised
+        return assessmentTaxon.getParentTaxon() == null ? null : assessmentTaxon.getParentTaxon().getId();
+    }
+}
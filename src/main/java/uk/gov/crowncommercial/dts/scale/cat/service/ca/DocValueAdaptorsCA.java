@@ -5,10 +5,12 @@ import java.util.concurrent.ConcurrentMap;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import lombok.RequiredArgsConstructor;
+import lombok.Value;
 import uk.gov.crowncommercial.dts.scale.cat.model.capability.generated.Assessment;
 import uk.gov.crowncommercial.dts.scale.cat.model.capability.generated.Criterion;
 import uk.gov.crowncommercial.dts.scale.cat.model.capability.generated.DimensionDefinition;
 import uk.gov.crowncommercial.dts.scale.cat.model.capability.generated.Requirement;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ProcurementEvent;
 import uk.gov.crowncommercial.dts.scale.cat.service.DocGenService;
 import uk.gov.crowncommercial.dts.scale.cat.service.DocGenValueAdaptor;
 
@@ -29,125 +31,114 @@ public class DocValueAdaptorsCA {
   static final String DIMENSION_SC = "Security Clearance";
 
   static final String CACHE_KEY_ASSESSMENT = "CACHE_KEY_ASSESSMENT";
-  static final String CACHE_KEY_PREFIX_DIMENSION_DEFS = "CACHE_KEY_DIMENSION_DEFS_";
+
+  @Value
+  static class AssessmentDimensions {
+    Assessment assessment;
+    Map<String, DimensionDefinition> dimensionDefinitions;
+
+    DimensionDefinition getDimensionDefinition(final String dimension) {
+      return Optional.ofNullable(dimensionDefinitions.get(dimension)).orElseThrow();
+    }
+  }
 
   private final AssessmentService assessmentService;
 
   @Bean("DocumentValueAdaptorResQntyDDaTCluster")
   public DocGenValueAdaptor documentValueAdaptorResQntyDDaTCluster() {
-    return (event, requestCache) -> {
-      var assessment = getAssessment(event.getAssessmentId(), requestCache);
-      var dimensionDefinitions = getDimensionDefinition(assessment.getExternalToolId(),
-          DIMENSION_RESOURCE_QUANTITIES, requestCache);
-
-      return getCAPlaceholderValues(assessment, dimensionDefinitions, RequirementProperty.CLUSTER);
-    };
+    return DocGenValueAdaptor.withFetch(CACHE_KEY_ASSESSMENT, this::fetchAssessment,
+        (event, requestCache) -> getCAPlaceholderValues(getAssessment(event, requestCache),
+            DIMENSION_RESOURCE_QUANTITIES, RequirementProperty.CLUSTER));
   }
 
   @Bean("DocumentValueAdaptorResQntyDDaTFamily")
   public DocGenValueAdaptor documentValueAdaptorResQntyDDaTFamily() {
-    return (event, requestCache) -> {
-
-      var assessment = getAssessment(event.getAssessmentId(), requestCache);
-      var dimensionDefinitions = getDimensionDefinition(assessment.getExternalToolId(),
-          DIMENSION_RESOURCE_QUANTITIES, requestCache);
-
-      return getCAPlaceholderValues(assessment, dimensionDefinitions, RequirementProperty.FAMILY);
-    };
+    return DocGenValueAdaptor.withFetch(CACHE_KEY_ASSESSMENT, this::fetchAssessment,
+        (event, requestCache) -> getCAPlaceholderValues(getAssessment(event, requestCache),
+            DIMENSION_RESOURCE_QUANTITIES, RequirementProperty.FAMILY));
   }
 
   @Bean("DocumentValueAdaptorResQntyDDaTRole")
   public DocGenValueAdaptor documentValueAdaptorResQntyDDaTRole() {
-    return (event, requestCache) -> {
-      var assessment = getAssessment(event.getAssessmentId(), requestCache);
-      var dimensionDefinitions = getDimensionDefinition(assessment.getExternalToolId(),
-          DIMENSION_RESOURCE_QUANTITIES, requestCache);
-
-      return getCAPlaceholderValues(assessment, dimensionDefinitions, RequirementProperty.NAME);
-    };
+    return DocGenValueAdaptor.withFetch(CACHE_KEY_ASSESSMENT, this::fetchAssessment,
+        (event, requestCache) -> getCAPlaceholderValues(getAssessment(event, requestCache),
+            DIMENSION_RESOURCE_QUANTITIES, RequirementProperty.NAME));
   }
 
   @Bean("DocumentValueAdaptorResQntyDDaTRoleQnty")
   public DocGenValueAdaptor documentValueAdaptorResQntyDDaTRoleQnty() {
-    return (event, requestCache) -> {
-      var assessment = getAssessment(event.getAssessmentId(), requestCache);
-      var dimensionDefinitions = getDimensionDefinition(assessment.getExternalToolId(),
-          DIMENSION_RESOURCE_QUANTITIES, requestCache);
-
-      return getCAPlaceholderValues(assessment, dimensionDefinitions, RequirementProperty.QNTY);
-    };
+    return DocGenValueAdaptor.withFetch(CACHE_KEY_ASSESSMENT, this::fetchAssessment,
+        (event, requestCache) -> getCAPlaceholderValues(getAssessment(event, requestCache),
+            DIMENSION_RESOURCE_QUANTITIES, RequirementProperty.QNTY));
   }
 
   @Bean("DocumentValueAdaptorSvcCapDomain")
   public DocGenValueAdaptor documentValueAdaptorSvcCapDomain() {
-    return (event, requestCache) -> {
-      var assessment = getAssessment(event.getAssessmentId(), requestCache);
-      var dimensionDefinitions = getDimensionDefinition(assessment.getExternalToolId(),
-          DIMENSION_SERVICE_CAPABILITY, requestCache);
-
-      return getCAPlaceholderValues(assessment, dimensionDefinitions, RequirementProperty.CLUSTER);
-    };
+    return DocGenValueAdaptor.withFetch(CACHE_KEY_ASSESSMENT, this::fetchAssessment,
+        (event, requestCache) -> getCAPlaceholderValues(getAssessment(event, requestCache),
+            DIMENSION_SERVICE_CAPABILITY, RequirementProperty.CLUSTER));
   }
 
   @Bean("DocumentValueAdaptorSvcCapName")
   public DocGenValueAdaptor documentValueAdaptorSvcCapName() {
-    return (event, requestCache) -> {
-      var assessment = getAssessment(event.getAssessmentId(), requestCache);
-      var dimensionDefinitions = getDimensionDefinition(assessment.getExternalToolId(),
-          DIMENSION_SERVICE_CAPABILITY, requestCache);
-
-      return getCAPlaceholderValues(assessment, dimensionDefinitions, RequirementProperty.NAME);
-    };
+    return DocGenValueAdaptor.withFetch(CACHE_KEY_ASSESSMENT, this::fetchAssessment,
+        (event, requestCache) -> getCAPlaceholderValues(getAssessment(event, requestCache),
+            DIMENSION_SERVICE_CAPABILITY, RequirementProperty.NAME));
   }
 
   @Bean("DocumentValueAdaptorLocationName")
   public DocGenValueAdaptor documentValueAdaptorLocationName() {
-    return (event, requestCache) -> {
-      var assessment = getAssessment(event.getAssessmentId(), requestCache);
-      var dimensionDefinitions =
-          getDimensionDefinition(assessment.getExternalToolId(), DIMENSION_LOCATION, requestCache);
-      return getCAPlaceholderValues(assessment, dimensionDefinitions, RequirementProperty.NAME);
-    };
+    return DocGenValueAdaptor.withFetch(CACHE_KEY_ASSESSMENT, this::fetchAssessment,
+        (event, requestCache) -> getCAPlaceholderValues(getAssessment(event, requestCache),
+            DIMENSION_LOCATION, RequirementProperty.NAME));
   }
 
   @Bean("DocumentValueAdaptorHighestVettingLevel")
   public DocGenValueAdaptor documentValueAdaptorHighestVettingLevel() {
-    return (event, requestCache) -> {
-      var assessment = getAssessment(event.getAssessmentId(), requestCache);
-      var placeholderValues = new ArrayList<String>();
-
-      /*
-       * Attempts to find the highest vetting level required based on order e.g. '4: Developed
-       * Vetting (DV)' (highest) to '0: None' (lowest)
-       */
-      assessment.getDimensionRequirements().stream().filter(dr -> DIMENSION_SC.equals(dr.getName()))
-          .findFirst().ifPresentOrElse(dr -> {
-            placeholderValues
-                .add(dr.getRequirements().stream().flatMap(rqmt -> rqmt.getValues().stream())
-                    .map(Criterion::getValue).sorted(Comparator.reverseOrder()).findFirst()
-                    .orElse(DocGenService.PLACEHOLDER_UNKNOWN));
-          }, () -> placeholderValues.add(DocGenService.PLACEHOLDER_UNKNOWN));
-
-      return placeholderValues;
-    };
+    return DocGenValueAdaptor.withFetch(CACHE_KEY_ASSESSMENT, this::fetchAssessment,
+        (event, requestCache) -> {
+          var assessment = getAssessment(event, requestCache).getAssessment();
+          var placeholderValues = new ArrayList<String>();
+
+          /*
+           * Attempts to find the highest vetting level required based on order e.g. '4: Developed
+           * Vetting (DV)' (highest) to '0: None' (lowest)
+           */
+          assessment.getDimensionRequirements().stream().filter(dr -> DIMENSION_SC.equals(dr.getName()))
+              .findFirst().ifPresentOrElse(dr -> {
+                placeholderValues
+                    .add(dr.getRequirements().stream().flatMap(rqmt -> rqmt.getValues().stream())
+                        .map(Criterion::getValue).sorted(Comparator.reverseOrder()).findFirst()
+                        .orElse(DocGenService.PLACEHOLDER_UNKNOWN));
+              }, () -> placeholderValues.add(DocGenService.PLACEHOLDER_UNKNOWN));
+
+          return placeholderValues;
+        });
   }
 
-  private Assessment getAssessment(final Integer assessmentId,
+  private AssessmentDimensions getAssessment(final ProcurementEvent event,
       final ConcurrentMap<String, Object> requestCache) {
-    return (Assessment) requestCache.computeIfAbsent(CACHE_KEY_ASSESSMENT,
-        k -> assessmentService.getAssessment(assessmentId, Boolean.FALSE, Optional.empty()));
+    return (AssessmentDimensions) requestCache.computeIfAbsent(CACHE_KEY_ASSESSMENT,
+        k -> fetchAssessment(event));
   }
 
-  private DimensionDefinition getDimensionDefinition(final String toolId, final String dimension,
-      final ConcurrentMap<String, Object> requestCache) {
-    return (DimensionDefinition) requestCache.computeIfAbsent(
-        CACHE_KEY_PREFIX_DIMENSION_DEFS + dimension,
-        k -> assessmentService.getDimensions(Integer.valueOf(toolId)).stream()
-            .filter(dd -> Objects.equals(dd.getName(), dimension)).findFirst().orElseThrow());
+  /*
+   * The event's assessment and all of its tool's dimension definitions, fetched together for all CA
+   * placeholders
+   */
+  private AssessmentDimensions fetchAssessment(final ProcurementEvent event) {
+    var assessment =
+        assessmentService.getAssessment(event.getAssessmentId(), Boolean.FALSE, Optional.empty());
+    Map<String, DimensionDefinition> dimensionDefinitions = new HashMap<>();
+    assessmentService.getDimensions(Integer.valueOf(assessment.getExternalToolId()))
+        .forEach(dd -> dimensionDefinitions.putIfAbsent(dd.getName(), dd));
+    return new AssessmentDimensions(assessment, dimensionDefinitions);
   }
 
-  private List<String> getCAPlaceholderValues(final Assessment assessment,
-      final DimensionDefinition dimensionDefinitions, final RequirementProperty ddatProperty) {
+  private List<String> getCAPlaceholderValues(final AssessmentDimensions assessmentDimensions,
+      final String dimension, final RequirementProperty ddatProperty) {
+    var assessment = assessmentDimensions.getAssessment();
+    var dimensionDefinitions = assessmentDimensions.getDimensionDefinition(dimension);
     var placeholderValues = new ArrayList<String>();
 
     assessment.getDimensionRequirements().stream()
@@ -0,0 +1,214 @@
+package uk.gov.crowncommercial.dts.scale.cat.service.documentupload;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import uk.gov.crowncommercial.dts.scale.cat.model.DocumentKey;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.DocumentUpload;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ProcurementEvent;
+import uk.gov.crowncommercial.dts.scale.cat.processors.async.queueExecutor.BlockCallerExecutionPolicy;
+import uk.gov.crowncommercial.dts.scale.cat.service.JaggaerService;
+import uk.gov.crowncommercial.dts.scale.cat.utils.ByteArrayMultipartFile;
+import uk.gov.crowncommercial.dts.scale.cat.utils.InputStreamMultipartFile;
+
+/**
+ * Copies an event's uploaded documents from Tenders S3 to Jaggaer. Each document's S3 object is
+ * streamed straight into its Jaggaer upload, rather than being read into memory first. Transfers
+ * run on one pool shared by all events, and the total size of the documents being transferred at
+ * once is capped, so a large tender pack can't exhaust the heap or starve other publishes.
+ */
+@Service
+@Slf4j
+public class DocumentTransferService implements DisposableBean {
+
+  private static final String METRIC_TRANSFER = "cat.document.transfer";
+  private static final String METRIC_TRANSFER_BYTES = "cat.document.transfer.bytes";
+  private static final String METRIC_TRANSFER_THROUGHPUT = "cat.document.transfer.throughput";
+  private static final int KIB = 1024;
+
+  private final DocumentUploadService documentUploadService;
+  private final JaggaerService jaggaerService;
+  private final MeterRegistry meterRegistry;
+  private final ThreadPoolTaskExecutor executor;
+
+  // Permits are KiB of document content in flight
+  private final Semaphore inFlight;
+  private final int maxInFlightKiB;
+
+  private final DistributionSummary transferBytes;
+  private final DistributionSummary transferThroughput;
+
+  public DocumentTransferService(final DocumentUploadService documentUploadService,
+      final JaggaerService jaggaerService, final MeterRegistry meterRegistry,
+      @Value("${config.document.transfer.threads:10}") final int threads,
+      @Value("${config.document.transfer.maxInFlightBytes:268435456}") final long maxInFlightBytes) {
+    this.documentUploadService = documentUploadService;
+    this.jaggaerService = jaggaerService;
+    this.meterRegistry = meterRegistry;
+
+    maxInFlightKiB = (int) Math.max(1, Math.min(Integer.MAX_VALUE, maxInFlightBytes / KIB));
+    inFlight = new Semaphore(maxInFlightKiB, true);
+
+    executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(Math.max(1, threads));
+    executor.setMaxPoolSize(Math.max(1, threads));
+    executor.setThreadNamePrefix("doctransfer-");
+    executor.setQueueCapacity(128);
+    executor.setRejectedExecutionHandler(new BlockCallerExecutionPolicy());
+    executor.initialize();
+
+    transferBytes = DistributionSummary.builder(METRIC_TRANSFER_BYTES)
+        .description("Size of documents transferred from Tenders S3 to Jaggaer")
+        .baseUnit(BaseUnits.BYTES).register(meterRegistry);
+    transferThroughput = DistributionSummary.builder(METRIC_TRANSFER_THROUGHPUT)
+        .description("Rate documents are transferred from Tenders S3 to Jaggaer")
+        .baseUnit("bytes/s").register(meterRegistry);
+  }
+
+  /**
+   * Transfer the given documents of the event to Jaggaer. Documents that can't be uploaded are
+   * logged and skipped. Documents that can't be retrieved fail the transfer, once all the others
+   * have been dealt with.
+   */
+  public void transferToJaggaer(final ProcurementEvent procurementEvent,
+      final Collection<DocumentUpload> documentUploads, final String principal) {
+    var uploaded = new AtomicInteger();
+    var retrievalFailure = new AtomicReference<RuntimeException>();
+
+    CompletableFuture<?>[] transfers = documentUploads.stream()
+        .map(documentUpload -> CompletableFuture.runAsync(() -> {
+          if (transfer(procurementEvent, documentUpload, principal)) {
+            uploaded.incrementAndGet();
+          }
+        }, executor).exceptionally(ex -> {
+          var cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+          log.error("Error retrieving document '{}' for event ID '{}'", documentUpload.getDocumentId(),
+              procurementEvent.getEventID(), cause);
+          retrievalFailure.compareAndSet(null,
+              cause instanceof RuntimeException runtimeEx ? runtimeEx : new CompletionException(cause));
+          return null;
+        }))
+        .toArray(CompletableFuture[]::new);
+    CompletableFuture.allOf(transfers).join();
+
+    log.info("Transferred {} of {} documents to Jaggaer for event ID '{}'", uploaded.get(),
+        documentUploads.size(), procurementEvent.getEventID());
+
+    if (retrievalFailure.get() != null) {
+      throw retrievalFailure.get();
+    }
+  }
+
+  /**
+   * Stream a document from S3 to Jaggaer, returning whether it was uploaded. Exceptions are only
+   * thrown for documents that couldn't be retrieved.
+   */
+  private boolean transfer(final ProcurementEvent procurementEvent,
+      final DocumentUpload documentUpload, final String principal) {
+    var docKey = DocumentKey.fromString(documentUpload.getDocumentId());
+    long start = System.nanoTime();
+
+    // Wait for room before opening the S3 object, so queued transfers don't hold connections open
+    int permits = permits(documentUpload.getSize() != null ? documentUpload.getSize() : -1);
+    inFlight.acquireUninterruptibly(permits);
+    try {
+      var document = documentUploadService.retrieveDocumentStream(documentUpload, principal);
+      try (document) {
+        long size = contentLength(document);
+        if (documentUpload.getSize() == null && permits(size) > permits) {
+          // Only known now it's open, so make room for the rest of it
+          inFlight.acquireUninterruptibly(permits(size) - permits);
+          permits = permits(size);
+        }
+        return upload(procurementEvent, documentUpload, docKey, document, size, start);
+      } catch (IOException ex) {
+        // Only closing the stream throws this, by which point the document has been dealt with
+        log.warn("Error closing document '{}' stream", docKey.getFileName(), ex);
+        return false;
+      }
+    } finally {
+      inFlight.release(permits);
+    }
+  }
+
+  private boolean upload(final ProcurementEvent procurementEvent,
+      final DocumentUpload documentUpload, final DocumentKey docKey, final InputStream document,
+      final long size, final long start) {
+    try {
+      // S3 always gives the length, but a stream of unknown length has to be read to get it
+      var multipartFile = size >= 0
+          ? new InputStreamMultipartFile(document, size, docKey.getFileName(), documentUpload.getMimetype())
+          : new ByteArrayMultipartFile(document.readAllBytes(), docKey.getFileName(), documentUpload.getMimetype());
+
+      jaggaerService.eventUploadDocument(procurementEvent, docKey.getFileName(),
+          documentUpload.getDocumentDescription(), documentUpload.getAudience(), multipartFile);
+
+      record(start, multipartFile.getSize(), true);
+      log.info("Transferred document '{}' ({} bytes) for procID {} : eventId :{} , Timetaken : {}",
+          docKey.getFileName(), multipartFile.getSize(), procurementEvent.getProject().getId(),
+          procurementEvent.getEventID(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+      return true;
+    } catch (Exception ex) {
+      // Don't wait for the rest of the object to arrive just to close it
+      if (document instanceof ResponseInputStream<?> s3Object) {
+        s3Object.abort();
+      }
+      record(start, 0, false);
+      log.error("Error uploading document '{}' for event ID '{}'", docKey.getFileName(),
+          procurementEvent.getEventID(), ex);
+      return false;
+    }
+  }
+
+  private void record(final long start, final long bytes, final boolean isUploaded) {
+    long nanos = System.nanoTime() - start;
+    Timer.builder(METRIC_TRANSFER).description("Time taken to transfer a document from Tenders S3 to Jaggaer")
+        .tag("result", isUploaded ? "uploaded" : "failed").register(meterRegistry)
+        .record(nanos, TimeUnit.NANOSECONDS);
+
+    if (isUploaded) {
+      transferBytes.record(bytes);
+      if (nanos > 0) {
+        transferThroughput.record(bytes * (double) TimeUnit.SECONDS.toNanos(1) / nanos);
+      }
+    }
+  }
+
+  private int permits(final long bytes) {
+    if (bytes <= 0) {
+      return 1;
+    }
+    return (int) Math.min(maxInFlightKiB, (bytes + KIB - 1) / KIB);
+  }
+
+  private static long contentLength(final InputStream document) {
+    if (document instanceof ResponseInputStream<?> s3Object
+        && s3Object.response() instanceof GetObjectResponse response
+        && response.contentLength() != null) {
+      return response.contentLength();
+    }
+    return -1;
+  }
+
+  @Override
+  public void destroy() {
+    executor.shutdown();
+  }
+}
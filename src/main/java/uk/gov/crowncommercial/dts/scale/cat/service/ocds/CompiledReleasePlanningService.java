@@ -49,7 +49,7 @@ public class CompiledReleasePlanningService {
             ProcurementEvent pe = EventsHelper.getFirstPublishedEvent(pp);
 
             if (pe != null && pe.getProcurementTemplatePayload() != null && pe.getProcurementTemplatePayload().getCriteria() != null) {
-                String maxBudget = EventsHelper.getData(Constants.MAPPERS_PLANNING_BUDGET_CRITERIA, Constants.MAPPERS_PLANNING_BUDGET_GROUP, Constants.MAPPERS_PLANNING_BUDGET_QUESTION, pe.getProcurementTemplatePayload().getCriteria());
+                String maxBudget = EventsHelper.getData(Constants.MAPPERS_PLANNING_BUDGET_CRITERIA, Constants.MAPPERS_PLANNING_BUDGET_GROUP, Constants.MAPPERS_PLANNING_BUDGET_QUESTION, pe.getProcurementTemplateIndex());
 
                 if (maxBudget != null && !maxBudget.trim().isEmpty()) {
                     // We now have a string representation of the budget data, however the output model wants a number.  So try and convert it, and fail silently if the data is unsuitable
@@ -67,7 +67,7 @@ public class CompiledReleaseService{
                 }
 
                 if (pe.getProcurementTemplatePayload() != null && pe.getProcurementTemplatePayload().getCriteria() != null) {
-                    release.setDescription(EventsHelper.getData(Constants.MAPPERS_RELEASE_DESC_CRITERIA, Constants.MAPPERS_RELEASE_DESC_GROUP, Constants.MAPPERS_RELEASE_DESC_QUESTION, pe.getProcurementTemplatePayload().getCriteria()));
+                    release.setDescription(EventsHelper.getData(Constants.MAPPERS_RELEASE_DESC_CRITERIA, Constants.MAPPERS_RELEASE_DESC_GROUP, Constants.MAPPERS_RELEASE_DESC_QUESTION, pe.getProcurementTemplateIndex()));
                 }
             }
         }
@@ -52,7 +52,7 @@ public class CompiledReleaseTenderService extends AbstractOcdsService {
                 ProcurementEvent pe = EventsHelper.getFirstPublishedEvent(pp);
 
                 if (pe != null && pe.getProcurementTemplatePayload() != null && pe.getProcurementTemplatePayload().getCriteria() != null) {
-                    tender.setDescription(EventsHelper.getData(Constants.MAPPERS_RELEASE_DESC_CRITERIA, Constants.MAPPERS_RELEASE_DESC_GROUP, Constants.MAPPERS_RELEASE_DESC_QUESTION, pe.getProcurementTemplatePayload().getCriteria()));
+                    tender.setDescription(EventsHelper.getData(Constants.MAPPERS_RELEASE_DESC_CRITERIA, Constants.MAPPERS_RELEASE_DESC_GROUP, Constants.MAPPERS_RELEASE_DESC_QUESTION, pe.getProcurementTemplateIndex()));
                 }
 
                 if (pp.getProjectName() != null) {
@@ -318,7 +318,7 @@ public class CompiledReleaseTenderService extends AbstractOcdsService {
      */
     private static Value1 getValue1(ProcurementEvent pe, String reqId) {
         if (reqId != null && pe != null && pe.getProcurementTemplatePayload() != null && pe.getProcurementTemplatePayload().getCriteria() != null) {
-            String valueStr = EventsHelper.getData(Constants.MAPPERS_TENDER_VALUE_CRITERIA, Constants.MAPPERS_TENDER_VALUE_GROUP, reqId, pe.getProcurementTemplatePayload().getCriteria());
+            String valueStr = EventsHelper.getData(Constants.MAPPERS_TENDER_VALUE_CRITERIA, Constants.MAPPERS_TENDER_VALUE_GROUP, reqId, pe.getProcurementTemplateIndex());
 
             if (valueStr != null && !valueStr.trim().isEmpty()) {
                 // The value string should be a numeric, but it might not be - so try to map it, but fail silently if it doesn't work so it doesn't take down the project
@@ -2,6 +2,7 @@ package uk.gov.crowncommercial.dts.scale.cat.service.ocds;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.SneakyThrows;
+import uk.gov.crowncommercial.dts.scale.cat.model.agreements.DataTemplateIndex;
 import uk.gov.crowncommercial.dts.scale.cat.model.agreements.Requirement;
 import uk.gov.crowncommercial.dts.scale.cat.model.agreements.RequirementGroup;
 import uk.gov.crowncommercial.dts.scale.cat.model.agreements.TemplateCriteria;
@@ -53,6 +54,19 @@ public class EventsHelper {
         return Pair.of(EventsHelper.getFirstPublishedEvent(pp), null);
     }
 
+    /**
+     * Returns the selected option values of a question, looked up in the template's index rather than
+     * by walking the template
+     */
+    public static String getData(String criteriaId, String groupId, String requirementId,
+        DataTemplateIndex index) {
+      for (Requirement r : index.find(criteriaId, groupId, requirementId)) {
+        if (!Objects.isNull(r.getNonOCDS().getOptions()))
+          return getFirstValue(r.getNonOCDS().getOptions());
+      }
+      return null;
+    }
+
     public static String getData(String criteriaId, String groupId, String requirementId,
         List<TemplateCriteria> criteria) {
       Optional<TemplateCriteria> criterias =
@@ -1,6 +1,7 @@
 package uk.gov.crowncommercial.dts.scale.cat.service.scheduler;
 
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.core.sync.RequestBody;
 import lombok.Builder;
@@ -12,18 +13,20 @@ import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.tuple.Pair;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.env.Environment;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
+import io.micrometer.core.instrument.MeterRegistry;
 import uk.gov.crowncommercial.dts.scale.cat.config.paas.AWSS3Service;
+import uk.gov.crowncommercial.dts.scale.cat.model.agreements.AgreementDetail;
 import uk.gov.crowncommercial.dts.scale.cat.model.entity.ProcurementProject;
 import uk.gov.crowncommercial.dts.scale.cat.model.generated.ProjectPublicDetail;
 import uk.gov.crowncommercial.dts.scale.cat.model.generated.TenderStatus;
 import uk.gov.crowncommercial.dts.scale.cat.model.jaggaer.ExportRfxResponse;
 import uk.gov.crowncommercial.dts.scale.cat.model.jaggaer.Supplier;
+import uk.gov.crowncommercial.dts.scale.cat.processors.async.queueExecutor.BlockCallerExecutionPolicy;
 import uk.gov.crowncommercial.dts.scale.cat.repo.RetryableTendersDBDelegate;
 import uk.gov.crowncommercial.dts.scale.cat.service.AgreementsService;
 import uk.gov.crowncommercial.dts.scale.cat.service.ConclaveService;
@@ -31,18 +34,32 @@ import uk.gov.crowncommercial.dts.scale.cat.service.JaggaerService;
 import uk.gov.crowncommercial.dts.scale.cat.service.ocds.EventStatusHelper;
 import uk.gov.crowncommercial.dts.scale.cat.service.ocds.EventSubStatus;
 import uk.gov.crowncommercial.dts.scale.cat.service.ocds.EventsHelper;
-import uk.gov.crowncommercial.dts.scale.cat.utils.TendersAPIModelUtils;
+import uk.gov.crowncommercial.dts.scale.cat.utils.SpreadsheetStreamWriter;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 /**
- *
+ * Generates the DOS6 opportunities CSV. Rows are produced by a bounded pipeline: the published
+ * projects are read from the DB in one go and turned into plain rows on the scheduler's thread,
+ * enriched with Conclave / Agreements / Q&A data in parallel, handed to Jaggaer in batches as soon
+ * as each batch fills up, and finally written out in project order.
  */
 @Component
 @RequiredArgsConstructor
@@ -56,13 +73,19 @@ public class ProjectsCSVGenerationScheduledTask {
   private final Environment env;
   private final S3Client tendersS3Client;
   private final AWSS3Service tendersS3Service;
+  private final MeterRegistry meterRegistry;
   private static final String DOS6_AGREEMENT_ID = "RM1043.8";
   private static final Integer JAGGAER_SUPPLIER_WINNER_STATUS = 3;
   public static final String CSV_FILE_NAME = "opportunity_data.csv";
   public static final String XLSX_FILE_NAME = "opportunity_data.xlsx";
   public static final String ODS_FILE_NAME = "opportunity_data.ods";
   public static final String CSV_FILE_PREFIX = "/Oppertunity/";
+  private static final String CSV_CONTENT_TYPE = "text/csv";
+  private static final String XLSX_CONTENT_TYPE =
+      "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+  private static final String ODS_CONTENT_TYPE = "application/vnd.oasis.opendocument.spreadsheet";
   public static final String PROJECT_UI_LINK_KEY = "config.external.s3.oppertunities.ui.link";
+  private static final String METRIC_PIPELINE_STAGE = "cat.opportunities.csv.stage";
 
   @Value("${config.oppertunities.published.batch.size: 20}")
   private int publishedBatchSize;
@@ -70,6 +93,15 @@ public class ProjectsCSVGenerationScheduledTask {
   @Value("${config.oppertunities.awarded.batch.size: 5}")
   private int awardedBatchSize;
 
+  @Value("${config.oppertunities.csv.enrichment.parallelism: 8}")
+  private int enrichmentParallelism;
+
+  @Value("${config.oppertunities.csv.enrichment.queueCapacity: 32}")
+  private int enrichmentQueueCapacity;
+
+  @Value("${config.oppertunities.csv.jaggaer.parallelism: 4}")
+  private int jaggaerParallelism;
+
   @Transactional
   @Scheduled(cron = "${config.external.s3.oppertunities.schedule}")
   @SchedulerLock(name = "CSVGeneration_scheduledTask",
@@ -81,7 +113,9 @@ public class ProjectsCSVGenerationScheduledTask {
 
   public void writeOppertunitiesToCsv() {
 
+    var dbReadStart = System.nanoTime();
     var events = retryableTendersDBDelegate.findPublishedEventsByAgreementId(DOS6_AGREEMENT_ID);
+    recordStage("dbRead", dbReadStart);
     log.info("Dos6 agreements count for CSV generation: {}", events.size());
 
     try {
@@ -89,7 +123,6 @@ public class ProjectsCSVGenerationScheduledTask {
       var writer = new PrintWriter(Files.newBufferedWriter(tempFile, StandardOpenOption.WRITE));
       writer.write('\ufeff');
       var csvPrinter = new CSVPrinter(writer, CSVFormat.DEFAULT);
-      var csvDataList = new ArrayList<CSVData>();
 
       csvPrinter.printRecord("ID", "Opportunity", "Link", "Framework", "Category", "Specialist",
           "Organization Name", "Buyer Domain", "Location Of The Work", "Published At", "Open For",
@@ -98,87 +131,229 @@ public class ProjectsCSVGenerationScheduledTask {
           "Winning supplier", "Size of supplier", "Contract amount", "Contract start date",
           "Clarification questions", "Employment status");
 
-      populateCSVData(events, csvPrinter, csvDataList);
-      populateJaggaerFields(csvDataList);
+      var csvDataList = populateCSVData(events);
+
+      var writeStart = System.nanoTime();
       populateCSVPrinter(csvDataList, csvPrinter);
+      recordStage("write", writeStart);
 
       csvPrinter.flush();
       csvPrinter.close();
       log.info("Successfully generated CSV data, Initiating transfer to S3 Storage");
-      transferToS3(tempFile);
-      log.info("DOS6 CSV Data uploaded to S3 Storage");
+      try {
+        transferToS3(tempFile, CSV_FILE_NAME, CSV_CONTENT_TYPE);
+        log.info("DOS6 CSV Data uploaded to S3 Storage");
+        renderAndTransferToS3(tempFile, XLSX_FILE_NAME, XLSX_CONTENT_TYPE,
+            SpreadsheetStreamWriter::writeXlsx);
+        renderAndTransferToS3(tempFile, ODS_FILE_NAME, ODS_CONTENT_TYPE,
+            SpreadsheetStreamWriter::writeOds);
+      } finally {
+        Files.deleteIfExists(tempFile);
+      }
     } catch (Exception e) {
       log.error("Error While generating Projects CSV ", e);
     }
   }
 
-  private void populateCSVData(Set<ProcurementProject> events, CSVPrinter csvPrinter, List<CSVData> csvDataList)
-      throws Exception {
+  /**
+   * Runs the enrichment and Jaggaer stages of the pipeline. Enrichment tasks are submitted to a
+   * bounded pool whose queue blocks the submitting thread when full, and every enriched row is
+   * passed to a batcher which dispatches a Jaggaer search as soon as a batch is complete, so Jaggaer
+   * calls overlap with the remaining Conclave / Agreements lookups.
+   *
+   * @return CSV rows in project order, excluding any that could not be enriched
+   */
+  private List<CSVData> populateCSVData(Set<ProcurementProject> events) {
+    log.info("Populating CSV data");
+    var agreementDetails = agreementsService.getAgreementDetails(DOS6_AGREEMENT_ID);
+    var projects = new ArrayList<>(events);
+    var csvDataSlots = new CSVData[projects.size()];
+
+    var enrichmentExecutor = newPipelineExecutor("csv-enrich-", enrichmentParallelism,
+        new ArrayBlockingQueue<>(Math.max(1, enrichmentQueueCapacity)));
+    var jaggaerExecutor =
+        newPipelineExecutor("csv-jaggaer-", jaggaerParallelism, new LinkedBlockingQueue<>());
+    var batcher = new JaggaerBatcher(jaggaerExecutor);
+
     try {
-      log.info("Populating CSV data");
-      var agreementDetails = agreementsService.getAgreementDetails(DOS6_AGREEMENT_ID);
-      for (ProcurementProject project : events) {
-
-        var totalOrganisationsCountAndWinningSupplier = Pair.of("", "");
-        var firstAndLastPublishedEvent =
-            EventsHelper.getFirstAndLastPublishedEvent(project);
-        var event = firstAndLastPublishedEvent.getLeft();
-
-        var lotDetails =
-            agreementsService.getLotDetails(DOS6_AGREEMENT_ID, project.getLotNumber());
-        var organisationIdentity = conclaveService.getOrganisationIdentity(
-            project.getOrganisationMapping().getOrganisationId());
-
-        String rfxId = firstAndLastPublishedEvent.getLeft().getExternalEventId();
-        String tStatus = firstAndLastPublishedEvent.getLeft().getTenderStatus();
-
-        String latestRfxId, latestStatus;
-
-        if(Objects.nonNull(firstAndLastPublishedEvent.getRight())){
-          latestRfxId = firstAndLastPublishedEvent.getRight().getExternalEventId();
-          latestStatus = firstAndLastPublishedEvent.getRight().getTenderStatus();
-        }else{
-          latestRfxId = rfxId;
-          latestStatus = tStatus;
+      var pipelineStart = System.nanoTime();
+      var enrichments = new ArrayList<CompletableFuture<Void>>(projects.size());
+      for (int i = 0; i < projects.size(); i++) {
+        var slot = i;
+        var publishedProject = readPublishedProject(projects.get(i), agreementDetails);
+        if (publishedProject == null) {
+          continue;
         }
+        enrichments.add(CompletableFuture.runAsync(() -> {
+          var csvData = enrich(publishedProject);
+          if (csvData != null) {
+            csvDataSlots[slot] = csvData;
+            batcher.add(csvData);
+          }
+        }, enrichmentExecutor));
+      }
+      CompletableFuture.allOf(enrichments.toArray(CompletableFuture[]::new)).join();
+      recordStage("enrichment.wall", pipelineStart);
+
+      batcher.flush();
+      batcher.awaitCompletion();
+      recordStage("pipeline.wall", pipelineStart);
+    } finally {
+      enrichmentExecutor.shutdownNow();
+      jaggaerExecutor.shutdownNow();
+    }
+
+    return Arrays.stream(csvDataSlots).filter(Objects::nonNull).toList();
+  }
 
-        var csvData = CSVData.builder().firstRfxId(rfxId).tenderstatus(latestStatus)
-                .latestRfxId(latestRfxId)
-            .projectId(event.getProject().getId()).oppertunity(event.getProject().getProjectName())
-            .link(env.getProperty(PROJECT_UI_LINK_KEY) + "/" + event.getProject().getId())
-            .framework(agreementDetails.getName()).category(lotDetails.getName())
-            .orgName(organisationIdentity.get().getIdentifier().getLegalName())
-            .buyerDomain(organisationIdentity.get().getIdentifier().getUri())
-            .locationOfWork(TemplateDataExtractor.getLocation(event))
-            .publishedDate(event.getPublishDate())
-            .expectedContractLength(TemplateDataExtractor.getExpectedContractLength(event))
-            .budgetRange(StringUtils.isBlank(TemplateDataExtractor.getBudgetRangeData(event)) ? ""
-                : TemplateDataExtractor.getBudgetRangeData(event))
-            .totalOrganisations(totalOrganisationsCountAndWinningSupplier.getRight())
-            .winningSupplier(totalOrganisationsCountAndWinningSupplier.getLeft())
-            .contractStartDate(TemplateDataExtractor.geContractStartData(event))
-            .clarificationQuestions(
-                retryableTendersDBDelegate.findQuestionsCountByEventId(event.getId()))
-            .employmentStatus(TemplateDataExtractor.getEmploymentStatus(event)).build();
-        csvDataList.add(csvData);
+  /**
+   * Reads everything a row needs from the project and its published events. This runs on the
+   * scheduler's thread, which holds the Hibernate session, so the enrichment workers are only handed
+   * plain values and never touch the entities.
+   *
+   * @return the project's row so far, or null if it could not be read
+   */
+  private PublishedProject readPublishedProject(ProcurementProject project,
+      AgreementDetail agreementDetails) {
+    try {
+      var firstAndLastPublishedEvent = EventsHelper.getFirstAndLastPublishedEvent(project);
+      var event = firstAndLastPublishedEvent.getLeft();
+
+      String rfxId = event.getExternalEventId();
+      String tStatus = event.getTenderStatus();
+
+      String latestRfxId, latestStatus;
+
+      if(Objects.nonNull(firstAndLastPublishedEvent.getRight())){
+        latestRfxId = firstAndLastPublishedEvent.getRight().getExternalEventId();
+        latestStatus = firstAndLastPublishedEvent.getRight().getTenderStatus();
+      }else{
+        latestRfxId = rfxId;
+        latestStatus = tStatus;
       }
+
+      var csvData = CSVData.builder().firstRfxId(rfxId).tenderstatus(latestStatus)
+              .latestRfxId(latestRfxId)
+          .projectId(event.getProject().getId()).oppertunity(event.getProject().getProjectName())
+          .link(env.getProperty(PROJECT_UI_LINK_KEY) + "/" + event.getProject().getId())
+          .framework(agreementDetails.getName())
+          .locationOfWork(TemplateDataExtractor.getLocation(event))
+          .publishedDate(event.getPublishDate())
+          .expectedContractLength(TemplateDataExtractor.getExpectedContractLength(event))
+          .budgetRange(StringUtils.isBlank(TemplateDataExtractor.getBudgetRangeData(event)) ? ""
+              : TemplateDataExtractor.getBudgetRangeData(event))
+          .totalOrganisations("")
+          .winningSupplier("")
+          .contractStartDate(TemplateDataExtractor.geContractStartData(event))
+          .employmentStatus(TemplateDataExtractor.getEmploymentStatus(event)).build();
+
+      return new PublishedProject(project.getId(), project.getLotNumber(),
+          project.getOrganisationMapping().getOrganisationId(), event.getId(), csvData);
     } catch (Exception e) {
-      log.error("Error while generating CSV generator ", e);
+      log.error("Error while generating CSV data for project " + project.getId(), e);
+      return null;
     }
   }
 
-  private void populateJaggaerFields(List<CSVData> csvDataList) {
-    Pair<List<CSVData>, List<CSVData>> splitAwardedProjects = splitAwardedProjects(csvDataList);
-    List<List<CSVData>> supplierFetchList = TendersAPIModelUtils.getBatches(splitAwardedProjects.getLeft(), awardedBatchSize);
-    List<List<CSVData>> published = TendersAPIModelUtils.getBatches(splitAwardedProjects.getRight(), publishedBatchSize);
-    for (List<CSVData> dataList : supplierFetchList) {
-      Set<String> collect = dataList.stream().map(e -> e.getFirstRfxId()).collect(Collectors.toSet());
-      getJaggaerData(dataList, collect, Set.of("SUPPLIERS", "supplier_Response_Counters"));
+  /**
+   * Completes the row with the lot, buyer organisation and clarification question count
+   */
+  private CSVData enrich(PublishedProject publishedProject) {
+    var start = System.nanoTime();
+    try {
+      var lotDetails =
+          agreementsService.getLotDetails(DOS6_AGREEMENT_ID, publishedProject.getLotNumber());
+      var organisationIdentity =
+          conclaveService.getOrganisationIdentity(publishedProject.getOrganisationId());
+
+      var csvData = publishedProject.getCsvData();
+      csvData.setCategory(lotDetails.getName());
+      csvData.setOrgName(organisationIdentity.get().getIdentifier().getLegalName());
+      csvData.setBuyerDomain(organisationIdentity.get().getIdentifier().getUri());
+      csvData.setClarificationQuestions(
+          retryableTendersDBDelegate.findQuestionsCountByEventId(publishedProject.getEventId()));
+      return csvData;
+    } catch (Exception e) {
+      log.error("Error while generating CSV data for project " + publishedProject.getProjectId(),
+          e);
+      return null;
+    } finally {
+      recordStage("enrichment", start);
+    }
+  }
+
+  private ThreadPoolExecutor newPipelineExecutor(String threadPrefix, int parallelism,
+      BlockingQueue<Runnable> queue) {
+    var threads = Math.max(1, parallelism);
+    var threadCount = new AtomicInteger();
+    return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, queue, runnable -> {
+      var thread = new Thread(runnable, threadPrefix + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }, new BlockCallerExecutionPolicy());
+  }
+
+  private void recordStage(String stage, long startNanos) {
+    meterRegistry.timer(METRIC_PIPELINE_STAGE, "stage", stage)
+        .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Accumulates enriched rows into Jaggaer search batches. Projects with a single RFx only need
+   * response counters, those with a later RFx also need the supplier list so are batched
+   * separately (and smaller).
+   */
+  private class JaggaerBatcher {
+
+    private final ExecutorService executor;
+    private final List<CSVData> awarded = new ArrayList<>();
+    private final List<CSVData> published = new ArrayList<>();
+    private final List<CompletableFuture<Void>> fetches = new ArrayList<>();
+
+    JaggaerBatcher(ExecutorService executor) {
+      this.executor = executor;
+    }
+
+    synchronized void add(CSVData csvData) {
+      if (csvData.singleRfx()) {
+        published.add(csvData);
+        if (published.size() >= publishedBatchSize) {
+          dispatch(published, Set.of("supplier_Response_Counters"));
+        }
+      } else {
+        awarded.add(csvData);
+        if (awarded.size() >= awardedBatchSize) {
+          dispatch(awarded, Set.of("SUPPLIERS", "supplier_Response_Counters"));
+        }
+      }
+    }
+
+    synchronized void flush() {
+      if (!awarded.isEmpty()) {
+        dispatch(awarded, Set.of("SUPPLIERS", "supplier_Response_Counters"));
+      }
+      if (!published.isEmpty()) {
+        dispatch(published, Set.of("supplier_Response_Counters"));
+      }
+    }
+
+    void awaitCompletion() {
+      CompletableFuture<?>[] pending;
+      synchronized (this) {
+        pending = fetches.toArray(CompletableFuture[]::new);
+      }
+      CompletableFuture.allOf(pending).join();
     }
 
-    for (List<CSVData> dataList : published) {
-      Set<String> collect = dataList.stream().map(e -> e.getFirstRfxId()).collect(Collectors.toSet());
-      getJaggaerData(dataList, collect, Set.of("supplier_Response_Counters"));
+    private void dispatch(List<CSVData> buffer, Set<String> components) {
+      var batch = List.copyOf(buffer);
+      buffer.clear();
+      fetches.add(CompletableFuture.runAsync(() -> {
+        var start = System.nanoTime();
+        Set<String> collect = batch.stream().map(e -> e.getFirstRfxId()).collect(Collectors.toSet());
+        getJaggaerData(batch, collect, components);
+        recordStage("jaggaer", start);
+      }, executor));
     }
   }
 
@@ -203,31 +378,27 @@ public class ProjectsCSVGenerationScheduledTask {
       Set<String> collect, Set<String> components) {
     try {
       var firstRfxWithComponents =
-          jaggaerService.searchRFxWithComponents(collect, components);
-
-      Set<String> latestRfxIds = csvDataList.stream().map(e -> e.getLatestRfxId()).collect(Collectors.toSet());
-
-      var latestRFxWithComponents =
-              jaggaerService.searchRFxWithComponents(latestRfxIds, components);
-
-    //removed broken projects
-      firstRfxWithComponents = TemplateDataExtractor.removeBrokenEvents(firstRfxWithComponents);
-
-      for (ExportRfxResponse rfx : firstRfxWithComponents) {
+          jaggaerService.searchRFxById(collect, components);
 
-        for (CSVData csvData : csvDataList) {
-          if (csvData.getFirstRfxId().equals(rfx.getRfxSetting().getRfxId())) {
+      Set<String> latestRfxIds = csvDataList.stream().filter(e -> !e.singleRfx())
+          .map(e -> e.getLatestRfxId()).collect(Collectors.toSet());
 
+      var latestRFxWithComponents = latestRfxIds.isEmpty() ? firstRfxWithComponents
+          : jaggaerService.searchRFxById(latestRfxIds, components);
 
-            populateInitialEntries(rfx, csvData);
+      for (CSVData csvData : csvDataList) {
+        var rfx = firstRfxWithComponents.get(csvData.getFirstRfxId());
+        //removed broken projects
+        if (rfx == null || TemplateDataExtractor.isBrokenEvent(rfx)) {
+          continue;
+        }
 
-            if(csvData.singleRfx()) {
-              populateLatestEntries(csvData, csvData.getFirstRfxId(), firstRfxWithComponents);
-            }else{
-              populateLatestEntries(csvData, csvData.getLatestRfxId(), latestRFxWithComponents);
-            }
+        populateInitialEntries(rfx, csvData);
 
-          }
+        var latestRfx = csvData.singleRfx() ? rfx
+            : latestRFxWithComponents.get(csvData.getLatestRfxId());
+        if (latestRfx != null) {
+          populateLatestEntries(csvData, latestRfx);
         }
       }
     } catch (Exception e) {
@@ -246,18 +417,13 @@ public class ProjectsCSVGenerationScheduledTask {
     csvData.setStatus(EventStatusHelper.getEventStatus(rfx.getRfxSetting()));
   }
 
-  private void populateLatestEntries(CSVData csvData, String rfxId, Set<ExportRfxResponse> latestRFxWithComponents) {
-
-    for(ExportRfxResponse rfx: latestRFxWithComponents){
-      if(rfx.getRfxSetting().getRfxId().equals(rfxId)){
+  private void populateLatestEntries(CSVData csvData, ExportRfxResponse rfx) {
 
-        populateAwardedSupplier(csvData, rfx);
+    populateAwardedSupplier(csvData, rfx);
 
-        if(csvData.getStatus().equals(ProjectPublicDetail.StatusEnum.CLOSED.getValue())) {
-          csvData.setSubStatus(EventStatusHelper.getSubStatus(rfx.getRfxSetting()));
-          csvData.setStatus(transformSubStatus(csvData.getStatus(), csvData.getSubStatus()));
-        }
-      }
+    if(csvData.getStatus().equals(ProjectPublicDetail.StatusEnum.CLOSED.getValue())) {
+      csvData.setSubStatus(EventStatusHelper.getSubStatus(rfx.getRfxSetting()));
+      csvData.setStatus(transformSubStatus(csvData.getStatus(), csvData.getSubStatus()));
     }
   }
 
@@ -291,46 +457,99 @@ public class ProjectsCSVGenerationScheduledTask {
   }
 
 
-  private Pair<List<CSVData>, List<CSVData>> splitAwardedProjects(List<CSVData> collection) {
-    List<CSVData> supplierFetchList = new ArrayList<>();
-    List<CSVData> firstStageList = new ArrayList<>();
-
-    for(CSVData d : collection){
-      if(d.singleRfx()){
-        firstStageList.add(d);
-      }else{
-        supplierFetchList.add(d);
+  /**
+   * Render the generated CSV as a spreadsheet and send it to s3 alongside the CSV, so downloads of
+   * the other formats don't need to convert on each request. On failure the previous rendering is
+   * removed rather than left behind the new CSV, so downloads fall back to converting the CSV.
+   */
+  private void renderAndTransferToS3(Path csvFile, String fileName, String contentType,
+      SpreadsheetRenderer renderer) {
+    Path renderedFile = null;
+    var transferred = false;
+    try {
+      renderedFile = Files.createTempFile("temp", fileName.substring(fileName.lastIndexOf('.')));
+      var renderStart = System.nanoTime();
+      try (var in = Files.newInputStream(csvFile);
+          var out = Files.newOutputStream(renderedFile, StandardOpenOption.WRITE)) {
+        renderer.render(in, out);
+      }
+      recordStage("render", renderStart);
+      transferred = transferToS3(renderedFile, fileName, contentType);
+    } catch (Exception e) {
+      log.error("Error while rendering oppertunities file {} ", fileName, e);
+    } finally {
+      if (!transferred) {
+        deleteFromS3(fileName);
+      }
+      if (renderedFile != null) {
+        try {
+          Files.deleteIfExists(renderedFile);
+        } catch (IOException e) {
+          log.warn("Unable to delete temp file {}", renderedFile);
+        }
       }
     }
-
-    return Pair.of(supplierFetchList, firstStageList);
   }
 
   /**
-   * Send oppertunities CSV file to s3
+   * Send oppertunities file to s3
+   *
+   * @return whether the file was uploaded
    */
-  private void transferToS3(Path tempFile) {
+  private boolean transferToS3(Path file, String fileName, String contentType) {
     try {
-      var fileStream = Files.newInputStream(tempFile);
-      var tendersS3ObjectKey = CSV_FILE_PREFIX + CSV_FILE_NAME;
-      var fileBytes = Files.readAllBytes(tempFile);
-      
+      var tendersS3ObjectKey = CSV_FILE_PREFIX + fileName;
+
       var putObjectRequest = PutObjectRequest.builder()
           .bucket(tendersS3Service.getCredentials().getBucketName())
           .key(tendersS3ObjectKey)
-          .contentLength((long) fileBytes.length)
-          .contentType("text/csv")
+          .contentLength(Files.size(file))
+          .contentType(contentType)
           .build();
-      
-      tendersS3Client.putObject(putObjectRequest, RequestBody.fromInputStream(fileStream, fileBytes.length));
+
+      tendersS3Client.putObject(putObjectRequest, RequestBody.fromFile(file));
       log.info("Successfully uploaded oppertunities file to S3: {}", tendersS3ObjectKey);
-      // Delete the temporary file
-      Files.delete(tempFile);
+      return true;
     } catch (Exception e) {
       log.error("Error in transfer oppertunies to S3 ", e);
+      return false;
     }
   }
 
+  /**
+   * Remove an oppertunities file from s3
+   */
+  private void deleteFromS3(String fileName) {
+    var tendersS3ObjectKey = CSV_FILE_PREFIX + fileName;
+    try {
+      tendersS3Client.deleteObject(DeleteObjectRequest.builder()
+          .bucket(tendersS3Service.getCredentials().getBucketName())
+          .key(tendersS3ObjectKey)
+          .build());
+      log.info("Removed stale oppertunities file from S3: {}", tendersS3ObjectKey);
+    } catch (Exception e) {
+      log.error("Error removing stale oppertunities file {} from S3 ", tendersS3ObjectKey, e);
+    }
+  }
+
+  /**
+   * A published project's identifiers and its row so far, detached from the entities
+   */
+  @Getter
+  @RequiredArgsConstructor
+  private static class PublishedProject {
+    private final Integer projectId;
+    private final String lotNumber;
+    private final String organisationId;
+    private final Integer eventId;
+    private final CSVData csvData;
+  }
+
+  @FunctionalInterface
+  private interface SpreadsheetRenderer {
+    void render(InputStream csvInputStream, OutputStream outputStream) throws IOException;
+  }
+
 }
 
 
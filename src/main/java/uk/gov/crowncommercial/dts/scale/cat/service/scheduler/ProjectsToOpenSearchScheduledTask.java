@@ -1,16 +1,30 @@
 package uk.gov.crowncommercial.dts.scale.cat.service.scheduler;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.apache.commons.lang3.StringUtils;
+import org.opensearch.data.client.orhlc.NativeSearchQueryBuilder;
+import org.opensearch.index.query.QueryBuilders;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -21,7 +35,7 @@ import uk.gov.crowncommercial.dts.scale.cat.model.agreements.AgreementDetail;
 import uk.gov.crowncommercial.dts.scale.cat.model.entity.ProcurementEvent;
 import uk.gov.crowncommercial.dts.scale.cat.model.entity.ProcurementProject;
 import uk.gov.crowncommercial.dts.scale.cat.model.generated.ProjectPublicDetail.StatusEnum;
-import uk.gov.crowncommercial.dts.scale.cat.model.jaggaer.ExportRfxResponse;
+import uk.gov.crowncommercial.dts.scale.cat.model.jaggaer.RfxSearchResult;
 import uk.gov.crowncommercial.dts.scale.cat.model.search.ProcurementEventSearch;
 import uk.gov.crowncommercial.dts.scale.cat.repo.RetryableTendersDBDelegate;
 import uk.gov.crowncommercial.dts.scale.cat.repo.search.SearchProjectRepo;
@@ -29,9 +43,16 @@ import uk.gov.crowncommercial.dts.scale.cat.service.AgreementsService;
 import uk.gov.crowncommercial.dts.scale.cat.service.ConclaveService;
 import uk.gov.crowncommercial.dts.scale.cat.service.JaggaerService;
 import uk.gov.crowncommercial.dts.scale.cat.service.ocds.EventStatusHelper;
+import uk.gov.crowncommercial.dts.scale.cat.service.ocds.EventSubStatus;
 import uk.gov.crowncommercial.dts.scale.cat.service.ocds.EventsHelper;
 import uk.gov.crowncommercial.dts.scale.cat.utils.TendersAPIModelUtils;
 
+/**
+ * Keeps the DOS6 opportunities index in step with the Tenders DB. Rather than wiping and rebuilding
+ * the index on every run, only projects whose events have changed since the last successful sync
+ * are re-derived, non-final statuses are refreshed from Jaggaer and projects which are no longer
+ * published are deleted, so the public search never sees an empty or partial index.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
@@ -40,10 +61,21 @@ public class ProjectsToOpenSearchScheduledTask {
   private final SearchProjectRepo searchProjectRepo;
   private final RetryableTendersDBDelegate retryableTendersDBDelegate;
   private static final String DOS6_AGREEMENT_ID = "RM1043.8";
+  private static final String METRIC_SYNC_DOCUMENTS = "cat.opensearch.sync.documents";
+  private static final String METRIC_SYNC_DURATION = "cat.opensearch.sync.duration";
   private final AgreementsService agreementsService;
   private final ConclaveService conclaveService;
   private final JaggaerService jaggaerService;
-  
+  private final ElasticsearchOperations elasticsearchOperations;
+  private final MeterRegistry meterRegistry;
+
+  /*
+   * Start time of the last run on this instance that completed without failures. Anything touched
+   * in the Tenders DB after this point is re-derived on the next run. Unset after a restart, so the
+   * first run re-derives every project: the index can't say which of its documents are current
+   */
+  private final AtomicReference<Instant> syncWatermark = new AtomicReference<>();
+
   @Value("${config.oppertunities.published.batch.size: 80}")
   private int bathcSize;
   
@@ -53,32 +85,200 @@ public class ProjectsToOpenSearchScheduledTask {
   lockAtLeastFor = "PT5M", lockAtMostFor = "PT10M")
   public void saveProjectsDataToOpenSearch() {
     log.info("Started projects data to open search scheduler process");
-    var events =
+    var runStart = Instant.now();
+    var stats = new SyncStats();
+
+    var projects =
         retryableTendersDBDelegate.findPublishedEventsByAgreementId(DOS6_AGREEMENT_ID);
-    log.info("Dos6 agreements count to update in opensearch: {}", events.size());
-    
-    var agreementDetails = agreementsService.getAgreementDetails(DOS6_AGREEMENT_ID);
-    this.reinstateIndex();
-    this.saveProjectDataAsBatches(events, agreementDetails);
-    
-    log.info("Successfully updated projects data in open search");
+    log.info("Dos6 agreements count to update in opensearch: {}", projects.size());
+
+    var indexedDocuments = getIndexedDocuments();
+    var watermark = syncWatermark.get();
+
+    var changedProjects = new ArrayList<ProcurementProject>();
+    var unchangedProjects = new ArrayList<ProcurementProject>();
+    for (ProcurementProject project : projects) {
+      var indexed = indexedDocuments.get(getDocumentId(project.getId()));
+      if (indexed == null || isChangedSince(project, watermark)) {
+        changedProjects.add(project);
+      } else if (isFinalStatus(indexed)) {
+        stats.skipped++;
+      } else {
+        unchangedProjects.add(project);
+      }
+    }
+    log.info("Opensearch sync since {}: {} changed, {} to refresh status, {} unchanged", watermark,
+        changedProjects.size(), unchangedProjects.size(), stats.skipped);
+
+    if (!changedProjects.isEmpty()) {
+      var agreementDetails = agreementsService.getAgreementDetails(DOS6_AGREEMENT_ID);
+      this.saveProjectDataAsBatches(changedProjects, agreementDetails, stats);
+    }
+    this.refreshStatusAsBatches(unchangedProjects, indexedDocuments, stats);
+    this.deleteTombstonedDocuments(projects, indexedDocuments, stats);
+
+    if (stats.failed == 0) {
+      syncWatermark.set(runStart);
+    }
+    recordMetrics(stats, Duration.between(runStart, Instant.now()));
+    log.info("Successfully updated projects data in open search - touched: {}, skipped: {}, "
+        + "deleted: {}, failed: {}", stats.touched, stats.skipped, stats.deleted, stats.failed);
   }
   
-  private void saveProjectDataAsBatches(Set<ProcurementProject> events,
-      AgreementDetail agreementDetail) {
+  private void saveProjectDataAsBatches(List<ProcurementProject> projects,
+      AgreementDetail agreementDetail, SyncStats stats) {
     var eventSearchDataList = new ArrayList<ProcurementEventSearch>();
-    List<List<ProcurementProject>> batches =
-        TendersAPIModelUtils.getBatches(new ArrayList<ProcurementProject>(events), bathcSize);
+    List<List<ProcurementProject>> batches = TendersAPIModelUtils.getBatches(projects, bathcSize);
     for (List<ProcurementProject> batch : batches) {
-      mapToOpenSearch(batch, eventSearchDataList, agreementDetail);
-      searchProjectRepo.saveAll(eventSearchDataList);
-      log.info("successfully updated events: "+eventSearchDataList.size());
+      try {
+        mapToOpenSearch(batch, eventSearchDataList, agreementDetail, stats);
+      } catch (Exception e) {
+        log.error("Error while deriving opensearch data for batch, skipping", e);
+        stats.failed += batch.size();
+        eventSearchDataList.clear();
+        continue;
+      }
+
+      upsert(eventSearchDataList, stats);
       eventSearchDataList.clear();
     }
   }
+
+  /*
+   * Projects that have not changed locally may still have moved on in Jaggaer (e.g. closed or
+   * awarded), so re-check their status and only write back the documents that differ
+   */
+  private void refreshStatusAsBatches(List<ProcurementProject> projects,
+      Map<String, ProcurementEventSearch> indexedDocuments, SyncStats stats) {
+    var eventSearchDataList = new ArrayList<ProcurementEventSearch>();
+    for (List<ProcurementProject> batch : TendersAPIModelUtils.getBatches(projects, bathcSize)) {
+      var eventSearchDataListDTO = new ArrayList<ProcurementEventSearchDTO>();
+      for (ProcurementProject project : batch) {
+        var firstAndLastPublishedEvent = EventsHelper.getFirstAndLastPublishedEvent(project);
+        eventSearchDataListDTO.add(ProcurementEventSearchDTO.builder()
+            .id(getDocumentId(project.getId())).projectId(project.getId())
+            .rfxId(firstAndLastPublishedEvent.getLeft().getExternalEventId())
+            .secondRfxId(Objects.nonNull(firstAndLastPublishedEvent.getRight())
+                ? firstAndLastPublishedEvent.getRight().getExternalEventId()
+                : null)
+            .build());
+      }
+
+      try {
+        populateStatus(eventSearchDataListDTO, stats);
+        populateSubStatus(eventSearchDataListDTO, stats);
+      } catch (Exception e) {
+        log.error("Error while refreshing opensearch status for batch, skipping", e);
+        stats.failed += batch.size();
+        continue;
+      }
+
+      for (ProcurementEventSearchDTO dto : eventSearchDataListDTO) {
+        var indexed = indexedDocuments.get(dto.getId());
+        if (dto.getStatus() == null) {
+          stats.tombstones.add(dto.getId());
+        } else if (Objects.equals(dto.getStatus(), indexed.getStatus())
+            && Objects.equals(dto.getSubStatus(), indexed.getSubStatus())) {
+          stats.skipped++;
+        } else {
+          var searchData = new ProcurementEventSearch();
+          BeanUtils.copyProperties(indexed, searchData);
+          searchData.setStatus(dto.getStatus());
+          searchData.setSubStatus(dto.getSubStatus());
+          eventSearchDataList.add(searchData);
+        }
+      }
+      upsert(eventSearchDataList, stats);
+      eventSearchDataList.clear();
+    }
+  }
+
+  private void upsert(List<ProcurementEventSearch> eventSearchDataList, SyncStats stats) {
+    if (eventSearchDataList.isEmpty()) {
+      return;
+    }
+    try {
+      searchProjectRepo.saveAll(eventSearchDataList);
+      stats.touched += eventSearchDataList.size();
+      log.info("successfully updated events: " + eventSearchDataList.size());
+    } catch (Exception e) {
+      log.error("Error while saving project details to opensearch", e);
+      stats.failed += eventSearchDataList.size();
+    }
+  }
+
+  /*
+   * Anything in the index that is not keyed by a currently published project is removed. This also
+   * clears out documents written under generated ids before documents were keyed by project id.
+   */
+  private void deleteTombstonedDocuments(Set<ProcurementProject> projects,
+      Map<String, ProcurementEventSearch> indexedDocuments, SyncStats stats) {
+    var publishedIds = projects.stream().map(p -> getDocumentId(p.getId()))
+        .collect(Collectors.toSet());
+    var tombstones = Stream.concat(
+        stats.tombstones.stream().filter(indexedDocuments::containsKey),
+        indexedDocuments.keySet().stream().filter(id -> !publishedIds.contains(id)))
+        .collect(Collectors.toSet());
+
+    if (!tombstones.isEmpty()) {
+      try {
+        searchProjectRepo.deleteAllById(tombstones);
+        stats.deleted = tombstones.size();
+        log.info("deleted {} tombstoned documents in opensearch", tombstones.size());
+      } catch (Exception e) {
+        log.error("Error while deleting tombstoned documents in opensearch", e);
+        stats.failed += tombstones.size();
+      }
+    }
+  }
+
+  /**
+   * Streams the current contents of the index (scrolling, so not bound by the max result window)
+   * keyed by document id
+   */
+  private Map<String, ProcurementEventSearch> getIndexedDocuments() {
+    var query = new NativeSearchQueryBuilder().withQuery(QueryBuilders.matchAllQuery())
+        .withPageable(PageRequest.of(0, 1000)).build();
+    var indexedDocuments = new HashMap<String, ProcurementEventSearch>();
+    try (var hits = elasticsearchOperations.searchForStream(query, ProcurementEventSearch.class)) {
+      hits.forEachRemaining(hit -> indexedDocuments.put(hit.getId(), hit.getContent()));
+    }
+    return indexedDocuments;
+  }
+
+  private static boolean isChangedSince(ProcurementProject project, Instant watermark) {
+    if (watermark == null) {
+      return true;
+    }
+    if (project.getUpdatedAt() != null && project.getUpdatedAt().isAfter(watermark)) {
+      return true;
+    }
+    return project.getProcurementEvents().stream()
+        .map(e -> e.getUpdatedAt() != null ? e.getUpdatedAt() : e.getCreatedAt())
+        .anyMatch(updatedAt -> updatedAt == null || updatedAt.isAfter(watermark));
+  }
+
+  private static boolean isFinalStatus(ProcurementEventSearch indexed) {
+    return StatusEnum.CLOSED.getValue().equals(indexed.getStatus())
+        && (EventSubStatus.AWARDED.getValue().equals(indexed.getSubStatus())
+            || EventSubStatus.CANCELLED.getValue().equals(indexed.getSubStatus()));
+  }
+
+  private static String getDocumentId(Integer projectId) {
+    return String.valueOf(projectId);
+  }
+
+  private void recordMetrics(SyncStats stats, Duration duration) {
+    meterRegistry.counter(METRIC_SYNC_DOCUMENTS, "outcome", "touched").increment(stats.touched);
+    meterRegistry.counter(METRIC_SYNC_DOCUMENTS, "outcome", "skipped").increment(stats.skipped);
+    meterRegistry.counter(METRIC_SYNC_DOCUMENTS, "outcome", "deleted").increment(stats.deleted);
+    meterRegistry.counter(METRIC_SYNC_DOCUMENTS, "outcome", "failed").increment(stats.failed);
+    meterRegistry.timer(METRIC_SYNC_DURATION).record(duration.toMillis(), TimeUnit.MILLISECONDS);
+  }
   
   private List<ProcurementEventSearch> mapToOpenSearch(List<ProcurementProject> events,
-      List<ProcurementEventSearch> eventSearchDataList,  AgreementDetail agreementDetails) {
+      List<ProcurementEventSearch> eventSearchDataList,  AgreementDetail agreementDetails,
+      SyncStats stats) {
 
     var eventSearchDataListDTO = new ArrayList<ProcurementEventSearchDTO>();
     
@@ -96,7 +296,8 @@ public class ProjectsToOpenSearchScheduledTask {
           srfxId = firstAndLastPublishedEvent.getRight().getExternalEventId();
         }
 
-        var eventSearchDataDTO = ProcurementEventSearchDTO.builder().rfxId(firstAndLastPublishedEvent.getLeft().getExternalEventId())
+        var eventSearchDataDTO = ProcurementEventSearchDTO.builder().id(getDocumentId(project.getId()))
+            .rfxId(firstAndLastPublishedEvent.getLeft().getExternalEventId())
             .secondRfxId(srfxId).projectId(event.getProject().getId()).description(getSummaryOfWork(event))
             .budgetRange(TemplateDataExtractor.getBudgetRangeData(event))
             .buyerName(organisationIdentity.get().getIdentifier().getLegalName())
@@ -107,51 +308,69 @@ public class ProjectsToOpenSearchScheduledTask {
         eventSearchDataListDTO.add(eventSearchDataDTO);
       } catch (Exception e) {
         log.error("Error while saving project details to opensearch", e);
+        stats.failed++;
       }
     }
-    populateStatus(eventSearchDataListDTO);
-    populateSubStatus(eventSearchDataListDTO);
+    populateStatus(eventSearchDataListDTO, stats);
+    populateSubStatus(eventSearchDataListDTO, stats);
+    // Projects that resolved no status in Jaggaer are broken and should not be searchable
+    eventSearchDataListDTO.stream().filter(e -> e.getStatus() == null)
+        .forEach(e -> stats.tombstones.add(e.getId()));
     populateSearchData(eventSearchDataListDTO, eventSearchDataList);
     return eventSearchDataList;
   }
   
-  private void populateStatus(List<ProcurementEventSearchDTO> searchDataDTO) {
+  /*
+   * Statuses of projects whose rfxs could not be fetched are unknown rather than broken, so those
+   * projects are dropped from the batch (and counted as failed) instead of being tombstoned
+   */
+  private void populateStatus(List<ProcurementEventSearchDTO> searchDataDTO, SyncStats stats) {
     Set<String> rfxIds = searchDataDTO.stream().map(e -> e.getRfxId()).collect(Collectors.toSet());
     var rfxResponse =
-        jaggaerService.searchRFxWithComponents(rfxIds, Set.of("supplier_Response_Counters"));
+        jaggaerService.searchRFxById(rfxIds, Set.of("supplier_Response_Counters"));
+    dropUnresolved(searchDataDTO, rfxResponse, ProcurementEventSearchDTO::getRfxId, stats);
     
-    // removed broken projects
-    rfxResponse = TemplateDataExtractor.removeBrokenEvents(rfxResponse);
-    
-    for (ExportRfxResponse exportRfxResponse : rfxResponse) {
-      for (ProcurementEventSearchDTO data : searchDataDTO) {
-        if (data.getRfxId().equals(exportRfxResponse.getRfxSetting().getRfxId())) {
-          var eventStatus = EventStatusHelper.getEventStatus(exportRfxResponse.getRfxSetting());
-          data.setStatus(eventStatus);
-          if (eventStatus.equals(StatusEnum.CLOSED.getValue())) {
-            data.setSubStatus(EventStatusHelper.getSubStatus(exportRfxResponse.getRfxSetting()));
-          }
+    for (ProcurementEventSearchDTO data : searchDataDTO) {
+      var exportRfxResponse = rfxResponse.get(data.getRfxId());
+      // removed broken projects
+      if (exportRfxResponse != null && !TemplateDataExtractor.isBrokenEvent(exportRfxResponse)) {
+        var eventStatus = EventStatusHelper.getEventStatus(exportRfxResponse.getRfxSetting());
+        data.setStatus(eventStatus);
+        if (eventStatus.equals(StatusEnum.CLOSED.getValue())) {
+          data.setSubStatus(EventStatusHelper.getSubStatus(exportRfxResponse.getRfxSetting()));
         }
       }
     }
   }
   
-  private void populateSubStatus(List<ProcurementEventSearchDTO> searchDataDTO) {
+  private void populateSubStatus(List<ProcurementEventSearchDTO> searchDataDTO, SyncStats stats) {
     Set<String> rfxIds = searchDataDTO.stream()
-        .map(e -> e.getSecondRfxId()).collect(Collectors.toSet());
-    Set<ExportRfxResponse> rfxResponse =
-        jaggaerService.searchRFxWithComponents(rfxIds, Set.of("supplier_Response_Counters"));
+        .map(e -> e.getSecondRfxId()).filter(Objects::nonNull).collect(Collectors.toSet());
+    if (rfxIds.isEmpty()) {
+      return;
+    }
+    var rfxResponse =
+        jaggaerService.searchRFxById(rfxIds, Set.of("supplier_Response_Counters"));
+    dropUnresolved(searchDataDTO, rfxResponse, ProcurementEventSearchDTO::getSecondRfxId, stats);
     
-    for (ExportRfxResponse exportRfxResponse : rfxResponse) {
-      for (ProcurementEventSearchDTO data : searchDataDTO) {
-        if (data.getSecondRfxId() != null
-            && data.getSecondRfxId().equals(exportRfxResponse.getRfxSetting().getRfxId())) {
-          data.setSubStatus(EventStatusHelper.getSubStatus(exportRfxResponse.getRfxSetting()));
-        }
+    for (ProcurementEventSearchDTO data : searchDataDTO) {
+      var exportRfxResponse = rfxResponse.get(data.getSecondRfxId());
+      if (exportRfxResponse != null) {
+        data.setSubStatus(EventStatusHelper.getSubStatus(exportRfxResponse.getRfxSetting()));
       }
     }
   }
 
+  private static void dropUnresolved(List<ProcurementEventSearchDTO> searchDataDTO,
+      RfxSearchResult rfxResponse, Function<ProcurementEventSearchDTO, String> rfxId,
+      SyncStats stats) {
+    if (!rfxResponse.isComplete()) {
+      var before = searchDataDTO.size();
+      searchDataDTO.removeIf(e -> rfxResponse.getFailedRfxIds().contains(rfxId.apply(e)));
+      stats.failed += before - searchDataDTO.size();
+    }
+  }
+
   private void populateSearchData(List<ProcurementEventSearchDTO> searchDataDTO,
       List<ProcurementEventSearch> searchDataList) {
     //removed broken projects
@@ -168,7 +387,7 @@ public class ProjectsToOpenSearchScheduledTask {
     try {
       if (Objects.nonNull(event.getProcurementTemplatePayload())) {
         var summary = EventsHelper.getData("Criterion 3", "Group 3", "Question 1",
-            event.getProcurementTemplatePayload().getCriteria());
+            event.getProcurementTemplateIndex());
         if (!StringUtils.isBlank(summary)) {
           return summary;
         }
@@ -178,14 +397,6 @@ public class ProjectsToOpenSearchScheduledTask {
     }
     return null;
   }
-  
-  private void reinstateIndex() {
-    try {
-      searchProjectRepo.deleteAll();
-      log.info("delete data in opensearch");
-    } catch (Exception e) {
-    }
-  }
 }
 
 @Setter
@@ -209,3 +420,11 @@ class ProcurementEventSearchDTO {
   Long lastUpdated;
 
 }
+
+class SyncStats {
+  int touched;
+  int skipped;
+  int deleted;
+  int failed;
+  final Set<String> tombstones = new HashSet<>();
+}
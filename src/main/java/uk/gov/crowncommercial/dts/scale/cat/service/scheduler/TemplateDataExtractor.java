@@ -32,7 +32,7 @@ public class TemplateDataExtractor {
         String criterionId = event.getProject().getLotNumber().equals("1") ? "Criterion 3" : "Criterion 1";
         String groupId = event.getProject().getLotNumber().equals("1") ? "Group 18" : "Key Dates";
         String dataFromJSONDataTemplate = EventsHelper.getData(criterionId, groupId, "Question 12",
-            event.getProcurementTemplatePayload().getCriteria());
+            event.getProcurementTemplateIndex());
         if (Objects.nonNull(dataFromJSONDataTemplate)) {
           var period = Period.parse(dataFromJSONDataTemplate);
           return periodFormat(period);
@@ -79,9 +79,9 @@ public class TemplateDataExtractor {
       String groupId = event.getProject().getLotNumber().equals("1") ? "Group 20" : "Group 18";
       if (Objects.nonNull(event.getProcurementTemplatePayload())) {
         maxValue = EventsHelper.getData("Criterion 3", groupId, "Question 2",
-            event.getProcurementTemplatePayload().getCriteria());
+            event.getProcurementTemplateIndex());
         minValue = EventsHelper.getData("Criterion 3", groupId, "Question 3",
-            event.getProcurementTemplatePayload().getCriteria());
+            event.getProcurementTemplateIndex());
         if (!StringUtils.isBlank(minValue) & !StringUtils.isBlank(minValue)) {
           return "£" + minValue + " - £" + maxValue;
         } else if (!StringUtils.isBlank(maxValue)) {
@@ -102,10 +102,10 @@ public class TemplateDataExtractor {
       if (Objects.nonNull(event.getProcurementTemplatePayload())) {
         if (event.getProject().getLotNumber().equals("1")) {
           return EventsHelper.getData("Criterion 1", "Key Dates", "Question 13",
-              event.getProcurementTemplatePayload().getCriteria());
+              event.getProcurementTemplateIndex());
         } else if (event.getProject().getLotNumber().equals("3")) {
           return EventsHelper.getData("Criterion 1", "Key Dates", "Question 11",
-              event.getProcurementTemplatePayload().getCriteria());
+              event.getProcurementTemplateIndex());
         }
       }
     } catch (Exception e) {
@@ -121,7 +121,7 @@ public class TemplateDataExtractor {
       if (Objects.nonNull(event.getProcurementTemplatePayload())) {
         if (event.getProject().getLotNumber().equals("1")) {
           return EventsHelper.getData("Criterion 3", "Group 21", "Question 1",
-              event.getProcurementTemplatePayload().getCriteria());
+              event.getProcurementTemplateIndex());
         }
       }
     } catch (Exception e) {
@@ -138,7 +138,7 @@ public class TemplateDataExtractor {
       String groupId = event.getProject().getLotNumber().equals("1") ? "Group 5" : "Group 4";
       String questionId = "Question 6";
       String location = EventsHelper.getData(criterionId, groupId, questionId,
-          event.getProcurementTemplatePayload().getCriteria());
+          event.getProcurementTemplateIndex());
       return Objects.nonNull(location) ? location : "";
     } catch (Exception e) {
     }
@@ -147,10 +147,12 @@ public class TemplateDataExtractor {
   
   public static Set<ExportRfxResponse> removeBrokenEvents(Set<ExportRfxResponse> jaggaerData) {
     // removed broken projects
-    return jaggaerData.stream()
-        .filter(e -> Objects.nonNull(e.getRfxSetting().getCloseDate())
-            && Objects.nonNull(e.getRfxSetting().getPublishDate())
-            && e.getRfxSetting().getStatusCode() != 0)
-        .collect(Collectors.toSet());
+    return jaggaerData.stream().filter(e -> !isBrokenEvent(e)).collect(Collectors.toSet());
+  }
+
+  public static boolean isBrokenEvent(ExportRfxResponse rfx) {
+    return Objects.isNull(rfx.getRfxSetting().getCloseDate())
+        || Objects.isNull(rfx.getRfxSetting().getPublishDate())
+        || rfx.getRfxSetting().getStatusCode() == 0;
   }
 }
@@ -0,0 +1,235 @@
+package uk.gov.crowncommercial.dts.scale.cat.service.search;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import uk.gov.crowncommercial.dts.scale.cat.model.search.ProcurementEventSearch;
+
+/**
+ * Immutable in-memory index over the public project search documents, used to answer the public
+ * search without scanning every cached document per request.
+ *
+ * <p>
+ * Documents are ordered by project id (keeping load order for duplicates of the same project), so
+ * that walking a result bitmap in ordinal order yields results already sorted and grouped by
+ * project id, and de-duplication is just a comparison with the previous hit. Lot and status
+ * filters are pre-computed bitmaps, and keywords are resolved against a term dictionary of the
+ * tokenised project names and descriptions before the remaining candidates are checked with the
+ * same case-insensitive substring match the search has always used. The dictionary is keyed by
+ * every suffix of every term, sorted, so the terms containing a keyword token are those with a
+ * suffix starting with it - one range of the map rather than a scan of every term.
+ * </p>
+ *
+ * <p>
+ * Instances are never modified after {@link #build(Collection)}, so can be shared by any number of
+ * search threads and swapped wholesale when the cache is refreshed.
+ * </p>
+ */
+public final class ProjectSearchIndex {
+
+  private static final ProjectSearchIndex EMPTY = build(Collections.emptyList());
+
+  private final ProcurementEventSearch[] documents;
+  private final int[] projectIds;
+  private final String[] lowerNames;
+  private final String[] lowerDescriptions;
+  private final BitSet allDocuments;
+  private final Map<String, BitSet> lotBitmaps;
+  private final Map<String, BitSet> statusBitmaps;
+  private final BitSet[] termPostings;
+  private final NavigableMap<String, int[]> termsBySuffix;
+
+  private ProjectSearchIndex(final List<ProcurementEventSearch> sortedDocuments) {
+    var size = sortedDocuments.size();
+    documents = sortedDocuments.toArray(new ProcurementEventSearch[size]);
+    projectIds = new int[size];
+    lowerNames = new String[size];
+    lowerDescriptions = new String[size];
+    allDocuments = new BitSet(size);
+    allDocuments.set(0, size);
+    lotBitmaps = new HashMap<>();
+    statusBitmaps = new HashMap<>();
+
+    var postings = new HashMap<String, BitSet>();
+    for (int ordinal = 0; ordinal < size; ordinal++) {
+      var document = documents[ordinal];
+      projectIds[ordinal] = document.getProjectId();
+      lowerNames[ordinal] = toLower(document.getProjectName());
+      lowerDescriptions[ordinal] = toLower(document.getDescription());
+
+      if (document.getLot() != null) {
+        lotBitmaps.computeIfAbsent(document.getLot().toLowerCase(Locale.ROOT), k -> new BitSet())
+            .set(ordinal);
+      }
+      if (document.getStatus() != null) {
+        statusBitmaps.computeIfAbsent(document.getStatus(), k -> new BitSet()).set(ordinal);
+      }
+      for (String term : tokenise(lowerNames[ordinal])) {
+        postings.computeIfAbsent(term, k -> new BitSet()).set(ordinal);
+      }
+      for (String term : tokenise(lowerDescriptions[ordinal])) {
+        postings.computeIfAbsent(term, k -> new BitSet()).set(ordinal);
+      }
+    }
+
+    var terms = postings.keySet().toArray(new String[0]);
+    termPostings = new BitSet[terms.length];
+    var suffixTerms = new HashMap<String, List<Integer>>();
+    for (int termId = 0; termId < terms.length; termId++) {
+      termPostings[termId] = postings.get(terms[termId]);
+      for (int start = 0; start < terms[termId].length(); start++) {
+        suffixTerms.computeIfAbsent(terms[termId].substring(start), k -> new ArrayList<>())
+            .add(termId);
+      }
+    }
+    termsBySuffix = new TreeMap<>();
+    suffixTerms.forEach((suffix, termIds) -> termsBySuffix.put(suffix,
+        termIds.stream().mapToInt(Integer::intValue).toArray()));
+  }
+
+  /**
+   * Build an index over the given documents. Documents without a project id can never be returned
+   * by the search, so are dropped.
+   */
+  public static ProjectSearchIndex build(final Collection<ProcurementEventSearch> documents) {
+    var sorted = new ArrayList<ProcurementEventSearch>(documents.size());
+    documents.stream().filter(d -> d != null && d.getProjectId() != null).forEach(sorted::add);
+    // Stable sort, so the first loaded document for a project wins de-duplication as before
+    sorted.sort(Comparator.comparing(ProcurementEventSearch::getProjectId));
+    return new ProjectSearchIndex(sorted);
+  }
+
+  public static ProjectSearchIndex empty() {
+    return EMPTY;
+  }
+
+  /**
+   * @return number of indexed documents (before de-duplication by project)
+   */
+  public int size() {
+    return documents.length;
+  }
+
+  /**
+   * Find the projects matching all of the given criteria, de-duplicated by project id and ordered
+   * by project id.
+   *
+   * @param keyword case-insensitive substring of the project name or description (optional)
+   * @param lotId case-insensitive lot id (optional)
+   * @param statuses statuses, any of which match (optional)
+   * @param offset number of de-duplicated results to skip
+   * @param limit maximum number of results to return
+   */
+  public SearchResult search(final String keyword, final String lotId,
+      final Collection<String> statuses, final int offset, final int limit) {
+
+    var matches = (BitSet) allDocuments.clone();
+
+    if (lotId != null && !lotId.isEmpty()) {
+      matches.and(lotBitmaps.getOrDefault(lotId.toLowerCase(Locale.ROOT), new BitSet()));
+    }
+
+    if (statuses != null && !statuses.isEmpty()) {
+      var statusMatches = new BitSet();
+      statuses.stream().filter(Objects::nonNull).map(statusBitmaps::get)
+          .filter(Objects::nonNull).forEach(statusMatches::or);
+      matches.and(statusMatches);
+    }
+
+    String lowerKeyword = null;
+    if (keyword != null && !keyword.isBlank()) {
+      lowerKeyword = keyword.toLowerCase();
+      for (String token : tokenise(lowerKeyword)) {
+        if (matches.isEmpty()) {
+          break;
+        }
+        matches.and(documentsWithTermContaining(token));
+      }
+    }
+
+    var page = new ArrayList<ProcurementEventSearch>(Math.max(0, Math.min(limit, 64)));
+    var total = 0;
+    var previousProjectId = 0;
+    var first = true;
+    for (int ordinal = matches.nextSetBit(0); ordinal >= 0;
+        ordinal = matches.nextSetBit(ordinal + 1)) {
+      if (!first && projectIds[ordinal] == previousProjectId) {
+        continue;
+      }
+      if (lowerKeyword != null && !lowerNames[ordinal].contains(lowerKeyword)
+          && !lowerDescriptions[ordinal].contains(lowerKeyword)) {
+        continue;
+      }
+      if (total >= offset && page.size() < limit) {
+        page.add(documents[ordinal]);
+      }
+      total++;
+      previousProjectId = projectIds[ordinal];
+      first = false;
+    }
+
+    return new SearchResult(total, Collections.unmodifiableList(page));
+  }
+
+  /*
+   * Any keyword that is a substring of the text has each of its tokens contained in a term of the
+   * text, so the union of the postings of matching terms is a superset of the real matches
+   */
+  private BitSet documentsWithTermContaining(final String token) {
+    var result = new BitSet(documents.length);
+    var matchedTerms = new BitSet(termPostings.length);
+    // A term may contain the token more than once, so is only added the first time
+    for (int[] termIds : termsBySuffix.subMap(token, true, token + Character.MAX_VALUE, false)
+        .values()) {
+      for (int termId : termIds) {
+        if (!matchedTerms.get(termId)) {
+          matchedTerms.set(termId);
+          result.or(termPostings[termId]);
+        }
+      }
+    }
+    return result;
+  }
+
+  private static String toLower(final String value) {
+    return value == null ? "" : value.toLowerCase();
+  }
+
+  static Set<String> tokenise(final String lowerText) {
+    var tokens = new HashSet<String>();
+    var start = -1;
+    for (int i = 0; i <= lowerText.length(); i++) {
+      var isTokenChar = i < lowerText.length() && Character.isLetterOrDigit(lowerText.charAt(i));
+      if (isTokenChar && start < 0) {
+        start = i;
+      } else if (!isTokenChar && start >= 0) {
+        tokens.add(lowerText.substring(start, i));
+        start = -1;
+      }
+    }
+    return tokens;
+  }
+
+  /**
+   * A page of de-duplicated search results, with the total number of matching projects
+   */
+  @Getter
+  @RequiredArgsConstructor
+  public static class SearchResult {
+    private final int totalResults;
+    private final List<ProcurementEventSearch> results;
+  }
+}
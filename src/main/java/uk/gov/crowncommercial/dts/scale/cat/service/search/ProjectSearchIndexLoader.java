@@ -0,0 +1,216 @@
+package uk.gov.crowncommercial.dts.scale.cat.service.search;
+
+import static org.opensearch.index.query.QueryBuilders.matchAllQuery;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.opensearch.data.client.orhlc.NativeSearchQueryBuilder;
+import org.opensearch.search.sort.ShardDocSortBuilder;
+import org.opensearch.search.sort.SortBuilders;
+import org.opensearch.search.sort.SortOrder;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import uk.gov.crowncommercial.dts.scale.cat.model.search.ProcurementEventSearch;
+
+/**
+ * Holds the current generation of the public project {@link ProjectSearchIndex} and loads new
+ * generations from OpenSearch.
+ *
+ * <p>
+ * Loads page through the whole index with <code>search_after</code> against a point in time, so are
+ * not limited by the max result window, with <code>_shard_doc</code> breaking ties between documents
+ * of the same project. Each load runs on its own thread and builds a new generation off to the
+ * side, which is only swapped in once complete - readers keep using the previous generation in the
+ * meantime. Only one load runs at a time; concurrent refresh requests (and readers arriving while
+ * the cache is still cold) share the one in progress rather than queueing behind a lock.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProjectSearchIndexLoader implements DisposableBean {
+
+  private static final String PROJECT_ID = "projectId";
+  private static final String METRIC_LOAD = "cat.project.search.cache.load";
+  private static final String METRIC_DOCUMENTS = "cat.project.search.cache.documents";
+
+  private final ElasticsearchOperations elasticsearchOperations;
+  private final MeterRegistry meterRegistry;
+
+  private final AtomicReference<ProjectSearchIndex> currentGeneration = new AtomicReference<>();
+  private final AtomicReference<CompletableFuture<ProjectSearchIndex>> inFlightLoad =
+      new AtomicReference<>();
+  private final ThreadPoolTaskExecutor loadExecutor = loadExecutor();
+
+  @Value("${config.search.cache.pageSize:1000}")
+  private int pageSize;
+
+  @Value("${config.search.cache.pointInTimeKeepAliveSeconds:60}")
+  private long pointInTimeKeepAliveSeconds;
+
+  @PostConstruct
+  void registerMetrics() {
+    Gauge.builder(METRIC_DOCUMENTS, currentGeneration,
+        generation -> generation.get() != null ? generation.get().size() : 0)
+        .description("Documents in the current public project search cache generation")
+        .register(meterRegistry);
+  }
+
+  @Override
+  public void destroy() {
+    loadExecutor.shutdown();
+  }
+
+  /**
+   * Return the current generation, loading the first one if the cache is still cold.
+   */
+  public ProjectSearchIndex getIndex() {
+    var generation = currentGeneration.get();
+    return generation != null ? generation : awaitLoad(refresh());
+  }
+
+  /**
+   * Start loading a new generation from OpenSearch in the background, to be swapped in once
+   * complete, or join the load already in progress.
+   *
+   * @return the newly loaded generation
+   */
+  public CompletableFuture<ProjectSearchIndex> refresh() {
+    var load = new CompletableFuture<ProjectSearchIndex>();
+    var existing = inFlightLoad.compareAndExchange(null, load);
+    if (existing != null) {
+      return existing;
+    }
+
+    try {
+      loadExecutor.execute(() -> load(load));
+    } catch (RuntimeException e) {
+      log.error("Unable to start loading the project search cache", e);
+      inFlightLoad.set(null);
+      load.completeExceptionally(e);
+    }
+    return load;
+  }
+
+  /*
+   * The load is no longer in flight by the time it completes, so callers woken by it start a new
+   * load on their next refresh rather than joining the finished one
+   */
+  private void load(final CompletableFuture<ProjectSearchIndex> load) {
+    try {
+      var generation = loadGeneration();
+      currentGeneration.set(generation);
+      inFlightLoad.compareAndSet(load, null);
+      load.complete(generation);
+    } catch (RuntimeException e) {
+      log.error("Failed to load the project search cache, keeping the previous generation", e);
+      inFlightLoad.compareAndSet(load, null);
+      load.completeExceptionally(e);
+    }
+  }
+
+  private ProjectSearchIndex loadGeneration() {
+    var start = System.nanoTime();
+    var outcome = "failure";
+    try {
+      var documents = loadAllDocuments();
+      var generation = ProjectSearchIndex.build(documents);
+      outcome = "success";
+      log.info("Loaded {} ProcurementEventSearch records into the search cache in {} ms",
+          documents.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+      return generation;
+    } finally {
+      Timer.builder(METRIC_LOAD).description("Time taken to load the public project search cache")
+          .tag("outcome", outcome).register(meterRegistry)
+          .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private List<ProcurementEventSearch> loadAllDocuments() {
+    var pointInTimeId = openPointInTime();
+    try {
+      var documents = new ArrayList<ProcurementEventSearch>();
+      List<Object> searchAfter = null;
+      while (true) {
+        var queryBuilder = new NativeSearchQueryBuilder().withQuery(matchAllQuery())
+            .withSorts(SortBuilders.fieldSort(PROJECT_ID).order(SortOrder.ASC),
+                ShardDocSortBuilder.shardDocSort().order(SortOrder.ASC))
+            .withPageable(PageRequest.of(0, pageSize)).withTrackTotalHits(false)
+            .withPointInTime(new Query.PointInTime(pointInTimeId,
+                Duration.ofSeconds(pointInTimeKeepAliveSeconds)));
+        if (searchAfter != null) {
+          queryBuilder.withSearchAfter(searchAfter);
+        }
+
+        var hits = elasticsearchOperations.search(queryBuilder.build(),
+            ProcurementEventSearch.class);
+        if (hits.getPointInTimeId() != null) {
+          pointInTimeId = hits.getPointInTimeId();
+        }
+
+        var page = hits.getSearchHits();
+        page.stream().map(SearchHit::getContent).forEach(documents::add);
+        if (page.size() < pageSize) {
+          return documents;
+        }
+        searchAfter = page.get(page.size() - 1).getSortValues();
+      }
+    } finally {
+      closePointInTime(pointInTimeId);
+    }
+  }
+
+  /*
+   * _shard_doc is only available against a point in time, so the load fails without one and the
+   * previous generation is kept
+   */
+  private String openPointInTime() {
+    return elasticsearchOperations.openPointInTime(
+        elasticsearchOperations.getIndexCoordinatesFor(ProcurementEventSearch.class),
+        Duration.ofSeconds(pointInTimeKeepAliveSeconds));
+  }
+
+  private void closePointInTime(final String pointInTimeId) {
+    try {
+      elasticsearchOperations.closePointInTime(pointInTimeId);
+    } catch (Exception e) {
+      log.warn("Unable to close point in time for the search cache load: {}", e.getMessage());
+    }
+  }
+
+  private static ThreadPoolTaskExecutor loadExecutor() {
+    var executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(1);
+    executor.setMaxPoolSize(1);
+    executor.setThreadNamePrefix("search-cache-load-");
+    executor.initialize();
+    return executor;
+  }
+
+  private static ProjectSearchIndex awaitLoad(final CompletableFuture<ProjectSearchIndex> load) {
+    try {
+      return load.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+}
@@ -0,0 +1,60 @@
+package uk.gov.crowncommercial.dts.scale.cat.utils;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import org.springframework.web.multipart.MultipartFile;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Simple implementation of a {@link MultipartFile} to wrap a stream of known length, so its contents
+ * can be sent on without being held in memory. The stream can only be read once.
+ */
+@RequiredArgsConstructor
+public class InputStreamMultipartFile implements MultipartFile {
+
+  private final InputStream inputStream;
+  private final long size;
+  private final String name;
+  private final String contentType;
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public String getOriginalFilename() {
+    return getName();
+  }
+
+  @Override
+  public String getContentType() {
+    return contentType;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public long getSize() {
+    return size;
+  }
+
+  @Override
+  public byte[] getBytes() throws IOException {
+    return inputStream.readAllBytes();
+  }
+
+  @Override
+  public InputStream getInputStream() throws IOException {
+    return inputStream;
+  }
+
+  @Override
+  public void transferTo(final File dest) throws IOException, IllegalStateException {
+    Files.copy(inputStream, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+  }
+}
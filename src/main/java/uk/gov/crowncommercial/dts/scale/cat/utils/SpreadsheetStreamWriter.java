@@ -0,0 +1,248 @@
+package uk.gov.crowncommercial.dts.scale.cat.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.apache.commons.csv.QuoteMode;
+import org.apache.commons.io.input.BOMInputStream;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+/**
+ * Converts CSV content to XLSX / ODS spreadsheets, writing straight to the supplied output stream.
+ * Only a small window of rows is ever held in memory, regardless of the size of the CSV, so large
+ * opportunity extracts can be served or pre-rendered without building the whole workbook on the
+ * heap.
+ */
+public final class SpreadsheetStreamWriter {
+
+  public static final String SHEET_NAME = "CSV Data";
+
+  private static final int XLSX_ROW_WINDOW = 100;
+  private static final String ODS_MIME_TYPE = "application/vnd.oasis.opendocument.spreadsheet";
+
+  private static final String NS_OFFICE = "urn:oasis:names:tc:opendocument:xmlns:office:1.0";
+  private static final String NS_TABLE = "urn:oasis:names:tc:opendocument:xmlns:table:1.0";
+  private static final String NS_TEXT = "urn:oasis:names:tc:opendocument:xmlns:text:1.0";
+  private static final String NS_MANIFEST = "urn:oasis:names:tc:opendocument:xmlns:manifest:1.0";
+
+  private SpreadsheetStreamWriter() {}
+
+  /**
+   * Writes the CSV as a single sheet XLSX workbook, keeping at most {@value #XLSX_ROW_WINDOW} rows
+   * in memory (the rest are flushed to a temp file by POI until the workbook is written).
+   */
+  public static void writeXlsx(final InputStream csvInputStream, final OutputStream outputStream)
+      throws IOException {
+    try (var reader = newReader(csvInputStream);
+        var csvParser =
+            CSVFormat.DEFAULT.withQuote('"').withIgnoreSurroundingSpaces().parse(reader);
+        var workbook = new SXSSFWorkbook(XLSX_ROW_WINDOW)) {
+
+      var sheet = workbook.createSheet(SHEET_NAME);
+      int rowIdx = 0;
+
+      for (CSVRecord record : csvParser) {
+        var row = sheet.createRow(rowIdx++);
+        for (int i = 0; i < record.size(); i++) {
+          row.createCell(i).setCellValue(record.get(i));
+        }
+      }
+
+      try {
+        workbook.write(outputStream);
+      } finally {
+        workbook.dispose();
+      }
+    }
+  }
+
+  /**
+   * Writes the CSV as a single sheet ODS document. The ODF package is assembled by hand rather than
+   * through the ODF toolkit (which builds the whole DOM in memory) so that each CSV record is
+   * streamed into <code>content.xml</code> as it is read.
+   */
+  public static void writeOds(final InputStream csvInputStream, final OutputStream outputStream)
+      throws IOException {
+    try (var reader = newReader(csvInputStream);
+        var csvParser = CSVFormat.DEFAULT.withQuote('"').withTrim().withIgnoreSurroundingSpaces()
+            .withQuoteMode(QuoteMode.MINIMAL).parse(reader);
+        var zip = new ZipOutputStream(CloseShieldOutputStream.wrap(outputStream))) {
+
+      // The mimetype entry must come first and be stored uncompressed
+      var mimeType = ODS_MIME_TYPE.getBytes(StandardCharsets.US_ASCII);
+      var crc = new CRC32();
+      crc.update(mimeType);
+      var mimeTypeEntry = new ZipEntry("mimetype");
+      mimeTypeEntry.setMethod(ZipEntry.STORED);
+      mimeTypeEntry.setSize(mimeType.length);
+      mimeTypeEntry.setCompressedSize(mimeType.length);
+      mimeTypeEntry.setCrc(crc.getValue());
+      zip.putNextEntry(mimeTypeEntry);
+      zip.write(mimeType);
+      zip.closeEntry();
+
+      zip.putNextEntry(new ZipEntry("META-INF/manifest.xml"));
+      writeManifest(zip);
+      zip.closeEntry();
+
+      zip.putNextEntry(new ZipEntry("styles.xml"));
+      writeEmptyOfficeDocument(zip, "document-styles");
+      zip.closeEntry();
+
+      zip.putNextEntry(new ZipEntry("meta.xml"));
+      writeEmptyOfficeDocument(zip, "document-meta");
+      zip.closeEntry();
+
+      zip.putNextEntry(new ZipEntry("content.xml"));
+      writeContent(zip, csvParser);
+      zip.closeEntry();
+
+      zip.finish();
+    } catch (XMLStreamException e) {
+      throw new IOException("Failed to write ODS content", e);
+    }
+  }
+
+  /*
+   * The generated opportunities CSV starts with a BOM for Excel's benefit, which must not end up in
+   * the first cell
+   */
+  private static BufferedReader newReader(final InputStream csvInputStream) throws IOException {
+    Objects.requireNonNull(csvInputStream, "csvInputStream");
+    var bomless = BOMInputStream.builder().setInputStream(csvInputStream).get();
+    return new BufferedReader(new InputStreamReader(bomless, StandardCharsets.UTF_8));
+  }
+
+  private static XMLStreamWriter newXmlWriter(final OutputStream outputStream)
+      throws XMLStreamException {
+    var xml = XMLOutputFactory.newFactory()
+        .createXMLStreamWriter(CloseShieldOutputStream.wrap(outputStream), "UTF-8");
+    xml.writeStartDocument("UTF-8", "1.0");
+    return xml;
+  }
+
+  private static void writeManifest(final OutputStream outputStream) throws XMLStreamException {
+    var xml = newXmlWriter(outputStream);
+    xml.setPrefix("manifest", NS_MANIFEST);
+    xml.writeStartElement(NS_MANIFEST, "manifest");
+    xml.writeNamespace("manifest", NS_MANIFEST);
+    xml.writeAttribute(NS_MANIFEST, "version", "1.2");
+    writeManifestEntry(xml, "/", ODS_MIME_TYPE);
+    writeManifestEntry(xml, "content.xml", "text/xml");
+    writeManifestEntry(xml, "styles.xml", "text/xml");
+    writeManifestEntry(xml, "meta.xml", "text/xml");
+    xml.writeEndElement();
+    xml.writeEndDocument();
+    xml.close();
+  }
+
+  private static void writeManifestEntry(final XMLStreamWriter xml, final String path,
+      final String mediaType) throws XMLStreamException {
+    xml.writeEmptyElement(NS_MANIFEST, "file-entry");
+    xml.writeAttribute(NS_MANIFEST, "full-path", path);
+    xml.writeAttribute(NS_MANIFEST, "media-type", mediaType);
+  }
+
+  private static void writeEmptyOfficeDocument(final OutputStream outputStream,
+      final String rootElement) throws XMLStreamException {
+    var xml = newXmlWriter(outputStream);
+    xml.setPrefix("office", NS_OFFICE);
+    xml.writeStartElement(NS_OFFICE, rootElement);
+    xml.writeNamespace("office", NS_OFFICE);
+    xml.writeAttribute(NS_OFFICE, "version", "1.2");
+    xml.writeEndElement();
+    xml.writeEndDocument();
+    xml.close();
+  }
+
+  private static void writeContent(final OutputStream outputStream, final CSVParser csvParser)
+      throws XMLStreamException {
+    var xml = newXmlWriter(outputStream);
+    xml.setPrefix("office", NS_OFFICE);
+    xml.setPrefix("table", NS_TABLE);
+    xml.setPrefix("text", NS_TEXT);
+    xml.writeStartElement(NS_OFFICE, "document-content");
+    xml.writeNamespace("office", NS_OFFICE);
+    xml.writeNamespace("table", NS_TABLE);
+    xml.writeNamespace("text", NS_TEXT);
+    xml.writeAttribute(NS_OFFICE, "version", "1.2");
+    xml.writeStartElement(NS_OFFICE, "body");
+    xml.writeStartElement(NS_OFFICE, "spreadsheet");
+    xml.writeStartElement(NS_TABLE, "table");
+    xml.writeAttribute(NS_TABLE, "name", SHEET_NAME);
+
+    // Column definitions must precede the rows, so size them from the header record
+    var records = csvParser.iterator();
+    var header = records.hasNext() ? records.next() : null;
+    xml.writeEmptyElement(NS_TABLE, "table-column");
+    xml.writeAttribute(NS_TABLE, "number-columns-repeated",
+        String.valueOf(header != null ? Math.max(1, header.size()) : 1));
+
+    if (header != null) {
+      writeRow(xml, header);
+    }
+    while (records.hasNext()) {
+      writeRow(xml, records.next());
+    }
+
+    xml.writeEndElement(); // table
+    xml.writeEndElement(); // spreadsheet
+    xml.writeEndElement(); // body
+    xml.writeEndElement(); // document-content
+    xml.writeEndDocument();
+    xml.close();
+  }
+
+  private static void writeRow(final XMLStreamWriter xml, final CSVRecord record)
+      throws XMLStreamException {
+    xml.writeStartElement(NS_TABLE, "table-row");
+    for (int i = 0; i < record.size(); i++) {
+      writeStringCell(xml, record.get(i));
+    }
+    xml.writeEndElement();
+  }
+
+  /*
+   * Multi-line values are written as one paragraph per line, as ODF has no line break character
+   */
+  private static void writeStringCell(final XMLStreamWriter xml, final String value)
+      throws XMLStreamException {
+    if (value == null || value.isEmpty()) {
+      xml.writeEmptyElement(NS_TABLE, "table-cell");
+      return;
+    }
+    xml.writeStartElement(NS_TABLE, "table-cell");
+    xml.writeAttribute(NS_OFFICE, "value-type", "string");
+    for (String line : stripInvalidXmlChars(value).split("\r\n|\r|\n", -1)) {
+      xml.writeStartElement(NS_TEXT, "p");
+      xml.writeCharacters(line);
+      xml.writeEndElement();
+    }
+    xml.writeEndElement();
+  }
+
+  private static String stripInvalidXmlChars(final String value) {
+    var sb = new StringBuilder(value.length());
+    for (int i = 0; i < value.length(); i++) {
+      var c = value.charAt(i);
+      if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') {
+        sb.append(c);
+      }
+    }
+    return sb.toString();
+  }
+}
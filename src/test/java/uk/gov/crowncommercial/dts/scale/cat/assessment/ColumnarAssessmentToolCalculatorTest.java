@@ -0,0 +1,280 @@
+package uk.gov.crowncommercial.dts.scale.cat.assessment;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.crowncommercial.dts.scale.cat.assessment.impl.*;
+import uk.gov.crowncommercial.dts.scale.cat.model.assessment.ValueCount;
+import uk.gov.crowncommercial.dts.scale.cat.model.capability.generated.CriterionDefinition;
+import uk.gov.crowncommercial.dts.scale.cat.model.capability.generated.DimensionRequirement;
+import uk.gov.crowncommercial.dts.scale.cat.model.capability.generated.DimensionScores;
+import uk.gov.crowncommercial.dts.scale.cat.model.capability.generated.RequirementScore;
+import uk.gov.crowncommercial.dts.scale.cat.model.capability.generated.SupplierScores;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.*;
+import uk.gov.crowncommercial.dts.scale.cat.repo.RetryableTendersDBDelegate;
+import uk.gov.crowncommercial.dts.scale.cat.repo.readonly.SupplierSubmissionDataRepo;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static uk.gov.crowncommercial.dts.scale.cat.model.entity.Timestamps.createTimestamps;
+
+@ExtendWith(MockitoExtension.class)
+class ColumnarAssessmentToolCalculatorTest {
+
+    private static final String CAPABILITY = "Capability";
+    private static final String SECURITY = "Security Clearance";
+    private static final String PRICING = "Pricing";
+    private static final String LOCATION = "Location";
+
+    @Mock
+    private SupplierSubmissionDataRepo supplierSubmissionDataRepo;
+
+    @Mock
+    private RetryableTendersDBDelegate retryableTendersDBDelegate;
+
+    @Captor
+    private ArgumentCaptor<Collection<AssessmentResult>> savedResults;
+
+    private AssessmentEntity assessment;
+    private List<DimensionRequirement> dimensionRequirements;
+    private Set<CalculationBase> calculationBase;
+    private int rowId;
+
+    @BeforeEach
+    void setup() {
+        assessment = AssessmentEntity.builder().id(1).tool(AssessmentTool.builder().id(2)
+                .dimensionMapping(List.of(toolDimension(1, CAPABILITY), toolDimension(2, SECURITY),
+                        toolDimension(3, PRICING), toolDimension(4, LOCATION))).build()).build();
+
+        dimensionRequirements = List.of(dimensionRequirement(1, CAPABILITY),
+                dimensionRequirement(2, SECURITY, "0", "1"), dimensionRequirement(3, PRICING),
+                dimensionRequirement(4, LOCATION));
+
+        calculationBase = new HashSet<>();
+        for (String supplierId : List.of("S1", "S2", "S3", "S4")) {
+            var offset = Integer.parseInt(supplierId.substring(1));
+            // S3 has no capability, so is eliminated
+            row(supplierId, 1, CAPABILITY, "Java", "Supplier", supplierId.equals("S3") ? "0" : String.valueOf(offset), 50, 40, 2);
+            row(supplierId, 1, CAPABILITY, "Kotlin", "Supplier", null, 50, 40, 2);
+            row(supplierId, 2, SECURITY, "SC", "Supplier", "4", 50, 20, 4);
+            row(supplierId, 2, SECURITY, "SC", "Sub Contractor", "2", 50, 20, 4);
+            row(supplierId, 3, PRICING, "Developer", "National Max Day Rate", String.valueOf(400 + offset * 100), 100, 30, 1);
+            row(supplierId, 4, LOCATION, "London", "Supplier", "1", 100, 10, 1);
+        }
+
+        // Only S1 and S4 have sub contractors
+        when(supplierSubmissionDataRepo.getSubContractorSubmissionCount(2))
+                .thenReturn(List.of(valueCount("S1"), valueCount("S4")));
+    }
+
+    @Test
+    void testScoresMatchBasicCalculator() {
+        var expected = bySupplier(basicCalculator(standardCalculators()).calculateSupplierScores(assessment,
+                "user", dimensionRequirements, calculationBase));
+        var actual = bySupplier(columnarCalculator(standardCalculators()).calculateSupplierScores(assessment,
+                "user", dimensionRequirements, calculationBase));
+
+        assertEquals(Set.of("S1", "S2", "S4"), actual.keySet());
+        assertEquals(expected.keySet(), actual.keySet());
+        expected.forEach((supplierId, supplierScores) -> {
+            var actualScores = actual.get(supplierId);
+            assertEquals(supplierScores.getTotal(), actualScores.getTotal(), supplierId);
+            assertEquals(describe(supplierScores), describe(actualScores), supplierId);
+        });
+
+        // Sub contractors are averaged in for S1 and S4, whatever order the suppliers are scored in
+        assertEquals(7.5, dimensionScore(actual.get("S1"), 2));
+        assertEquals(10.0, dimensionScore(actual.get("S2"), 2));
+        assertEquals(7.5, dimensionScore(actual.get("S4"), 2));
+    }
+
+    @Test
+    void testParallelScoresMatchSequential() {
+        // Enough suppliers to be split across several fork/join tasks
+        for (int i = 5; i < 1000; i++) {
+            var supplierId = "S" + i;
+            row(supplierId, 1, CAPABILITY, "Java", "Supplier", String.valueOf(1 + i % 7), 50, 40, 2);
+            row(supplierId, 2, SECURITY, "SC", "Supplier", String.valueOf(i % 5), 50, 20, 4);
+            row(supplierId, 2, SECURITY, "SC", "Sub Contractor", String.valueOf(i % 3), 50, 20, 4);
+            row(supplierId, 3, PRICING, "Developer", "National Max Day Rate", String.valueOf(300 + i % 400), 100, 30, 1);
+            row(supplierId, 4, LOCATION, "London", "Supplier", "1", 100, 10, 1);
+        }
+
+        var expected = columnarCalculator(standardCalculators()).calculateSupplierScores(assessment,
+                "user", dimensionRequirements, calculationBase);
+        var pool = new ForkJoinPool(4);
+        try {
+            var actual = new ColumnarAssessmentToolCalculator(new StandardWeightedAssessmentCalculator(),
+                    supplierSubmissionDataRepo, standardCalculators(), exclusionPolicies(),
+                    retryableTendersDBDelegate, pool, 1).calculateSupplierScores(assessment, "user",
+                    dimensionRequirements, calculationBase);
+
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).getSupplier().getId(), actual.get(i).getSupplier().getId());
+                assertEquals(expected.get(i).getTotal(), actual.get(i).getTotal());
+                assertEquals(describe(expected.get(i)), describe(actual.get(i)));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testUnsupportedCalculatorFallsBackToBasic() {
+        var requirementsScored = new AtomicInteger();
+        var calculators = standardCalculators();
+        calculators.put(LOCATION, new StandardDimensionCalculator() {
+            @Override
+            public double calculateRequirementScore(final CalculationBase calcBase,
+                                                    final Set<CalculationBase> assessmentCalculationBase) {
+                requirementsScored.incrementAndGet();
+                return super.calculateRequirementScore(calcBase, assessmentCalculationBase);
+            }
+        });
+
+        columnarCalculator(calculators).calculateSupplierScores(assessment, "user", dimensionRequirements,
+                calculationBase);
+
+        assertEquals(3, requirementsScored.get());
+    }
+
+    @Test
+    void testResultsUpsertedInOneBatch() {
+        var totals = bySupplier(basicCalculator(standardCalculators()).calculateSupplierScores(assessment,
+                "user", dimensionRequirements, calculationBase));
+        // S1 unchanged, S2 stale and S4 not yet saved
+        var unchanged = assessmentResult("S1", BigDecimal.valueOf(totals.get("S1").getTotal()));
+        var stale = assessmentResult("S2", BigDecimal.ONE);
+        when(retryableTendersDBDelegate.findAssessmentResultsByAssessmentId(1))
+                .thenReturn(List.of(unchanged, stale));
+
+        basicCalculator(standardCalculators()).calculateAndPersistSupplierScores(assessment, "user",
+                dimensionRequirements, calculationBase);
+
+        verify(retryableTendersDBDelegate).saveAssessmentResults(savedResults.capture());
+        verify(retryableTendersDBDelegate, never()).save(any(AssessmentResult.class));
+        var savedBySupplier = savedResults.getValue().stream()
+                .collect(Collectors.toMap(AssessmentResult::getSupplierOrganisationId, ar -> ar));
+        assertEquals(Set.of("S2", "S4"), savedBySupplier.keySet());
+        assertSame(stale, savedBySupplier.get("S2"));
+        assertEquals(0, BigDecimal.valueOf(totals.get("S2").getTotal())
+                .compareTo(stale.getAssessmentResultValue()));
+        assertEquals("user", stale.getTimestamps().getUpdatedBy());
+        assertEquals(0, BigDecimal.valueOf(totals.get("S4").getTotal())
+                .compareTo(savedBySupplier.get("S4").getAssessmentResultValue()));
+        assertSame(assessment, savedBySupplier.get("S4").getAssessment());
+    }
+
+    private BasicAssessmentToolCalculator basicCalculator(final Map<String, DimensionScoreCalculator> calculators) {
+        return new BasicAssessmentToolCalculator(new StandardWeightedAssessmentCalculator(),
+                supplierSubmissionDataRepo, calculators, exclusionPolicies(), retryableTendersDBDelegate);
+    }
+
+    private ColumnarAssessmentToolCalculator columnarCalculator(final Map<String, DimensionScoreCalculator> calculators) {
+        return new ColumnarAssessmentToolCalculator(new StandardWeightedAssessmentCalculator(),
+                supplierSubmissionDataRepo, calculators, exclusionPolicies(), retryableTendersDBDelegate);
+    }
+
+    private static Map<String, DimensionScoreCalculator> standardCalculators() {
+        var calculators = new HashMap<String, DimensionScoreCalculator>();
+        calculators.put(CAPABILITY, new StandardDimensionCalculator());
+        calculators.put(SECURITY, new StandardSupplierSubContractorDimensionCalculator());
+        // Stateful, so one each
+        calculators.put(PRICING, new PricingDimensionCalculator());
+        calculators.put(LOCATION, new StandardDimensionCalculator());
+        return calculators;
+    }
+
+    private static Map<String, ExclusionPolicy> exclusionPolicies() {
+        return Map.of(CAPABILITY, new AtleastOneExclusionPolicy());
+    }
+
+    private void row(final String supplierId, final Integer dimensionId, final String dimensionName,
+                     final String requirementName, final String submissionType, final String value,
+                     final int selectionWeight, final int dimensionWeight, final int divisor) {
+        calculationBase.add(CalculationBase.builder().id(String.valueOf(rowId++)).assessmentId(1)
+                .supplierId(supplierId).dimensionId(dimensionId).dimensionName(dimensionName)
+                .requirementName(requirementName).submissionTypeName(submissionType).submissionValue(value)
+                .assessmentSelectionWeightPercentage(BigDecimal.valueOf(selectionWeight))
+                .assessmentDimensionWeightPercentage(BigDecimal.valueOf(dimensionWeight))
+                .dimensionDivisor(divisor).build());
+    }
+
+    private AssessmentResult assessmentResult(final String supplierId, final BigDecimal value) {
+        return AssessmentResult.builder().assessment(assessment).supplierOrganisationId(supplierId)
+                .assessmentResultValue(value).timestamps(createTimestamps("creator")).build();
+    }
+
+    private static AssessmentToolDimension toolDimension(final Integer id, final String name) {
+        return AssessmentToolDimension.builder().dimension(DimensionEntity.builder().id(id).name(name).build())
+                .build();
+    }
+
+    private static DimensionRequirement dimensionRequirement(final Integer id, final String name,
+                                                             final String... criterionIds) {
+        var dimensionRequirement = new DimensionRequirement();
+        dimensionRequirement.setDimensionId(id);
+        dimensionRequirement.setName(name);
+        dimensionRequirement.setIncludedCriteria(Arrays.stream(criterionIds).map(criterionId -> {
+            var criterion = new CriterionDefinition();
+            criterion.setCriterionId(criterionId);
+            return criterion;
+        }).toList());
+        return dimensionRequirement;
+    }
+
+    private static ValueCount valueCount(final String supplierId) {
+        return new ValueCount() {
+            @Override
+            public Integer getDataCount() {
+                return 1;
+            }
+
+            @Override
+            public String getDataValue() {
+                return supplierId;
+            }
+        };
+    }
+
+    private static Map<String, SupplierScores> bySupplier(final List<SupplierScores> suppliersScores) {
+        return suppliersScores.stream().collect(Collectors.toMap(ss -> ss.getSupplier().getId(), ss -> ss));
+    }
+
+    private static Double dimensionScore(final SupplierScores supplierScores, final Integer dimensionId) {
+        return supplierScores.getDimensionScores().stream()
+                .filter(ds -> dimensionId.equals(ds.getDimensionId())).findFirst().orElseThrow().getScore();
+    }
+
+    /*
+     * Dimension and requirement scores, independent of the order they were calculated in
+     */
+    private static Set<String> describe(final SupplierScores supplierScores) {
+        var description = new HashSet<String>();
+        for (DimensionScores dimensionScores : supplierScores.getDimensionScores()) {
+            description.add(dimensionScores.getDimensionId() + ":" + dimensionScores.getName() + "="
+                    + dimensionScores.getScore());
+            for (RequirementScore requirementScore : dimensionScores.getRequirementScores()) {
+                description.add(dimensionScores.getDimensionId() + "/" + requirementScore.getName() + "/"
+                        + requirementScore.getCriterion() + "=" + requirementScore.getValue() + ","
+                        + requirementScore.getScore());
+            }
+        }
+        return description;
+    }
+}
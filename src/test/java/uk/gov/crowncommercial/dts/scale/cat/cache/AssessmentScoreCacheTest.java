@@ -0,0 +1,176 @@
+package uk.gov.crowncommercial.dts.scale.cat.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+import java.util.ArrayList;
+import java.util.List;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.configuration.MutableConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import uk.gov.crowncommercial.dts.scale.cat.model.capability.generated.Criterion;
+import uk.gov.crowncommercial.dts.scale.cat.model.capability.generated.CriterionDefinition;
+import uk.gov.crowncommercial.dts.scale.cat.model.capability.generated.DimensionRequirement;
+import uk.gov.crowncommercial.dts.scale.cat.model.capability.generated.Requirement;
+import uk.gov.crowncommercial.dts.scale.cat.model.capability.generated.Supplier;
+import uk.gov.crowncommercial.dts.scale.cat.model.capability.generated.SupplierScores;
+import uk.gov.crowncommercial.dts.scale.cat.repo.RetryableTendersDBDelegate;
+
+@ExtendWith(MockitoExtension.class)
+class AssessmentScoreCacheTest {
+
+  private static final Integer ASSESSMENT_ID = 1;
+  private static final Integer TOOL_ID = 2;
+  private static final String SUBMISSIONS_VERSION = "1200:2024-05-01 10:00:00";
+
+  @Mock
+  private RetryableTendersDBDelegate retryableTendersDBDelegate;
+
+  private CacheManager cacheManager;
+  private AssessmentScoreCache assessmentScoreCache;
+
+  @BeforeEach
+  void setup() {
+    cacheManager = Caching.getCachingProvider().getCacheManager();
+    cacheManager.createCache(AssessmentScoreCache.CACHE_NAME,
+        new MutableConfiguration<>().setStoreByValue(false));
+    assessmentScoreCache =
+        new AssessmentScoreCache(cacheManager, retryableTendersDBDelegate, new ObjectMapper());
+  }
+
+  @AfterEach
+  void tearDown() {
+    cacheManager.close();
+  }
+
+  @Test
+  void testScoresServedWhileInputsHashTheSame() {
+    var inputsHash = AssessmentScoreCache.inputsHash(SUBMISSIONS_VERSION, TOOL_ID,
+        List.of(dimensionRequirement(1, 40, requirement(10, 50, "Java")),
+            dimensionRequirement(2, 60, requirement(20, 100, "SC"))));
+    assessmentScoreCache.put(ASSESSMENT_ID, inputsHash, List.of(scores("S1", 7.5)));
+
+    // Loaded in a different order, but the same inputs
+    var reloadedHash = AssessmentScoreCache.inputsHash(SUBMISSIONS_VERSION, TOOL_ID,
+        List.of(dimensionRequirement(2, 60, requirement(20, 100, "SC")),
+            dimensionRequirement(1, 40, requirement(10, 50, "Java"))));
+
+    var cached = assessmentScoreCache.get(ASSESSMENT_ID, reloadedHash);
+    assertTrue(cached.isPresent());
+    assertEquals("S1", cached.get().get(0).getSupplier().getId());
+    assertEquals(7.5, cached.get().get(0).getTotal());
+  }
+
+  @Test
+  void testScoresMissedOnceDimensionWeightingChanges() {
+    var inputsHash = AssessmentScoreCache.inputsHash(SUBMISSIONS_VERSION, TOOL_ID,
+        List.of(dimensionRequirement(1, 40, requirement(10, 50, "Java"))));
+    assessmentScoreCache.put(ASSESSMENT_ID, inputsHash, List.of(scores("S1", 7.5)));
+
+    var changedHash = AssessmentScoreCache.inputsHash(SUBMISSIONS_VERSION, TOOL_ID,
+        List.of(dimensionRequirement(1, 30, requirement(10, 50, "Java"))));
+
+    assertNotEquals(inputsHash, changedHash);
+    assertTrue(assessmentScoreCache.get(ASSESSMENT_ID, changedHash).isEmpty());
+  }
+
+  @Test
+  void testScoresMissedOnceRequirementChanges() {
+    var inputsHash = AssessmentScoreCache.inputsHash(SUBMISSIONS_VERSION, TOOL_ID,
+        List.of(dimensionRequirement(1, 40, requirement(10, 50, "Java"))));
+    assessmentScoreCache.put(ASSESSMENT_ID, inputsHash, List.of(scores("S1", 7.5)));
+
+    var reweightedHash = AssessmentScoreCache.inputsHash(SUBMISSIONS_VERSION, TOOL_ID,
+        List.of(dimensionRequirement(1, 40, requirement(10, 25, "Java"))));
+    var revaluedHash = AssessmentScoreCache.inputsHash(SUBMISSIONS_VERSION, TOOL_ID,
+        List.of(dimensionRequirement(1, 40, requirement(10, 50, "Kotlin"))));
+    var addedHash = AssessmentScoreCache.inputsHash(SUBMISSIONS_VERSION, TOOL_ID, List.of(dimensionRequirement(1, 40,
+        requirement(10, 50, "Java"), requirement(11, 50, "Kotlin"))));
+
+    assertTrue(assessmentScoreCache.get(ASSESSMENT_ID, reweightedHash).isEmpty());
+    assertTrue(assessmentScoreCache.get(ASSESSMENT_ID, revaluedHash).isEmpty());
+    assertTrue(assessmentScoreCache.get(ASSESSMENT_ID, addedHash).isEmpty());
+  }
+
+  @Test
+  void testInvalidateDropsScores() {
+    var inputsHash = AssessmentScoreCache.inputsHash(SUBMISSIONS_VERSION, TOOL_ID,
+        List.of(dimensionRequirement(1, 40, requirement(10, 50, "Java"))));
+    assessmentScoreCache.put(ASSESSMENT_ID, inputsHash, List.of(scores("S1", 7.5)));
+    assessmentScoreCache.put(3, inputsHash, List.of(scores("S1", 5.0)));
+
+    assessmentScoreCache.invalidate(ASSESSMENT_ID);
+
+    assertTrue(assessmentScoreCache.get(ASSESSMENT_ID, inputsHash).isEmpty());
+    assertTrue(assessmentScoreCache.get(3, inputsHash).isPresent());
+  }
+
+  @Test
+  void testScoresReturnedAsCopies() {
+    var inputsHash = AssessmentScoreCache.inputsHash(SUBMISSIONS_VERSION, TOOL_ID,
+        List.of(dimensionRequirement(1, 40, requirement(10, 50, "Java"))));
+    var scores = new ArrayList<>(List.of(scores("S1", 7.5)));
+    assessmentScoreCache.put(ASSESSMENT_ID, inputsHash, scores);
+    scores.get(0).setTotal(1.0);
+
+    var cached = assessmentScoreCache.get(ASSESSMENT_ID, inputsHash).orElseThrow();
+    cached.get(0).setTotal(2.0);
+    cached.add(scores("S2", 3.0));
+
+    var reread = assessmentScoreCache.get(ASSESSMENT_ID, inputsHash).orElseThrow();
+    assertEquals(1, reread.size());
+    assertEquals(7.5, reread.get(0).getTotal());
+  }
+
+  @Test
+  void testScoresMissedOnceSubmissionsReloaded() {
+    when(retryableTendersDBDelegate.getSupplierSubmissionDataVersion())
+        .thenReturn(SUBMISSIONS_VERSION, "1250:2024-06-01 09:00:00");
+    var dimensionRequirements = List.of(dimensionRequirement(1, 40, requirement(10, 50, "Java")));
+    assessmentScoreCache.checkSubmissionDataVersion();
+    var inputsHash = assessmentScoreCache.inputsHash(TOOL_ID, dimensionRequirements);
+    assessmentScoreCache.put(ASSESSMENT_ID, inputsHash, List.of(scores("S1", 7.5)));
+
+    assessmentScoreCache.checkSubmissionDataVersion();
+
+    assertTrue(assessmentScoreCache.get(ASSESSMENT_ID, inputsHash).isEmpty());
+    assertNotEquals(inputsHash, assessmentScoreCache.inputsHash(TOOL_ID, dimensionRequirements));
+  }
+
+  private static DimensionRequirement dimensionRequirement(final Integer dimensionId,
+      final Integer weighting, final Requirement... requirements) {
+    var criterion = new CriterionDefinition();
+    criterion.setCriterionId("0");
+    var dimensionRequirement = new DimensionRequirement();
+    dimensionRequirement.setDimensionId(dimensionId);
+    dimensionRequirement.setName("Dimension " + dimensionId);
+    dimensionRequirement.setWeighting(weighting);
+    dimensionRequirement.setIncludedCriteria(List.of(criterion));
+    dimensionRequirement.setRequirements(List.of(requirements));
+    return dimensionRequirement;
+  }
+
+  private static Requirement requirement(final Integer requirementId, final Integer weighting,
+      final String value) {
+    var criterion = new Criterion();
+    criterion.setCriterionId("0");
+    criterion.setValue(value);
+    var requirement = new Requirement();
+    requirement.setRequirementId(requirementId);
+    requirement.setWeighting(weighting);
+    requirement.setValues(List.of(criterion));
+    return requirement;
+  }
+
+  private static SupplierScores scores(final String supplierId, final double total) {
+    return new SupplierScores().supplier(new Supplier().id(supplierId)).total(total);
+  }
+}
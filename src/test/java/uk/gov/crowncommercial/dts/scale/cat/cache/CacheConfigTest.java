@@ -0,0 +1,82 @@
+package uk.gov.crowncommercial.dts.scale.cat.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.List;
+import java.util.Map;
+import javax.cache.CacheManager;
+import org.ehcache.core.internal.statistics.DefaultStatisticsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CacheConfigTest {
+
+  private CacheManager cacheManager;
+  private DefaultStatisticsService statisticsService;
+  private SimpleMeterRegistry meterRegistry;
+
+  @BeforeEach
+  void setup() {
+    var cacheConfig = new CacheConfig();
+    cacheConfig.primaryCacheLength = "300";
+    cacheConfig.primaryCacheSize = "500";
+    cacheConfig.longCacheLength = "3600";
+    cacheConfig.longCacheSize = "500";
+    cacheConfig.rfxSummaryCacheLength = "30";
+    cacheConfig.rfxSummaryCacheSize = "5000";
+    cacheConfig.assessmentScoresCacheLength = "3600";
+    cacheConfig.assessmentScoresCacheSize = "100";
+    cacheConfig.dimensionDefinitionsCacheLength = "86400";
+    cacheConfig.dimensionDefinitionsCacheSize = "50";
+
+    var lotSuppliers = new CacheRegionsConfig.Region();
+    lotSuppliers.setHeapSize(2);
+    lotSuppliers.setOffHeapMb(1);
+    var stage = new CacheRegionsConfig.Region();
+    stage.setStatistics(false);
+    var cacheRegionsConfig = new CacheRegionsConfig();
+    cacheRegionsConfig.setRegions(Map.of(CacheConfig.LOT_SUPPLIERS_CACHE, lotSuppliers, "stageCache", stage));
+
+    statisticsService = cacheConfig.cacheStatisticsService();
+    cacheManager = cacheConfig.ehCacheManager(cacheRegionsConfig, statisticsService);
+    meterRegistry = new SimpleMeterRegistry();
+  }
+
+  @AfterEach
+  void tearDown() {
+    cacheManager.close();
+  }
+
+  @Test
+  void testRegionsSizedAndMeasured() {
+    var lotSuppliersCache = cacheManager.getCache(CacheConfig.LOT_SUPPLIERS_CACHE);
+    JCacheMetrics.monitor(meterRegistry, lotSuppliersCache);
+    new CacheTierMetrics(cacheManager, statisticsService).bindTo(meterRegistry);
+
+    // More entries than the heap holds, so the rest are kept off heap
+    for (int lot = 1; lot <= 5; lot++) {
+      lotSuppliersCache.put("getLotSuppliers-RM1043.8-" + lot, List.of("Supplier " + lot));
+    }
+    assertEquals(List.of("Supplier 1"), lotSuppliersCache.get("getLotSuppliers-RM1043.8-1"));
+    assertNull(lotSuppliersCache.get("getLotSuppliers-RM1043.8-6"));
+
+    assertEquals(1, meterRegistry.get("cache.gets").tag("cache", CacheConfig.LOT_SUPPLIERS_CACHE)
+        .tag("result", "hit").functionCounter().count());
+    assertEquals(1, meterRegistry.get("cache.gets").tag("cache", CacheConfig.LOT_SUPPLIERS_CACHE)
+        .tag("result", "miss").functionCounter().count());
+    assertEquals(5, meterRegistry.get("cache.tier.entries").tag("cache", CacheConfig.LOT_SUPPLIERS_CACHE)
+        .tag("tier", "OffHeap").gauge().value());
+    assertTrue(meterRegistry.get("cache.tier.occupied").tag("cache", CacheConfig.LOT_SUPPLIERS_CACHE)
+        .tag("tier", "OffHeap").gauge().value() > 0);
+
+    // Caches without their own region keep their profile's heap-only sizing
+    assertEquals(0, meterRegistry.get("cache.tier.entries").tag("cache", "tendersCache")
+        .tag("tier", "OnHeap").gauge().value());
+    assertNull(meterRegistry.find("cache.tier.entries").tag("cache", "tendersCache")
+        .tag("tier", "OffHeap").gauge());
+  }
+}
@@ -0,0 +1,123 @@
+package uk.gov.crowncommercial.dts.scale.cat.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import java.time.Duration;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.mock.env.MockEnvironment;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import uk.gov.crowncommercial.dts.scale.cat.config.EnvironmentConfig;
+import uk.gov.crowncommercial.dts.scale.cat.config.ExperimentalFlagsConfig;
+
+@ExtendWith(MockitoExtension.class)
+class CacheInvalidationBusTest {
+
+  private static final String CHANNEL = "cat_cache_invalidation";
+
+  @Mock
+  private DataSource dataSource;
+
+  @Mock
+  private JdbcTemplate jdbcTemplate;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private ExperimentalFlagsConfig experimentalFlags;
+  private ConcurrentMapCacheManager cacheManager;
+  private CacheInvalidationBus cacheInvalidationBus;
+
+  @BeforeEach
+  void setup() {
+    experimentalFlags = new ExperimentalFlagsConfig();
+    cacheManager = new ConcurrentMapCacheManager("getOrganisation", "tendersCache");
+    var cacheManagers = new StaticListableBeanFactory(Map.of("cacheManager", cacheManager))
+        .getBeanProvider(CacheManager.class);
+    cacheInvalidationBus = new CacheInvalidationBus(dataSource, jdbcTemplate, objectMapper,
+        cacheManagers, eventPublisher, experimentalFlags,
+        new EnvironmentConfig(new MockEnvironment()), CHANNEL, Duration.ofSeconds(10),
+        Duration.ofSeconds(30));
+  }
+
+  @Test
+  void testInvalidationsFromOtherInstancesApplied() throws Exception {
+    cacheManager.getCache("tendersCache").put("findOrganisationMappingByOrganisationId-GB-COH-1", "1");
+    cacheManager.getCache("tendersCache").put("findOrganisationMappingByOrganisationId-GB-COH-2", "2");
+    cacheManager.getCache("getOrganisation").put("GB-COH-1", "Org 1");
+
+    cacheInvalidationBus.handle(objectMapper.writeValueAsString(Map.of("sender", "instance-1",
+        "cache", "tendersCache", "key", "findOrganisationMappingByOrganisationId-GB-COH-1")));
+    assertNull(cacheManager.getCache("tendersCache").get("findOrganisationMappingByOrganisationId-GB-COH-1"));
+    assertNotNull(cacheManager.getCache("tendersCache").get("findOrganisationMappingByOrganisationId-GB-COH-2"));
+    verify(eventPublisher).publishEvent(
+        new CacheInvalidationEvent("tendersCache", "findOrganisationMappingByOrganisationId-GB-COH-1"));
+
+    // No key clears the cache
+    cacheInvalidationBus.handle(objectMapper.writeValueAsString(
+        Map.of("sender", "instance-1", "cache", "tendersCache")));
+    assertNull(cacheManager.getCache("tendersCache").get("findOrganisationMappingByOrganisationId-GB-COH-2"));
+    assertNotNull(cacheManager.getCache("getOrganisation").get("GB-COH-1"));
+
+    // Caches Spring doesn't manage are left to the event
+    cacheInvalidationBus.handle(objectMapper.writeValueAsString(
+        Map.of("sender", "instance-1", "cache", OrganisationMappingReplica.CACHE_NAME, "key", "GB-COH-1")));
+    verify(eventPublisher).publishEvent(
+        new CacheInvalidationEvent(OrganisationMappingReplica.CACHE_NAME, "GB-COH-1"));
+    assertTrue(new CacheInvalidationEvent(CacheInvalidationEvent.ALL, null)
+        .appliesTo(OrganisationMappingReplica.CACHE_NAME));
+  }
+
+  @Test
+  void testPublishIgnoredBySender() {
+    cacheInvalidationBus.publish("getOrganisation", "GB-COH-1");
+
+    var payload = ArgumentCaptor.forClass(Object.class);
+    verify(jdbcTemplate).query(eq("SELECT pg_notify(?, ?)"), any(ResultSetExtractor.class), eq(CHANNEL),
+        payload.capture());
+
+    cacheManager.getCache("getOrganisation").put("GB-COH-1", "Org 1");
+    cacheInvalidationBus.handle((String) payload.getValue());
+    assertNotNull(cacheManager.getCache("getOrganisation").get("GB-COH-1"));
+    verify(eventPublisher, never()).publishEvent(any(Object.class));
+  }
+
+  @Test
+  void testPublishDisabled() {
+    experimentalFlags.setCacheInvalidationBusEnabled(false);
+    cacheInvalidationBus.publish("getOrganisation", "GB-COH-1");
+    verifyNoInteractions(jdbcTemplate);
+  }
+
+  @Test
+  void testOversizedKeyClearsCache() throws Exception {
+    cacheInvalidationBus.publish("getOrganisation", "x".repeat(CacheInvalidationBus.MAX_PAYLOAD_BYTES));
+
+    var payload = ArgumentCaptor.forClass(Object.class);
+    verify(jdbcTemplate).query(anyString(), any(ResultSetExtractor.class), eq(CHANNEL), payload.capture());
+    var message = objectMapper.readValue((String) payload.getValue(), Map.class);
+    assertEquals("getOrganisation", message.get("cache"));
+    assertNull(message.get("key"));
+  }
+}
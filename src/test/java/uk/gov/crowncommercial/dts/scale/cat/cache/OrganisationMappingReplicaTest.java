@@ -0,0 +1,104 @@
+package uk.gov.crowncommercial.dts.scale.cat.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.crowncommercial.dts.scale.cat.config.ExperimentalFlagsConfig;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.OrganisationMapping;
+import uk.gov.crowncommercial.dts.scale.cat.repo.OrganisationMappingRepo;
+
+@ExtendWith(MockitoExtension.class)
+class OrganisationMappingReplicaTest {
+
+  private static final OrganisationMapping SUPPLIER_1 = mapping(1, "GB-COH-1", "US-DUNS-1", 101, true);
+  private static final OrganisationMapping SUPPLIER_2 = mapping(2, "GB-COH-2", "US-DUNS-2", 102, true);
+  private static final OrganisationMapping SUPPLIER_2_OLD = mapping(3, "GB-COH-2", "US-DUNS-2", 102, false);
+
+  @Mock
+  private OrganisationMappingRepo organisationMappingRepo;
+
+  private ExperimentalFlagsConfig experimentalFlags;
+  private OrganisationMappingReplica organisationMappingReplica;
+
+  @BeforeEach
+  void setup() {
+    experimentalFlags = new ExperimentalFlagsConfig();
+    organisationMappingReplica =
+        new OrganisationMappingReplica(organisationMappingRepo, experimentalFlags, Duration.ofHours(1));
+  }
+
+  @Test
+  void testLookupsServedFromReplica() {
+    // Not loaded yet, so the DB is used
+    assertEquals(Optional.empty(), organisationMappingReplica.findByCasOrganisationIdIn(Set.of("US-DUNS-1")));
+
+    when(organisationMappingRepo.findAll()).thenReturn(List.of(SUPPLIER_1, SUPPLIER_2, SUPPLIER_2_OLD));
+    organisationMappingReplica.load();
+
+    assertEquals(Set.of(SUPPLIER_1, SUPPLIER_2), organisationMappingReplica
+        .findByCasOrganisationIdIn(Set.of("US-DUNS-1", "US-DUNS-2", "US-DUNS-3")).orElseThrow());
+    assertEquals(Set.of(SUPPLIER_2),
+        organisationMappingReplica.findByOrganisationIdIn(Set.of("GB-COH-2")).orElseThrow());
+    assertEquals(Set.of(SUPPLIER_2, SUPPLIER_2_OLD),
+        organisationMappingReplica.findByExternalOrganisationIdIn(Set.of(102)).orElseThrow());
+    assertEquals(SUPPLIER_1, organisationMappingReplica.findByOrganisationId("GB-COH-1").orElseThrow());
+
+    // Single lookups leave misses and duplicates to the DB
+    assertEquals(Optional.empty(), organisationMappingReplica.findByCasOrganisationId("US-DUNS-3"));
+    assertEquals(Optional.empty(), organisationMappingReplica.findByExternalOrganisationId(102));
+
+    // Callers get their own copies
+    assertNotSame(SUPPLIER_1, organisationMappingReplica.findByOrganisationId("GB-COH-1").orElseThrow());
+
+    experimentalFlags.setOrgMappingReplicaEnabled(false);
+    assertEquals(Optional.empty(), organisationMappingReplica.findByOrganisationIdIn(Set.of("GB-COH-1")));
+  }
+
+  @Test
+  void testReplicaKeptUpToDate() {
+    when(organisationMappingRepo.findAll()).thenReturn(List.of(SUPPLIER_1, SUPPLIER_2));
+    organisationMappingReplica.load();
+
+    // Mappings added on other instances are polled for
+    var supplier4 = mapping(4, "GB-COH-4", "US-DUNS-4", 104, true);
+    when(organisationMappingRepo.findByIdGreaterThan(2)).thenReturn(List.of(supplier4));
+    organisationMappingReplica.refresh();
+    assertEquals(supplier4, organisationMappingReplica.findByOrganisationId("GB-COH-4").orElseThrow());
+
+    // Mappings saved here are applied straight away
+    var supplier5 = mapping(5, "GB-COH-5", "US-DUNS-5", 105, true);
+    organisationMappingReplica.put(supplier5);
+    assertEquals(supplier5, organisationMappingReplica.findByCasOrganisationId("US-DUNS-5").orElseThrow());
+
+    // Changed mappings are re-read, and are no longer found by their old IDs
+    var renumbered = mapping(2, "GB-COH-22", "US-DUNS-22", 122, true);
+    when(organisationMappingRepo.findAllById(Set.of(2))).thenReturn(List.of(renumbered));
+    organisationMappingReplica.refreshOrganisation("US-DUNS-2");
+    assertEquals(Set.of(), organisationMappingReplica.findByCasOrganisationIdIn(Set.of("US-DUNS-2")).orElseThrow());
+    assertEquals(Set.of(2), organisationMappingReplica.findByCasOrganisationIdIn(Set.of("US-DUNS-22"))
+        .orElseThrow().stream().map(OrganisationMapping::getId).collect(Collectors.toSet()));
+
+    // Deleted mappings are dropped
+    when(organisationMappingRepo.findAllById(Set.of(1))).thenReturn(List.of());
+    organisationMappingReplica.refreshOrganisation("GB-COH-1");
+    assertTrue(organisationMappingReplica.findByOrganisationIdIn(Set.of("GB-COH-1")).orElseThrow().isEmpty());
+  }
+
+  private static OrganisationMapping mapping(final Integer id, final String organisationId,
+      final String casOrganisationId, final Integer externalOrganisationId, final boolean primaryInd) {
+    return OrganisationMapping.builder().id(id).organisationId(organisationId)
+        .casOrganisationId(casOrganisationId).externalOrganisationId(externalOrganisationId)
+        .primaryInd(primaryInd).build();
+  }
+}
@@ -0,0 +1,91 @@
+package uk.gov.crowncommercial.dts.scale.cat.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import java.util.List;
+import java.util.Set;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.configuration.MutableConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uk.gov.crowncommercial.dts.scale.cat.model.jaggaer.ExportRfxResponse;
+import uk.gov.crowncommercial.dts.scale.cat.model.jaggaer.RfxSetting;
+
+class RfxSummaryCacheTest {
+
+  private static final Set<String> COUNTERS = Set.of("supplier_Response_Counters");
+
+  private CacheManager cacheManager;
+  private CacheInvalidationBus cacheInvalidationBus;
+  private RfxSummaryCache rfxSummaryCache;
+
+  @BeforeEach
+  void setup() {
+    cacheManager = Caching.getCachingProvider().getCacheManager();
+    cacheManager.createCache(RfxSummaryCache.CACHE_NAME,
+        new MutableConfiguration<>().setStoreByValue(false));
+    cacheInvalidationBus = mock(CacheInvalidationBus.class);
+    rfxSummaryCache = new RfxSummaryCache(cacheManager, cacheInvalidationBus);
+  }
+
+  @AfterEach
+  void tearDown() {
+    cacheManager.close();
+  }
+
+  @Test
+  void testHitsAndMissesByComponents() {
+    rfxSummaryCache.putAll(List.of(rfx("rfq_1", 300), rfx("rfq_2", 400)), Set.of());
+
+    var cached = rfxSummaryCache.getAll(List.of("rfq_1", "rfq_2", "rfq_3"), Set.of());
+    assertEquals(Set.of("rfq_1", "rfq_2"), cached.keySet());
+    assertEquals(400, cached.get("rfq_2").getRfxSetting().getStatusCode());
+
+    // Searched without the components, so not a hit for those asking for them
+    assertTrue(rfxSummaryCache.getAll(List.of("rfq_1"), COUNTERS).isEmpty());
+  }
+
+  @Test
+  void testInvalidateDropsEveryComponentSet() {
+    rfxSummaryCache.putAll(List.of(rfx("rfq_1", 300), rfx("rfq_2", 300)), Set.of());
+    rfxSummaryCache.putAll(List.of(rfx("rfq_1", 300)), COUNTERS);
+
+    rfxSummaryCache.invalidate("rfq_1");
+
+    assertEquals(Set.of("rfq_2"),
+        rfxSummaryCache.getAll(List.of("rfq_1", "rfq_2"), Set.of()).keySet());
+    assertTrue(rfxSummaryCache.getAll(List.of("rfq_1"), COUNTERS).isEmpty());
+    verify(cacheInvalidationBus).publish(RfxSummaryCache.INVALIDATION_NAME, "rfq_1");
+  }
+
+  @Test
+  void testInvalidationFromAnotherInstance() {
+    rfxSummaryCache.putAll(List.of(rfx("rfq_1", 300), rfx("rfq_2", 300)), Set.of());
+    rfxSummaryCache.putAll(List.of(rfx("rfq_1", 300)), COUNTERS);
+
+    rfxSummaryCache
+        .onInvalidation(new CacheInvalidationEvent(RfxSummaryCache.INVALIDATION_NAME, "rfq_1"));
+
+    assertEquals(Set.of("rfq_2"),
+        rfxSummaryCache.getAll(List.of("rfq_1", "rfq_2"), Set.of()).keySet());
+    assertTrue(rfxSummaryCache.getAll(List.of("rfq_1"), COUNTERS).isEmpty());
+    // Already broadcast by the instance that changed it
+    verify(cacheInvalidationBus, never()).publish(any(), any());
+
+    // Missed invalidations drop everything
+    rfxSummaryCache.onInvalidation(new CacheInvalidationEvent(CacheInvalidationEvent.ALL, null));
+    assertTrue(rfxSummaryCache.getAll(List.of("rfq_2"), Set.of()).isEmpty());
+  }
+
+  private static ExportRfxResponse rfx(final String rfxId, final int statusCode) {
+    var rfx = new ExportRfxResponse();
+    rfx.setRfxSetting(RfxSetting.builder().rfxId(rfxId).statusCode(statusCode).build());
+    return rfx;
+  }
+}
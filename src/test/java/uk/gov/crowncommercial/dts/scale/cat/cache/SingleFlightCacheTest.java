@@ -0,0 +1,177 @@
+package uk.gov.crowncommercial.dts.scale.cat.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache.ValueRetrievalException;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SingleFlightCacheTest {
+
+  private static final String KEY = "getLotSuppliers-RM1043.8-1";
+
+  private final AtomicInteger loads = new AtomicInteger();
+  private SimpleMeterRegistry meterRegistry;
+
+  @BeforeEach
+  void setup() {
+    meterRegistry = new SimpleMeterRegistry();
+  }
+
+  @Test
+  void testConcurrentMissesShareOneLoad() throws Exception {
+    var cache = new SingleFlightCache(new ConcurrentMapCache(CacheConfig.LOT_SUPPLIERS_CACHE), null,
+        Runnable::run, meterRegistry);
+    var loading = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+
+    var executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<String>> callers = new ArrayList<>();
+      callers.add(executor.submit(() -> cache.get(KEY, () -> {
+        loading.countDown();
+        release.await(5, TimeUnit.SECONDS);
+        return "Supplier " + loads.incrementAndGet();
+      })));
+      assertTrue(loading.await(5, TimeUnit.SECONDS));
+      for (int i = 0; i < 3; i++) {
+        callers.add(executor.submit(() -> cache.get(KEY, () -> "Supplier " + loads.incrementAndGet())));
+      }
+      // Wait for the other callers to join the load before letting it finish
+      var coalesced = meterRegistry.get(SingleFlightCache.METRIC_COALESCED)
+          .tag("cache", CacheConfig.LOT_SUPPLIERS_CACHE).counter();
+      for (int i = 0; i < 100 && coalesced.count() < 3; i++) {
+        Thread.sleep(20);
+      }
+      release.countDown();
+
+      for (Future<String> caller : callers) {
+        assertEquals("Supplier 1", caller.get(5, TimeUnit.SECONDS));
+      }
+      assertEquals(1, loads.get());
+      assertEquals(3, coalesced.count());
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertEquals("Supplier 1", cache.get(KEY).get());
+    assertEquals("Supplier 1", cache.get(KEY, String.class));
+  }
+
+  @Test
+  void testFailedLoadSharedWithWaiters() throws Exception {
+    var cache = new SingleFlightCache(new ConcurrentMapCache("conclaveCache"), null, Runnable::run,
+        meterRegistry);
+    var loading = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    var failure = new IllegalStateException("Conclave unavailable");
+
+    var executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<String> first = executor.submit(() -> cache.<String>get(KEY, () -> {
+        loading.countDown();
+        release.await(5, TimeUnit.SECONDS);
+        throw failure;
+      }));
+      assertTrue(loading.await(5, TimeUnit.SECONDS));
+      Future<String> second = executor.submit(() -> cache.get(KEY, () -> "Not called"));
+      var coalesced = meterRegistry.get(SingleFlightCache.METRIC_COALESCED).counter();
+      for (int i = 0; i < 100 && coalesced.count() < 1; i++) {
+        Thread.sleep(20);
+      }
+      release.countDown();
+
+      for (Future<String> caller : List.of(first, second)) {
+        var ex = assertThrows(ExecutionException.class, () -> caller.get(5, TimeUnit.SECONDS));
+        assertTrue(ex.getCause() instanceof ValueRetrievalException);
+        assertSame(failure, ex.getCause().getCause());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    // Nothing is cached, so the next caller loads again
+    assertEquals("Loaded", cache.get(KEY, () -> "Loaded"));
+  }
+
+  @Test
+  void testStaleValueServedWhileRefreshing() {
+    List<Runnable> refreshes = new ArrayList<>();
+    var cache = new SingleFlightCache(new ConcurrentMapCache("agreementsCache"), Duration.ZERO,
+        refreshes::add, meterRegistry);
+
+    assertEquals("Lot 1", cache.get(KEY, () -> "Lot " + loads.incrementAndGet()));
+
+    // Past its refresh time, so the current value is returned and one reload queued
+    assertEquals("Lot 1", cache.get(KEY, () -> "Lot " + loads.incrementAndGet()));
+    assertEquals("Lot 1", cache.get(KEY, () -> "Lot " + loads.incrementAndGet()));
+    assertEquals(1, refreshes.size());
+
+    refreshes.remove(0).run();
+    assertEquals("Lot 2", cache.get(KEY).get());
+    assertEquals(1, meterRegistry.get(SingleFlightCache.METRIC_REFRESHES).tag("result", "success")
+        .counter().count());
+
+    // A failed refresh leaves the current value, and isn't retried straight away
+    refreshes.clear();
+    cache.get(KEY, () -> {
+      throw new IllegalStateException("Agreements Service unavailable");
+    });
+    refreshes.remove(0).run();
+    assertEquals("Lot 2", cache.get(KEY, () -> "Lot " + loads.incrementAndGet()));
+    assertTrue(refreshes.isEmpty());
+    assertEquals(1, meterRegistry.get(SingleFlightCache.METRIC_REFRESHES).tag("result", "failure")
+        .counter().count());
+  }
+
+  @Test
+  void testRefreshNotCachedIfEvictedWhileLoading() {
+    List<Runnable> refreshes = new ArrayList<>();
+    var cache = new SingleFlightCache(new ConcurrentMapCache("agreementsCache"), Duration.ZERO,
+        refreshes::add, meterRegistry);
+    cache.get(KEY, () -> "Lot " + loads.incrementAndGet());
+
+    // Changed, and so evicted (e.g. by another instance), after the refresh read the old value
+    cache.get(KEY, () -> {
+      var value = "Lot " + loads.incrementAndGet();
+      cache.evict(KEY);
+      return value;
+    });
+    refreshes.remove(0).run();
+
+    assertNull(cache.get(KEY));
+    assertEquals("Lot 3", cache.get(KEY, () -> "Lot " + loads.incrementAndGet()));
+  }
+
+  @Test
+  void testRefreshRetryForgottenOnEvict() {
+    List<Runnable> refreshes = new ArrayList<>();
+    var cache = new SingleFlightCache(new ConcurrentMapCache("agreementsCache"), Duration.ZERO,
+        refreshes::add, meterRegistry);
+    cache.get(KEY, () -> "Lot " + loads.incrementAndGet());
+    cache.get(KEY, () -> {
+      throw new IllegalStateException("Agreements Service unavailable");
+    });
+    refreshes.remove(0).run();
+
+    // Loaded afresh once evicted, so refreshed as normal rather than waiting out the failed retry
+    cache.evict(KEY);
+    assertEquals("Lot 2", cache.get(KEY, () -> "Lot " + loads.incrementAndGet()));
+    cache.get(KEY, () -> "Lot " + loads.incrementAndGet());
+    assertEquals(1, refreshes.size());
+  }
+}
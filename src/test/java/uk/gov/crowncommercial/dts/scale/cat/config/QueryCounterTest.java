@@ -0,0 +1,48 @@
+package uk.gov.crowncommercial.dts.scale.cat.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class QueryCounterTest {
+
+    private final QueryCounter queryCounter = new QueryCounter();
+
+    @Test
+    void testNestedCountsIncludedInEnclosingCount() {
+        var outer = new AtomicInteger();
+        var inner = new AtomicInteger();
+
+        var result = QueryCounter.count(() -> {
+            queryCounter.inspect("select 1");
+            QueryCounter.count(() -> {
+                queryCounter.inspect("select 2");
+                return queryCounter.inspect("select 3");
+            }, inner::set);
+            return "done";
+        }, outer::set);
+
+        assertEquals("done", result);
+        assertEquals(2, inner.get());
+        assertEquals(3, outer.get());
+
+        // Nothing counted outside of a unit of work
+        assertEquals("select 4", queryCounter.inspect("select 4"));
+        assertEquals(3, outer.get());
+    }
+
+    @Test
+    void testCountReportedWhenWorkFails() {
+        var count = new AtomicInteger(-1);
+
+        assertThrows(IllegalStateException.class, () -> QueryCounter.count(() -> {
+            queryCounter.inspect("select 1");
+            throw new IllegalStateException();
+        }, count::set));
+
+        assertEquals(1, count.get());
+    }
+}
@@ -0,0 +1,50 @@
+package uk.gov.crowncommercial.dts.scale.cat.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import uk.gov.crowncommercial.dts.scale.cat.model.agreements.DataTemplate;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ProcurementEvent;
+
+class ProcurementEventTest {
+
+  private static final String PAYLOAD = "{\"id\":1,\"templateName\":\"Test\",\"criteria\":[]}";
+
+  @Test
+  void testTemplatePayloadIsParsedOnceForTheSameEventAndPayload() {
+    var event = ProcurementEvent.builder().id(1001).procurementTemplatePayload(PAYLOAD).build();
+    // e.g. the same event loaded again in another request
+    var reloaded = ProcurementEvent.builder().id(1001).procurementTemplatePayload(new String(PAYLOAD)).build();
+
+    var template = event.getProcurementTemplatePayload();
+
+    assertEquals("Test", template.getTemplateName());
+    assertSame(template, event.getProcurementTemplatePayload());
+    assertSame(template, reloaded.getProcurementTemplatePayload());
+  }
+
+  @Test
+  void testTemplatePayloadCopyIsNotShared() {
+    var event = ProcurementEvent.builder().id(1002).procurementTemplatePayload(PAYLOAD).build();
+
+    assertNotSame(event.getProcurementTemplatePayload(), event.getProcurementTemplatePayloadCopy());
+    assertEquals(event.getProcurementTemplatePayload(), event.getProcurementTemplatePayloadCopy());
+  }
+
+  @Test
+  void testSettingTemplatePayloadReplacesCachedTemplate() {
+    var event = ProcurementEvent.builder().id(1003).procurementTemplatePayload(PAYLOAD).build();
+    event.getProcurementTemplatePayload();
+
+    event.setProcurementTemplatePayload(
+        DataTemplate.builder().id(2).templateName("Updated").criteria(List.of()).build());
+
+    assertEquals("Updated", event.getProcurementTemplatePayload().getTemplateName());
+
+    event.setProcurementTemplatePayload(null);
+    assertNull(event.getProcurementTemplatePayload());
+  }
+}
@@ -0,0 +1,81 @@
+package uk.gov.crowncommercial.dts.scale.cat.model.agreements;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class DataTemplateIndexTest {
+
+  @Test
+  void testFindIgnoresCaseAndKeepsTemplateOrder() {
+    var first = requirement("Question 1", "First");
+    var second = requirement("Question 1", "Second");
+    var template = template(criteria("Criterion 1", group("Group 1", "Group", first),
+        group("Group 1", "Group", second)));
+
+    var index = DataTemplateIndex.of(template);
+
+    assertEquals(List.of(first, second), index.find("criterion 1", "GROUP 1", "question 1"));
+  }
+
+  @Test
+  void testFindSkipsGroupsWithoutDescriptionAndLaterCriteria() {
+    var undescribed = requirement("Question 1");
+    var duplicateCriterion = requirement("Question 2");
+    var template = template(criteria("Criterion 1", group("Group 1", null, undescribed)),
+        criteria("Criterion 1", group("Group 1", "Group", duplicateCriterion)));
+
+    var index = DataTemplateIndex.of(template);
+
+    assertTrue(index.find("Criterion 1", "Group 1", "Question 1").isEmpty());
+    assertTrue(index.find("Criterion 1", "Group 1", "Question 2").isEmpty());
+    // Inherited questions are found wherever they are in the template
+    assertSame(duplicateCriterion, index.getQuestion("Group 1", "Question 2"));
+  }
+
+  @Test
+  void testGetQuestionIsCaseSensitive() {
+    var question = requirement("Question 1");
+    var index = DataTemplateIndex.of(template(criteria("Criterion 1", group("Group 1", "Group",
+        question))));
+
+    assertSame(question, index.getQuestion("Group 1", "Question 1"));
+    assertNull(index.getQuestion("group 1", "Question 1"));
+  }
+
+  @Test
+  void testEmptyTemplate() {
+    assertSame(DataTemplateIndex.EMPTY, DataTemplateIndex.of(null));
+    assertTrue(DataTemplateIndex.EMPTY.find("Criterion 1", "Group 1", "Question 1").isEmpty());
+  }
+
+  private static DataTemplate template(final TemplateCriteria... criteria) {
+    return DataTemplate.builder().criteria(List.of(criteria)).build();
+  }
+
+  private static TemplateCriteria criteria(final String id, final RequirementGroup... groups) {
+    return TemplateCriteria.builder().id(id).requirementGroups(new LinkedHashSet<>(List.of(groups)))
+        .build();
+  }
+
+  private static RequirementGroup group(final String id, final String description,
+      final Requirement... requirements) {
+    Set<Requirement> requirementSet = new LinkedHashSet<>(List.of(requirements));
+    return RequirementGroup.builder().ocds(RequirementGroup.OCDS.builder().id(id)
+        .description(description).requirements(requirementSet).build()).build();
+  }
+
+  private static Requirement requirement(final String id) {
+    return requirement(id, null);
+  }
+
+  private static Requirement requirement(final String id, final String title) {
+    return Requirement.builder().ocds(Requirement.OCDS.builder().id(id).title(title).build())
+        .build();
+  }
+}
@@ -0,0 +1,100 @@
+package uk.gov.crowncommercial.dts.scale.cat.processors.async.queueExecutor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationContext;
+import uk.gov.crowncommercial.dts.scale.cat.config.AsyncWorkerConfig;
+import uk.gov.crowncommercial.dts.scale.cat.config.ExperimentalFlagsConfig;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.TaskEntity;
+import uk.gov.crowncommercial.dts.scale.cat.processors.async.AsyncConsumer;
+
+@ExtendWith(MockitoExtension.class)
+class ClaimingTaskDispatcherTest {
+
+  private static final String CONSUMER = "jaggaerSupplierPush";
+
+  @Mock
+  private ApplicationContext ctx;
+
+  @Mock
+  private TaskEntityService taskEntityService;
+
+  @Mock
+  private TaskRunner taskRunner;
+
+  private ClaimingTaskDispatcher dispatcher;
+
+  @BeforeEach
+  void setup() {
+    var workerConfig = new AsyncWorkerConfig();
+    workerConfig.setConcurrency(Map.of(CONSUMER, 2));
+    dispatcher = new ClaimingTaskDispatcher(ctx, taskEntityService, new ExperimentalFlagsConfig(),
+        workerConfig);
+  }
+
+  @AfterEach
+  void tearDown() {
+    dispatcher.shutdown();
+  }
+
+  @Test
+  void testPollOnceClaimsNoMoreThanFreeWorkers() throws Exception {
+    var release = new CountDownLatch(1);
+    var started = new CountDownLatch(2);
+    when(ctx.getBeanNamesForType(AsyncConsumer.class)).thenReturn(new String[] {CONSUMER});
+    when(ctx.getBean(TaskRunner.class)).thenReturn(taskRunner);
+    doAnswer(invocation -> {
+      started.countDown();
+      release.await(5, TimeUnit.SECONDS);
+      return null;
+    }).when(taskRunner).runTask(any(Task.class));
+    when(taskEntityService.claim(CONSUMER, 2)).thenReturn(List.of(task(1L), task(2L)));
+
+    assertEquals(2, dispatcher.pollOnce());
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+
+    // Both workers are busy, so nothing more is claimed until they finish
+    assertEquals(0, dispatcher.pollOnce());
+    verify(taskEntityService, never()).claim(eq(CONSUMER), eq(0));
+    release.countDown();
+  }
+
+  @Test
+  void testToTaskDeserialisesData() {
+    var task = dispatcher.toTask(task(7L));
+
+    assertEquals(7L, task.getId());
+    assertEquals(CONSUMER, task.getRunner());
+    assertEquals("supplier data", task.getData());
+  }
+
+  @Test
+  void testPollOnceWithNothingToClaim() {
+    when(ctx.getBeanNamesForType(AsyncConsumer.class)).thenReturn(new String[] {CONSUMER});
+    when(taskEntityService.claim(eq(CONSUMER), anyInt())).thenReturn(List.of());
+
+    assertEquals(0, dispatcher.pollOnce());
+  }
+
+  private static TaskEntity task(final Long id) {
+    return TaskEntity.builder().id(id).principal("user@example.com").taskExecutor(CONSUMER)
+        .dataClass(String.class.getName()).data("\"supplier data\"").build();
+  }
+}
@@ -0,0 +1,137 @@
+package uk.gov.crowncommercial.dts.scale.cat.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+import uk.gov.crowncommercial.dts.scale.cat.exception.JaggaerApplicationException;
+import uk.gov.crowncommercial.dts.scale.cat.model.jaggaer.CompanyInfo;
+import uk.gov.crowncommercial.dts.scale.cat.model.jaggaer.ReturnCompanyData;
+import uk.gov.crowncommercial.dts.scale.cat.model.jaggaer.SSOCodeData;
+import uk.gov.crowncommercial.dts.scale.cat.model.jaggaer.SSOCodeData.SSOCode;
+import uk.gov.crowncommercial.dts.scale.cat.model.jaggaer.SubUsers;
+import uk.gov.crowncommercial.dts.scale.cat.model.jaggaer.SubUsers.SubUser;
+
+class BuyerUserIndexTest {
+
+  private static final String BUYER_RIGHTS_PROFILE = "Buyer";
+  private static final CompanyInfo COMPANY_INFO = CompanyInfo.builder().bravoId("1234").build();
+  private static final SubUser BUYER_1 = subUser("1", "Buyer.One@example.com", BUYER_RIGHTS_PROFILE);
+  private static final SubUser ADMIN_1 = subUser("2", "buyer.one@example.com", "Admin", "admin.one@example.com");
+  private static final SubUser BUYER_3 = subUser("3", "buyer.three@example.com", BUYER_RIGHTS_PROFILE);
+
+  private final AtomicInteger fetches = new AtomicInteger();
+  private final AtomicReference<Set<SubUser>> subUsers = new AtomicReference<>(Set.of(BUYER_1, ADMIN_1));
+
+  private final BuyerUserIndex buyerUserIndex = new BuyerUserIndex(() -> {
+    fetches.incrementAndGet();
+    return ReturnCompanyData.builder().returnCompanyInfo(COMPANY_INFO)
+        .returnSubUser(SubUsers.builder().subUsers(subUsers.get()).build()).build();
+  });
+
+  @Test
+  void testLookupsServedFromOneFetch() {
+    assertEquals(BUYER_1, buyerUserIndex.findByEmail("buyer.one@EXAMPLE.com", BUYER_RIGHTS_PROFILE).orElseThrow());
+    assertEquals(ADMIN_1, buyerUserIndex.findByEmail("buyer.one@example.com", "admin").orElseThrow());
+    assertEquals(ADMIN_1, buyerUserIndex.findByUserId("2").orElseThrow());
+    assertEquals(BUYER_1, buyerUserIndex.findBySsoUserLogin("BUYER.ONE@example.com").orElseThrow());
+    assertTrue(buyerUserIndex.findBySsoUserLogin("buyer.three@example.com").isEmpty());
+    assertEquals(COMPANY_INFO, buyerUserIndex.getCompanyInfo());
+    assertEquals(1, fetches.get());
+  }
+
+  @Test
+  void testRebuildsOnlyWhenStale() {
+    buyerUserIndex.getCompanyInfo();
+    subUsers.set(Set.of(BUYER_1, ADMIN_1, BUYER_3));
+
+    // Missing users don't cause a fetch while the index is recent
+    buyerUserIndex.rebuildIfOlderThan(Duration.ofMinutes(1));
+    assertTrue(buyerUserIndex.findByUserId("3").isEmpty());
+    assertEquals(1, fetches.get());
+
+    // Unless another instance has changed them since
+    buyerUserIndex.markStale();
+    buyerUserIndex.rebuildIfOlderThan(Duration.ofMinutes(1));
+    assertEquals(BUYER_3, buyerUserIndex.findByUserId("3").orElseThrow());
+    assertEquals(2, fetches.get());
+
+    buyerUserIndex.rebuild();
+    assertEquals(3, fetches.get());
+  }
+
+  @Test
+  void testIndexServedWhileRebuilding() throws Exception {
+    var fetching = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    var blockingIndex = new BuyerUserIndex(() -> {
+      if (fetches.incrementAndGet() > 1) {
+        fetching.countDown();
+        try {
+          release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      return ReturnCompanyData.builder().returnCompanyInfo(COMPANY_INFO)
+          .returnSubUser(SubUsers.builder().subUsers(subUsers.get()).build()).build();
+    });
+    blockingIndex.getCompanyInfo();
+    blockingIndex.markStale();
+
+    var executor = Executors.newFixedThreadPool(2);
+    try {
+      var rebuild = executor.submit(() -> blockingIndex.rebuild());
+      assertTrue(fetching.await(5, TimeUnit.SECONDS));
+      // A rebuild asked for while the company is being fetched waits for that fetch, rather than
+      // fetching again
+      var waitingRebuild = executor.submit(() -> blockingIndex.rebuildIfOlderThan(Duration.ofMinutes(1)));
+
+      // The previous index answers in the meantime
+      assertEquals(BUYER_1, blockingIndex.findByUserId("1").orElseThrow());
+      release.countDown();
+      rebuild.get(5, TimeUnit.SECONDS);
+      waitingRebuild.get(5, TimeUnit.SECONDS);
+      assertEquals(2, fetches.get());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void testFailedRebuildKeepsIndex() {
+    var failing = new AtomicBoolean();
+    var index = new BuyerUserIndex(() -> {
+      if (failing.get()) {
+        throw new JaggaerApplicationException("1", "Unavailable");
+      }
+      return ReturnCompanyData.builder().returnCompanyInfo(COMPANY_INFO)
+          .returnSubUser(SubUsers.builder().subUsers(subUsers.get()).build()).build();
+    });
+    index.getCompanyInfo();
+
+    failing.set(true);
+    assertThrows(JaggaerApplicationException.class, () -> index.rebuild());
+    assertEquals(BUYER_1, index.findByUserId("1").orElseThrow());
+  }
+
+  private static SubUser subUser(final String userId, final String email, final String rightsProfile) {
+    return subUser(userId, email, rightsProfile, email);
+  }
+
+  private static SubUser subUser(final String userId, final String email, final String rightsProfile,
+      final String ssoUserLogin) {
+    return SubUser.builder().userId(userId).email(email).rightsProfile(rightsProfile)
+        .ssoCodeData(SSOCodeData.builder()
+            .ssoCode(Set.of(SSOCode.builder().ssoCodeValue("OPEN_ID").ssoUserLogin(ssoUserLogin).build())).build())
+        .build();
+  }
+}
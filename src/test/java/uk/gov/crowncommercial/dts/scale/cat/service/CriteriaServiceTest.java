@@ -8,6 +8,9 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import uk.gov.crowncommercial.dts.scale.cat.cache.RfxSummaryCache;
+import uk.gov.crowncommercial.dts.scale.cat.config.JaggaerAPIConfig;
 import uk.gov.crowncommercial.dts.scale.cat.mapper.DependencyMapper;
 import uk.gov.crowncommercial.dts.scale.cat.mapper.TimelineDependencyMapper;
 import uk.gov.crowncommercial.dts.scale.cat.model.agreements.Requirement;
@@ -18,6 +21,7 @@ import uk.gov.crowncommercial.dts.scale.cat.model.entity.ProcurementEvent;
 import uk.gov.crowncommercial.dts.scale.cat.model.entity.ProcurementProject;
 import uk.gov.crowncommercial.dts.scale.cat.model.generated.QuestionType;
 import uk.gov.crowncommercial.dts.scale.cat.model.generated.*;
+import uk.gov.crowncommercial.dts.scale.cat.model.jaggaer.CreateUpdateRfxResponse;
 import uk.gov.crowncommercial.dts.scale.cat.processors.DataTemplateProcessor;
 import uk.gov.crowncommercial.dts.scale.cat.processors.ProcurementEventHelperService;
 import uk.gov.crowncommercial.dts.scale.cat.repo.RetryableTendersDBDelegate;
@@ -27,6 +31,7 @@ import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -44,6 +49,8 @@ class CriteriaServiceTest {
   private static final String GROUP_ID = "Group 1";
   private static final String QUESTION_ID = "Question 1";
   private static final String AGREEMENT_NO = "TEST";
+  private static final String RFX_ID = "rfq_0001";
+  private static final String CREATE_RFX_URI = "/esop/jint/api/public/ja/v1/rfxs";
 
   @Mock
   private AgreementsService agreementsService;
@@ -75,6 +82,12 @@ class CriteriaServiceTest {
   @Mock
   private ProcurementEventHelperService eventHelperService;
 
+  @Mock
+  private JaggaerAPIConfig jaggaerAPIConfig;
+
+  @Mock
+  private RfxSummaryCache rfxSummaryCache;
+
   @Test
   void testPutQuestionOptionDetails_buyer_multiSelect() throws Exception {
 
@@ -121,6 +134,55 @@ class CriteriaServiceTest {
         "Wales should be true");
   }
 
+  @Test
+  void testPutQuestionOptionDetails_supplier_invalidatesRfxSummary() throws Exception {
+
+    var procurementProject = ProcurementProject.builder().caNumber(AGREEMENT_NO).build();
+
+    ProcurementEvent event = new ProcurementEvent();
+    event.setProject(procurementProject);
+    event.setExternalEventId(RFX_ID);
+    event.setProcurementTemplatePayload(
+        getDataTemplate("criteria-service-test-data/criteria-supplier-value.json"));
+
+    Requirement1 questionOCDS = new Requirement1();
+    questionOCDS.setDataType(DataType.STRING);
+    questionOCDS.setTitle("Enter your questions");
+    QuestionNonOCDSOptions option = new QuestionNonOCDSOptions();
+    option.setValue("What is your approach to social value?");
+    QuestionNonOCDS questionNonOCDS = new QuestionNonOCDS();
+    questionNonOCDS.setOptions(Arrays.asList(option));
+    Question question = new Question();
+    question.setOCDS(questionOCDS);
+    question.setNonOCDS(questionNonOCDS);
+
+    var createRfxResponse = new CreateUpdateRfxResponse();
+    createRfxResponse.setReturnCode(0);
+    createRfxResponse.setReturnMessage("OK");
+
+    var uriSpec = mock(WebClient.RequestBodyUriSpec.class);
+    var bodySpec = mock(WebClient.RequestBodySpec.class);
+    var headersSpec = mock(WebClient.RequestHeadersSpec.class);
+    var responseSpec = mock(WebClient.ResponseSpec.class);
+
+    when(validationService.validateProjectAndEventIds(PROJECT_ID, EVENT_OCID)).thenReturn(event);
+    when(jaggaerAPIConfig.getCreateRfx()).thenReturn(Map.of(JaggaerAPIConfig.ENDPOINT, CREATE_RFX_URI));
+    when(jaggaerAPIConfig.getTimeoutDuration()).thenReturn(1);
+    when(jaggaerWebClient.post()).thenReturn(uriSpec);
+    when(uriSpec.uri(CREATE_RFX_URI)).thenReturn(bodySpec);
+    doReturn(headersSpec).when(bodySpec).bodyValue(any());
+    when(headersSpec.retrieve()).thenReturn(responseSpec);
+    when(responseSpec.bodyToMono(CreateUpdateRfxResponse.class))
+        .thenReturn(Mono.just(createRfxResponse));
+
+    criteriaService.putQuestionOptionDetails(question, PROJECT_ID, EVENT_OCID, CRITERION_ID,
+        GROUP_ID, QUESTION_ID);
+
+    // The rfx has changed in Jaggaer, so its cached summary must not be served again
+    verify(rfxSummaryCache).invalidate(RFX_ID);
+    verify(retryableTendersDBDelegate).save(event);
+  }
+
   @Test
   void testGetEvalCriteriaWithoutBuyerQuestions() throws Exception {
     ProcurementEvent event = new ProcurementEvent();
@@ -0,0 +1,185 @@
+package uk.gov.crowncommercial.dts.scale.cat.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import uk.gov.crowncommercial.dts.scale.cat.config.ExperimentalFlagsConfig;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.DocumentTemplate;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.DocumentTemplateSource;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ProcurementEvent;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ProcurementProject;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.SourceType;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.TargetType;
+import uk.gov.crowncommercial.dts.scale.cat.model.generated.DocumentAudienceType;
+import uk.gov.crowncommercial.dts.scale.cat.repo.RetryableTendersDBDelegate;
+
+@ExtendWith(MockitoExtension.class)
+class DocGenServiceTest {
+
+  private static final Integer PROJECT_ID = 1;
+  private static final String EVENT_ID = "ocds-pfhb7i-1";
+
+  @Mock
+  private ApplicationContext applicationContext;
+
+  @Mock
+  private ValidationService validationService;
+
+  @Mock
+  private RetryableTendersDBDelegate retryableTendersDBDelegate;
+
+  @Mock
+  private JaggaerService jaggaerService;
+
+  @Mock
+  private DocumentTemplateCache documentTemplateCache;
+
+  private DocGenExecutors docGenExecutors;
+  private DocGenService docGenService;
+  private ProcurementEvent event;
+
+  @BeforeEach
+  void setup() throws Exception {
+    docGenExecutors = new DocGenExecutors(new ExperimentalFlagsConfig(), 2, 2, 2, 4);
+    docGenService = new DocGenService(validationService, retryableTendersDBDelegate,
+        jaggaerService, documentTemplateCache, docGenExecutors,
+        new DocGenValuePlanner(applicationContext, new ObjectMapper(), docGenExecutors));
+
+    event = spy(ProcurementEvent.builder().eventType("RFI").ocdsAuthorityName("ocds")
+        .ocidPrefix("pfhb7i").id(1).project(ProcurementProject.builder().caNumber("RM1043.8")
+            .lotNumber("1").projectName("Cloud hosting").build())
+        .build());
+    when(validationService.validateProjectAndEventIds(PROJECT_ID, EVENT_ID)).thenReturn(event);
+
+    byte[] content;
+    try (var inputStream =
+        new ClassPathResource("templates/GC RfI Template v1.0.odt").getInputStream()) {
+      content = inputStream.readAllBytes();
+    }
+    var cachedTemplate = new DocumentTemplateCache.CachedTemplate(content, Map.of());
+    when(documentTemplateCache.get(any())).thenAnswer(invocation -> {
+      if (invocation.<DocumentTemplate>getArgument(0).getTemplateUrl().contains("broken")) {
+        throw new IllegalStateException("Unreadable template");
+      }
+      return cachedTemplate;
+    });
+  }
+
+  @AfterEach
+  void tearDown() {
+    docGenExecutors.destroy();
+  }
+
+  @Test
+  void testUploadFailureAffectsOnlyItsDocument() {
+    templates("one.odt", "two.odt", "three.odt");
+    var uploadThreads = ConcurrentHashMap.<String>newKeySet();
+    doAnswer(invocation -> {
+      uploadThreads.add(Thread.currentThread().getName());
+      if (invocation.<String>getArgument(1).endsWith("two.odt")) {
+        throw new IllegalStateException("Jaggaer unavailable");
+      }
+      return null;
+    }).when(jaggaerService).eventUploadDocument(any(), any(), any(), eq(DocumentAudienceType.SUPPLIER),
+        any());
+
+    var generatedDocuments = docGenService.generateAndUploadDocuments(PROJECT_ID, EVENT_ID);
+
+    assertEquals(Set.of("templates/one.odt", "templates/two.odt", "templates/three.odt"),
+        generatedDocuments.getGenerated());
+    assertEquals(Set.of("templates/one.odt", "templates/three.odt"),
+        generatedDocuments.getUploaded());
+    assertEquals(Set.of("templates/two.odt"), generatedDocuments.getFailed());
+    assertTrue(uploadThreads.stream().allMatch(name -> name.startsWith("docupload-")));
+  }
+
+  @Test
+  void testRequestAttributesAvailableToUploads() {
+    templates("one.odt", "two.odt");
+    var requestAttributes = new ServletRequestAttributes(new MockHttpServletRequest());
+    var uploadRequestAttributes = ConcurrentHashMap.<RequestAttributes>newKeySet();
+    doAnswer(invocation -> {
+      uploadRequestAttributes.add(RequestContextHolder.currentRequestAttributes());
+      return null;
+    }).when(jaggaerService).eventUploadDocument(any(), any(), any(), eq(DocumentAudienceType.SUPPLIER),
+        any());
+
+    RequestContextHolder.setRequestAttributes(requestAttributes);
+    try {
+      docGenService.generateAndUploadDocuments(PROJECT_ID, EVENT_ID);
+    } finally {
+      RequestContextHolder.resetRequestAttributes();
+    }
+
+    assertEquals(Set.of(requestAttributes), uploadRequestAttributes);
+  }
+
+  @Test
+  void testGenerationFailureRethrownOnceOthersUploaded() {
+    templates("one.odt", "broken.odt", "three.odt");
+
+    var ex = assertThrows(IllegalStateException.class,
+        () -> docGenService.generateAndUploadDocuments(PROJECT_ID, EVENT_ID));
+
+    assertEquals("Unreadable template", ex.getMessage());
+    verify(jaggaerService, times(2)).eventUploadDocument(any(), any(), any(),
+        eq(DocumentAudienceType.SUPPLIER), any());
+  }
+
+  @Test
+  void testValuesResolvedOnCallingThread() {
+    templates(Set.of(DocumentTemplateSource.builder().id(1).placeholder("«Project_Name»")
+        .sourceType(SourceType.SQL).sourcePath("project/ProjectName").targetType(TargetType.SIMPLE)
+        .build()), "one.odt", "two.odt");
+    var eventThreads = ConcurrentHashMap.<String>newKeySet();
+    doAnswer(invocation -> {
+      eventThreads.add(Thread.currentThread().getName());
+      return invocation.callRealMethod();
+    }).when(event).getProject();
+
+    var generatedDocuments = docGenService.generateAndUploadDocuments(PROJECT_ID, EVENT_ID);
+
+    // Only the thread holding the event's session reads it, the documents are generated from values
+    assertEquals(Set.of("templates/one.odt", "templates/two.odt"), generatedDocuments.getUploaded());
+    assertEquals(Set.of(Thread.currentThread().getName()), eventThreads);
+  }
+
+  private void templates(final String... fileNames) {
+    templates(Set.of(), fileNames);
+  }
+
+  private void templates(final Set<DocumentTemplateSource> templateSources,
+      final String... fileNames) {
+    Set<DocumentTemplate> templates = new HashSet<>();
+    for (int i = 0; i < fileNames.length; i++) {
+      templates.add(DocumentTemplate.builder().id(i).templateUrl("templates/" + fileNames[i])
+          .documentTemplateSources(templateSources).build());
+    }
+    when(retryableTendersDBDelegate.findByEventTypeAndCommercialAgreementNumberAndLotNumberAndTemplateGroup(
+        "RFI", "RM1043.8", "1", null)).thenReturn(templates);
+  }
+}
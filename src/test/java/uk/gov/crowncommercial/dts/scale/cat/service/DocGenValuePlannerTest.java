@@ -0,0 +1,125 @@
+package uk.gov.crowncommercial.dts.scale.cat.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import uk.gov.crowncommercial.dts.scale.cat.config.ExperimentalFlagsConfig;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.DocumentTemplateSource;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ProcurementEvent;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ProcurementProject;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.SourceType;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.TargetType;
+
+@ExtendWith(MockitoExtension.class)
+class DocGenValuePlannerTest {
+
+  private static final String PAYLOAD =
+      "{\"criteria\":[{\"id\":\"Criterion 1\",\"title\":\"Budget\",\"answers\":[\"100\",\"200\"]}]}";
+
+  @Mock
+  private ApplicationContext applicationContext;
+
+  private DocGenExecutors docGenExecutors;
+  private DocGenValuePlanner docGenValuePlanner;
+  private ProcurementEvent event;
+
+  @BeforeEach
+  void setup() {
+    docGenExecutors = new DocGenExecutors(new ExperimentalFlagsConfig(), 2, 2, 2, 4);
+    docGenValuePlanner =
+        new DocGenValuePlanner(applicationContext, new ObjectMapper(), docGenExecutors);
+    event = ProcurementEvent.builder().id(1).ocdsAuthorityName("ocds").ocidPrefix("pfhb7i")
+        .eventType("RFI").procurementTemplatePayloadRaw(PAYLOAD)
+        .project(ProcurementProject.builder().id(2).caNumber("RM1043.8").projectName("Project X")
+            .build())
+        .build();
+  }
+
+  @AfterEach
+  void tearDown() {
+    docGenExecutors.destroy();
+  }
+
+  @Test
+  void testValuesResolvedBySourceType() {
+    var json = source(1, SourceType.JSON, "$.criteria[0].answers[*]");
+    var sameJson = source(2, SourceType.JSON, "$.criteria[0].answers[*]");
+    var project = source(3, SourceType.SQL, "project/ProjectName");
+    var eventType = source(4, SourceType.SQL, "procurement_event/EventType");
+    var unknownColumn = source(5, SourceType.SQL, "project/NoSuchColumn");
+    var text = source(6, SourceType.STATIC, "Some text");
+    var unsupportedBean = source(7, SourceType.JAVA, "DocumentValueAdaptorTCFileNames");
+
+    var values = docGenValuePlanner.resolve(event,
+        List.of(json, sameJson, project, eventType, unknownColumn, text, unsupportedBean),
+        new ConcurrentHashMap<>());
+
+    assertEquals(List.of("100", "200"), values.get(json));
+    assertEquals(List.of("100", "200"), values.get(sameJson));
+    assertEquals(List.of("Project X"), values.get(project));
+    assertEquals(List.of("RFI"), values.get(eventType));
+    assertEquals(List.of(DocGenService.PLACEHOLDER_ERROR), values.get(unknownColumn));
+    assertEquals(List.of("Some text"), values.get(text));
+    assertEquals(List.of(DocGenService.PLACEHOLDER_ERROR), values.get(unsupportedBean));
+
+    // Each placeholder has its own list, as replacements may add to it
+    values.get(json).add("300");
+    assertEquals(List.of("100", "200"), values.get(sameJson));
+  }
+
+  @Test
+  void testSharedFetchRunOnceBeforeAdaptors() {
+    var fetches = new AtomicInteger();
+    var fetchThread = new AtomicReference<String>();
+    DocGenValueAdaptor name = DocGenValueAdaptor.withFetch("CACHE_KEY_LEAD", e -> {
+      fetches.incrementAndGet();
+      fetchThread.set(Thread.currentThread().getName());
+      return "Jane Smith:0123";
+    }, (e, requestCache) -> List.of(((String) requestCache.get("CACHE_KEY_LEAD")).split(":")[0]));
+    DocGenValueAdaptor tel = DocGenValueAdaptor.withFetch("CACHE_KEY_LEAD", e -> {
+      fetches.incrementAndGet();
+      fetchThread.set(Thread.currentThread().getName());
+      return "Jane Smith:0123";
+    }, (e, requestCache) -> List.of(((String) requestCache.get("CACHE_KEY_LEAD")).split(":")[1]));
+    when(applicationContext.getBean("Name", DocGenValueAdaptor.class)).thenReturn(name);
+    when(applicationContext.getBean("Tel", DocGenValueAdaptor.class)).thenReturn(tel);
+
+    var nameSource = source(1, SourceType.JAVA, "Name");
+    var sameNameSource = source(2, SourceType.JAVA, "Name");
+    var telSource = source(3, SourceType.JAVA, "Tel");
+    var requestCache = new ConcurrentHashMap<String, Object>();
+
+    var values = docGenValuePlanner.resolve(event, List.of(nameSource, sameNameSource, telSource),
+        requestCache);
+    assertEquals(List.of("Jane Smith"), values.get(nameSource));
+    assertEquals(List.of("Jane Smith"), values.get(sameNameSource));
+    assertEquals(List.of("0123"), values.get(telSource));
+    verify(applicationContext, times(1)).getBean("Name", DocGenValueAdaptor.class);
+    // On its own pool, rather than behind uploads
+    assertTrue(fetchThread.get().startsWith("docfetch-"));
+
+    // Another document sharing the request cache doesn't fetch again
+    docGenValuePlanner.resolve(event, List.of(telSource), requestCache);
+    assertEquals(1, fetches.get());
+  }
+
+  private static DocumentTemplateSource source(final Integer id, final SourceType sourceType,
+      final String sourcePath) {
+    return DocumentTemplateSource.builder().id(id).sourceType(sourceType).sourcePath(sourcePath)
+        .targetType(TargetType.SIMPLE).build();
+  }
+}
@@ -0,0 +1,82 @@
+package uk.gov.crowncommercial.dts.scale.cat.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.odftoolkit.simple.common.navigation.TextNavigation;
+import org.odftoolkit.simple.common.navigation.TextSelection;
+import org.springframework.core.io.ClassPathResource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.DocumentTemplate;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.DocumentTemplateSource;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.TargetType;
+
+@ExtendWith(MockitoExtension.class)
+class DocumentTemplateCacheTest {
+
+  private static final String TEMPLATE_URL = "classpath:templates/GC RfI Template v1.0.odt";
+
+  private static final DocumentTemplateSource LOT_ID = source(1, "«Insert Lot id»", TargetType.SIMPLE);
+  private static final DocumentTemplateSource MISSING =
+      source(2, "«Not In This Template»", TargetType.DATETIME);
+  private static final DocumentTemplateSource MISSING_TABLE =
+      source(3, "«Not In This Template»", TargetType.TABLE);
+
+  @Mock
+  private DocumentTemplateResourceService documentTemplateResourceService;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private DocumentTemplateCache documentTemplateCache;
+
+  @BeforeEach
+  void setup() {
+    documentTemplateCache = new DocumentTemplateCache(documentTemplateResourceService, meterRegistry);
+    when(documentTemplateResourceService.getResource(TEMPLATE_URL))
+        .thenReturn(new ClassPathResource("templates/GC RfI Template v1.0.odt"));
+  }
+
+  @Test
+  void testTemplateReadAndScannedOnce() throws Exception {
+    var documentTemplate = DocumentTemplate.builder().id(1).templateUrl(TEMPLATE_URL)
+        .documentTemplateSources(Set.of(LOT_ID, MISSING, MISSING_TABLE)).build();
+
+    var template = documentTemplateCache.get(documentTemplate);
+    assertSame(template, documentTemplateCache.get(documentTemplate));
+    verify(documentTemplateResourceService, times(1)).getResource(TEMPLATE_URL);
+    assertEquals(1.0, meterRegistry.get("cat.docgen.template.cache.requests").tag("result", "miss").counter().count());
+    assertEquals(1.0, meterRegistry.get("cat.docgen.template.cache.requests").tag("result", "hit").counter().count());
+
+    assertTrue(template.mayContain(LOT_ID));
+    assertFalse(template.mayContain(MISSING));
+    // Tables, and placeholders it wasn't scanned for, are always looked for
+    assertTrue(template.mayContain(MISSING_TABLE));
+    assertTrue(template.mayContain(source(4, "«Insert Event id»", TargetType.SIMPLE)));
+
+    // Each document is separate, so replacing in one leaves the template as it was
+    var document = template.newDocument();
+    assertNotSame(document, template.newDocument());
+    var lotIds = new TextNavigation("«Insert Lot id»", document);
+    while (lotIds.hasNext()) {
+      ((TextSelection) lotIds.nextSelection()).replaceWith("Lot 1");
+    }
+    assertFalse(new TextNavigation("«Insert Lot id»", document).hasNext());
+    assertTrue(new TextNavigation("«Insert Lot id»", template.newDocument()).hasNext());
+  }
+
+  private static DocumentTemplateSource source(final Integer id, final String placeholder,
+      final TargetType targetType) {
+    return DocumentTemplateSource.builder().id(id).placeholder(placeholder).targetType(targetType)
+        .tableName(targetType == TargetType.TABLE ? "Table1" : null).build();
+  }
+}
@@ -0,0 +1,220 @@
+package uk.gov.crowncommercial.dts.scale.cat.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static uk.gov.crowncommercial.dts.scale.cat.config.JaggaerAPIConfig.ENDPOINT;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import uk.gov.crowncommercial.dts.scale.cat.cache.RfxSummaryCache;
+import uk.gov.crowncommercial.dts.scale.cat.config.JaggaerAPIConfig;
+import uk.gov.crowncommercial.dts.scale.cat.exception.JaggaerApplicationException;
+import uk.gov.crowncommercial.dts.scale.cat.model.jaggaer.ExportRfxResponse;
+import uk.gov.crowncommercial.dts.scale.cat.model.jaggaer.RfxSetting;
+import uk.gov.crowncommercial.dts.scale.cat.model.jaggaer.SearchRfxsDataList;
+import uk.gov.crowncommercial.dts.scale.cat.model.jaggaer.SearchRfxsResponse;
+
+@ExtendWith(MockitoExtension.class)
+class JaggaerServiceTest {
+
+  private static final String SEARCH_RFX_URI = "/esop/jint/api/public/ja/v1/rfxs/?flt=rfxId=in={ids}";
+  private static final Set<String> RFX_IDS =
+      Set.of("rfq_1", "rfq_2", "rfq_3", "rfq_4", "rfq_5");
+
+  @Mock
+  private WebClient jaggaerWebClient;
+
+  @Mock
+  private WebclientWrapper webclientWrapper;
+
+  @Mock
+  private RfxSummaryCache rfxSummaryCache;
+
+  private final JaggaerAPIConfig jaggaerAPIConfig = new JaggaerAPIConfig();
+  private final List<String> searches = new CopyOnWriteArrayList<>();
+  private JaggaerService jaggaerService;
+
+  @BeforeEach
+  void setup() {
+    jaggaerAPIConfig.setTimeoutDuration(1);
+    jaggaerAPIConfig.setSearchRfxBatchSize(2);
+    jaggaerAPIConfig.setSearchRfxConcurrency(2);
+    jaggaerAPIConfig.setSearchRfxSummary(Map.of(ENDPOINT, SEARCH_RFX_URI));
+    jaggaerService = new JaggaerService(jaggaerAPIConfig, jaggaerWebClient, webclientWrapper,
+        rfxSummaryCache);
+    lenient().when(rfxSummaryCache.getAll(anyCollection(), eq(Set.of()))).thenReturn(Map.of());
+  }
+
+  @Test
+  void testSearchRFxByIdBatchesIdsAndKeysResultsByRfxId() {
+    when(webclientWrapper.getResource(eq(SearchRfxsResponse.class), eq(jaggaerWebClient),
+        eq(SEARCH_RFX_URI), any())).thenAnswer(invocation -> {
+          String rfxIds = invocation.getArgument(3);
+          searches.add(rfxIds);
+          return Mono.just(searchResponse(rfxIds));
+        });
+
+    var result = jaggaerService.searchRFxById(RFX_IDS, Set.of());
+
+    assertEquals(3, searches.size());
+    searches.forEach(rfxIds -> assertTrue(rfxIds.split(",").length <= 2));
+    assertEquals(RFX_IDS, searches.stream().flatMap(rfxIds -> Arrays.stream(rfxIds.split(",")))
+        .collect(Collectors.toSet()));
+    assertEquals(RFX_IDS, result.getRfxs().keySet());
+    assertEquals("rfq_3", result.get("rfq_3").getRfxSetting().getRfxId());
+    assertTrue(result.isComplete());
+  }
+
+  @Test
+  void testSearchRFxByIdRunsBatchesConcurrently() {
+    var inFlight = new AtomicInteger();
+    var maxInFlight = new AtomicInteger();
+    when(webclientWrapper.getResource(eq(SearchRfxsResponse.class), eq(jaggaerWebClient),
+        eq(SEARCH_RFX_URI), any())).thenAnswer(invocation -> {
+          String rfxIds = invocation.getArgument(3);
+          return Mono.delay(Duration.ofMillis(100))
+              .doOnSubscribe(subscription -> maxInFlight.accumulateAndGet(
+                  inFlight.incrementAndGet(), Math::max))
+              .doOnNext(tick -> inFlight.decrementAndGet()).map(tick -> searchResponse(rfxIds));
+        });
+
+    var result = jaggaerService.searchRFxById(RFX_IDS, Set.of());
+
+    assertEquals(RFX_IDS, result.getRfxs().keySet());
+    // No more than the configured concurrency at once
+    assertEquals(2, maxInFlight.get());
+  }
+
+  @Test
+  void testSearchRFxByIdReportsFailedBatchesWithoutFailingOthers() {
+    when(webclientWrapper.getResource(eq(SearchRfxsResponse.class), eq(jaggaerWebClient),
+        eq(SEARCH_RFX_URI), any())).thenAnswer(invocation -> {
+          String rfxIds = invocation.getArgument(3);
+          return rfxIds.contains("rfq_5")
+              ? Mono.error(new JaggaerApplicationException("500", "Unavailable"))
+              : Mono.just(searchResponse(rfxIds));
+        });
+
+    var result = jaggaerService.searchRFxById(RFX_IDS, Set.of());
+
+    assertFalse(result.isComplete());
+    assertTrue(result.getFailedRfxIds().contains("rfq_5"));
+    var searched = result.getRfxs().keySet();
+    assertEquals(RFX_IDS.size(), searched.size() + result.getFailedRfxIds().size());
+    assertTrue(searched.stream().noneMatch(result.getFailedRfxIds()::contains));
+  }
+
+  @Test
+  void testSearchRFxByIdReportsStuckBatchesOnceTimedOut() {
+    when(webclientWrapper.getResource(eq(SearchRfxsResponse.class), eq(jaggaerWebClient),
+        eq(SEARCH_RFX_URI), any())).thenAnswer(invocation -> {
+          String rfxIds = invocation.getArgument(3);
+          return rfxIds.contains("rfq_1") ? Mono.never() : Mono.just(searchResponse(rfxIds));
+        });
+
+    var result = jaggaerService.searchRFxById(RFX_IDS, Set.of());
+
+    assertTrue(result.getFailedRfxIds().contains("rfq_1"));
+    assertEquals(RFX_IDS.size(), result.getRfxs().size() + result.getFailedRfxIds().size());
+  }
+
+  @Test
+  void testSearchRFxFailsIfAnyBatchFails() {
+    when(webclientWrapper.getResource(eq(SearchRfxsResponse.class), eq(jaggaerWebClient),
+        eq(SEARCH_RFX_URI), any())).thenAnswer(invocation -> {
+          String rfxIds = invocation.getArgument(3);
+          return rfxIds.contains("rfq_5")
+              ? Mono.error(new JaggaerApplicationException("500", "Unavailable"))
+              : Mono.just(searchResponse(rfxIds));
+        });
+
+    assertThrows(JaggaerApplicationException.class, () -> jaggaerService.searchRFx(RFX_IDS));
+  }
+
+  @Test
+  void testSearchRFxCachedOnlySearchesForMisses() {
+    when(rfxSummaryCache.getAll(List.of("rfq_1", "rfq_2", "rfq_3"), Set.of()))
+        .thenReturn(Map.of("rfq_1", rfx("rfq_1"), "rfq_3", rfx("rfq_3")));
+    when(webclientWrapper.getResource(eq(SearchRfxsResponse.class), eq(jaggaerWebClient),
+        eq(SEARCH_RFX_URI), any())).thenAnswer(invocation -> {
+          String rfxIds = invocation.getArgument(3);
+          searches.add(rfxIds);
+          return Mono.just(searchResponse(rfxIds));
+        });
+
+    var rfxs = jaggaerService.searchRFxCached(new LinkedHashSet<>(List.of("rfq_1", "rfq_2", "rfq_3")));
+
+    assertEquals(List.of("rfq_2"), searches);
+    assertEquals(Set.of("rfq_1", "rfq_2", "rfq_3"),
+        rfxs.stream().map(rfx -> rfx.getRfxSetting().getRfxId()).collect(Collectors.toSet()));
+    verify(rfxSummaryCache).putAll(argThat(fetched -> fetched.size() == 1), eq(Set.of()));
+  }
+
+  @Test
+  void testSearchRFxCachedServesHitsWithoutSearching() {
+    when(rfxSummaryCache.getAll(List.of("rfq_1"), Set.of()))
+        .thenReturn(Map.of("rfq_1", rfx("rfq_1")));
+
+    var rfxs = jaggaerService.searchRFxCached(Set.of("rfq_1"));
+
+    assertEquals("rfq_1", rfxs.iterator().next().getRfxSetting().getRfxId());
+    verifyNoInteractions(webclientWrapper);
+  }
+
+  @Test
+  void testSearchRFxAlwaysSearchesJaggaer() {
+    when(webclientWrapper.getResource(eq(SearchRfxsResponse.class), eq(jaggaerWebClient),
+        eq(SEARCH_RFX_URI), any())).thenAnswer(invocation -> {
+          String rfxIds = invocation.getArgument(3);
+          searches.add(rfxIds);
+          return Mono.just(searchResponse(rfxIds));
+        });
+
+    // Used to validate an rfx before changing it, so never served from the cache
+    jaggaerService.searchRFx(Set.of("rfq_1"));
+
+    assertEquals(List.of("rfq_1"), searches);
+    verify(rfxSummaryCache, never()).getAll(anyCollection(), anySet());
+  }
+
+  private static SearchRfxsResponse searchResponse(final String rfxIds) {
+    var dataList = new SearchRfxsDataList();
+    dataList.setRfx(Arrays.stream(rfxIds.split(",")).map(JaggaerServiceTest::rfx)
+        .collect(Collectors.toSet()));
+    var response = new SearchRfxsResponse();
+    response.setReturnCode(0);
+    response.setDataList(dataList);
+    return response;
+  }
+
+  static ExportRfxResponse rfx(final String rfxId) {
+    var rfx = new ExportRfxResponse();
+    rfx.setRfxSetting(RfxSetting.builder().rfxId(rfxId).statusCode(300).build());
+    return rfx;
+  }
+}
@@ -1,6 +1,7 @@
 package uk.gov.crowncommercial.dts.scale.cat.service;
 
 import jakarta.validation.ValidationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -10,6 +11,8 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.web.reactive.function.client.WebClient;
+import uk.gov.crowncommercial.dts.scale.cat.cache.CacheInvalidationBus;
+import uk.gov.crowncommercial.dts.scale.cat.cache.OrganisationMappingReplica;
 import uk.gov.crowncommercial.dts.scale.cat.config.*;
 import uk.gov.crowncommercial.dts.scale.cat.exception.JaggaerApplicationException;
 import uk.gov.crowncommercial.dts.scale.cat.model.agreements.LotEventType;
@@ -30,9 +33,11 @@ import uk.gov.crowncommercial.dts.scale.cat.processors.store.JaggaerSupplierStor
 import uk.gov.crowncommercial.dts.scale.cat.repo.*;
 import uk.gov.crowncommercial.dts.scale.cat.repo.readonly.CalculationBaseRepo;
 import uk.gov.crowncommercial.dts.scale.cat.service.ca.AssessmentService;
+import uk.gov.crowncommercial.dts.scale.cat.service.documentupload.DocumentTransferService;
 import uk.gov.crowncommercial.dts.scale.cat.service.documentupload.DocumentUploadService;
 import uk.gov.crowncommercial.dts.scale.cat.utils.TendersAPIModelUtils;
 
+import java.io.ByteArrayInputStream;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.temporal.ChronoUnit;
@@ -51,7 +56,7 @@ import static org.mockito.Mockito.*;
         DocumentConfig.class, TendersAPIModelUtils.class, RetryableTendersDBDelegate.class,
         ApplicationFlagsConfig.class,EventTransitionService.class,
             SupplierStoreFactory.class, JaggaerSupplierStore.class, DatabaseSupplierStore.class,
-    DOS6SupplierStore.class},
+    DOS6SupplierStore.class, DocumentTransferService.class, SimpleMeterRegistry.class},
     webEnvironment = WebEnvironment.NONE)
 @EnableConfigurationProperties(JaggaerAPIConfig.class)
 class ProcurementEventServiceTest {
@@ -111,6 +116,12 @@ class ProcurementEventServiceTest {
   @MockitoBean
   private OrganisationMappingRepo organisationMappingRepo;
 
+  @MockitoBean
+  private OrganisationMappingReplica organisationMappingReplica;
+
+  @MockitoBean
+  private CacheInvalidationBus cacheInvalidationBus;
+
   @Autowired
   private ProcurementEventService procurementEventService;
 
@@ -1059,10 +1070,10 @@ class ProcurementEventServiceTest {
 
     when(validationService.validateProjectAndEventIds(PROC_PROJECT_ID, PROC_EVENT_ID))
         .thenReturn(procurementEvent);
-    when(documentUploadService.retrieveDocument(documentUpload1, PRINCIPAL))
-        .thenReturn(documentData1);
-    when(documentUploadService.retrieveDocument(documentUpload2, PRINCIPAL))
-        .thenReturn(documentData2);
+    when(documentUploadService.retrieveDocumentStream(documentUpload1, PRINCIPAL))
+        .thenReturn(new ByteArrayInputStream(documentData1));
+    when(documentUploadService.retrieveDocumentStream(documentUpload2, PRINCIPAL))
+        .thenReturn(new ByteArrayInputStream(documentData2));
 
     // Invoke & assert
     procurementEventService.publishEvent(PROC_PROJECT_ID, PROC_EVENT_ID, publishDates, PRINCIPAL);
@@ -1118,7 +1129,7 @@ class ProcurementEventServiceTest {
 
     // Mock behaviours
     when(procurementEventRepo.findByProjectId(PROC_PROJECT_ID)).thenReturn(events);
-    when(jaggaerService.searchRFx(Set.of(RFX_ID))).thenReturn(Set.of(rfxResponse));
+    when(jaggaerService.searchRFxCached(Set.of(RFX_ID))).thenReturn(Set.of(rfxResponse));
 
     var response = procurementEventService.getEventsForProject(PROC_PROJECT_ID, PRINCIPAL);
 
@@ -1747,7 +1758,7 @@ class ProcurementEventServiceTest {
 
     // Mock behaviours
     when(procurementEventRepo.findByProjectId(PROC_PROJECT_ID)).thenReturn(events);
-    when(jaggaerService.searchRFx(Set.of(RFX_ID))).thenReturn(Set.of(rfxResponse));
+    when(jaggaerService.searchRFxCached(Set.of(RFX_ID))).thenReturn(Set.of(rfxResponse));
 
     var response = procurementEventService.getEventsForProject(PROC_PROJECT_ID, PRINCIPAL);
 
@@ -1787,7 +1798,7 @@ class ProcurementEventServiceTest {
 
     // Mock behaviours
     when(procurementEventRepo.findByProjectId(PROC_PROJECT_ID)).thenReturn(events);
-    when(jaggaerService.searchRFx(Set.of(RFX_ID))).thenReturn(Set.of(rfxResponse));
+    when(jaggaerService.searchRFxCached(Set.of(RFX_ID))).thenReturn(Set.of(rfxResponse));
 
     var response = procurementEventService.getEventsForProject(PROC_PROJECT_ID, PRINCIPAL);
 
@@ -1827,7 +1838,7 @@ class ProcurementEventServiceTest {
 
     // Mock behaviours
     when(procurementEventRepo.findByProjectId(PROC_PROJECT_ID)).thenReturn(events);
-    when(jaggaerService.searchRFx(Set.of(RFX_ID))).thenReturn(Set.of(rfxResponse));
+    when(jaggaerService.searchRFxCached(Set.of(RFX_ID))).thenReturn(Set.of(rfxResponse));
 
     var response = procurementEventService.getEventsForProject(PROC_PROJECT_ID, PRINCIPAL);
 
@@ -1868,7 +1879,7 @@ class ProcurementEventServiceTest {
 
     // Mock behaviours
     when(procurementEventRepo.findByProjectId(PROC_PROJECT_ID)).thenReturn(events);
-    when(jaggaerService.searchRFx(Set.of(RFX_ID))).thenReturn(Set.of(rfxResponse));
+    when(jaggaerService.searchRFxCached(Set.of(RFX_ID))).thenReturn(Set.of(rfxResponse));
 
     var response = procurementEventService.getEventsForProject(PROC_PROJECT_ID, PRINCIPAL);
 
@@ -1907,7 +1918,7 @@ class ProcurementEventServiceTest {
 
     // Mock behaviours
     when(procurementEventRepo.findByProjectId(PROC_PROJECT_ID)).thenReturn(events);
-    when(jaggaerService.searchRFx(Set.of(RFX_ID))).thenReturn(Set.of(rfxResponse));
+    when(jaggaerService.searchRFxCached(Set.of(RFX_ID))).thenReturn(Set.of(rfxResponse));
 
     var response = procurementEventService.getEventsForProject(PROC_PROJECT_ID, PRINCIPAL);
 
@@ -188,7 +188,7 @@ class ProcurementProjectServiceTest {
             .thenReturn(List.of(projectUserMapping));
     
     // Mock the Jaggaer service to return some RFx data
-    when(jaggaerService.searchRFx(any(Set.class))).thenReturn(Set.of());
+    when(jaggaerService.searchRFxCached(any(Set.class))).thenReturn(Set.of());
 
     var response = procurementProjectService.getProjects(PRINCIPAL, null, null, "0", "20");
 
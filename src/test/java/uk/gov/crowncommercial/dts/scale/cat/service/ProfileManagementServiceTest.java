@@ -199,7 +199,7 @@ class ProfileManagementServiceTest {
     when(userProfileService.resolveBuyerUserBySSOUserLogin(USERID))
             .thenReturn(Optional.empty());
     // Mock the cache refresh method (it returns void, so we use doNothing)
-    doNothing().when(userProfileService).refreshBuyerCache(USERID);
+    doNothing().when(userProfileService).refreshBuyerCacheIfStale();
     // Mock that the user IS found as a supplier in Jaggaer (to create the conflict)
     when(userProfileService.resolveSupplierData(USERID, ORG_IDENTIFIER))
             .thenReturn(Optional.of(ReturnCompanyData.builder()
@@ -279,7 +279,7 @@ class ProfileManagementServiceTest {
     when(userProfileService.resolveBuyerUserBySSOUserLogin(USERID))
             .thenReturn(Optional.empty());
     // Mock the cache refresh method (it returns void, so we use doNothing)
-    doNothing().when(userProfileService).refreshBuyerCache(USERID);
+    doNothing().when(userProfileService).refreshBuyerCacheIfStale();
     // Mock that the user IS found as a supplier in Jaggaer (to create the conflict)
     when(userProfileService.resolveSupplierData(USERID, ORG_IDENTIFIER))
             .thenReturn(Optional.of(ReturnCompanyData.builder()
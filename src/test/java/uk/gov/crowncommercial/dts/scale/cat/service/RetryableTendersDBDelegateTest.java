@@ -22,6 +22,8 @@ import org.springframework.retry.policy.SimpleRetryPolicy;
 import org.springframework.retry.support.RetryTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.CannotCreateTransactionException;
+import uk.gov.crowncommercial.dts.scale.cat.cache.CacheInvalidationBus;
+import uk.gov.crowncommercial.dts.scale.cat.cache.OrganisationMappingReplica;
 import uk.gov.crowncommercial.dts.scale.cat.config.RetryConfig;
 import uk.gov.crowncommercial.dts.scale.cat.model.entity.ProcurementProject;
 import uk.gov.crowncommercial.dts.scale.cat.repo.*;
@@ -102,6 +104,12 @@ class RetryableTendersDBDelegateTest {
   @Mock
   private QuestionAndAnswerRepo questionAndAnswerRepo;
 
+  @Mock
+  private OrganisationMappingReplica organisationMappingReplica;
+
+  @Mock
+  private CacheInvalidationBus cacheInvalidationBus;
+
   private RetryTemplate retryTemplate;
 
   @BeforeEach
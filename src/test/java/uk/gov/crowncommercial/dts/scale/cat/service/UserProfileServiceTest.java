@@ -0,0 +1,117 @@
+package uk.gov.crowncommercial.dts.scale.cat.service;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static uk.gov.crowncommercial.dts.scale.cat.service.UserProfileService.BUYER_USER_CACHE;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import uk.gov.crowncommercial.dts.scale.cat.cache.CacheInvalidationBus;
+import uk.gov.crowncommercial.dts.scale.cat.config.ApplicationFlagsConfig;
+import uk.gov.crowncommercial.dts.scale.cat.config.JaggaerAPIConfig;
+import uk.gov.crowncommercial.dts.scale.cat.exception.JaggaerApplicationException;
+import uk.gov.crowncommercial.dts.scale.cat.model.jaggaer.CompanyInfo;
+import uk.gov.crowncommercial.dts.scale.cat.model.jaggaer.GetCompanyDataResponse;
+import uk.gov.crowncommercial.dts.scale.cat.model.jaggaer.ReturnCompanyData;
+import uk.gov.crowncommercial.dts.scale.cat.model.jaggaer.SubUsers;
+import uk.gov.crowncommercial.dts.scale.cat.model.jaggaer.SubUsers.SubUser;
+import uk.gov.crowncommercial.dts.scale.cat.repo.RetryableTendersDBDelegate;
+
+/**
+ * Service layer tests
+ */
+@ExtendWith(MockitoExtension.class)
+class UserProfileServiceTest {
+
+  private static final String USER_ID = "buyer.two@example.com";
+  private static final SubUser BUYER_1 = SubUser.builder().userId("1").email("buyer.one@example.com").build();
+  private static final SubUser BUYER_2 = SubUser.builder().userId("2").email(USER_ID).build();
+
+  @Mock
+  private JaggaerAPIConfig jaggaerAPIConfig;
+
+  @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+  private WebClient jaggaerWebClient;
+
+  @Mock
+  private RetryableTendersDBDelegate retryableTendersDBDelegate;
+
+  @Mock
+  private ApplicationFlagsConfig appFlagsConfig;
+
+  @Mock
+  private CacheInvalidationBus cacheInvalidationBus;
+
+  @InjectMocks
+  private UserProfileService userProfileService;
+
+  @BeforeEach
+  void setup() {
+    ReflectionTestUtils.setField(userProfileService, "minRefreshInterval", Duration.ofMinutes(1));
+    when(jaggaerAPIConfig.getGetBuyerCompanyProfile())
+        .thenReturn(Map.of(JaggaerAPIConfig.ENDPOINT, "/esop/jint/api/public/ja/v1/companyprofiles"));
+    when(jaggaerAPIConfig.getTimeoutDuration()).thenReturn(1);
+  }
+
+  @Test
+  void testRefreshBuyerCacheWhenJaggaerUnavailable() {
+    when(jaggaerWebClient.get().uri(anyString()).retrieve().bodyToMono(GetCompanyDataResponse.class)
+        .block(any(Duration.class)))
+            .thenReturn(buyerCompany(Set.of(BUYER_1)))
+            .thenThrow(new JaggaerApplicationException("1", "Unavailable"))
+            .thenReturn(buyerCompany(Set.of(BUYER_1, BUYER_2)));
+    assertEquals(BUYER_1, userProfileService.resolveBuyerUserByUserId("1").orElseThrow());
+
+    // The user has been created in Jaggaer, so failing to refresh mustn't fail their registration
+    assertDoesNotThrow(() -> userProfileService.refreshBuyerCache(USER_ID));
+    verify(cacheInvalidationBus).publish(BUYER_USER_CACHE, USER_ID);
+    assertTrue(userProfileService.resolveBuyerUserByUserId("2").isEmpty());
+
+    // Still rebuilt when the user is next looked for, even though the index is recent
+    userProfileService.refreshBuyerCacheIfStale();
+    assertEquals(BUYER_2, userProfileService.resolveBuyerUserByUserId("2").orElseThrow());
+  }
+
+  @Test
+  void testRefreshBuyerCacheIfStaleWhenJaggaerUnavailable() {
+    ReflectionTestUtils.setField(userProfileService, "minRefreshInterval", Duration.ZERO);
+    when(jaggaerWebClient.get().uri(anyString()).retrieve().bodyToMono(GetCompanyDataResponse.class)
+        .block(any(Duration.class)))
+            .thenReturn(buyerCompany(Set.of(BUYER_1)))
+            .thenThrow(new JaggaerApplicationException("1", "Unavailable"))
+            .thenReturn(buyerCompany(Set.of(BUYER_1, BUYER_2)));
+    assertEquals(BUYER_1, userProfileService.resolveBuyerUserByUserId("1").orElseThrow());
+
+    // Lookups carry on with the index already built
+    assertDoesNotThrow(() -> userProfileService.refreshBuyerCacheIfStale());
+    assertEquals(BUYER_1, userProfileService.resolveBuyerUserByUserId("1").orElseThrow());
+    assertTrue(userProfileService.resolveBuyerUserByUserId("2").isEmpty());
+
+    userProfileService.refreshBuyerCacheIfStale();
+    assertEquals(BUYER_2, userProfileService.resolveBuyerUserByUserId("2").orElseThrow());
+  }
+
+  private static GetCompanyDataResponse buyerCompany(final Set<SubUser> subUsers) {
+    var response = new GetCompanyDataResponse();
+    response.setReturnCode("0");
+    response.setReturnMessage("OK");
+    response.setReturnCompanyData(Set.of(ReturnCompanyData.builder()
+        .returnCompanyInfo(CompanyInfo.builder().bravoId("1234").build())
+        .returnSubUser(SubUsers.builder().subUsers(subUsers).build()).build()));
+    return response;
+  }
+}
@@ -0,0 +1,208 @@
+package uk.gov.crowncommercial.dts.scale.cat.service.ca;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static uk.gov.crowncommercial.dts.scale.cat.model.entity.Timestamps.createTimestamps;
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.ComponentScan.Filter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ContextConfiguration;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import uk.gov.crowncommercial.dts.scale.cat.assessment.AssessmentToolFactory;
+import uk.gov.crowncommercial.dts.scale.cat.cache.AssessmentScoreCache;
+import uk.gov.crowncommercial.dts.scale.cat.cache.DimensionDefinitionCache;
+import uk.gov.crowncommercial.dts.scale.cat.config.QueryCounter;
+import uk.gov.crowncommercial.dts.scale.cat.model.capability.generated.Criterion;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.AssessmentDimensionCriteria;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.AssessmentDimensionWeighting;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.AssessmentEntity;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.AssessmentSelection;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.AssessmentSelectionDetail;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.AssessmentStatusEntity;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.AssessmentTaxon;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.AssessmentTool;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.DimensionEntity;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.DimensionSubmissionType;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.DimensionValidValue;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.DimensionValidValueKey;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.RequirementEntity;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.RequirementTaxon;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.SubmissionType;
+import uk.gov.crowncommercial.dts.scale.cat.repo.AssessmentDimensionCriteriaRepo;
+import uk.gov.crowncommercial.dts.scale.cat.repo.AssessmentRepo;
+import uk.gov.crowncommercial.dts.scale.cat.repo.AssessmentSelectionRepo;
+import uk.gov.crowncommercial.dts.scale.cat.repo.DimensionRepo;
+import uk.gov.crowncommercial.dts.scale.cat.repo.RetryableTendersDBDelegate;
+import uk.gov.crowncommercial.dts.scale.cat.repo.readonly.SupplierSubmissionDataRepo;
+import uk.gov.crowncommercial.dts.scale.cat.service.AgreementsService;
+import uk.gov.crowncommercial.dts.scale.cat.service.ConclaveService;
+
+/**
+ * Statements run by getAssessment against an in-memory database, counted by {@link QueryCounter}
+ */
+@DataJpaTest(properties = {"spring.jpa.database=h2", "spring.jpa.hibernate.ddl-auto=create-drop"})
+@ContextConfiguration(classes = AssessmentServiceQueriesTest.JpaConfig.class)
+class AssessmentServiceQueriesTest {
+
+  private static final String PRINCIPAL = "jsmith@ccs.org.uk";
+
+  // The assessment and its weightings, its selections, its dimensions' valid values and its criteria
+  private static final int EXPECTED_QUERIES = 4;
+
+  @Configuration
+  @EntityScan(basePackageClasses = AssessmentEntity.class)
+  @EnableJpaRepositories(basePackageClasses = AssessmentRepo.class,
+      includeFilters = @Filter(type = FilterType.ASSIGNABLE_TYPE,
+          classes = {AssessmentRepo.class, AssessmentSelectionRepo.class, DimensionRepo.class,
+              AssessmentDimensionCriteriaRepo.class}))
+  @Import(QueryCounter.class)
+  static class JpaConfig {
+  }
+
+  @Autowired
+  private TestEntityManager entityManager;
+
+  @Autowired
+  private AssessmentRepo assessmentRepo;
+
+  @Autowired
+  private AssessmentSelectionRepo assessmentSelectionRepo;
+
+  @Autowired
+  private DimensionRepo dimensionRepo;
+
+  @Autowired
+  private AssessmentDimensionCriteriaRepo assessmentDimensionCriteriaRepo;
+
+  private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private AssessmentService assessmentService;
+  private AssessmentTool tool;
+  private SubmissionType selectType;
+  private SubmissionType integerType;
+  private RequirementTaxon requirementTaxon;
+
+  @BeforeEach
+  void setup() {
+    var retryableTendersDBDelegate = mock(RetryableTendersDBDelegate.class);
+    when(retryableTendersDBDelegate.findAssessmentWithDimensionWeightings(anyInt()))
+        .thenAnswer(invocation -> assessmentRepo
+            .findWithDimensionWeightingsById(invocation.getArgument(0)));
+    when(retryableTendersDBDelegate.findAssessmentSelectionsWithDetails(anyInt()))
+        .thenAnswer(invocation -> assessmentSelectionRepo
+            .findWithDetailsByAssessmentId(invocation.getArgument(0)));
+    when(retryableTendersDBDelegate.findDimensionsWithValidValues(anyCollection()))
+        .thenAnswer(invocation -> dimensionRepo.findWithValidValuesByIdIn(invocation.getArgument(0)));
+
+    assessmentService = new AssessmentService(mock(ConclaveService.class),
+        retryableTendersDBDelegate, mock(AgreementsService.class),
+        mock(AssessmentCalculationService.class), mock(SupplierSubmissionDataRepo.class),
+        new AssessmentDimensionCriteriaService(assessmentDimensionCriteriaRepo),
+        mock(AssessmentToolFactory.class), mock(AssessmentScoreCache.class),
+        mock(DimensionDefinitionCache.class), meterRegistry);
+
+    tool = entityManager.persist(AssessmentTool.builder().externalToolId("1").name("FC Tool")
+        .timestamps(createTimestamps(PRINCIPAL)).build());
+    selectType = entityManager.persist(SubmissionType.builder().code("0").name("Supplier")
+        .timestamps(createTimestamps(PRINCIPAL)).build());
+    integerType = entityManager.persist(SubmissionType.builder().code("1").name("Sub Contractor")
+        .timestamps(createTimestamps(PRINCIPAL)).build());
+    var requirement = entityManager.persist(RequirementEntity.builder().name("Java")
+        .timestamps(createTimestamps(PRINCIPAL)).build());
+    var taxon = entityManager.persist(AssessmentTaxon.builder().name("Development")
+        .timestamps(createTimestamps(PRINCIPAL)).build());
+    requirementTaxon = entityManager.persist(RequirementTaxon.builder().requirement(requirement)
+        .taxon(taxon).timestamps(createTimestamps(PRINCIPAL)).build());
+  }
+
+  @Test
+  void testGetAssessmentQueriesIndependentOfSize() {
+    var small = createAssessment(1);
+    var large = createAssessment(4);
+    entityManager.flush();
+    entityManager.clear();
+
+    var smallAssessment = assessmentService.getAssessment(small, false, Optional.empty());
+    assertEquals(EXPECTED_QUERIES, queriesRecorded());
+    entityManager.clear();
+
+    var largeAssessment = assessmentService.getAssessment(large, false, Optional.empty());
+    assertEquals(EXPECTED_QUERIES, queriesRecorded());
+
+    assertEquals(1, smallAssessment.getDimensionRequirements().size());
+    assertEquals(4, largeAssessment.getDimensionRequirements().size());
+    largeAssessment.getDimensionRequirements().forEach(dimensionRequirement -> {
+      assertEquals(2, dimensionRequirement.getIncludedCriteria().size());
+      var requirement = dimensionRequirement.getRequirements().get(0);
+      assertEquals("Java", requirement.getName());
+      assertEquals(Set.of("Option 1", "3.00"), requirement.getValues().stream()
+          .map(Criterion::getValue).collect(Collectors.toSet()));
+    });
+  }
+
+  private double queriesRecorded() {
+    return meterRegistry.get("cat.assessment.get.queries").tag("scores", "false").summary().max();
+  }
+
+  /*
+   * An assessment weighting each of the given number of dimensions, with a selection for each
+   */
+  private Integer createAssessment(final int dimensionCount) {
+    var assessment = entityManager.persist(AssessmentEntity.builder().tool(tool)
+        .assessmentName("Assessment").status(AssessmentStatusEntity.ACTIVE)
+        .timestamps(createTimestamps(PRINCIPAL)).build());
+    assessment.setDimensionWeightings(new HashSet<>());
+
+    for (int i = 0; i < dimensionCount; i++) {
+      var dimension = entityManager.persist(DimensionEntity.builder().name("Dimension " + i)
+          .timestamps(createTimestamps(PRINCIPAL)).build());
+      var validValueKey = new DimensionValidValueKey();
+      validValueKey.setDimensionId(dimension.getId());
+      validValueKey.setValueCode("OPT1");
+      entityManager.persist(DimensionValidValue.builder().key(validValueKey).valueName("Option 1")
+          .timestamps(createTimestamps(PRINCIPAL)).build());
+      var selectSubmission = entityManager.persist(DimensionSubmissionType.builder()
+          .dimension(dimension).submissionType(selectType).selectionType("Select")
+          .timestamps(createTimestamps(PRINCIPAL)).build());
+      var integerSubmission = entityManager.persist(DimensionSubmissionType.builder()
+          .dimension(dimension).submissionType(integerType).selectionType("Integer")
+          .timestamps(createTimestamps(PRINCIPAL)).build());
+
+      assessment.getDimensionWeightings().add(entityManager.persist(AssessmentDimensionWeighting
+          .builder().assessment(assessment).dimension(dimension).weightingPercentage(BigDecimal.TEN)
+          .dimensionSubmissionTypes(Set.of(selectSubmission, integerSubmission))
+          .timestamps(createTimestamps(PRINCIPAL)).build()));
+      entityManager.persist(AssessmentDimensionCriteria.builder().assessment(assessment)
+          .dimension(dimension).criterionId(0).active(true)
+          .timestamps(createTimestamps(PRINCIPAL)).build());
+
+      var selection = entityManager.persist(AssessmentSelection.builder().assessment(assessment)
+          .dimension(dimension).requirementTaxon(requirementTaxon)
+          .weightingPercentage(BigDecimal.valueOf(50)).timestamps(createTimestamps(PRINCIPAL))
+          .build());
+      entityManager.persist(AssessmentSelectionDetail.builder().assessmentSelection(selection)
+          .dimensionSubmissionType(selectSubmission).requirementValidValueCode("OPT1")
+          .timestamps(createTimestamps(PRINCIPAL)).build());
+      entityManager.persist(AssessmentSelectionDetail.builder().assessmentSelection(selection)
+          .dimensionSubmissionType(integerSubmission).requirementValue(BigDecimal.valueOf(3))
+          .timestamps(createTimestamps(PRINCIPAL)).build());
+    }
+    return assessment.getId();
+  }
+}
@@ -0,0 +1,172 @@
+package uk.gov.crowncommercial.dts.scale.cat.service.ca;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static uk.gov.crowncommercial.dts.scale.cat.model.entity.Timestamps.createTimestamps;
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import io.micrometer.core.instrument.MeterRegistry;
+import uk.gov.crowncommercial.dts.scale.cat.assessment.AssessmentToolFactory;
+import uk.gov.crowncommercial.dts.scale.cat.cache.AssessmentScoreCache;
+import uk.gov.crowncommercial.dts.scale.cat.cache.DimensionDefinitionCache;
+import uk.gov.crowncommercial.dts.scale.cat.model.capability.generated.DimensionRequirement;
+import uk.gov.crowncommercial.dts.scale.cat.model.capability.generated.Requirement;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.AssessmentDimensionWeighting;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.AssessmentEntity;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.AssessmentSelection;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.AssessmentTaxon;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.AssessmentTool;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.AssessmentToolDimension;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.DimensionEntity;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.RequirementEntity;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.RequirementTaxon;
+import uk.gov.crowncommercial.dts.scale.cat.repo.RetryableTendersDBDelegate;
+import uk.gov.crowncommercial.dts.scale.cat.repo.readonly.SupplierSubmissionDataRepo;
+import uk.gov.crowncommercial.dts.scale.cat.service.AgreementsService;
+import uk.gov.crowncommercial.dts.scale.cat.service.ConclaveService;
+
+@ExtendWith(MockitoExtension.class)
+class AssessmentServiceTest {
+
+  private static final Integer ASSESSMENT_ID = 1;
+  private static final Integer TOOL_ID = 2;
+  private static final Integer DIMENSION_ID = 3;
+  private static final Integer REQUIREMENT_ID = 4;
+  private static final String PRINCIPAL = "jsmith@ccs.org.uk";
+
+  @Mock
+  private ConclaveService conclaveService;
+
+  @Mock
+  private RetryableTendersDBDelegate retryableTendersDBDelegate;
+
+  @Mock
+  private AgreementsService agreementsService;
+
+  @Mock
+  private AssessmentCalculationService assessmentCalculationService;
+
+  @Mock
+  private SupplierSubmissionDataRepo ssDataRepo;
+
+  @Mock
+  private AssessmentDimensionCriteriaService assessmentDimensionCriteriaService;
+
+  @Mock
+  private AssessmentToolFactory toolFactory;
+
+  @Mock
+  private AssessmentScoreCache assessmentScoreCache;
+
+  @Mock
+  private DimensionDefinitionCache dimensionDefinitionCache;
+
+  @Mock
+  private MeterRegistry meterRegistry;
+
+  @InjectMocks
+  private AssessmentService assessmentService;
+
+  private DimensionEntity dimension;
+  private AssessmentSelection selection;
+  private AssessmentEntity assessment;
+
+  @BeforeEach
+  void setup() {
+    var requirementEntity = RequirementEntity.builder().id(REQUIREMENT_ID).build();
+    var taxon = AssessmentTaxon.builder().id(5).assessmentTaxons(Set.of())
+        .requirementTaxons(Set.of(RequirementTaxon.builder().requirement(requirementEntity).build()))
+        .build();
+    dimension = DimensionEntity.builder().id(DIMENSION_ID).name("Capability")
+        .assessmentTaxons(Set.of(taxon)).build();
+
+    var tool = AssessmentTool.builder().id(TOOL_ID)
+        .dimensionMapping(List.of(AssessmentToolDimension.builder().dimension(dimension)
+            .minWeightingPercentage(BigDecimal.ZERO).maxWeightingPercentage(BigDecimal.valueOf(100))
+            .build()))
+        .build();
+    assessment = AssessmentEntity.builder().id(ASSESSMENT_ID).tool(tool)
+        .timestamps(createTimestamps(PRINCIPAL)).build();
+
+    selection = AssessmentSelection.builder().id(6).assessment(assessment).dimension(dimension)
+        .requirementTaxon(RequirementTaxon.builder().requirement(requirementEntity).build())
+        .weightingPercentage(BigDecimal.valueOf(50)).timestamps(createTimestamps(PRINCIPAL)).build();
+    assessment.setAssessmentSelections(new HashSet<>(Set.of(selection)));
+    assessment.setDimensionWeightings(new HashSet<>(Set.of(AssessmentDimensionWeighting.builder()
+        .id(7).assessment(assessment).dimension(dimension).weightingPercentage(BigDecimal.TEN)
+        .timestamps(createTimestamps(PRINCIPAL)).build())));
+
+    when(retryableTendersDBDelegate.findAssessmentById(ASSESSMENT_ID))
+        .thenReturn(Optional.of(assessment));
+  }
+
+  @Test
+  void testUpdateDimensionInvalidatesScores() {
+    when(retryableTendersDBDelegate.findDimensionsByToolId(TOOL_ID)).thenReturn(Set.of(dimension));
+    var dimensionRequirement = new DimensionRequirement();
+    dimensionRequirement.setDimensionId(DIMENSION_ID);
+    dimensionRequirement.setWeighting(40);
+
+    assessmentService.updateDimension(ASSESSMENT_ID, DIMENSION_ID, dimensionRequirement, PRINCIPAL,
+        true);
+
+    // After the change is saved, so the next read recalculates from it
+    var inOrder = inOrder(retryableTendersDBDelegate, assessmentScoreCache);
+    inOrder.verify(retryableTendersDBDelegate).save(assessment);
+    inOrder.verify(assessmentScoreCache).invalidate(ASSESSMENT_ID);
+  }
+
+  @Test
+  void testUpdateRequirementInvalidatesScores() {
+    when(retryableTendersDBDelegate.findDimensionById(DIMENSION_ID))
+        .thenReturn(Optional.of(dimension));
+
+    assessmentService.updateRequirement(ASSESSMENT_ID, DIMENSION_ID, requirement(REQUIREMENT_ID),
+        PRINCIPAL);
+
+    var inOrder = inOrder(retryableTendersDBDelegate, assessmentScoreCache);
+    inOrder.verify(retryableTendersDBDelegate).save(selection);
+    inOrder.verify(assessmentScoreCache).invalidate(ASSESSMENT_ID);
+  }
+
+  @Test
+  void testRejectedRequirementLeavesScores() {
+    when(retryableTendersDBDelegate.findDimensionById(DIMENSION_ID))
+        .thenReturn(Optional.of(dimension));
+    var requirement = requirement(99);
+
+    assertThrows(IllegalArgumentException.class, () -> assessmentService
+        .updateRequirement(ASSESSMENT_ID, DIMENSION_ID, requirement, PRINCIPAL));
+
+    verify(assessmentScoreCache, never()).invalidate(anyInt());
+  }
+
+  @Test
+  void testDeleteRequirementInvalidatesScores() {
+    assessmentService.deleteRequirement(ASSESSMENT_ID, DIMENSION_ID, REQUIREMENT_ID, PRINCIPAL);
+
+    assertTrue(assessment.getAssessmentSelections().isEmpty());
+    verify(assessmentScoreCache).invalidate(ASSESSMENT_ID);
+  }
+
+  private static Requirement requirement(final Integer requirementId) {
+    var requirement = new Requirement();
+    requirement.setRequirementId(requirementId);
+    requirement.setWeighting(25);
+    return requirement;
+  }
+}
@@ -0,0 +1,65 @@
+package uk.gov.crowncommercial.dts.scale.cat.service.ca;
+
+import org.junit.jupiter.api.Test;
+import uk.gov.crowncommercial.dts.scale.cat.model.capability.generated.DimensionOption;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.AssessmentTaxon;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.DimensionEntity;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.RequirementEntity;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ca.RequirementTaxon;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class AssessmentTaxonTreeTest {
+
+    private static final Integer DIMENSION_ID = 1;
+
+    @Test
+    void testOptionsAndGroupsBuiltFromIndexedTaxonomy() {
+        // Taxonomy > Data > Analytics (group requirement + leaf), Taxonomy > Security (other dimension)
+        var taxonomy = taxon(1, "Taxonomy", null, 9);
+        var data = taxon(2, "Data", taxonomy, DIMENSION_ID);
+        var analytics = taxon(3, "Analytics", data, DIMENSION_ID);
+        var security = taxon(4, "Security", taxonomy, 2);
+        data.setRequirementTaxons(Set.of(requirementTaxon(10, "Data Roles", true)));
+        analytics.setRequirementTaxons(Set.of(requirementTaxon(11, "Data Analyst", false),
+                requirementTaxon(12, "Data Scientist", false)));
+        security.setRequirementTaxons(Set.of(requirementTaxon(13, "Pen Tester", false)));
+
+        var tree = new AssessmentTaxonTree(List.of(taxonomy, data, analytics, security));
+        var roots = tree.getTaxons(Set.of(1, 2, 3, 4), DIMENSION_ID);
+        assertEquals(Set.of(data, analytics), roots);
+
+        var options = new HashSet<DimensionOption>();
+        roots.forEach(at -> options.addAll(tree.getOptions(at)));
+        var groupsByRequirement = options.stream().collect(Collectors.toMap(DimensionOption::getName,
+                o -> o.getGroups().stream().map(g -> g.getLevel() + ":" + g.getName()).toList()));
+
+        assertEquals(Map.of("Data Roles", List.of(), "Data Analyst", List.of("1:Data", "2:Analytics"),
+                "Data Scientist", List.of("1:Data", "2:Analytics")), groupsByRequirement);
+
+        // The chain is built once per taxon, and shared by its requirements
+        var byName = options.stream().collect(Collectors.toMap(DimensionOption::getName, o -> o));
+        assertSame(byName.get("Data Analyst").getGroups(), byName.get("Data Scientist").getGroups());
+        assertEquals("Analytics description", byName.get("Data Analyst").getGroups().get(1).getDescription());
+    }
+
+    private static AssessmentTaxon taxon(final Integer id, final String name, final AssessmentTaxon parent,
+                                         final Integer dimensionId) {
+        return AssessmentTaxon.builder().id(id).name(name).description(name + " description").parentTaxon(parent)
+                .dimensions(Set.of(DimensionEntity.builder().id(dimensionId).build()))
+                .requirementTaxons(Set.of()).assessmentTaxons(Set.of()).build();
+    }
+
+    private static RequirementTaxon requirementTaxon(final Integer requirementId, final String name,
+                                                     final boolean groupRequirement) {
+        var requirement = new RequirementEntity();
+        requirement.setId(requirementId);
+        requirement.setName(name);
+        requirement.setGroupRequirement(groupRequirement);
+        return RequirementTaxon.builder().id(requirementId).requirement(requirement).build();
+    }
+}
@@ -0,0 +1,195 @@
+package uk.gov.crowncommercial.dts.scale.cat.service.documentupload;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.multipart.MultipartFile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import uk.gov.crowncommercial.dts.scale.cat.exception.DocumentUploadApplicationException;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.DocumentUpload;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ProcurementEvent;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ProcurementProject;
+import uk.gov.crowncommercial.dts.scale.cat.model.generated.DocumentAudienceType;
+import uk.gov.crowncommercial.dts.scale.cat.service.JaggaerService;
+import uk.gov.crowncommercial.dts.scale.cat.utils.InputStreamMultipartFile;
+
+@ExtendWith(MockitoExtension.class)
+class DocumentTransferServiceTest {
+
+  private static final String PRINCIPAL = "jsmith@ccs.org.uk";
+
+  @Mock
+  private DocumentUploadService documentUploadService;
+
+  @Mock
+  private JaggaerService jaggaerService;
+
+  private SimpleMeterRegistry meterRegistry;
+  private DocumentTransferService documentTransferService;
+  private ProcurementEvent event;
+
+  @BeforeEach
+  void setup() {
+    meterRegistry = new SimpleMeterRegistry();
+    documentTransferService =
+        new DocumentTransferService(documentUploadService, jaggaerService, meterRegistry, 2, 4096);
+    event = ProcurementEvent.builder().id(1).ocdsAuthorityName("ocds").ocidPrefix("pfhb7i")
+        .project(ProcurementProject.builder().id(2).build()).build();
+  }
+
+  @AfterEach
+  void tearDown() {
+    documentTransferService.destroy();
+  }
+
+  @Test
+  void testDocumentsStreamedToJaggaer() {
+    var pdf = documentUpload("YnV5ZXItMjM3MDU4LW5pY2VwZGYucGRm", "application/pdf");
+    var png = documentUpload("c3VwcGxpZXItNjU5MzUtbmljZXBuZy5wbmc=", "image/png");
+    when(documentUploadService.retrieveDocumentStream(pdf, PRINCIPAL))
+        .thenReturn(new ResponseInputStream<>(GetObjectResponse.builder().contentLength(3L).build(),
+            new ByteArrayInputStream(new byte[] {'a', 'b', 'c'})));
+    when(documentUploadService.retrieveDocumentStream(png, PRINCIPAL))
+        .thenReturn(new ByteArrayInputStream(new byte[] {'1', '2'}));
+
+    // The stream is closed once uploaded, so is read as Jaggaer would
+    Map<String, MultipartFile> files = new ConcurrentHashMap<>();
+    Map<String, byte[]> contents = new ConcurrentHashMap<>();
+    doAnswer(invocation -> {
+      MultipartFile file = invocation.getArgument(4);
+      files.put(invocation.getArgument(1), file);
+      contents.put(invocation.getArgument(1), file.getInputStream().readAllBytes());
+      return null;
+    }).when(jaggaerService).eventUploadDocument(eq(event), any(), any(), any(), any());
+
+    documentTransferService.transferToJaggaer(event, List.of(pdf, png), PRINCIPAL);
+
+    // S3 gives the length, so the object is sent on as it's read
+    assertTrue(files.get("nicepdf.pdf") instanceof InputStreamMultipartFile);
+    assertEquals(3, files.get("nicepdf.pdf").getSize());
+    assertEquals("application/pdf", files.get("nicepdf.pdf").getContentType());
+    assertArrayEquals(new byte[] {'a', 'b', 'c'}, contents.get("nicepdf.pdf"));
+    assertEquals(2, files.get("nicepng.png").getSize());
+    assertArrayEquals(new byte[] {'1', '2'}, contents.get("nicepng.png"));
+
+    assertEquals(2,
+        meterRegistry.get("cat.document.transfer").tag("result", "uploaded").timer().count());
+    assertEquals(5, meterRegistry.get("cat.document.transfer.bytes").summary().totalAmount());
+  }
+
+  @Test
+  void testUploadFailureSkippedAndRetrievalFailureThrown() {
+    var pdf = documentUpload("YnV5ZXItMjM3MDU4LW5pY2VwZGYucGRm", "application/pdf");
+    var png = documentUpload("c3VwcGxpZXItNjU5MzUtbmljZXBuZy5wbmc=", "image/png");
+    var gif = documentUpload("c3VwcGxpZXItNjU5MzYtbmljZWdpZi5naWY=", "image/gif");
+    var retrievalFailure = new DocumentUploadApplicationException(500, "Unavailable");
+    when(documentUploadService.retrieveDocumentStream(pdf, PRINCIPAL))
+        .thenReturn(new ByteArrayInputStream(new byte[] {'a'}));
+    when(documentUploadService.retrieveDocumentStream(png, PRINCIPAL))
+        .thenReturn(new ByteArrayInputStream(new byte[] {'1'}));
+    when(documentUploadService.retrieveDocumentStream(gif, PRINCIPAL)).thenThrow(retrievalFailure);
+    // Lenient, as the other documents are uploaded with different arguments
+    lenient().doThrow(new IllegalStateException("Jaggaer unavailable")).when(jaggaerService)
+        .eventUploadDocument(eq(event), eq("nicepdf.pdf"), any(), any(), any());
+
+    var thrown = assertThrows(DocumentUploadApplicationException.class,
+        () -> documentTransferService.transferToJaggaer(event, List.of(pdf, png, gif), PRINCIPAL));
+
+    assertSame(retrievalFailure, thrown);
+    verify(jaggaerService, times(2)).eventUploadDocument(eq(event), any(), any(), any(), any());
+    assertEquals(1,
+        meterRegistry.get("cat.document.transfer").tag("result", "failed").timer().count());
+  }
+
+  @Test
+  void testRetrievalFailureThrownAndRoomReleased() {
+    var pdf = documentUpload("YnV5ZXItMjM3MDU4LW5pY2VwZGYucGRm", "application/pdf");
+    pdf.setSize(4096L);
+    var png = documentUpload("c3VwcGxpZXItNjU5MzUtbmljZXBuZy5wbmc=", "image/png");
+    png.setSize(4096L);
+    when(documentUploadService.retrieveDocumentStream(pdf, PRINCIPAL)).thenAnswer(invocation -> {
+      throw new IOException("S3 unavailable");
+    });
+
+    var thrown = assertThrows(CompletionException.class,
+        () -> documentTransferService.transferToJaggaer(event, List.of(pdf), PRINCIPAL));
+    assertTrue(thrown.getCause() instanceof IOException);
+
+    // Each takes all the room there is, so this only goes ahead if the failed one gave it back
+    when(documentUploadService.retrieveDocumentStream(png, PRINCIPAL))
+        .thenReturn(new ByteArrayInputStream(new byte[] {'1'}));
+    assertTimeoutPreemptively(Duration.ofSeconds(5),
+        () -> documentTransferService.transferToJaggaer(event, List.of(png), PRINCIPAL));
+    verify(jaggaerService).eventUploadDocument(eq(event), eq("nicepng.png"), any(), any(), any());
+  }
+
+  @Test
+  void testDocumentNotOpenedUntilThereIsRoom() throws Exception {
+    var pdf = documentUpload("YnV5ZXItMjM3MDU4LW5pY2VwZGYucGRm", "application/pdf");
+    pdf.setSize(4096L);
+    var png = documentUpload("c3VwcGxpZXItNjU5MzUtbmljZXBuZy5wbmc=", "image/png");
+    png.setSize(4096L);
+    when(documentUploadService.retrieveDocumentStream(any(), eq(PRINCIPAL)))
+        .thenAnswer(invocation -> new ByteArrayInputStream(new byte[] {'a'}));
+
+    var uploading = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    doAnswer(invocation -> {
+      uploading.countDown();
+      release.await(5, TimeUnit.SECONDS);
+      return null;
+    }).when(jaggaerService).eventUploadDocument(eq(event), any(), any(), any(), any());
+
+    var executor = Executors.newSingleThreadExecutor();
+    try {
+      var transfer = executor
+          .submit(() -> documentTransferService.transferToJaggaer(event, List.of(pdf, png), PRINCIPAL));
+      assertTrue(uploading.await(5, TimeUnit.SECONDS));
+
+      // The other document waits for the first to finish before its S3 object is opened
+      Thread.sleep(200);
+      verify(documentUploadService, times(1)).retrieveDocumentStream(any(), eq(PRINCIPAL));
+
+      release.countDown();
+      transfer.get(5, TimeUnit.SECONDS);
+      verify(documentUploadService, times(2)).retrieveDocumentStream(any(), eq(PRINCIPAL));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private DocumentUpload documentUpload(final String documentId, final String mimetype) {
+    return DocumentUpload.builder().documentId(documentId).mimetype(mimetype)
+        .documentDescription("A document").audience(DocumentAudienceType.BUYER)
+        .procurementEvent(event).build();
+  }
+}
@@ -0,0 +1,237 @@
+package uk.gov.crowncommercial.dts.scale.cat.service.scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHitsIterator;
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import uk.gov.crowncommercial.dts.scale.cat.model.agreements.AgreementDetail;
+import uk.gov.crowncommercial.dts.scale.cat.model.agreements.LotDetail;
+import uk.gov.crowncommercial.dts.scale.cat.model.conclave_wrapper.generated.OrganisationIdentifier;
+import uk.gov.crowncommercial.dts.scale.cat.model.conclave_wrapper.generated.OrganisationProfileResponseInfo;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.OrganisationMapping;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ProcurementEvent;
+import uk.gov.crowncommercial.dts.scale.cat.model.entity.ProcurementProject;
+import uk.gov.crowncommercial.dts.scale.cat.model.generated.ProjectPublicDetail.StatusEnum;
+import uk.gov.crowncommercial.dts.scale.cat.model.jaggaer.ExportRfxResponse;
+import uk.gov.crowncommercial.dts.scale.cat.model.jaggaer.RfxSearchResult;
+import uk.gov.crowncommercial.dts.scale.cat.model.jaggaer.RfxSetting;
+import uk.gov.crowncommercial.dts.scale.cat.model.search.ProcurementEventSearch;
+import uk.gov.crowncommercial.dts.scale.cat.repo.RetryableTendersDBDelegate;
+import uk.gov.crowncommercial.dts.scale.cat.repo.search.SearchProjectRepo;
+import uk.gov.crowncommercial.dts.scale.cat.service.AgreementsService;
+import uk.gov.crowncommercial.dts.scale.cat.service.ConclaveService;
+import uk.gov.crowncommercial.dts.scale.cat.service.JaggaerService;
+import uk.gov.crowncommercial.dts.scale.cat.service.ocds.EventSubStatus;
+import uk.gov.crowncommercial.dts.scale.cat.service.ocds.JaggaerStatus;
+
+@ExtendWith(MockitoExtension.class)
+class ProjectsToOpenSearchScheduledTaskTest {
+
+  private static final String DOS6_AGREEMENT_ID = "RM1043.8";
+  private static final String ORG_ID = "GB-COH-12345678";
+  private static final Instant LAST_WEEK = Instant.now().minus(7, ChronoUnit.DAYS);
+  private static final Instant YESTERDAY = Instant.now().minus(1, ChronoUnit.DAYS);
+
+  @Mock
+  private SearchProjectRepo searchProjectRepo;
+
+  @Mock
+  private RetryableTendersDBDelegate retryableTendersDBDelegate;
+
+  @Mock
+  private AgreementsService agreementsService;
+
+  @Mock
+  private ConclaveService conclaveService;
+
+  @Mock
+  private JaggaerService jaggaerService;
+
+  @Mock
+  private ElasticsearchOperations elasticsearchOperations;
+
+  private ProjectsToOpenSearchScheduledTask projectsToOpenSearchScheduledTask;
+
+  // What the mocked index and Jaggaer hold
+  private final Map<String, ProcurementEventSearch> index = new TreeMap<>();
+  private final Map<String, Integer> rfxStatuses = new HashMap<>();
+  private final Set<String> failingRfxIds = new HashSet<>();
+
+  private ProcurementProject openProject;
+  private ProcurementProject awardedProject;
+  private ProcurementProject newProject;
+
+  @BeforeEach
+  void setup() {
+    projectsToOpenSearchScheduledTask = new ProjectsToOpenSearchScheduledTask(searchProjectRepo,
+        retryableTendersDBDelegate, agreementsService, conclaveService, jaggaerService,
+        elasticsearchOperations, new SimpleMeterRegistry());
+    ReflectionTestUtils.setField(projectsToOpenSearchScheduledTask, "bathcSize", 80);
+
+    openProject = project(1, "rfq_1", JaggaerStatus.RUNNING);
+    awardedProject = project(2, "rfq_2", JaggaerStatus.AWARDED);
+    newProject = project(3, "rfq_3", JaggaerStatus.RUNNING);
+    index.put("1", document(1, StatusEnum.OPEN.getValue(), null));
+    index.put("2", document(2, StatusEnum.CLOSED.getValue(), EventSubStatus.AWARDED.getValue()));
+    // No longer published, but updated more recently than the others were
+    index.put("99", document(99, StatusEnum.OPEN.getValue(), null));
+    index.get("99").setLastUpdated(YESTERDAY.getEpochSecond());
+
+    when(retryableTendersDBDelegate.findPublishedEventsByAgreementId(DOS6_AGREEMENT_ID))
+        .thenReturn(Set.of(openProject, awardedProject, newProject));
+    when(elasticsearchOperations.searchForStream(any(Query.class), eq(ProcurementEventSearch.class)))
+        .thenAnswer(invocation -> indexedDocuments());
+    lenient().when(jaggaerService.searchRFxById(anySet(), anySet()))
+        .thenAnswer(invocation -> searchRfxs(invocation.getArgument(0)));
+    lenient().when(agreementsService.getAgreementDetails(DOS6_AGREEMENT_ID))
+        .thenReturn(new AgreementDetail());
+    lenient().when(agreementsService.getLotDetails(eq(DOS6_AGREEMENT_ID), anyString()))
+        .thenReturn(new LotDetail());
+    lenient().when(conclaveService.getOrganisationIdentity(ORG_ID))
+        .thenReturn(Optional.of(new OrganisationProfileResponseInfo()
+            .identifier(new OrganisationIdentifier().legalName("Test Org"))));
+    lenient().doAnswer(invocation -> {
+      Iterable<ProcurementEventSearch> documents = invocation.getArgument(0);
+      documents.forEach(document -> index.put(document.getId(), document));
+      return documents;
+    }).when(searchProjectRepo).saveAll(any());
+    lenient().doAnswer(invocation -> {
+      Iterable<String> ids = invocation.getArgument(0);
+      ids.forEach(index::remove);
+      return null;
+    }).when(searchProjectRepo).deleteAllById(any());
+  }
+
+  @Test
+  void testFirstRunAfterStartRederivesEveryProject() {
+    projectsToOpenSearchScheduledTask.saveProjectsDataToOpenSearch();
+
+    // Even projects already indexed as final, as the index can't say which of them are current
+    verify(agreementsService, times(3)).getLotDetails(eq(DOS6_AGREEMENT_ID), anyString());
+    verify(searchProjectRepo).deleteAllById(Set.of("99"));
+    assertEquals(Set.of("1", "2", "3"), index.keySet());
+    assertEquals(StatusEnum.OPEN.getValue(), index.get("3").getStatus());
+    assertEquals("Test Org", index.get("3").getBuyerName());
+  }
+
+  @Test
+  void testLaterRunsOnlyRederiveChangedProjects() {
+    projectsToOpenSearchScheduledTask.saveProjectsDataToOpenSearch();
+    clearInvocations(agreementsService, jaggaerService, searchProjectRepo);
+
+    // Project 1 edited locally, project 3 closed in Jaggaer
+    openProject.getProcurementEvents().iterator().next()
+        .setUpdatedAt(Instant.now().plusSeconds(1));
+    rfxStatuses.put("rfq_3", JaggaerStatus.AWARDED.getValue());
+
+    projectsToOpenSearchScheduledTask.saveProjectsDataToOpenSearch();
+
+    verify(agreementsService).getLotDetails(DOS6_AGREEMENT_ID, "1");
+    verify(agreementsService, times(1)).getLotDetails(eq(DOS6_AGREEMENT_ID), anyString());
+    // Final statuses aren't re-checked in Jaggaer
+    verify(jaggaerService, never()).searchRFxById(
+        argThat(ids -> ids.contains("rfq_2")), anySet());
+    verify(searchProjectRepo, never()).deleteAllById(anyCollection());
+    assertEquals(StatusEnum.CLOSED.getValue(), index.get("3").getStatus());
+    assertEquals(EventSubStatus.AWARDED.getValue(), index.get("3").getSubStatus());
+  }
+
+  @Test
+  void testProjectsWithUnresolvedRfxsAreKeptAndRetried() {
+    failingRfxIds.add("rfq_3");
+
+    projectsToOpenSearchScheduledTask.saveProjectsDataToOpenSearch();
+
+    // Left out of the index rather than deleted, and the watermark isn't moved on
+    assertEquals(Set.of("1", "2"), index.keySet());
+    clearInvocations(agreementsService);
+    failingRfxIds.clear();
+
+    projectsToOpenSearchScheduledTask.saveProjectsDataToOpenSearch();
+
+    verify(agreementsService, times(3)).getLotDetails(eq(DOS6_AGREEMENT_ID), anyString());
+    assertEquals(Set.of("1", "2", "3"), index.keySet());
+  }
+
+  private ProcurementProject project(final Integer id, final String rfxId,
+      final JaggaerStatus status) {
+    var project = ProcurementProject.builder().id(id).lotNumber(String.valueOf(id))
+        .projectName("Project " + id).updatedAt(LAST_WEEK)
+        .organisationMapping(OrganisationMapping.builder().organisationId(ORG_ID).build()).build();
+    var event = ProcurementEvent.builder().id(id * 10).project(project).externalEventId(rfxId)
+        .publishDate(LAST_WEEK).createdAt(LAST_WEEK).updatedAt(LAST_WEEK).build();
+    project.setProcurementEvents(new HashSet<>(List.of(event)));
+    rfxStatuses.put(rfxId, status.getValue());
+    return project;
+  }
+
+  private static ProcurementEventSearch document(final Integer projectId, final String status,
+      final String subStatus) {
+    return ProcurementEventSearch.builder().id(String.valueOf(projectId)).projectId(projectId)
+        .status(status).subStatus(subStatus).lastUpdated(LAST_WEEK.getEpochSecond()).build();
+  }
+
+  @SuppressWarnings("unchecked")
+  private SearchHitsIterator<ProcurementEventSearch> indexedDocuments() {
+    var hits = index.values().stream().map(document -> {
+      SearchHit<ProcurementEventSearch> hit = mock(SearchHit.class);
+      when(hit.getId()).thenReturn(document.getId());
+      when(hit.getContent()).thenReturn(document);
+      return hit;
+    }).toList();
+    SearchHitsIterator<ProcurementEventSearch> iterator = mock(SearchHitsIterator.class);
+    doAnswer(invocation -> {
+      Consumer<SearchHit<ProcurementEventSearch>> action = invocation.getArgument(0);
+      hits.forEach(action);
+      return null;
+    }).when(iterator).forEachRemaining(any());
+    return iterator;
+  }
+
+  private RfxSearchResult searchRfxs(final Collection<String> rfxIds) {
+    var rfxs = rfxIds.stream().filter(rfxId -> !failingRfxIds.contains(rfxId)).map(rfxId -> {
+      var rfx = new ExportRfxResponse();
+      rfx.setRfxSetting(RfxSetting.builder().rfxId(rfxId).statusCode(rfxStatuses.get(rfxId))
+          .publishDate(OffsetDateTime.now().minusDays(7)).closeDate(OffsetDateTime.now().plusDays(7))
+          .build());
+      return rfx;
+    }).collect(Collectors.toMap(rfx -> rfx.getRfxSetting().getRfxId(), rfx -> rfx));
+    var failed = rfxIds.stream().filter(failingRfxIds::contains).collect(Collectors.toSet());
+    return new RfxSearchResult(rfxs, failed);
+  }
+}
@@ -0,0 +1,162 @@
+package uk.gov.crowncommercial.dts.scale.cat.service.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.opensearch.data.client.orhlc.NativeSearchQuery;
+import org.opensearch.search.sort.FieldSortBuilder;
+import org.opensearch.search.sort.ShardDocSortBuilder;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import uk.gov.crowncommercial.dts.scale.cat.model.search.ProcurementEventSearch;
+
+@ExtendWith(MockitoExtension.class)
+class ProjectSearchIndexLoaderTest {
+
+  private static final String POINT_IN_TIME_ID = "pit-1";
+
+  @Mock
+  private ElasticsearchOperations elasticsearchOperations;
+
+  private ProjectSearchIndexLoader projectSearchIndexLoader;
+
+  @BeforeEach
+  void setup() {
+    projectSearchIndexLoader =
+        new ProjectSearchIndexLoader(elasticsearchOperations, new SimpleMeterRegistry());
+    ReflectionTestUtils.setField(projectSearchIndexLoader, "pageSize", 2);
+    ReflectionTestUtils.setField(projectSearchIndexLoader, "pointInTimeKeepAliveSeconds", 60L);
+  }
+
+  @AfterEach
+  void tearDown() {
+    projectSearchIndexLoader.destroy();
+  }
+
+  @Test
+  void testLoadPagesAgainstPointInTimeByShardDoc() {
+    openPointInTime();
+    var firstPage = hits(doc("1", 10), doc("2", 20));
+    var lastPage = hits(doc("3", 30));
+    when(elasticsearchOperations.search(any(Query.class), eq(ProcurementEventSearch.class)))
+        .thenReturn(firstPage, lastPage);
+
+    var index = projectSearchIndexLoader.refresh().join();
+
+    assertEquals(3, index.size());
+    var queries = ArgumentCaptor.forClass(Query.class);
+    verify(elasticsearchOperations, times(2)).search(queries.capture(),
+        eq(ProcurementEventSearch.class));
+    var sorts = ((NativeSearchQuery) queries.getValue()).getOpenSearchSorts();
+    assertEquals("projectId", ((FieldSortBuilder) sorts.get(0)).getFieldName());
+    assertTrue(sorts.get(1) instanceof ShardDocSortBuilder);
+    assertEquals(POINT_IN_TIME_ID, queries.getValue().getPointInTime().id());
+    assertEquals(List.of(20, 2L), queries.getValue().getSearchAfter());
+    verify(elasticsearchOperations).closePointInTime(POINT_IN_TIME_ID);
+  }
+
+  @Test
+  void testPreviousGenerationServedUntilLoadComplete() throws Exception {
+    openPointInTime();
+    var loadStarted = new CountDownLatch(1);
+    var releaseLoad = new CountDownLatch(1);
+    var loadThread = new CompletableFuture<String>();
+    var previousPage = hits(doc("1", 10));
+    var currentPage = hits(doc("1", 10), doc("2", 20));
+    var emptyPage = hits();
+    when(elasticsearchOperations.search(any(Query.class), eq(ProcurementEventSearch.class)))
+        .thenReturn(previousPage).thenAnswer(invocation -> {
+          loadThread.complete(Thread.currentThread().getName());
+          loadStarted.countDown();
+          releaseLoad.await(5, TimeUnit.SECONDS);
+          return currentPage;
+        }).thenReturn(emptyPage);
+    var previous = projectSearchIndexLoader.getIndex();
+
+    var load = projectSearchIndexLoader.refresh();
+    assertTrue(loadStarted.await(5, TimeUnit.SECONDS));
+    assertSame(previous, projectSearchIndexLoader.getIndex());
+    assertSame(load, projectSearchIndexLoader.refresh());
+
+    releaseLoad.countDown();
+    var current = load.get(5, TimeUnit.SECONDS);
+    assertEquals(2, current.size());
+    assertSame(current, projectSearchIndexLoader.getIndex());
+    assertTrue(loadThread.join().startsWith("search-cache-load-"));
+  }
+
+  @Test
+  void testPreviousGenerationKeptWithoutPointInTime() {
+    var indexCoordinates = IndexCoordinates.of("procurement-events");
+    when(elasticsearchOperations.getIndexCoordinatesFor(ProcurementEventSearch.class))
+        .thenReturn(indexCoordinates);
+    when(elasticsearchOperations.openPointInTime(eq(indexCoordinates), any()))
+        .thenReturn(POINT_IN_TIME_ID)
+        .thenThrow(new IllegalStateException("Point in time unavailable"));
+    var page = hits(doc("1", 10));
+    when(elasticsearchOperations.search(any(Query.class), eq(ProcurementEventSearch.class)))
+        .thenReturn(page);
+    var previous = projectSearchIndexLoader.getIndex();
+
+    var load = projectSearchIndexLoader.refresh();
+
+    assertThrows(CompletionException.class, load::join);
+    assertSame(previous, projectSearchIndexLoader.getIndex());
+  }
+
+  private void openPointInTime() {
+    var indexCoordinates = IndexCoordinates.of("procurement-events");
+    when(elasticsearchOperations.getIndexCoordinatesFor(ProcurementEventSearch.class))
+        .thenReturn(indexCoordinates);
+    when(elasticsearchOperations.openPointInTime(eq(indexCoordinates), any()))
+        .thenReturn(POINT_IN_TIME_ID);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static SearchHits<ProcurementEventSearch> hits(final ProcurementEventSearch... documents) {
+    var hits = mock(SearchHits.class);
+    List<SearchHit<ProcurementEventSearch>> page = new ArrayList<>();
+    for (ProcurementEventSearch document : documents) {
+      SearchHit<ProcurementEventSearch> hit = mock(SearchHit.class);
+      when(hit.getContent()).thenReturn(document);
+      // The project and the document's _shard_doc
+      lenient().when(hit.getSortValues())
+          .thenReturn(List.of(document.getProjectId(), Long.valueOf(document.getId())));
+      page.add(hit);
+    }
+    when(hits.getSearchHits()).thenReturn(page);
+    when(hits.getPointInTimeId()).thenReturn(POINT_IN_TIME_ID);
+    return hits;
+  }
+
+  private static ProcurementEventSearch doc(final String id, final Integer projectId) {
+    return ProcurementEventSearch.builder().id(id).projectId(projectId).projectName("Project " + id)
+        .lot("Lot 1").status("open").build();
+  }
+}
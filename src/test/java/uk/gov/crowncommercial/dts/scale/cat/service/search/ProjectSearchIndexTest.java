@@ -0,0 +1,75 @@
+package uk.gov.crowncommercial.dts.scale.cat.service.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import uk.gov.crowncommercial.dts.scale.cat.model.search.ProcurementEventSearch;
+
+class ProjectSearchIndexTest {
+
+  private final ProjectSearchIndex index = ProjectSearchIndex.build(List.of(
+      doc("3", 30, "Cloud hosting services", "Hosting for the DVLA portal", "Lot 1", "open"),
+      doc("1a", 10, "Data platform", "Build a data-warehouse", "Lot 2", "closed"),
+      doc("2", 20, "User research", "Discovery for Cloud migration", "Lot 1", "closed"),
+      doc("1b", 10, "Data platform", "Build a data-warehouse", "Lot 1", "open")));
+
+  @Test
+  void testSearchWithoutCriteriaReturnsProjectsDeduplicatedAndSorted() {
+    var result = index.search(null, null, null, 0, 10);
+
+    assertEquals(3, result.getTotalResults());
+    assertEquals(List.of(10, 20, 30), projectIds(result));
+    // First loaded document for a project wins
+    assertEquals("1a", result.getResults().get(0).getId());
+  }
+
+  @Test
+  void testSearchKeywordMatchesSubstringsCaseInsensitively() {
+    assertEquals(List.of(20, 30), projectIds(index.search("CLOUD", null, null, 0, 10)));
+    assertEquals(List.of(30), projectIds(index.search("ost", null, null, 0, 10)));
+    assertEquals(List.of(10), projectIds(index.search("a data-ware", null, null, 0, 10)));
+    assertTrue(index.search("data warehouse", null, null, 0, 10).getResults().isEmpty());
+  }
+
+  @Test
+  void testSearchKeywordMatchesAnywhereInTerm() {
+    // Start, middle and end of a term
+    assertEquals(List.of(30), projectIds(index.search("host", null, null, 0, 10)));
+    assertEquals(List.of(30), projectIds(index.search("stin", null, null, 0, 10)));
+    assertEquals(List.of(30), projectIds(index.search("ting", null, null, 0, 10)));
+    assertEquals(List.of(20), projectIds(index.search("sear", null, null, 0, 10)));
+    // Contained more than once in the same term ("data"), and in several terms
+    assertEquals(List.of(10), projectIds(index.search("a", "lot 2", null, 0, 10)));
+    assertTrue(index.search("hostings", null, null, 0, 10).getResults().isEmpty());
+  }
+
+  @Test
+  void testSearchCombinesLotStatusAndKeyword() {
+    var result = index.search("data", "lot 1", List.of("open"), 0, 10);
+
+    assertEquals(1, result.getTotalResults());
+    assertEquals("1b", result.getResults().get(0).getId());
+    assertEquals(List.of(20), projectIds(index.search(null, "Lot 1", List.of("closed"), 0, 10)));
+    assertEquals(0, index.search(null, "Lot 9", null, 0, 10).getTotalResults());
+  }
+
+  @Test
+  void testSearchPagesDeduplicatedResults() {
+    var result = index.search(null, null, null, 1, 1);
+
+    assertEquals(3, result.getTotalResults());
+    assertEquals(List.of(20), projectIds(result));
+    assertTrue(index.search(null, null, null, 5, 10).getResults().isEmpty());
+  }
+
+  private static List<Integer> projectIds(final ProjectSearchIndex.SearchResult result) {
+    return result.getResults().stream().map(ProcurementEventSearch::getProjectId).toList();
+  }
+
+  private static ProcurementEventSearch doc(final String id, final Integer projectId,
+      final String name, final String description, final String lot, final String status) {
+    return ProcurementEventSearch.builder().id(id).projectId(projectId).projectName(name)
+        .description(description).lot(lot).status(status).build();
+  }
+}
@@ -0,0 +1,71 @@
+package uk.gov.crowncommercial.dts.scale.cat.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.poi.ss.usermodel.Row.MissingCellPolicy;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.odftoolkit.simple.SpreadsheetDocument;
+
+class SpreadsheetStreamWriterTest {
+
+  // Written as the opportunities CSV is, BOM first
+  private static final String CSV = "﻿ID,Opportunity,Organization Name,Budget range\r\n"
+      + "1,\"Cloud hosting, support and \"\"managed\"\" services\",Département de l'Éducation,\r\n"
+      + "2,Data platform,,£100k - £200k\r\n";
+
+  private static final List<List<String>> ROWS = List.of(
+      List.of("ID", "Opportunity", "Organization Name", "Budget range"),
+      List.of("1", "Cloud hosting, support and \"managed\" services", "Département de l'Éducation",
+          ""),
+      List.of("2", "Data platform", "", "£100k - £200k"));
+
+  @Test
+  void testXlsxRoundTrip() throws Exception {
+    var out = new ByteArrayOutputStream();
+    SpreadsheetStreamWriter.writeXlsx(csv(), out);
+
+    List<List<String>> rows = new ArrayList<>();
+    try (var workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+      var sheet = workbook.getSheet(SpreadsheetStreamWriter.SHEET_NAME);
+      for (var row : sheet) {
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < ROWS.get(0).size(); i++) {
+          values.add(row.getCell(i, MissingCellPolicy.CREATE_NULL_AS_BLANK).getStringCellValue());
+        }
+        rows.add(values);
+      }
+    }
+
+    assertEquals(ROWS, rows);
+  }
+
+  @Test
+  void testOdsRoundTrip() throws Exception {
+    var out = new ByteArrayOutputStream();
+    SpreadsheetStreamWriter.writeOds(csv(), out);
+
+    List<List<String>> rows = new ArrayList<>();
+    try (var document = SpreadsheetDocument.loadDocument(new ByteArrayInputStream(out.toByteArray()))) {
+      var table = document.getTableByName(SpreadsheetStreamWriter.SHEET_NAME);
+      for (int r = 0; r < table.getRowCount(); r++) {
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < ROWS.get(0).size(); i++) {
+          values.add(table.getCellByPosition(i, r).getStringValue());
+        }
+        rows.add(values);
+      }
+    }
+
+    assertEquals(ROWS, rows);
+  }
+
+  private static ByteArrayInputStream csv() throws IOException {
+    return new ByteArrayInputStream(CSV.getBytes(StandardCharsets.UTF_8));
+  }
+}